@@ -0,0 +1,155 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.Cursor;
+import androidx.room.Room;
+import androidx.room.migration.Migration;
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import java.io.IOException;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Runs the migrations on databases created from the exported schemas in app/schemas and
+ * validates the result against the exported schema of the target version.
+ * Room only exports the schema of the version it compiles, so the schema of every version has
+ * to be exported by building the commit which introduced it.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MigrationTest {
+
+  private static final String TEST_DB = "migration-test";
+  private static final int LATEST_VERSION = AppDatabase.VERSION;
+
+  @Rule
+  public MigrationTestHelper helper = new MigrationTestHelper(
+      InstrumentationRegistry.getInstrumentation(),
+      AppDatabase.class
+  );
+
+  @After
+  public void deleteDatabase() {
+    getContext().deleteDatabase(TEST_DB);
+  }
+
+  @Test
+  public void migrations_coverEveryVersion() {
+    assertEquals(
+        LATEST_VERSION - Migrations.FIRST_MIGRATABLE_VERSION,
+        Migrations.ALL.length
+    );
+    for (int i = 0; i < Migrations.ALL.length; i++) {
+      assertEquals(Migrations.FIRST_MIGRATABLE_VERSION + i, Migrations.ALL[i].startVersion);
+      assertEquals(Migrations.FIRST_MIGRATABLE_VERSION + i + 1, Migrations.ALL[i].endVersion);
+    }
+  }
+
+  @Test
+  public void migrate_everyStep() throws IOException {
+    for (Migration migration : Migrations.ALL) {
+      SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, migration.startVersion);
+      db.close();
+      helper.runMigrationsAndValidate(TEST_DB, migration.endVersion, true, migration).close();
+    }
+  }
+
+  @Test
+  public void migrate_firstToLatest_keepsData() throws IOException {
+    SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, Migrations.FIRST_MIGRATABLE_VERSION);
+    insertTestData(db);
+    db.close();
+
+    db = helper.runMigrationsAndValidate(TEST_DB, LATEST_VERSION, true, Migrations.ALL);
+    assertQueryResult(db, "SELECT value FROM userfield_value_table "
+        + "WHERE entity = 'products' AND object_id = 1 AND field = 'color'", "red");
+    assertQueryResult(db, "SELECT typed_value FROM userfield_value_table "
+        + "WHERE entity = 'products' AND object_id = 1 AND field = 'weight'", "2.5");
+    assertQueryResult(db, "SELECT COUNT(*) FROM userfield_value_table "
+        + "WHERE sort_key IS NULL", "0");
+    assertQueryResult(db, "SELECT value FROM userfield_value_table "
+        + "WHERE entity = 'recipes' AND object_id = 3 AND field = 'source'", "Grandma");
+    assertQueryResult(db, "SELECT name FROM product_table WHERE id = 1", "Apple");
+    assertQueryResult(db, "SELECT rowid FROM product_fts WHERE product_fts MATCH 'apple'", "1");
+    assertQueryResult(db, "SELECT rowid FROM recipe_fts WHERE recipe_fts MATCH 'pie'", "3");
+    assertQueryResult(db, "SELECT COUNT(*) FROM recipe_pos_resolved_table", "2");
+    assertQueryResult(db, "SELECT COUNT(*) FROM RecipeNestingResolved", "1");
+    assertQueryResult(db, "SELECT amount FROM stock_entry_table WHERE product_id = 1", "4.0");
+    db.close();
+  }
+
+  @Test
+  public void migrate_firstToLatest_opensWithRoom() throws IOException {
+    SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, Migrations.FIRST_MIGRATABLE_VERSION);
+    insertTestData(db);
+    db.close();
+
+    // validates against the schema generated from the entities and writes its identity hash
+    AppDatabase appDatabase = Room.databaseBuilder(getContext(), AppDatabase.class, TEST_DB)
+        .addMigrations(Migrations.ALL)
+        .build();
+    db = appDatabase.getOpenHelper().getWritableDatabase();
+    assertEquals(LATEST_VERSION, db.getVersion());
+    assertQueryResult(db, "SELECT name FROM product_table WHERE id = 1", "Apple");
+    appDatabase.close();
+  }
+
+  private static void insertTestData(SupportSQLiteDatabase db) {
+    db.execSQL("INSERT INTO product_table (id, name, userfields) "
+        + "VALUES (1, 'Apple', '{\"color\":\"red\",\"weight\":\"2.5\"}')");
+    db.execSQL("INSERT INTO product_table (id, name, userfields) VALUES (2, 'Pear', NULL)");
+    db.execSQL("INSERT INTO recipe_table (id, name, not_check_shoppinglist, userfields) "
+        + "VALUES (3, 'Apple pie', 0, '{\"source\":\"Grandma\"}')");
+    for (int id = 1; id <= 2; id++) {
+      db.execSQL("INSERT INTO recipe_pos_resolved_table (id, recipe_id, recipe_pos_id, "
+          + "product_id, recipe_amount, stock_amount, need_fulfilled, missing_amount, "
+          + "amount_on_shopping_list, need_fulfilled_with_shopping_list, qu_id, costs, "
+          + "is_nested_recipe_pos, child_recipe_id, only_check_single_unit_in_stock, calories, "
+          + "product_active, due_score, product_id_effective) "
+          + "VALUES (" + id + ", 3, " + id + ", " + id + ", 1, 1, 1, 0, 0, 1, 1, 0, 0, 0, 0, "
+          + "0, 1, 0, " + id + ")");
+    }
+    db.execSQL("INSERT INTO stock_entry_table (id, product_id, amount, open) VALUES (5, 1, 4, 0)");
+  }
+
+  private static void assertQueryResult(
+      SupportSQLiteDatabase db,
+      String query,
+      String expected
+  ) {
+    try (Cursor cursor = db.query(query)) {
+      assertTrue(query, cursor.moveToFirst());
+      assertEquals(query, expected, cursor.getString(0));
+    }
+  }
+
+  private static Context getContext() {
+    return InstrumentationRegistry.getInstrumentation().getTargetContext();
+  }
+}
@@ -97,6 +97,7 @@ public final class Constants {
     public final static String DB_LAST_TIME_QUANTITY_UNITS = "db_last_time_quantity_units";
     public final static String DB_LAST_TIME_QUANTITY_UNIT_CONVERSIONS = "db_last_time_quantity_unit_conversions";
     public final static String DB_LAST_TIME_QUANTITY_UNIT_CONVERSIONS_RESOLVED = "db_last_time_quantity_unit_conversions_resolved";
+    public final static String DB_LAST_TIME_QUANTITY_UNIT_CONVERSIONS_RESOLVED_LOCALLY = "db_last_time_quantity_unit_conversions_resolved_locally";
     public final static String DB_LAST_TIME_PRODUCTS = "db_last_time_products";
     public final static String DB_LAST_TIME_PRODUCTS_LAST_PURCHASED = "db_last_time_products_last_purchased";
     public final static String DB_LAST_TIME_PRODUCTS_AVERAGE_PRICE = "db_last_time_products_average_price";
@@ -116,8 +117,12 @@ public final class Constants {
     public final static String DB_LAST_TIME_USERFIELDS = "db_last_time_userfields";
     public final static String DB_LAST_TIME_MEAL_PLAN_ENTRIES = "db_last_time_meal_plan_entries";
     public final static String DB_LAST_TIME_MEAL_PLAN_SECTIONS = "db_last_time_meal_plan_sections";
-    // when adding new constant for DB, also add it to clearCachingRelatedSharedPreferences()
-    // in PrefsUtil
+    public final static String DB_SYNCED_MEAL_PLAN_WEEKS = "db_synced_meal_plan_weeks";
+    public final static String DB_SYNCED_RECIPE_POSITIONS_RESOLVED = "db_synced_recipe_positions_resolved";
+    public final static String DB_SYNCED_STOCK_ENTRIES_PRODUCTS = "db_synced_stock_entries_products";
+    // when adding new constant for DB, also add it to CACHING_RELATED_KEYS in PrefsUtil
+    public final static String SYNC_STATE_SCHEMA_VERSION = "sync_state_schema_version";
+    public final static String LEGACY_DATABASE_SERVER_URL = "legacy_database_server_url";
 
     public final static String QUICK_MODE_ACTIVE_CONSUME = "quick_mode_active_consume";
     public final static String QUICK_MODE_ACTIVE_PURCHASE = "quick_mode_active_purchase";
@@ -83,6 +83,8 @@ import xyz.zedler.patrick.grocy.databinding.ActivityMainBinding;
 import xyz.zedler.patrick.grocy.fragment.BaseFragment;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.FeedbackBottomSheet;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.helper.MasterDataCache;
+import xyz.zedler.patrick.grocy.helper.RecipePositionCache;
 import xyz.zedler.patrick.grocy.util.ClickUtil;
 import xyz.zedler.patrick.grocy.util.ConfigUtil;
 import xyz.zedler.patrick.grocy.util.HapticUtil;
@@ -274,6 +276,13 @@ public class MainActivity extends AppCompatActivity {
     }
   }
 
+  @Override
+  public void onTrimMemory(int level) {
+    super.onTrimMemory(level);
+    MasterDataCache.getInstance().trimMemory(level);
+    RecipePositionCache.getInstance().trimMemory(level);
+  }
+
   @Override
   protected void onDestroy() {
     if (networkReceiver != null) {
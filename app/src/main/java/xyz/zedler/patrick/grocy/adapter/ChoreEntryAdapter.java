@@ -124,7 +124,9 @@ public class ChoreEntryAdapter extends
     Integer days = null;
     boolean colorDays = false;
     if (date != null && !date.isEmpty() && !date.equals(DATE.NEVER_OVERDUE_WITH_TIME)) {
-      days = DateUtil.getDaysFromNow(date);
+      days = DateUtil.getDaysFromNowForMillis(
+          choreEntry.getNextEstimatedExecutionTimeMillis()
+      );
     }
 
     if (days != null) {
@@ -28,29 +28,30 @@ import android.widget.Filter;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import me.xdrop.fuzzywuzzy.FuzzySearch;
-import me.xdrop.fuzzywuzzy.model.ExtractedResult;
 import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.util.FuzzySearchIndex;
 
 public class MatchProductsArrayAdapter extends ArrayAdapter<Product> {
 
   final Context context;
   final int resource;
   final List<Product> items;
-  final HashMap<String, Product> tempItems;
+  final FuzzySearchIndex<Product> searchIndex;
 
   public MatchProductsArrayAdapter(Context context, int resource, List<Product> items) {
     super(context, resource, items);
     this.context = context;
     this.resource = resource;
     this.items = items;
-    tempItems = new HashMap<>(); // this makes the difference.
+    // copy of the items, the adapter list is replaced with the suggestions
+    ArrayList<Product> products = new ArrayList<>();
     for (Product product : items) {
-      if (product.getName() == null) continue;
-      tempItems.put(product.getName().toLowerCase(), product);
+      if (product.getName() != null) {
+        products.add(product);
+      }
     }
+    searchIndex = new FuzzySearchIndex<>(products, Product::getName);
   }
 
   @NonNull
@@ -93,16 +94,9 @@ public class MatchProductsArrayAdapter extends ArrayAdapter<Product> {
         return new FilterResults();
       }
 
-      // Initialize suggestion list with max. capacity; growing is expensive.
-      ArrayList<Product> suggestions = new ArrayList<>(tempItems.keySet().size());
-      List<ExtractedResult> results = FuzzySearch.extractSorted(
-          constraint.toString().toLowerCase(),
-          tempItems.keySet(),
-          50
+      ArrayList<Product> suggestions = new ArrayList<>(
+          searchIndex.search(constraint.toString(), 50)
       );
-      for (ExtractedResult result : results) {
-        suggestions.add(tempItems.get(result.getString()));
-      }
       FilterResults filterResults = new FilterResults();
       filterResults.values = suggestions;
       filterResults.count = suggestions.size();
@@ -58,6 +58,7 @@ import xyz.zedler.patrick.grocy.model.RecipeFulfillment;
 import xyz.zedler.patrick.grocy.model.StockItem;
 import xyz.zedler.patrick.grocy.model.Userfield;
 import xyz.zedler.patrick.grocy.util.ArrayUtil;
+import xyz.zedler.patrick.grocy.util.ChipPool;
 import xyz.zedler.patrick.grocy.util.ChipUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PictureUtil;
@@ -88,6 +89,7 @@ public class MealPlanEntryAdapter extends
   private final int maxDecimalPlacesAmount;
   private final int decimalPlacesPriceDisplay;
   private final String currency;
+  private final ChipPool chipPool;
 
   public MealPlanEntryAdapter(
       Context context,
@@ -119,6 +121,7 @@ public class MealPlanEntryAdapter extends
     this.grocyApi = grocyApi;
     this.grocyAuthHeaders = grocyAuthHeaders;
     this.groupedListItems = new ArrayList<>();
+    this.chipPool = new ChipPool();
   }
 
   static ArrayList<GroupedListItem> getGroupedListItems(
@@ -272,8 +275,8 @@ public class MealPlanEntryAdapter extends
     binding.picture.setVisibility(View.GONE);
     binding.picturePlaceholder.setVisibility(View.GONE);
     binding.flexboxLayout.setVisibility(View.GONE);
-    ChipUtil chipUtil = new ChipUtil(context);
-    binding.flexboxLayout.removeAllViews();
+    ChipUtil chipUtil = new ChipUtil(context, chipPool);
+    chipPool.recycleAll(binding.flexboxLayout);
 
     switch (entry.getType()) {
       case MealPlanEntry.TYPE_RECIPE: {
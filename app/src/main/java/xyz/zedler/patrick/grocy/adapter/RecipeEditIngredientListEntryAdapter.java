@@ -40,6 +40,7 @@ import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.databinding.RowRecipeEditListEntryBinding;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversionIndex;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.RecipePosition;
 import xyz.zedler.patrick.grocy.util.NumUtil;
@@ -56,7 +57,8 @@ public class RecipeEditIngredientListEntryAdapter extends
   private final ArrayList<RecipePosition> recipePositions;
   private final ArrayList<Product> products;
   private final HashMap<Integer, QuantityUnit> quantityUnitHashMap;
-  private final List<QuantityUnitConversionResolved> unitConversions;
+  private List<QuantityUnitConversionResolved> unitConversions;
+  private QuantityUnitConversionIndex unitConversionIndex;
   private final RecipeEditIngredientListEntryAdapterListener listener;
 
   private final PluralUtil pluralUtil;
@@ -73,6 +75,7 @@ public class RecipeEditIngredientListEntryAdapter extends
     this.products = new ArrayList<>();
     this.quantityUnitHashMap = new HashMap<>();
     this.unitConversions = new ArrayList<>();
+    this.unitConversionIndex = new QuantityUnitConversionIndex(unitConversions);
     this.listener = listener;
     this.pluralUtil = new PluralUtil(context);
     maxDecimalPlacesAmount = PreferenceManager.getDefaultSharedPreferences(context).getInt(
@@ -133,7 +136,7 @@ public class RecipeEditIngredientListEntryAdapter extends
       double amount = recipePosition.getAmount();
       if (!recipePosition.isOnlyCheckSingleUnitInStock()) {
         QuantityUnitConversionResolved conversionResolved = QuantityUnitConversionResolved
-            .findConversion(unitConversions, product.getId(), product.getQuIdStockInt(),
+            .findConversion(unitConversionIndex, product.getId(), product.getQuIdStockInt(),
                 recipePosition.getQuantityUnitId());
         if (conversionResolved != null) amount *= conversionResolved.getFactor();
       }
@@ -210,8 +213,8 @@ public class RecipeEditIngredientListEntryAdapter extends
     this.products.addAll(newProducts);
     this.quantityUnitHashMap.clear();
     this.quantityUnitHashMap.putAll(newQuantityUnitHashMap);
-    this.unitConversions.clear();
-    this.unitConversions.addAll(newUnitConversions);
+    this.unitConversions = new ArrayList<>(newUnitConversions);
+    this.unitConversionIndex = new QuantityUnitConversionIndex(unitConversions);
     diffResult.dispatchUpdatesTo(new AdapterListUpdateCallback(this, linearLayoutManager));
   }
 
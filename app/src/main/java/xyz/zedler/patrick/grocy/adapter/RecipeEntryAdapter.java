@@ -69,7 +69,7 @@ public class RecipeEntryAdapter extends
   private Context context;
   private final LayoutManager layoutManager;
   private final ArrayList<Recipe> recipes;
-  private final ArrayList<RecipeFulfillment> recipeFulfillments;
+  private final HashMap<Integer, RecipeFulfillment> recipeFulfillments;
   private final HashMap<String, Userfield> userfieldHashMap;
   private final RecipesItemAdapterListener listener;
   private final GrocyApi grocyApi;
@@ -89,7 +89,7 @@ public class RecipeEntryAdapter extends
     this.context = context;
     this.layoutManager = layoutManager;
     this.recipes = new ArrayList<>();
-    this.recipeFulfillments = new ArrayList<>();
+    this.recipeFulfillments = new HashMap<>();
     this.userfieldHashMap = new HashMap<>();
     this.listener = listener;
     this.grocyApi = new GrocyApi((Application) context.getApplicationContext());
@@ -162,9 +162,7 @@ public class RecipeEntryAdapter extends
     int position = viewHolder.getAbsoluteAdapterPosition();
 
     Recipe recipe = recipes.get(position);
-    RecipeFulfillment recipeFulfillment = RecipeFulfillment.getRecipeFulfillmentFromRecipeId(
-        recipeFulfillments, recipe.getId()
-    );
+    RecipeFulfillment recipeFulfillment = recipeFulfillments.get(recipe.getId());
 
     ViewGroup container;
     TextView title;
@@ -272,7 +270,7 @@ public class RecipeEntryAdapter extends
 
   public void updateData(
       ArrayList<Recipe> newList,
-      ArrayList<RecipeFulfillment> newRecipeFulfillments,
+      HashMap<Integer, RecipeFulfillment> newRecipeFulfillments,
       HashMap<String, Userfield> newUserfieldHashMap,
       String sortMode,
       boolean sortAscending,
@@ -302,7 +300,7 @@ public class RecipeEntryAdapter extends
     this.recipes.clear();
     this.recipes.addAll(newList);
     this.recipeFulfillments.clear();
-    this.recipeFulfillments.addAll(newRecipeFulfillments);
+    this.recipeFulfillments.putAll(newRecipeFulfillments);
     this.userfieldHashMap.clear();
     this.userfieldHashMap.putAll(newUserfieldHashMap);
     this.sortMode = sortMode;
@@ -325,8 +323,8 @@ public class RecipeEntryAdapter extends
 
     ArrayList<Recipe> oldItems;
     ArrayList<Recipe> newItems;
-    ArrayList<RecipeFulfillment> oldRecipeFulfillments;
-    ArrayList<RecipeFulfillment> newRecipeFulfillments;
+    HashMap<Integer, RecipeFulfillment> oldRecipeFulfillments;
+    HashMap<Integer, RecipeFulfillment> newRecipeFulfillments;
     HashMap<String, Userfield> oldUserfieldHashMap;
     HashMap<String, Userfield> newUserfieldHashMap;
     String sortModeOld;
@@ -339,8 +337,8 @@ public class RecipeEntryAdapter extends
     public DiffCallback(
         ArrayList<Recipe> oldItems,
         ArrayList<Recipe> newItems,
-        ArrayList<RecipeFulfillment> oldRecipeFulfillments,
-        ArrayList<RecipeFulfillment> newRecipeFulfillments,
+        HashMap<Integer, RecipeFulfillment> oldRecipeFulfillments,
+        HashMap<Integer, RecipeFulfillment> newRecipeFulfillments,
         HashMap<String, Userfield> oldUserfieldHashMap,
         HashMap<String, Userfield> newUserfieldHashMap,
         String sortModeOld,
@@ -398,8 +396,8 @@ public class RecipeEntryAdapter extends
         return false;
       }
 
-      RecipeFulfillment recipeFulfillmentOld = RecipeFulfillment.getRecipeFulfillmentFromRecipeId(oldRecipeFulfillments, oldItem.getId());
-      RecipeFulfillment recipeFulfillmentNew = RecipeFulfillment.getRecipeFulfillmentFromRecipeId(newRecipeFulfillments, newItem.getId());
+      RecipeFulfillment recipeFulfillmentOld = oldRecipeFulfillments.get(oldItem.getId());
+      RecipeFulfillment recipeFulfillmentNew = newRecipeFulfillments.get(newItem.getId());
       if (recipeFulfillmentOld == null && recipeFulfillmentNew != null
           || recipeFulfillmentOld != null && recipeFulfillmentNew == null
           || recipeFulfillmentOld != null && !recipeFulfillmentOld.equals(recipeFulfillmentNew)) {
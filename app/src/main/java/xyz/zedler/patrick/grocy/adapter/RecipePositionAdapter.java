@@ -44,6 +44,7 @@ import xyz.zedler.patrick.grocy.databinding.RowRecipePositionEntryBinding;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversionIndex;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.Recipe;
 import xyz.zedler.patrick.grocy.model.RecipePosition;
@@ -66,7 +67,7 @@ public class RecipePositionAdapter extends
   private final List<RecipePosition> recipePositions;
   private final List<Product> products;
   private final List<QuantityUnit> quantityUnits;
-  private final List<QuantityUnitConversionResolved> quantityUnitConversions;
+  private QuantityUnitConversionIndex quantityUnitConversionIndex;
   private final HashMap<Integer, StockItem> stockItemHashMap;
   private final List<ShoppingListItem> shoppingListItems;
   private final RecipePositionsItemAdapterListener listener;
@@ -97,7 +98,7 @@ public class RecipePositionAdapter extends
     this.recipePositions = new ArrayList<>(recipePositions);
     this.products = new ArrayList<>(products);
     this.quantityUnits = new ArrayList<>(quantityUnits);
-    this.quantityUnitConversions = new ArrayList<>(quantityUnitConversions);
+    this.quantityUnitConversionIndex = new QuantityUnitConversionIndex(quantityUnitConversions);
     this.stockItemHashMap = stockItemHashMap != null
         ? new HashMap<>(stockItemHashMap)
         : new HashMap<>();
@@ -151,7 +152,7 @@ public class RecipePositionAdapter extends
       Product product = Product.getProductFromId(products, recipePosition.getProductId());
       QuantityUnitConversion conversion = product != null
           ? QuantityUnitConversionResolved.findConversion(
-          quantityUnitConversions,
+          quantityUnitConversionIndex,
           product.getId(),
           product.getQuIdStockInt(),
           recipePosition.getQuantityUnitId()
@@ -192,7 +193,7 @@ public class RecipePositionAdapter extends
     );
     QuantityUnitConversion conversion = product != null
         ? QuantityUnitConversionResolved.findConversion(
-            quantityUnitConversions,
+            quantityUnitConversionIndex,
             product.getId(),
             product.getQuIdStockInt(),
             recipePosition.getQuantityUnitId()
@@ -333,6 +334,8 @@ public class RecipePositionAdapter extends
       List<ShoppingListItem> newShoppingListItems
   ) {
 
+    QuantityUnitConversionIndex newQuantityUnitConversionIndex
+        = new QuantityUnitConversionIndex(newQuantityUnitConversions);
     RecipePositionAdapter.DiffCallback diffCallback = new RecipePositionAdapter.DiffCallback(
         this.recipe,
         recipe,
@@ -342,8 +345,8 @@ public class RecipePositionAdapter extends
         newProducts,
         this.quantityUnits,
         newQuantityUnits,
-        this.quantityUnitConversions,
-        newQuantityUnitConversions,
+        this.quantityUnitConversionIndex,
+        newQuantityUnitConversionIndex,
         this.stockItemHashMap,
         newStockItemHashMap,
         this.shoppingListItems,
@@ -357,8 +360,7 @@ public class RecipePositionAdapter extends
     this.products.addAll(newProducts);
     this.quantityUnits.clear();
     this.quantityUnits.addAll(newQuantityUnits);
-    this.quantityUnitConversions.clear();
-    this.quantityUnitConversions.addAll(newQuantityUnitConversions);
+    this.quantityUnitConversionIndex = newQuantityUnitConversionIndex;
     this.stockItemHashMap.clear();
     this.stockItemHashMap.putAll(newStockItemHashMap);
     this.shoppingListItems.clear();
@@ -376,8 +378,8 @@ public class RecipePositionAdapter extends
     List<Product> newProducts;
     List<QuantityUnit> oldQuantityUnits;
     List<QuantityUnit> newQuantityUnits;
-    List<QuantityUnitConversionResolved> oldQuantityUnitConversions;
-    List<QuantityUnitConversionResolved> newQuantityUnitConversions;
+    QuantityUnitConversionIndex oldQuantityUnitConversionIndex;
+    QuantityUnitConversionIndex newQuantityUnitConversionIndex;
     HashMap<Integer, StockItem> oldStockItemHashMap;
     HashMap<Integer, StockItem> newStockItemHashMap;
     List<ShoppingListItem> oldShoppingListItems;
@@ -392,8 +394,8 @@ public class RecipePositionAdapter extends
         List<Product> newProducts,
         List<QuantityUnit> oldQuantityUnits,
         List<QuantityUnit> newQuantityUnits,
-        List<QuantityUnitConversionResolved> oldQuantityUnitConversions,
-        List<QuantityUnitConversionResolved> newQuantityUnitConversions,
+        QuantityUnitConversionIndex oldQuantityUnitConversionIndex,
+        QuantityUnitConversionIndex newQuantityUnitConversionIndex,
         HashMap<Integer, StockItem> oldStockItemHashMap,
         HashMap<Integer, StockItem> newStockItemHashMap,
         List<ShoppingListItem> oldShoppingListItems,
@@ -407,8 +409,8 @@ public class RecipePositionAdapter extends
       this.newProducts = newProducts;
       this.oldQuantityUnits = oldQuantityUnits;
       this.newQuantityUnits = newQuantityUnits;
-      this.oldQuantityUnitConversions = oldQuantityUnitConversions;
-      this.newQuantityUnitConversions = newQuantityUnitConversions;
+      this.oldQuantityUnitConversionIndex = oldQuantityUnitConversionIndex;
+      this.newQuantityUnitConversionIndex = newQuantityUnitConversionIndex;
       this.oldStockItemHashMap = oldStockItemHashMap;
       this.newStockItemHashMap = newStockItemHashMap;
       this.oldShoppingListItems = oldShoppingListItems;
@@ -451,14 +453,14 @@ public class RecipePositionAdapter extends
       );
       QuantityUnitConversion newQuantityUnitConversion = newItemProduct != null
           ? QuantityUnitConversionResolved.findConversion(
-              newQuantityUnitConversions,
+              newQuantityUnitConversionIndex,
               newItemProduct.getId(),
               newItemProduct.getQuIdStockInt(),
               newItem.getQuantityUnitId()
           ) : null;
       QuantityUnitConversion oldQuantityUnitConversion = oldItemProduct != null
           ? QuantityUnitConversionResolved.findConversion(
-              oldQuantityUnitConversions,
+              oldQuantityUnitConversionIndex,
               oldItemProduct.getId(),
               oldItemProduct.getQuIdStockInt(),
               oldItem.getQuantityUnitId()
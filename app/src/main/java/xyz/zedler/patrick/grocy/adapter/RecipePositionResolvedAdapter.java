@@ -50,6 +50,7 @@ import xyz.zedler.patrick.grocy.model.GroupedListItem;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversionIndex;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.Recipe;
 import xyz.zedler.patrick.grocy.model.RecipePositionResolved;
@@ -72,7 +73,7 @@ public class RecipePositionResolvedAdapter extends
   private final List<GroupedListItem> groupedListItems;
   private final List<Product> products;
   private final List<QuantityUnit> quantityUnits;
-  private final List<QuantityUnitConversionResolved> quantityUnitConversions;
+  private QuantityUnitConversionIndex quantityUnitConversionIndex;
   private final List<String> activeFields;
   private final RecipePositionsItemAdapterListener listener;
 
@@ -111,7 +112,7 @@ public class RecipePositionResolvedAdapter extends
     this.groupedListItems = getGroupedListItems(context, recipePositions);
     this.products = new ArrayList<>(products);
     this.quantityUnits = new ArrayList<>(quantityUnits);
-    this.quantityUnitConversions = new ArrayList<>(quantityUnitConversions);
+    this.quantityUnitConversionIndex = new QuantityUnitConversionIndex(quantityUnitConversions);
     this.activeFields = new ArrayList<>(activeFields);
     this.listener = listener;
     this.pluralUtil = new PluralUtil(context);
@@ -267,7 +268,7 @@ public class RecipePositionResolvedAdapter extends
     );
     QuantityUnitConversion conversion = product != null
         ? QuantityUnitConversionResolved.findConversion(
-            quantityUnitConversions,
+            quantityUnitConversionIndex,
             product.getId(),
             product.getQuIdStockInt(),
             recipePosition.getQuId()
@@ -446,6 +447,8 @@ public class RecipePositionResolvedAdapter extends
     List<GroupedListItem> groupedListItemsNew = getGroupedListItems(
         context, (ArrayList<RecipePositionResolved>) newList
     );
+    QuantityUnitConversionIndex newQuantityUnitConversionIndex
+        = new QuantityUnitConversionIndex(newQuantityUnitConversions);
     RecipePositionResolvedAdapter.DiffCallback diffCallback = new RecipePositionResolvedAdapter.DiffCallback(
         this.recipe,
         recipe,
@@ -455,8 +458,8 @@ public class RecipePositionResolvedAdapter extends
         newProducts,
         this.quantityUnits,
         newQuantityUnits,
-        this.quantityUnitConversions,
-        newQuantityUnitConversions,
+        this.quantityUnitConversionIndex,
+        newQuantityUnitConversionIndex,
         this.activeFields,
         newActiveFields
     );
@@ -468,8 +471,7 @@ public class RecipePositionResolvedAdapter extends
     this.products.addAll(newProducts);
     this.quantityUnits.clear();
     this.quantityUnits.addAll(newQuantityUnits);
-    this.quantityUnitConversions.clear();
-    this.quantityUnitConversions.addAll(newQuantityUnitConversions);
+    this.quantityUnitConversionIndex = newQuantityUnitConversionIndex;
     this.activeFields.clear();
     this.activeFields.addAll(newActiveFields);
     diffResult.dispatchUpdatesTo(new AdapterListUpdateCallback(this, linearLayoutManager));
@@ -485,8 +487,8 @@ public class RecipePositionResolvedAdapter extends
     List<Product> newProducts;
     List<QuantityUnit> oldQuantityUnits;
     List<QuantityUnit> newQuantityUnits;
-    List<QuantityUnitConversionResolved> oldQuantityUnitConversions;
-    List<QuantityUnitConversionResolved> newQuantityUnitConversions;
+    QuantityUnitConversionIndex oldQuantityUnitConversionIndex;
+    QuantityUnitConversionIndex newQuantityUnitConversionIndex;
     List<String> oldActiveFields;
     List<String> newActiveFields;
 
@@ -499,8 +501,8 @@ public class RecipePositionResolvedAdapter extends
         List<Product> newProducts,
         List<QuantityUnit> oldQuantityUnits,
         List<QuantityUnit> newQuantityUnits,
-        List<QuantityUnitConversionResolved> oldQuantityUnitConversions,
-        List<QuantityUnitConversionResolved> newQuantityUnitConversions,
+        QuantityUnitConversionIndex oldQuantityUnitConversionIndex,
+        QuantityUnitConversionIndex newQuantityUnitConversionIndex,
         List<String> oldActiveFields,
         List<String> newActiveFields
     ) {
@@ -512,8 +514,8 @@ public class RecipePositionResolvedAdapter extends
       this.newProducts = newProducts;
       this.oldQuantityUnits = oldQuantityUnits;
       this.newQuantityUnits = newQuantityUnits;
-      this.oldQuantityUnitConversions = oldQuantityUnitConversions;
-      this.newQuantityUnitConversions = newQuantityUnitConversions;
+      this.oldQuantityUnitConversionIndex = oldQuantityUnitConversionIndex;
+      this.newQuantityUnitConversionIndex = newQuantityUnitConversionIndex;
       this.oldActiveFields = oldActiveFields;
       this.newActiveFields = newActiveFields;
     }
@@ -566,14 +568,14 @@ public class RecipePositionResolvedAdapter extends
         );
         QuantityUnitConversion newQuantityUnitConversion = newItemProduct != null
             ? QuantityUnitConversionResolved.findConversion(
-            newQuantityUnitConversions,
+            newQuantityUnitConversionIndex,
             newItemProduct.getId(),
             newItemProduct.getQuIdStockInt(),
             newItem.getQuId()
         ) : null;
         QuantityUnitConversion oldQuantityUnitConversion = oldItemProduct != null
             ? QuantityUnitConversionResolved.findConversion(
-            oldQuantityUnitConversions,
+            oldQuantityUnitConversionIndex,
             oldItemProduct.getId(),
             oldItemProduct.getQuIdStockInt(),
             oldItem.getQuId()
@@ -39,6 +39,7 @@ import com.bumptech.glide.load.model.LazyHeaders;
 import com.google.android.material.chip.Chip;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import xyz.zedler.patrick.grocy.Constants.PREF;
@@ -49,6 +50,7 @@ import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.databinding.RowShoppingListBottomNotesBinding;
 import xyz.zedler.patrick.grocy.databinding.RowShoppingListGroupBinding;
 import xyz.zedler.patrick.grocy.databinding.RowShoppingListItemBinding;
+import xyz.zedler.patrick.grocy.helper.AsyncDiffer;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataGroupingShoppingList;
 import xyz.zedler.patrick.grocy.model.GroupHeader;
 import xyz.zedler.patrick.grocy.model.GroupedListItem;
@@ -56,11 +58,13 @@ import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductGroup;
 import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversionIndex;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.ShoppingListBottomNotes;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.Store;
 import xyz.zedler.patrick.grocy.util.ArrayUtil;
+import xyz.zedler.patrick.grocy.util.ChipPool;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PictureUtil;
 import xyz.zedler.patrick.grocy.util.PluralUtil;
@@ -76,19 +80,21 @@ public class ShoppingListItemAdapter extends
 
   private final static String TAG = ShoppingListItemAdapter.class.getSimpleName();
 
-  private final ArrayList<GroupedListItem> groupedListItems;
-  private final HashMap<Integer, Product> productHashMap;
-  private final HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
-  private final HashMap<Integer, QuantityUnit> quantityUnitHashMap;
-  private final List<QuantityUnitConversionResolved> unitConversions;
-  private final HashMap<Integer, Double> shoppingListItemAmountsHashMap;
-  private final ArrayList<Integer> missingProductIds;
+  private ArrayList<GroupedListItem> groupedListItems;
+  private HashMap<Integer, Product> productHashMap;
+  private HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
+  private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
+  private QuantityUnitConversionIndex unitConversionIndex;
+  private HashMap<Integer, Double> shoppingListItemAmountsHashMap;
+  private ArrayList<Integer> missingProductIds;
   private final ShoppingListItemAdapterListener listener;
   private final GrocyApi grocyApi;
   private final LazyHeaders grocyAuthHeaders;
   private final PluralUtil pluralUtil;
+  private final AsyncDiffer<GroupedListItem> differ;
+  private final ChipPool chipPool;
   private String groupingMode;
-  private final List<String> activeFields;
+  private List<String> activeFields;
   private final int maxDecimalPlacesAmount;
   private final int decimalPlacesPriceDisplay;
   private final String currency;
@@ -113,7 +119,7 @@ public class ShoppingListItemAdapter extends
     this.productHashMap = new HashMap<>();
     this.productLastPurchasedHashMap = new HashMap<>();
     this.quantityUnitHashMap = new HashMap<>();
-    this.unitConversions = new ArrayList<>();
+    this.unitConversionIndex = new QuantityUnitConversionIndex(new ArrayList<>());
     this.shoppingListItemAmountsHashMap = new HashMap<>();
     this.missingProductIds = new ArrayList<>();
     this.listener = listener;
@@ -122,6 +128,8 @@ public class ShoppingListItemAdapter extends
     this.pluralUtil = new PluralUtil(context);
     this.activeFields = new ArrayList<>();
     this.groupedListItems = new ArrayList<>();
+    this.differ = new AsyncDiffer<>();
+    this.chipPool = new ChipPool();
   }
 
   static ArrayList<GroupedListItem> getGroupedListItems(
@@ -434,7 +442,7 @@ public class ShoppingListItemAdapter extends
       binding.noteAsName.setText(null);
     }
 
-    binding.flexboxLayout.removeAllViews();
+    chipPool.recycleAll(binding.flexboxLayout);
 
     // AMOUNT
 
@@ -468,7 +476,7 @@ public class ShoppingListItemAdapter extends
       } else {
         stringBuilderAmount.append(NumUtil.trimAmount(item.getAmountDouble(), maxDecimalPlacesAmount));
       }
-      Chip chipAmount = createChip(context, stringBuilderAmount.toString());
+      Chip chipAmount = createChip(chipPool, context, stringBuilderAmount.toString());
       if (item.hasProduct() && missingProductIds.contains(item.getProductIdInt())) {
         chipAmount.setTextColor(ResUtil.getColor(context, R.attr.colorOnCustomBlueContainer));
         chipAmount.setChipBackgroundColor(ColorStateList.valueOf(
@@ -537,7 +545,7 @@ public class ShoppingListItemAdapter extends
     if ((activeFields.contains(ShoppingListViewModel.FIELD_PRICE_LAST_TOTAL)
         || activeFields.contains(ShoppingListViewModel.FIELD_PRICE_LAST_UNIT)) && product != null) {
       QuantityUnitConversionResolved c = QuantityUnitConversionResolved.findConversion(
-          unitConversions,
+          unitConversionIndex,
           product.getId(),
           item.getQuIdInt(),
           product.getQuIdStockInt()
@@ -555,7 +563,7 @@ public class ShoppingListItemAdapter extends
             ? NumUtil.trimPrice(NumUtil.toDouble(p.getPrice()) * amount,
             decimalPlacesPriceDisplay)
             : p.getPrice();
-        Chip chipValue = createChip(context, context.getString(
+        Chip chipValue = createChip(chipPool, context, context.getString(
             R.string.property_insert_total,
             context.getString(R.string.property_price_with_currency, price, currency)
         ));
@@ -570,7 +578,7 @@ public class ShoppingListItemAdapter extends
             ? NumUtil.trimPrice(NumUtil.toDouble(p.getPrice()) * conversionFactor,
             decimalPlacesPriceDisplay)
             : p.getPrice();
-        Chip chipValue = createChip(context, context.getString(
+        Chip chipValue = createChip(chipPool, context, context.getString(
             R.string.property_insert_per_unit,
             context.getString(R.string.property_price_with_currency, price, currency)
         ));
@@ -607,12 +615,8 @@ public class ShoppingListItemAdapter extends
 
   }
 
-  private static Chip createChip(Context ctx, String text) {
-    @SuppressLint("InflateParams")
-    Chip chip = (Chip) LayoutInflater.from(ctx).inflate(
-        R.layout.view_info_chip, null, false
-    );
-    chip.setText(text);
+  private static Chip createChip(ChipPool chipPool, Context ctx, String text) {
+    Chip chip = chipPool.obtain(ctx, text);
     chip.setEnabled(false);
     chip.setClickable(false);
     chip.setFocusable(false);
@@ -624,6 +628,12 @@ public class ShoppingListItemAdapter extends
     return groupedListItems.size();
   }
 
+  @Override
+  public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+    super.onDetachedFromRecyclerView(recyclerView);
+    differ.cancel();
+  }
+
   public GroupedListItem getGroupedListItemForPos(int position) {
     if (groupedListItems == null || position < 0
         || position >= groupedListItems.size()) {
@@ -711,7 +721,7 @@ public class ShoppingListItemAdapter extends
     }
 
     binding.flexboxLayout.removeAllViews();
-    Chip chipAmount = createChip(context, stringBuilderAmount.toString());
+    Chip chipAmount = createChip(new ChipPool(), context, stringBuilderAmount.toString());
     if (item.isUndone()) {
       chipAmount.setPaintFlags(chipAmount.getPaintFlags() & (~Paint.STRIKE_THRU_TEXT_FLAG));
       chipAmount.setAlpha(1);
@@ -777,54 +787,74 @@ public class ShoppingListItemAdapter extends
       List<String> activeFields,
       Runnable onListFilled
   ) {
-    ArrayList<GroupedListItem> newGroupedListItems = getGroupedListItems(context, shoppingListItems,
-        productGroupHashMap, productHashMap, productNamesHashMap, storeHashMap,
-        productLastPurchasedHashMap, shoppingListItemAmountsHashMap,
-        shoppingListNotes, groupingMode, priceTrackingEnabled, decimalPlacesPriceDisplay, currency);
-    ShoppingListItemAdapter.DiffCallback diffCallback = new ShoppingListItemAdapter.DiffCallback(
-        this.groupedListItems,
-        newGroupedListItems,
-        this.productHashMap,
-        productHashMap,
-        this.productLastPurchasedHashMap,
-        productLastPurchasedHashMap,
-        this.quantityUnitHashMap,
-        quantityUnitHashMap,
-        this.unitConversions,
-        unitConversions,
-        this.shoppingListItemAmountsHashMap,
-        shoppingListItemAmountsHashMap,
-        this.missingProductIds,
-        missingProductIds,
-        this.groupingMode,
-        groupingMode,
-        this.activeFields,
-        activeFields
-    );
+    // copies, they are read on the diff thread and become the data of this adapter
+    ArrayList<ShoppingListItem> items = new ArrayList<>(shoppingListItems);
+    HashMap<Integer, Product> newProductHashMap = new HashMap<>(productHashMap);
+    HashMap<Integer, ProductLastPurchased> newProductLastPurchasedHashMap
+        = new HashMap<>(productLastPurchasedHashMap);
+    HashMap<Integer, QuantityUnit> newQuantityUnitHashMap = new HashMap<>(quantityUnitHashMap);
+    QuantityUnitConversionIndex newUnitConversionIndex
+        = new QuantityUnitConversionIndex(unitConversions);
+    HashMap<Integer, Double> newShoppingListItemAmountsHashMap
+        = new HashMap<>(shoppingListItemAmountsHashMap);
+    ArrayList<Integer> newMissingProductIds = new ArrayList<>(missingProductIds);
+    List<String> newActiveFields = new ArrayList<>(activeFields);
+    ArrayList<GroupedListItem> oldGroupedListItems = this.groupedListItems;
+    HashMap<Integer, Product> oldProductHashMap = this.productHashMap;
+    HashMap<Integer, ProductLastPurchased> oldProductLastPurchasedHashMap
+        = this.productLastPurchasedHashMap;
+    HashMap<Integer, QuantityUnit> oldQuantityUnitHashMap = this.quantityUnitHashMap;
+    QuantityUnitConversionIndex oldUnitConversionIndex = this.unitConversionIndex;
+    HashMap<Integer, Double> oldShoppingListItemAmountsHashMap
+        = this.shoppingListItemAmountsHashMap;
+    ArrayList<Integer> oldMissingProductIds = this.missingProductIds;
+    String oldGroupingMode = this.groupingMode;
+    List<String> oldActiveFields = this.activeFields;
+
+    differ.submit(
+        () -> getGroupedListItems(context, items,
+            productGroupHashMap, newProductHashMap, productNamesHashMap, storeHashMap,
+            newProductLastPurchasedHashMap, newShoppingListItemAmountsHashMap,
+            shoppingListNotes, groupingMode, priceTrackingEnabled, decimalPlacesPriceDisplay,
+            currency),
+        newGroupedListItems -> new ShoppingListItemAdapter.DiffCallback(
+            oldGroupedListItems,
+            newGroupedListItems,
+            oldProductHashMap,
+            newProductHashMap,
+            oldProductLastPurchasedHashMap,
+            newProductLastPurchasedHashMap,
+            oldQuantityUnitHashMap,
+            newQuantityUnitHashMap,
+            oldUnitConversionIndex,
+            newUnitConversionIndex,
+            oldShoppingListItemAmountsHashMap,
+            newShoppingListItemAmountsHashMap,
+            oldMissingProductIds,
+            newMissingProductIds,
+            oldGroupingMode,
+            groupingMode,
+            oldActiveFields,
+            newActiveFields
+        ),
+        (newGroupedListItems, diffResult) -> {
+          if (onListFilled != null && !newGroupedListItems.isEmpty()
+              && groupedListItems.isEmpty()) {
+            onListFilled.run();
+          }
 
-    if (onListFilled != null && !newGroupedListItems.isEmpty() && groupedListItems.isEmpty()) {
-      onListFilled.run();
-    }
-
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.groupedListItems.clear();
-    this.groupedListItems.addAll(newGroupedListItems);
-    this.productHashMap.clear();
-    this.productHashMap.putAll(productHashMap);
-    this.quantityUnitHashMap.clear();
-    this.quantityUnitHashMap.putAll(quantityUnitHashMap);
-    this.unitConversions.clear();
-    this.unitConversions.addAll(unitConversions);
-    this.productLastPurchasedHashMap.clear();
-    this.productLastPurchasedHashMap.putAll(productLastPurchasedHashMap);
-    this.shoppingListItemAmountsHashMap.clear();
-    this.shoppingListItemAmountsHashMap.putAll(shoppingListItemAmountsHashMap);
-    this.missingProductIds.clear();
-    this.missingProductIds.addAll(missingProductIds);
-    this.groupingMode = groupingMode;
-    this.activeFields.clear();
-    this.activeFields.addAll(activeFields);
-    diffResult.dispatchUpdatesTo(this);
+          this.groupedListItems = newGroupedListItems;
+          this.productHashMap = newProductHashMap;
+          this.quantityUnitHashMap = newQuantityUnitHashMap;
+          this.unitConversionIndex = newUnitConversionIndex;
+          this.productLastPurchasedHashMap = newProductLastPurchasedHashMap;
+          this.shoppingListItemAmountsHashMap = newShoppingListItemAmountsHashMap;
+          this.missingProductIds = newMissingProductIds;
+          this.groupingMode = groupingMode;
+          this.activeFields = newActiveFields;
+          diffResult.dispatchUpdatesTo(this);
+        }
+    );
   }
 
   static class DiffCallback extends DiffUtil.Callback {
@@ -837,16 +867,17 @@ public class ShoppingListItemAdapter extends
     HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMapNew;
     HashMap<Integer, QuantityUnit> quantityUnitHashMapOld;
     HashMap<Integer, QuantityUnit> quantityUnitHashMapNew;
-    List<QuantityUnitConversionResolved> unitConversionsOld;
-    List<QuantityUnitConversionResolved> unitConversionsNew;
+    QuantityUnitConversionIndex unitConversionIndexOld;
+    QuantityUnitConversionIndex unitConversionIndexNew;
     HashMap<Integer, Double> shoppingListItemAmountsHashMapOld;
     HashMap<Integer, Double> shoppingListItemAmountsHashMapNew;
-    ArrayList<Integer> missingProductIdsOld;
-    ArrayList<Integer> missingProductIdsNew;
+    HashSet<Integer> missingProductIdsOld;
+    HashSet<Integer> missingProductIdsNew;
     String groupingModeOld;
     String groupingModeNew;
     List<String> activeFieldsOld;
     List<String> activeFieldsNew;
+    boolean activeFieldsChanged;
 
     public DiffCallback(
         ArrayList<GroupedListItem> oldItems,
@@ -857,8 +888,8 @@ public class ShoppingListItemAdapter extends
         HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMapNew,
         HashMap<Integer, QuantityUnit> quantityUnitHashMapOld,
         HashMap<Integer, QuantityUnit> quantityUnitHashMapNew,
-        List<QuantityUnitConversionResolved> unitConversionsOld,
-        List<QuantityUnitConversionResolved> unitConversionsNew,
+        QuantityUnitConversionIndex unitConversionIndexOld,
+        QuantityUnitConversionIndex unitConversionIndexNew,
         HashMap<Integer, Double> shoppingListItemAmountsHashMapOld,
         HashMap<Integer, Double> shoppingListItemAmountsHashMapNew,
         ArrayList<Integer> missingProductIdsOld,
@@ -876,16 +907,20 @@ public class ShoppingListItemAdapter extends
       this.productLastPurchasedHashMapNew = productLastPurchasedHashMapNew;
       this.quantityUnitHashMapOld = quantityUnitHashMapOld;
       this.quantityUnitHashMapNew = quantityUnitHashMapNew;
-      this.unitConversionsOld = unitConversionsOld;
-      this.unitConversionsNew = unitConversionsNew;
+      this.unitConversionIndexOld = unitConversionIndexOld;
+      this.unitConversionIndexNew = unitConversionIndexNew;
       this.shoppingListItemAmountsHashMapOld = shoppingListItemAmountsHashMapOld;
       this.shoppingListItemAmountsHashMapNew = shoppingListItemAmountsHashMapNew;
-      this.missingProductIdsOld = missingProductIdsOld;
-      this.missingProductIdsNew = missingProductIdsNew;
+      // compared once here instead of for every pair of items
+      this.missingProductIdsOld = new HashSet<>(missingProductIdsOld);
+      this.missingProductIdsNew = new HashSet<>(missingProductIdsNew);
       this.groupingModeOld = groupingModeOld;
       this.groupingModeNew = groupingModeNew;
       this.activeFieldsOld = activeFieldsOld;
       this.activeFieldsNew = activeFieldsNew;
+      this.activeFieldsChanged = !ArrayUtil.areListsEqualIgnoreOrder(
+          activeFieldsOld, activeFieldsNew
+      );
     }
 
     @Override
@@ -926,7 +961,7 @@ public class ShoppingListItemAdapter extends
         if (!compareContent) {
           return newItem.getId() == oldItem.getId();
         }
-        if (!ArrayUtil.areListsEqualIgnoreOrder(activeFieldsOld, activeFieldsNew)) {
+        if (activeFieldsChanged) {
           return false;
         }
 
@@ -969,13 +1004,13 @@ public class ShoppingListItemAdapter extends
 
           if (productOld != null && productNew != null) {
             QuantityUnitConversionResolved oldCon = QuantityUnitConversionResolved.findConversion(
-                unitConversionsOld,
+                unitConversionIndexOld,
                 productOld.getId(),
                 oldItem.getQuIdInt(),
                 productOld.getQuIdStockInt()
             );
             QuantityUnitConversionResolved newCon = QuantityUnitConversionResolved.findConversion(
-                unitConversionsNew,
+                unitConversionIndexNew,
                 productNew.getId(),
                 newItem.getQuIdInt(),
                 productNew.getQuIdStockInt()
@@ -53,6 +53,7 @@ import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.databinding.RowShoppingModeBottomNotesBinding;
 import xyz.zedler.patrick.grocy.databinding.RowShoppingModeGroupBinding;
 import xyz.zedler.patrick.grocy.databinding.RowShoppingModeItemBinding;
+import xyz.zedler.patrick.grocy.helper.AsyncDiffer;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataGroupingShoppingList;
 import xyz.zedler.patrick.grocy.model.GroupHeader;
 import xyz.zedler.patrick.grocy.model.GroupedListItem;
@@ -60,10 +61,12 @@ import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductGroup;
 import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversionIndex;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.ShoppingListBottomNotes;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.Store;
+import xyz.zedler.patrick.grocy.util.ChipPool;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PictureUtil;
 import xyz.zedler.patrick.grocy.util.PluralUtil;
@@ -80,21 +83,23 @@ public class ShoppingModeItemAdapter extends
 
   private final Context context;
   private final LinearLayoutManager linearLayoutManager;
-  private final ArrayList<GroupedListItem> groupedListItems;
-  private final HashMap<Integer, Product> productHashMap;
-  private final HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
-  private final HashMap<Integer, QuantityUnit> quantityUnitHashMap;
-  private final List<QuantityUnitConversionResolved> unitConversions;
-  private final HashMap<Integer, Double> shoppingListItemAmountsHashMap;
-  private final ArrayList<Integer> missingProductIds;
+  private ArrayList<GroupedListItem> groupedListItems;
+  private HashMap<Integer, Product> productHashMap;
+  private HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
+  private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
+  private QuantityUnitConversionIndex unitConversionIndex;
+  private HashMap<Integer, Double> shoppingListItemAmountsHashMap;
+  private ArrayList<Integer> missingProductIds;
   private final ShoppingModeItemClickListener listener;
   private final GrocyApi grocyApi;
   private final LazyHeaders grocyAuthHeaders;
   private final PluralUtil pluralUtil;
+  private final AsyncDiffer<GroupedListItem> differ;
+  private final ChipPool chipPool;
   private String groupingMode;
   private final boolean useSmallerFonts;
   private final boolean showDoneItems;
-  private final List<String> activeFields;
+  private List<String> activeFields;
   private final int maxDecimalPlacesAmount;
   private final int decimalPlacesPriceDisplay;
   private final String currency;
@@ -111,7 +116,7 @@ public class ShoppingModeItemAdapter extends
     this.productHashMap = new HashMap<>();
     this.productLastPurchasedHashMap = new HashMap<>();
     this.quantityUnitHashMap = new HashMap<>();
-    this.unitConversions = new ArrayList<>();
+    this.unitConversionIndex = new QuantityUnitConversionIndex(new ArrayList<>());
     this.shoppingListItemAmountsHashMap = new HashMap<>();
     this.missingProductIds = new ArrayList<>();
     this.activeFields = new ArrayList<>();
@@ -139,6 +144,8 @@ public class ShoppingModeItemAdapter extends
         .getBoolean(PREF.FEATURE_STOCK_PRICE_TRACKING, true);
     this.pluralUtil = new PluralUtil(context);
     this.groupedListItems = new ArrayList<>();
+    this.differ = new AsyncDiffer<>();
+    this.chipPool = new ChipPool();
   }
 
   static ArrayList<GroupedListItem> getGroupedListItems(
@@ -400,7 +407,7 @@ public class ShoppingModeItemAdapter extends
       binding.noteAsName.setText(null);
     }
 
-    binding.flexboxLayout.removeAllViews();
+    chipPool.recycleAll(binding.flexboxLayout);
 
     // AMOUNT
 
@@ -533,7 +540,7 @@ public class ShoppingModeItemAdapter extends
     if ((activeFields.contains(ShoppingModeViewModel.FIELD_PRICE_LAST_TOTAL)
         || activeFields.contains(ShoppingModeViewModel.FIELD_PRICE_LAST_UNIT)) && product != null) {
       QuantityUnitConversionResolved c = QuantityUnitConversionResolved.findConversion(
-          unitConversions,
+          unitConversionIndex,
           product.getId(),
           item.getQuIdInt(),
           product.getQuIdStockInt()
@@ -584,11 +591,7 @@ public class ShoppingModeItemAdapter extends
   }
 
   private Chip createChip(Context ctx, String text) {
-    @SuppressLint("InflateParams")
-    Chip chip = (Chip) LayoutInflater.from(ctx).inflate(
-        R.layout.view_info_chip, null, false
-    );
-    chip.setText(text);
+    Chip chip = chipPool.obtain(ctx, text);
     chip.setEnabled(false);
     chip.setClickable(false);
     chip.setFocusable(false);
@@ -618,56 +621,75 @@ public class ShoppingModeItemAdapter extends
       List<String> activeFields,
       Runnable onListFilled
   ) {
-    ArrayList<GroupedListItem> newGroupedListItems = getGroupedListItems(
-        context, shoppingListItems,
-        productGroupHashMap, productHashMap, productNamesHashMap, storeHashMap,
-        productLastPurchasedHashMap, shoppingListItemAmountsHashMap,
-        shoppingListNotes, groupingMode, priceTrackingEnabled, decimalPlacesPriceDisplay,
-        currency, showDoneItems);
-    ShoppingListItemAdapter.DiffCallback diffCallback = new ShoppingListItemAdapter.DiffCallback(
-        this.groupedListItems,
-        newGroupedListItems,
-        this.productHashMap,
-        productHashMap,
-        this.productLastPurchasedHashMap,
-        productLastPurchasedHashMap,
-        this.quantityUnitHashMap,
-        quantityUnitHashMap,
-        this.unitConversions,
-        unitConversions,
-        this.shoppingListItemAmountsHashMap,
-        shoppingListItemAmountsHashMap,
-        this.missingProductIds,
-        missingProductIds,
-        this.groupingMode,
-        groupingMode,
-        this.activeFields,
-        activeFields
+    // copies, they are read on the diff thread and become the data of this adapter
+    ArrayList<ShoppingListItem> items = new ArrayList<>(shoppingListItems);
+    HashMap<Integer, Product> newProductHashMap = new HashMap<>(productHashMap);
+    HashMap<Integer, ProductLastPurchased> newProductLastPurchasedHashMap
+        = new HashMap<>(productLastPurchasedHashMap);
+    HashMap<Integer, QuantityUnit> newQuantityUnitHashMap = new HashMap<>(quantityUnitHashMap);
+    QuantityUnitConversionIndex newUnitConversionIndex
+        = new QuantityUnitConversionIndex(unitConversions);
+    HashMap<Integer, Double> newShoppingListItemAmountsHashMap
+        = new HashMap<>(shoppingListItemAmountsHashMap);
+    ArrayList<Integer> newMissingProductIds = new ArrayList<>(missingProductIds);
+    List<String> newActiveFields = new ArrayList<>(activeFields);
+    ArrayList<GroupedListItem> oldGroupedListItems = this.groupedListItems;
+    HashMap<Integer, Product> oldProductHashMap = this.productHashMap;
+    HashMap<Integer, ProductLastPurchased> oldProductLastPurchasedHashMap
+        = this.productLastPurchasedHashMap;
+    HashMap<Integer, QuantityUnit> oldQuantityUnitHashMap = this.quantityUnitHashMap;
+    QuantityUnitConversionIndex oldUnitConversionIndex = this.unitConversionIndex;
+    HashMap<Integer, Double> oldShoppingListItemAmountsHashMap
+        = this.shoppingListItemAmountsHashMap;
+    ArrayList<Integer> oldMissingProductIds = this.missingProductIds;
+    String oldGroupingMode = this.groupingMode;
+    List<String> oldActiveFields = this.activeFields;
+
+    differ.submit(
+        () -> getGroupedListItems(
+            context, items,
+            productGroupHashMap, newProductHashMap, productNamesHashMap, storeHashMap,
+            newProductLastPurchasedHashMap, newShoppingListItemAmountsHashMap,
+            shoppingListNotes, groupingMode, priceTrackingEnabled, decimalPlacesPriceDisplay,
+            currency, showDoneItems),
+        newGroupedListItems -> new ShoppingListItemAdapter.DiffCallback(
+            oldGroupedListItems,
+            newGroupedListItems,
+            oldProductHashMap,
+            newProductHashMap,
+            oldProductLastPurchasedHashMap,
+            newProductLastPurchasedHashMap,
+            oldQuantityUnitHashMap,
+            newQuantityUnitHashMap,
+            oldUnitConversionIndex,
+            newUnitConversionIndex,
+            oldShoppingListItemAmountsHashMap,
+            newShoppingListItemAmountsHashMap,
+            oldMissingProductIds,
+            newMissingProductIds,
+            oldGroupingMode,
+            groupingMode,
+            oldActiveFields,
+            newActiveFields
+        ),
+        (newGroupedListItems, diffResult) -> {
+          if (onListFilled != null && !newGroupedListItems.isEmpty()
+              && groupedListItems.isEmpty()) {
+            onListFilled.run();
+          }
+
+          this.groupedListItems = newGroupedListItems;
+          this.productHashMap = newProductHashMap;
+          this.quantityUnitHashMap = newQuantityUnitHashMap;
+          this.unitConversionIndex = newUnitConversionIndex;
+          this.productLastPurchasedHashMap = newProductLastPurchasedHashMap;
+          this.shoppingListItemAmountsHashMap = newShoppingListItemAmountsHashMap;
+          this.missingProductIds = newMissingProductIds;
+          this.groupingMode = groupingMode;
+          this.activeFields = newActiveFields;
+          diffResult.dispatchUpdatesTo(new AdapterListUpdateCallback(this, linearLayoutManager));
+        }
     );
-
-    if (onListFilled != null && !newGroupedListItems.isEmpty() && groupedListItems.isEmpty()) {
-      onListFilled.run();
-    }
-
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.groupedListItems.clear();
-    this.groupedListItems.addAll(newGroupedListItems);
-    this.productHashMap.clear();
-    this.productHashMap.putAll(productHashMap);
-    this.quantityUnitHashMap.clear();
-    this.quantityUnitHashMap.putAll(quantityUnitHashMap);
-    this.unitConversions.clear();
-    this.unitConversions.addAll(unitConversions);
-    this.productLastPurchasedHashMap.clear();
-    this.productLastPurchasedHashMap.putAll(productLastPurchasedHashMap);
-    this.shoppingListItemAmountsHashMap.clear();
-    this.shoppingListItemAmountsHashMap.putAll(shoppingListItemAmountsHashMap);
-    this.missingProductIds.clear();
-    this.missingProductIds.addAll(missingProductIds);
-    this.groupingMode = groupingMode;
-    this.activeFields.clear();
-    this.activeFields.addAll(activeFields);
-    diffResult.dispatchUpdatesTo(new AdapterListUpdateCallback(this, linearLayoutManager));
   }
 
   @Override
@@ -675,6 +697,12 @@ public class ShoppingModeItemAdapter extends
     return groupedListItems.size();
   }
 
+  @Override
+  public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+    super.onDetachedFromRecyclerView(recyclerView);
+    differ.cancel();
+  }
+
   public interface ShoppingModeItemClickListener {
 
     void onItemRowClicked(GroupedListItem groupedListItem);
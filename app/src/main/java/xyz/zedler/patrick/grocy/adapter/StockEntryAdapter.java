@@ -302,8 +302,8 @@ public class StockEntryAdapter extends
     // BEST BEFORE
 
     String date = stockEntry.getBestBeforeDate();
-    int daysInt = DateUtil.getDaysFromNow(date);
-    String days = date != null ? String.valueOf(DateUtil.getDaysFromNow(date)) : null;
+    int daysInt = DateUtil.getDaysFromNow(stockEntry.getBestBeforeDateEpochDay());
+    String days = date != null ? String.valueOf(daysInt) : null;
     boolean colorDays = false;
 
     if (!showDateTracking) {
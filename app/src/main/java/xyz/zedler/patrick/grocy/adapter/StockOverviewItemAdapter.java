@@ -28,6 +28,7 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.preference.PreferenceManager;
 import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
@@ -35,7 +36,10 @@ import com.bumptech.glide.load.model.LazyHeaders;
 import com.google.android.material.chip.Chip;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS.STOCK;
@@ -44,19 +48,21 @@ import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.databinding.RowShoppingListGroupBinding;
 import xyz.zedler.patrick.grocy.databinding.RowStockItemBinding;
+import xyz.zedler.patrick.grocy.helper.AsyncDiffer;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataGroupingStock;
 import xyz.zedler.patrick.grocy.model.GroupHeader;
 import xyz.zedler.patrick.grocy.model.GroupedListItem;
 import xyz.zedler.patrick.grocy.model.Location;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductGroup;
-import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
-import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.StockItem;
+import xyz.zedler.patrick.grocy.model.StockItemDetails;
+import xyz.zedler.patrick.grocy.model.StockItemRow;
 import xyz.zedler.patrick.grocy.model.Userfield;
 import xyz.zedler.patrick.grocy.util.AmountUtil;
 import xyz.zedler.patrick.grocy.util.ArrayUtil;
+import xyz.zedler.patrick.grocy.util.ChipPool;
 import xyz.zedler.patrick.grocy.util.DateUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PictureUtil;
@@ -71,15 +77,16 @@ public class StockOverviewItemAdapter extends
 
   private final static String TAG = StockOverviewItemAdapter.class.getSimpleName();
 
-  private final ArrayList<GroupedListItem> groupedListItems;
-  private final ArrayList<String> shoppingListItemsProductIds;
-  private final HashMap<Integer, QuantityUnit> quantityUnitHashMap;
-  private final List<QuantityUnitConversionResolved> quantityUnitConversions;
-  private final HashMap<Integer, String> productAveragePriceHashMap;
-  private final HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
+  private ArrayList<GroupedListItem> groupedListItems;
+  private HashMap<Integer, StockItemDetails> stockItemDetailsHashMap;
+  private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
   private final PluralUtil pluralUtil;
-  private final ArrayList<Integer> missingItemsProductIds;
-  private final HashMap<String, Userfield> userfieldHashMap;
+  private ArrayList<Integer> missingItemsProductIds;
+  private HashMap<String, Userfield> userfieldHashMap;
+  private final AsyncDiffer<GroupedListItem> differ;
+  private final ChipPool chipPool;
+  private HashMap<Integer, StockItemRow> rows;
+  private int[][] chipColors;
   private final StockOverviewItemAdapterListener listener;
   private final GrocyApi grocyApi;
   private final LazyHeaders grocyAuthHeaders;
@@ -89,7 +96,7 @@ public class StockOverviewItemAdapter extends
   private String sortMode;
   private boolean sortAscending;
   private String groupingMode;
-  private final List<String> activeFields;
+  private List<String> activeFields;
   private final DateUtil dateUtil;
   private final String currency;
   private final int maxDecimalPlacesAmount;
@@ -105,11 +112,8 @@ public class StockOverviewItemAdapter extends
       int daysExpiringSoon,
       String currency
   ) {
-    this.shoppingListItemsProductIds = new ArrayList<>();
+    this.stockItemDetailsHashMap = new HashMap<>();
     this.quantityUnitHashMap = new HashMap<>();
-    this.quantityUnitConversions = new ArrayList<>();
-    this.productAveragePriceHashMap = new HashMap<>();
-    this.productLastPurchasedHashMap = new HashMap<>();
     this.pluralUtil = new PluralUtil(context);
     this.missingItemsProductIds = new ArrayList<>();
     this.userfieldHashMap = new HashMap<>();
@@ -133,6 +137,9 @@ public class StockOverviewItemAdapter extends
     this.dateUtil = new DateUtil(context);
     this.activeFields = new ArrayList<>();
     this.groupedListItems = new ArrayList<>();
+    this.rows = new HashMap<>();
+    this.differ = new AsyncDiffer<>();
+    this.chipPool = new ChipPool();
   }
 
   static ArrayList<GroupedListItem> getGroupedListItems(
@@ -142,6 +149,7 @@ public class StockOverviewItemAdapter extends
       HashMap<Integer, Product> productHashMap,
       HashMap<Integer, Location> locationHashMap,
       HashMap<String, Userfield> userfieldHashMap,
+      HashMap<String, HashMap<Integer, Integer>> userfieldSortRanksHashMap,
       String currency,
       DateUtil dateUtil,
       String sortMode,
@@ -151,7 +159,8 @@ public class StockOverviewItemAdapter extends
       int decimalPlacesPriceDisplay
   ) {
     if (groupingMode.equals(FilterChipLiveDataGroupingStock.GROUPING_NONE)) {
-      sortStockItems(stockItems, userfieldHashMap, sortMode, sortAscending);
+      sortStockItems(stockItems, userfieldHashMap, userfieldSortRanksHashMap, sortMode,
+          sortAscending);
       return new ArrayList<>(stockItems);
     }
     HashMap<String, ArrayList<StockItem>> stockItemsGroupedHashMap = new HashMap<>();
@@ -195,8 +204,9 @@ public class StockOverviewItemAdapter extends
             Userfield.NAME_PREFIX.length()
         );
         Userfield userfield = userfieldHashMap.get(userfieldName);
-        if (userfield != null) {
-          groupName = stockItem.getProduct().getUserfields().get(userfieldName);
+        Map<String, String> userfields = stockItem.getProduct().getUserfields();
+        if (userfield != null && userfields != null) {
+          groupName = userfields.get(userfieldName);
         }
       }
       if (groupName != null && !groupName.isEmpty()) {
@@ -221,7 +231,8 @@ public class StockOverviewItemAdapter extends
     }
     if (!ungroupedItems.isEmpty()) {
       groupedListItems.add(new GroupHeader(context.getString(R.string.property_ungrouped)));
-      sortStockItems(ungroupedItems, userfieldHashMap, sortMode, sortAscending);
+      sortStockItems(ungroupedItems, userfieldHashMap, userfieldSortRanksHashMap, sortMode,
+          sortAscending);
       groupedListItems.addAll(ungroupedItems);
     }
     for (String group : groupsSorted) {
@@ -238,7 +249,8 @@ public class StockOverviewItemAdapter extends
           !ungroupedItems.isEmpty() || !groupsSorted.get(0).equals(group)
       );
       groupedListItems.add(groupHeader);
-      sortStockItems(itemsFromGroup, userfieldHashMap, sortMode, sortAscending);
+      sortStockItems(itemsFromGroup, userfieldHashMap, userfieldSortRanksHashMap, sortMode,
+          sortAscending);
       groupedListItems.addAll(itemsFromGroup);
     }
     return groupedListItems;
@@ -247,6 +259,7 @@ public class StockOverviewItemAdapter extends
   static void sortStockItems(
       ArrayList<StockItem> stockItems,
       HashMap<String, Userfield> userfieldHashMap,
+      HashMap<String, HashMap<Integer, Integer>> userfieldSortRanksHashMap,
       String sortMode,
       boolean sortAscending
   ) {
@@ -260,7 +273,7 @@ public class StockOverviewItemAdapter extends
       if (userfield != null) {
         SortUtil.sortStockItemsByUserfieldValue(
             stockItems,
-            userfield,
+            userfieldSortRanksHashMap.get(userfieldName),
             sortAscending
         );
       } else {
@@ -347,17 +360,16 @@ public class StockOverviewItemAdapter extends
     StockItemViewHolder holder = (StockItemViewHolder) viewHolder;
 
     Context context = holder.binding.getRoot().getContext();
+    StockItemRow row = rows.get(stockItem.getProductId());
+    if (row == null) {
+      return;
+    }
 
-    holder.binding.flexboxLayout.removeAllViews();
-
-    // NAME
-
-    holder.binding.textName.setText(stockItem.getProduct().getName());
+    chipPool.recycleAll(holder.binding.flexboxLayout);
 
-    // IS ON SHOPPING LIST
+    holder.binding.textName.setText(row.getName());
 
-    if (shoppingListItemsProductIds.contains(String.valueOf(stockItem.getProduct().getId()))
-        && shoppingListFeatureEnabled) {
+    if (row.isOnShoppingList()) {
       holder.binding.viewOnShoppingList.setVisibility(View.VISIBLE);
       holder.binding.viewOnShoppingList.setBackgroundTintList(
           ColorStateList.valueOf(ResUtil.getColor(context, R.attr.colorCustomBlue))
@@ -366,73 +378,148 @@ public class StockOverviewItemAdapter extends
       holder.binding.viewOnShoppingList.setVisibility(View.GONE);
     }
 
-    // AMOUNT
+    for (StockItemRow.ChipData chipData : row.getChips()) {
+      if (chipData.getUserfield() != null) {
+        Chip chipUserfield = createChip(context, null);
+        Chip chipFilled = Userfield.fillChipWithUserfield(
+            chipUserfield,
+            chipData.getUserfield(),
+            chipData.getUserfieldValue()
+        );
+        if (chipFilled != null) {
+          holder.binding.flexboxLayout.addView(chipFilled);
+        } else {
+          chipPool.recycle(chipUserfield);
+        }
+        continue;
+      }
+      Chip chip = createChip(context, chipData.getText());
+      if (chipData.getColor() != StockItemRow.COLOR_NONE) {
+        int[] colors = getChipColors(context, chipData.getColor());
+        chip.setTextColor(colors[0]);
+        chip.setChipBackgroundColor(ColorStateList.valueOf(colors[1]));
+      }
+      holder.binding.flexboxLayout.addView(chip);
+    }
 
-    QuantityUnit quantityUnitStock = quantityUnitHashMap.get(
-        stockItem.getProduct().getQuIdStockInt()
+    holder.binding.flexboxLayout.setVisibility(
+        holder.binding.flexboxLayout.getChildCount() > 0 ? View.VISIBLE : View.GONE
     );
 
+    String pictureFileName = row.getPictureFileName();
+    if (pictureFileName != null) {
+      holder.binding.picture.layout(0, 0, 0, 0);
+
+      PictureUtil.loadPicture(
+          holder.binding.picture,
+          null,
+          holder.binding.picturePlaceholder,
+          grocyApi.getProductPictureServeSmall(pictureFileName),
+          grocyAuthHeaders,
+          false
+      );
+    } else if (activeFields.contains(StockOverviewViewModel.FIELD_PICTURE) && containsPictures) {
+      holder.binding.picture.setVisibility(View.GONE);
+      holder.binding.picturePlaceholder.setVisibility(View.VISIBLE);
+    } else {
+      holder.binding.picture.setVisibility(View.GONE);
+      holder.binding.picturePlaceholder.setVisibility(View.GONE);
+    }
+
+    // CONTAINER
+
+    holder.binding.linearContainer.setOnClickListener(
+        view -> listener.onItemRowClicked(stockItem)
+    );
+  }
+
+  private Chip createChip(Context ctx, String text) {
+    Chip chip = chipPool.obtain(ctx, text);
+    chip.setEnabled(false);
+    chip.setClickable(false);
+    chip.setFocusable(false);
+    return chip;
+  }
+
+  private int[] getChipColors(Context context, int color) {
+    if (chipColors == null) {
+      chipColors = new int[][]{
+          null,
+          new int[]{
+              ResUtil.getColor(context, R.attr.colorOnCustomBlueContainer),
+              ResUtil.getColor(context, R.attr.colorCustomBlueContainer)
+          },
+          new int[]{
+              ResUtil.getColor(context, R.attr.colorOnCustomYellowContainer),
+              ResUtil.getColor(context, R.attr.colorCustomYellowContainer)
+          },
+          new int[]{
+              ResUtil.getColor(context, R.attr.colorOnCustomOrangeContainer),
+              ResUtil.getColor(context, R.attr.colorCustomOrangeContainer)
+          },
+          new int[]{
+              ResUtil.getColor(context, R.attr.colorOnErrorContainer),
+              ResUtil.getColor(context, R.attr.colorErrorContainer)
+          }
+      };
+    }
+    return chipColors[color];
+  }
+
+  /**
+   * Called on the diff thread, so it must only read the given data and the final settings of
+   * this adapter.
+   */
+  private StockItemRow getStockItemRow(
+      Context context,
+      StockItem stockItem,
+      @Nullable StockItemDetails details,
+      @Nullable QuantityUnit quantityUnitStock,
+      boolean missing,
+      HashMap<String, Userfield> userfieldHashMap,
+      String sortMode,
+      List<String> activeFields
+  ) {
+    Product product = stockItem.getProduct();
+    List<StockItemRow.ChipData> chips = new ArrayList<>();
+
     if (activeFields.contains(StockOverviewViewModel.FIELD_AMOUNT)) {
-      int colorBlueContainer = ResUtil.getColor(context, R.attr.colorCustomBlueContainer);
-      int colorOnBlueContainer = ResUtil.getColor(context, R.attr.colorOnCustomBlueContainer);
-      StringBuilder stringBuilderAmount = new StringBuilder();
-      if (!stockItem.getProduct().getNoOwnStockBoolean()) {
+      int amountColor = missing ? StockItemRow.COLOR_BLUE : StockItemRow.COLOR_NONE;
+      if (!product.getNoOwnStockBoolean()) {
+        StringBuilder stringBuilderAmount = new StringBuilder();
         AmountUtil.addStockAmountNormalInfo(context, pluralUtil, stringBuilderAmount, stockItem,
             quantityUnitStock, maxDecimalPlacesAmount);
-        Chip chipAmount = createChip(context, stringBuilderAmount.toString());
-        if (missingItemsProductIds.contains(stockItem.getProductId())) {
-          chipAmount.setTextColor(colorOnBlueContainer);
-          chipAmount.setChipBackgroundColor(ColorStateList.valueOf(colorBlueContainer));
-        }
-        holder.binding.flexboxLayout.addView(chipAmount);
+        chips.add(new StockItemRow.ChipData(stringBuilderAmount.toString(), amountColor));
       }
       StringBuilder stringBuilderAmountAggregated = new StringBuilder();
       AmountUtil.addStockAmountAggregatedInfo(context, pluralUtil, stringBuilderAmountAggregated,
           stockItem, quantityUnitStock, maxDecimalPlacesAmount, false);
       if (!stringBuilderAmountAggregated.toString().isBlank()) {
-        Chip chipAmountAggregated = createChip(context, stringBuilderAmountAggregated.toString());
-        if (missingItemsProductIds.contains(stockItem.getProductId())) {
-          chipAmountAggregated.setTextColor(colorOnBlueContainer);
-          chipAmountAggregated.setChipBackgroundColor(ColorStateList.valueOf(colorBlueContainer));
-        }
-        holder.binding.flexboxLayout.addView(chipAmountAggregated);
+        chips.add(new StockItemRow.ChipData(
+            stringBuilderAmountAggregated.toString(), amountColor
+        ));
       }
     }
 
-    // BEST BEFORE
-
     String date = stockItem.getBestBeforeDate();
-    String days = null;
-    if (date != null) {
-      days = String.valueOf(DateUtil.getDaysFromNow(date));
-    }
-
     if (activeFields.contains(StockOverviewViewModel.FIELD_DUE_DATE) && showDateTracking
-        && days != null && (sortMode.equals(StockOverviewViewModel.SORT_DUE_DATE)
-        || Integer.parseInt(days) <= daysExpiringSoon
-        && !date.equals(Constants.DATE.NEVER_OVERDUE))
-    ) {
-      Chip chipDate = createChip(context, dateUtil.getHumanForDaysFromNow(date));
-      if (Integer.parseInt(days) <= daysExpiringSoon
-          && !stockItem.getProduct().getNoOwnStockBoolean()) {  // don't color days text if product has no own stock (children will be colored)
-        if (Integer.parseInt(days) >= 0) {
-          chipDate.setTextColor(ResUtil.getColor(context, R.attr.colorOnCustomYellowContainer));
-          chipDate.setChipBackgroundColor(ColorStateList.valueOf(
-              ResUtil.getColor(context, R.attr.colorCustomYellowContainer)
-          ));
-        } else if (stockItem.getDueTypeInt() == StockItem.DUE_TYPE_BEST_BEFORE) {
-          chipDate.setTextColor(ResUtil.getColor(context, R.attr.colorOnCustomOrangeContainer));
-          chipDate.setChipBackgroundColor(ColorStateList.valueOf(
-              ResUtil.getColor(context, R.attr.colorCustomOrangeContainer)
-          ));
-        } else {
-          chipDate.setTextColor(ResUtil.getColor(context, R.attr.colorOnErrorContainer));
-          chipDate.setChipBackgroundColor(
-              ColorStateList.valueOf(ResUtil.getColor(context, R.attr.colorErrorContainer))
-          );
+        && date != null) {
+      int days = DateUtil.getDaysFromNow(stockItem.getBestBeforeDateEpochDay());
+      if (sortMode.equals(StockOverviewViewModel.SORT_DUE_DATE)
+          || days <= daysExpiringSoon && !date.equals(Constants.DATE.NEVER_OVERDUE)) {
+        int dateColor = StockItemRow.COLOR_NONE;
+        // don't color days text if product has no own stock (children will be colored)
+        if (days <= daysExpiringSoon && !product.getNoOwnStockBoolean()) {
+          if (days >= 0) {
+            dateColor = StockItemRow.COLOR_YELLOW;
+          } else if (stockItem.getDueTypeInt() == StockItem.DUE_TYPE_BEST_BEFORE) {
+            dateColor = StockItemRow.COLOR_ORANGE;
+          } else {
+            dateColor = StockItemRow.COLOR_ERROR;
+          }
         }
+        chips.add(new StockItemRow.ChipData(dateUtil.getHumanForDaysFromNow(date), dateColor));
       }
-      holder.binding.flexboxLayout.addView(chipDate);
     }
 
     if (activeFields.contains(StockOverviewViewModel.FIELD_VALUE)
@@ -443,127 +530,80 @@ public class StockOverviewItemAdapter extends
       if (currency != null && !currency.isEmpty()) {
         value = context.getString(R.string.property_price_with_currency, value, currency);
       }
-      Chip chipValue = createChip(context, value);
-      holder.binding.flexboxLayout.addView(chipValue);
+      chips.add(new StockItemRow.ChipData(value, StockItemRow.COLOR_NONE));
     }
     if (activeFields.contains(StockOverviewViewModel.FIELD_CALORIES_UNIT)
-        && NumUtil.isStringDouble(stockItem.getProduct().getCalories())) {
-      Chip chipValue = createChip(context, context.getString(
+        && NumUtil.isStringDouble(product.getCalories())) {
+      chips.add(new StockItemRow.ChipData(context.getString(
           R.string.property_insert_per_unit,
-          stockItem.getProduct().getCalories() + " " + energyUnit
-      ));
-      holder.binding.flexboxLayout.addView(chipValue);
+          product.getCalories() + " " + energyUnit
+      ), StockItemRow.COLOR_NONE));
     }
     if (activeFields.contains(StockOverviewViewModel.FIELD_CALORIES_TOTAL)
-        && NumUtil.isStringDouble(stockItem.getProduct().getCalories())) {
-      Chip chipValue = createChip(context, context.getString(
+        && NumUtil.isStringDouble(product.getCalories())) {
+      chips.add(new StockItemRow.ChipData(context.getString(
           R.string.property_insert_total,
-          NumUtil.trimAmount(NumUtil.toDouble(stockItem.getProduct()
-              .getCalories()) * stockItem.getAmountDouble(), maxDecimalPlacesAmount)
-              + " " + energyUnit
-      ));
-      holder.binding.flexboxLayout.addView(chipValue);
+          NumUtil.trimAmount(NumUtil.toDouble(product.getCalories())
+              * stockItem.getAmountDouble(), maxDecimalPlacesAmount) + " " + energyUnit
+      ), StockItemRow.COLOR_NONE));
     }
     double factorPriceToStock = 1.0;
-    QuantityUnitConversionResolved c = QuantityUnitConversionResolved.findConversion(
-            quantityUnitConversions,
-            stockItem.getProduct().getId(),
-            stockItem.getProduct().getQuIdPriceInt(),
-            stockItem.getProduct().getQuIdStockInt()
-    );
-    if (c != null) {
-      factorPriceToStock = c.getFactor();
-    }
-    if (activeFields.contains(StockOverviewViewModel.FIELD_AVERAGE_PRICE)) {
-      String avg = productAveragePriceHashMap.get(stockItem.getProductId());
-      if (NumUtil.isStringDouble(avg)) {
-        Chip chipValue = createChip(context, context.getString(
-            R.string.property_insert_average,
-            context.getString(R.string.property_price_with_currency, NumUtil.trimPrice(
-                NumUtil.toDouble(avg) * factorPriceToStock, decimalPlacesPriceDisplay
-            ), currency)
-        ));
-        holder.binding.flexboxLayout.addView(chipValue);
-      }
-    }
-    if (activeFields.contains(StockOverviewViewModel.FIELD_LAST_PRICE)) {
-      ProductLastPurchased p = productLastPurchasedHashMap.get(stockItem.getProductId());
-      if (p != null && NumUtil.isStringDouble(p.getPrice())) {
-        Chip chipValue = createChip(context, context.getString(
-            R.string.property_insert_last,
-            context.getString(R.string.property_price_with_currency,
-                NumUtil.trimPrice(NumUtil.toDouble(p.getPrice())
-                * factorPriceToStock, decimalPlacesPriceDisplay), currency)
-        ));
-        holder.binding.flexboxLayout.addView(chipValue);
-      }
+    if (details != null && details.getFactorPriceToStock() != null) {
+      factorPriceToStock = details.getFactorPriceToStock();
+    }
+    if (activeFields.contains(StockOverviewViewModel.FIELD_AVERAGE_PRICE) && details != null
+        && NumUtil.isStringDouble(details.getAveragePrice())) {
+      chips.add(new StockItemRow.ChipData(context.getString(
+          R.string.property_insert_average,
+          context.getString(R.string.property_price_with_currency, NumUtil.trimPrice(
+              NumUtil.toDouble(details.getAveragePrice()) * factorPriceToStock,
+              decimalPlacesPriceDisplay
+          ), currency)
+      ), StockItemRow.COLOR_NONE));
+    }
+    if (activeFields.contains(StockOverviewViewModel.FIELD_LAST_PRICE) && details != null
+        && NumUtil.isStringDouble(details.getLastPrice())) {
+      chips.add(new StockItemRow.ChipData(context.getString(
+          R.string.property_insert_last,
+          context.getString(R.string.property_price_with_currency, NumUtil.trimPrice(
+              NumUtil.toDouble(details.getLastPrice()) * factorPriceToStock,
+              decimalPlacesPriceDisplay
+          ), currency)
+      ), StockItemRow.COLOR_NONE));
     }
     for (String activeField : activeFields) {
       if (activeField.startsWith(Userfield.NAME_PREFIX)) {
-        String userfieldName = activeField.substring(
-            Userfield.NAME_PREFIX.length()
-        );
+        String userfieldName = activeField.substring(Userfield.NAME_PREFIX.length());
         Userfield userfield = userfieldHashMap.get(userfieldName);
-        if (userfield == null) continue;
-        Chip chipUserfield = createChip(context, null);
-        Chip chipFilled = Userfield.fillChipWithUserfield(
-            chipUserfield,
-            userfield,
-            stockItem.getProduct().getUserfields().get(userfieldName)
-        );
-        if (chipFilled != null) holder.binding.flexboxLayout.addView(chipFilled);
+        Map<String, String> userfields = product.getUserfields();
+        if (userfield == null || userfields == null) continue;
+        chips.add(new StockItemRow.ChipData(userfield, userfields.get(userfieldName)));
       }
     }
 
-    holder.binding.flexboxLayout.setVisibility(
-        holder.binding.flexboxLayout.getChildCount() > 0 ? View.VISIBLE : View.GONE
-    );
-
-    String pictureFileName = stockItem.getProduct().getPictureFileName();
-    if (activeFields.contains(StockOverviewViewModel.FIELD_PICTURE)
-        && pictureFileName != null && !pictureFileName.isEmpty()) {
-      holder.binding.picture.layout(0, 0, 0, 0);
-
-      PictureUtil.loadPicture(
-          holder.binding.picture,
-          null,
-          holder.binding.picturePlaceholder,
-          grocyApi.getProductPictureServeSmall(pictureFileName),
-          grocyAuthHeaders,
-          false
-      );
-    } else if (activeFields.contains(StockOverviewViewModel.FIELD_PICTURE) && containsPictures) {
-      holder.binding.picture.setVisibility(View.GONE);
-      holder.binding.picturePlaceholder.setVisibility(View.VISIBLE);
-    } else {
-      holder.binding.picture.setVisibility(View.GONE);
-      holder.binding.picturePlaceholder.setVisibility(View.GONE);
-    }
-
-    // CONTAINER
+    String pictureFileName = product.getPictureFileName();
+    boolean showPicture = activeFields.contains(StockOverviewViewModel.FIELD_PICTURE)
+        && pictureFileName != null && !pictureFileName.isEmpty();
 
-    holder.binding.linearContainer.setOnClickListener(
-        view -> listener.onItemRowClicked(stockItem)
+    return new StockItemRow(
+        product.getName(),
+        details != null && details.isOnShoppingList() && shoppingListFeatureEnabled,
+        chips,
+        showPicture ? pictureFileName : null
     );
   }
 
-  private static Chip createChip(Context ctx, String text) {
-    @SuppressLint("InflateParams")
-    Chip chip = (Chip) LayoutInflater.from(ctx).inflate(
-        R.layout.view_info_chip, null, false
-    );
-    chip.setText(text);
-    chip.setEnabled(false);
-    chip.setClickable(false);
-    chip.setFocusable(false);
-    return chip;
-  }
-
   @Override
   public int getItemCount() {
     return groupedListItems.size();
   }
 
+  @Override
+  public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+    super.onDetachedFromRecyclerView(recyclerView);
+    differ.cancel();
+  }
+
   public GroupedListItem getGroupedListItemForPos(int position) {
     if (groupedListItems == null || position < 0
         || position >= groupedListItems.size()) {
@@ -580,110 +620,131 @@ public class StockOverviewItemAdapter extends
   public void updateData(
       Context context,
       ArrayList<StockItem> newList,
-      ArrayList<String> shoppingListItemsProductIds,
+      HashMap<Integer, StockItemDetails> stockItemDetailsHashMap,
       HashMap<Integer, QuantityUnit> quantityUnitHashMap,
-      List<QuantityUnitConversionResolved> quantityUnitConversions,
-      HashMap<Integer, String> productAveragePriceHashMap,
-      HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap,
       HashMap<Integer, ProductGroup> productGroupHashMap,
       HashMap<Integer, Product> productHashMap,
       HashMap<Integer, Location> locationHashMap,
       ArrayList<Integer> missingItemsProductIds,
       HashMap<String, Userfield> userfieldHashMap,
+      HashMap<String, HashMap<Integer, Integer>> userfieldSortRanksHashMap,
       String sortMode,
       boolean sortAscending,
       String groupingMode,
       List<String> activeFields,
       Runnable onListFilled
   ) {
-    ArrayList<GroupedListItem> newGroupedListItems = getGroupedListItems(context, newList,
-        productGroupHashMap, productHashMap, locationHashMap, userfieldHashMap, this.currency,
-        this.dateUtil, sortMode, sortAscending, groupingMode, maxDecimalPlacesAmount,
-        decimalPlacesPriceDisplay);
-    StockOverviewItemAdapter.DiffCallback diffCallback = new StockOverviewItemAdapter.DiffCallback(
-        this.groupedListItems,
-        newGroupedListItems,
-        this.shoppingListItemsProductIds,
-        shoppingListItemsProductIds,
-        this.quantityUnitHashMap,
-        quantityUnitHashMap,
-        this.quantityUnitConversions,
-        quantityUnitConversions,
-        this.productAveragePriceHashMap,
-        productAveragePriceHashMap,
-        this.productLastPurchasedHashMap,
-        productLastPurchasedHashMap,
-        this.missingItemsProductIds,
-        missingItemsProductIds,
-        this.userfieldHashMap,
-        userfieldHashMap,
-        this.sortMode,
-        sortMode,
-        this.sortAscending,
-        sortAscending,
-        this.groupingMode,
-        groupingMode,
-        this.activeFields,
-        activeFields
-    );
+    // copies, they are read on the diff thread and become the data of this adapter
+    ArrayList<StockItem> stockItems = new ArrayList<>(newList);
+    HashMap<Integer, StockItemDetails> newStockItemDetailsHashMap
+        = new HashMap<>(stockItemDetailsHashMap);
+    HashMap<Integer, QuantityUnit> newQuantityUnitHashMap = new HashMap<>(quantityUnitHashMap);
+    ArrayList<Integer> newMissingItemsProductIds = new ArrayList<>(missingItemsProductIds);
+    HashMap<String, Userfield> newUserfieldHashMap = new HashMap<>(userfieldHashMap);
+    HashMap<Integer, ProductGroup> newProductGroupHashMap = new HashMap<>(productGroupHashMap);
+    HashMap<Integer, Product> newProductHashMap = new HashMap<>(productHashMap);
+    HashMap<Integer, Location> newLocationHashMap = new HashMap<>(locationHashMap);
+    HashMap<String, HashMap<Integer, Integer>> newUserfieldSortRanksHashMap
+        = new HashMap<>(userfieldSortRanksHashMap);
+    List<String> newActiveFields = new ArrayList<>(activeFields);
+    ArrayList<GroupedListItem> oldGroupedListItems = this.groupedListItems;
+    HashMap<Integer, StockItemDetails> oldStockItemDetailsHashMap = this.stockItemDetailsHashMap;
+    HashMap<Integer, QuantityUnit> oldQuantityUnitHashMap = this.quantityUnitHashMap;
+    ArrayList<Integer> oldMissingItemsProductIds = this.missingItemsProductIds;
+    HashMap<String, Userfield> oldUserfieldHashMap = this.userfieldHashMap;
+    String oldSortMode = this.sortMode;
+    boolean oldSortAscending = this.sortAscending;
+    String oldGroupingMode = this.groupingMode;
+    List<String> oldActiveFields = this.activeFields;
+    HashMap<Integer, StockItemRow> oldRows = this.rows;
+    HashMap<Integer, StockItemRow> newRows = new HashMap<>();
+
+    differ.submit(
+        () -> {
+          HashSet<Integer> missingIds = new HashSet<>(newMissingItemsProductIds);
+          for (StockItem stockItem : stockItems) {
+            if (stockItem.getProduct() == null) continue;
+            newRows.put(stockItem.getProductId(), getStockItemRow(
+                context,
+                stockItem,
+                newStockItemDetailsHashMap.get(stockItem.getProductId()),
+                newQuantityUnitHashMap.get(stockItem.getProduct().getQuIdStockInt()),
+                missingIds.contains(stockItem.getProductId()),
+                newUserfieldHashMap,
+                sortMode,
+                newActiveFields
+            ));
+          }
+          return getGroupedListItems(context, stockItems,
+              newProductGroupHashMap, newProductHashMap, newLocationHashMap, newUserfieldHashMap,
+              newUserfieldSortRanksHashMap, this.currency, this.dateUtil, sortMode, sortAscending,
+              groupingMode, maxDecimalPlacesAmount, decimalPlacesPriceDisplay);
+        },
+        newGroupedListItems -> new StockOverviewItemAdapter.DiffCallback(
+            oldGroupedListItems,
+            newGroupedListItems,
+            oldStockItemDetailsHashMap,
+            newStockItemDetailsHashMap,
+            oldQuantityUnitHashMap,
+            newQuantityUnitHashMap,
+            oldMissingItemsProductIds,
+            newMissingItemsProductIds,
+            oldUserfieldHashMap,
+            newUserfieldHashMap,
+            oldSortMode,
+            sortMode,
+            oldSortAscending,
+            sortAscending,
+            oldGroupingMode,
+            groupingMode,
+            oldActiveFields,
+            newActiveFields,
+            oldRows,
+            newRows
+        ),
+        (newGroupedListItems, diffResult) -> {
+          containsPictures = false;
+          for (StockItem stockItem : stockItems) {
+            if (stockItem.getProduct() == null) continue;
+            String pictureFileName = stockItem.getProduct().getPictureFileName();
+            if (pictureFileName != null && !pictureFileName.isEmpty()) {
+              containsPictures = true;
+              break;
+            }
+          }
 
-    containsPictures = false;
-    for (StockItem stockItem : newList) {
-      if (stockItem.getProduct() == null) continue;
-      String pictureFileName = stockItem.getProduct().getPictureFileName();
-      if (pictureFileName != null && !pictureFileName.isEmpty()) {
-        containsPictures = true;
-        break;
-      }
-    }
+          if (onListFilled != null && !newGroupedListItems.isEmpty()
+              && groupedListItems.isEmpty()) {
+            onListFilled.run();
+          }
 
-    if (onListFilled != null && !newGroupedListItems.isEmpty() && groupedListItems.isEmpty()) {
-      onListFilled.run();
-    }
-
-    DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-    this.groupedListItems.clear();
-    this.groupedListItems.addAll(newGroupedListItems);
-    this.shoppingListItemsProductIds.clear();
-    this.shoppingListItemsProductIds.addAll(shoppingListItemsProductIds);
-    this.quantityUnitHashMap.clear();
-    this.quantityUnitHashMap.putAll(quantityUnitHashMap);
-    this.quantityUnitConversions.clear();
-    this.quantityUnitConversions.addAll(quantityUnitConversions);
-    this.productAveragePriceHashMap.clear();
-    this.productAveragePriceHashMap.putAll(productAveragePriceHashMap);
-    this.productLastPurchasedHashMap.clear();
-    this.productLastPurchasedHashMap.putAll(productLastPurchasedHashMap);
-    this.missingItemsProductIds.clear();
-    this.missingItemsProductIds.addAll(missingItemsProductIds);
-    this.userfieldHashMap.clear();
-    this.userfieldHashMap.putAll(userfieldHashMap);
-    this.sortMode = sortMode;
-    this.sortAscending = sortAscending;
-    this.groupingMode = groupingMode;
-    this.activeFields.clear();
-    this.activeFields.addAll(activeFields);
-    diffResult.dispatchUpdatesTo(this);
+          this.groupedListItems = newGroupedListItems;
+          this.rows = newRows;
+          this.stockItemDetailsHashMap = newStockItemDetailsHashMap;
+          this.quantityUnitHashMap = newQuantityUnitHashMap;
+          this.missingItemsProductIds = newMissingItemsProductIds;
+          this.userfieldHashMap = newUserfieldHashMap;
+          this.sortMode = sortMode;
+          this.sortAscending = sortAscending;
+          this.groupingMode = groupingMode;
+          this.activeFields = newActiveFields;
+          diffResult.dispatchUpdatesTo(this);
+        }
+    );
   }
 
   static class DiffCallback extends DiffUtil.Callback {
 
     ArrayList<GroupedListItem> oldItems;
     ArrayList<GroupedListItem> newItems;
-    ArrayList<String> shoppingListItemsProductIdsOld;
-    ArrayList<String> shoppingListItemsProductIdsNew;
+    HashMap<Integer, StockItemDetails> stockItemDetailsHashMapOld;
+    HashMap<Integer, StockItemDetails> stockItemDetailsHashMapNew;
     HashMap<Integer, QuantityUnit> quantityUnitHashMapOld;
     HashMap<Integer, QuantityUnit> quantityUnitHashMapNew;
-    List<QuantityUnitConversionResolved> unitConversionsOld;
-    List<QuantityUnitConversionResolved> unitConversionsNew;
-    HashMap<Integer, String> productAveragePriceHashMapOld;
-    HashMap<Integer, String> productAveragePriceHashMapNew;
-    HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMapOld;
-    HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMapNew;
-    ArrayList<Integer> missingProductIdsOld;
-    ArrayList<Integer> missingProductIdsNew;
-    HashMap<String, Userfield> userfieldHashMapOld;
-    HashMap<String, Userfield> userfieldHashMapNew;
+    HashSet<Integer> missingProductIdsOld;
+    HashSet<Integer> missingProductIdsNew;
+    boolean userfieldsChanged;
+    boolean activeFieldsChanged;
     String sortModeOld;
     String sortModeNew;
     boolean sortAscendingOld;
@@ -692,20 +753,16 @@ public class StockOverviewItemAdapter extends
     String groupingModeNew;
     List<String> activeFieldsOld;
     List<String> activeFieldsNew;
+    HashMap<Integer, StockItemRow> rowsOld;
+    HashMap<Integer, StockItemRow> rowsNew;
 
     public DiffCallback(
         ArrayList<GroupedListItem> oldItems,
         ArrayList<GroupedListItem> newItems,
-        ArrayList<String> shoppingListItemsProductIdsOld,
-        ArrayList<String> shoppingListItemsProductIdsNew,
+        HashMap<Integer, StockItemDetails> stockItemDetailsHashMapOld,
+        HashMap<Integer, StockItemDetails> stockItemDetailsHashMapNew,
         HashMap<Integer, QuantityUnit> quantityUnitHashMapOld,
         HashMap<Integer, QuantityUnit> quantityUnitHashMapNew,
-        List<QuantityUnitConversionResolved> unitConversionsOld,
-        List<QuantityUnitConversionResolved> unitConversionsNew,
-        HashMap<Integer, String> productAveragePriceHashMapOld,
-        HashMap<Integer, String> productAveragePriceHashMapNew,
-        HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMapOld,
-        HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMapNew,
         ArrayList<Integer> missingProductIdsOld,
         ArrayList<Integer> missingProductIdsNew,
         HashMap<String, Userfield> userfieldHashMapOld,
@@ -717,24 +774,23 @@ public class StockOverviewItemAdapter extends
         String groupingModeOld,
         String groupingModeNew,
         List<String> activeFieldsOld,
-        List<String> activeFieldsNew
+        List<String> activeFieldsNew,
+        HashMap<Integer, StockItemRow> rowsOld,
+        HashMap<Integer, StockItemRow> rowsNew
     ) {
       this.newItems = newItems;
       this.oldItems = oldItems;
-      this.shoppingListItemsProductIdsOld = shoppingListItemsProductIdsOld;
-      this.shoppingListItemsProductIdsNew = shoppingListItemsProductIdsNew;
+      this.stockItemDetailsHashMapOld = stockItemDetailsHashMapOld;
+      this.stockItemDetailsHashMapNew = stockItemDetailsHashMapNew;
       this.quantityUnitHashMapOld = quantityUnitHashMapOld;
       this.quantityUnitHashMapNew = quantityUnitHashMapNew;
-      this.unitConversionsOld = unitConversionsOld;
-      this.unitConversionsNew = unitConversionsNew;
-      this.productAveragePriceHashMapOld = productAveragePriceHashMapOld;
-      this.productAveragePriceHashMapNew = productAveragePriceHashMapNew;
-      this.productLastPurchasedHashMapOld = productLastPurchasedHashMapOld;
-      this.productLastPurchasedHashMapNew = productLastPurchasedHashMapNew;
-      this.missingProductIdsOld = missingProductIdsOld;
-      this.missingProductIdsNew = missingProductIdsNew;
-      this.userfieldHashMapOld = userfieldHashMapOld;
-      this.userfieldHashMapNew = userfieldHashMapNew;
+      // compared once here instead of for every pair of items
+      this.missingProductIdsOld = new HashSet<>(missingProductIdsOld);
+      this.missingProductIdsNew = new HashSet<>(missingProductIdsNew);
+      this.userfieldsChanged = !userfieldHashMapNew.equals(userfieldHashMapOld);
+      this.activeFieldsChanged = !ArrayUtil.areListsEqualIgnoreOrder(
+          activeFieldsOld, activeFieldsNew
+      );
       this.sortModeOld = sortModeOld;
       this.sortModeNew = sortModeNew;
       this.sortAscendingOld = sortAscendingOld;
@@ -743,6 +799,8 @@ public class StockOverviewItemAdapter extends
       this.groupingModeNew = groupingModeNew;
       this.activeFieldsOld = activeFieldsOld;
       this.activeFieldsNew = activeFieldsNew;
+      this.rowsOld = rowsOld;
+      this.rowsNew = rowsNew;
     }
 
     @Override
@@ -778,7 +836,7 @@ public class StockOverviewItemAdapter extends
         return false;
       }
       if (oldItemType == GroupedListItem.TYPE_ENTRY) {
-        if (!userfieldHashMapNew.equals(userfieldHashMapOld)) {
+        if (userfieldsChanged) {
           return false;
         }
         StockItem newItem = (StockItem) newItems.get(newItemPos);
@@ -789,7 +847,7 @@ public class StockOverviewItemAdapter extends
         if (!newItem.getProduct().equals(oldItem.getProduct())) {
           return false;
         }
-        if (!ArrayUtil.areListsEqualIgnoreOrder(activeFieldsOld, activeFieldsNew)) {
+        if (activeFieldsChanged) {
           return false;
         }
         QuantityUnit quOld = quantityUnitHashMapOld.get(oldItem.getProduct().getQuIdStockInt());
@@ -800,52 +858,23 @@ public class StockOverviewItemAdapter extends
           return false;
         }
 
-        boolean isOnShoppingListOld = shoppingListItemsProductIdsOld
-            .contains(String.valueOf(oldItem.getProduct().getId()));
-        boolean isOnShoppingListNew = shoppingListItemsProductIdsNew
-            .contains(String.valueOf(newItem.getProduct().getId()));
-        if (isOnShoppingListNew != isOnShoppingListOld) {
+        // shopping list state, prices and price unit factor
+        StockItemDetails detailsOld = stockItemDetailsHashMapOld.get(oldItem.getProductId());
+        StockItemDetails detailsNew = stockItemDetailsHashMapNew.get(newItem.getProductId());
+        if (!Objects.equals(detailsOld, detailsNew)) {
           return false;
         }
 
-        if (activeFieldsNew.contains(StockOverviewViewModel.FIELD_AVERAGE_PRICE)) {
-          String priceOld = productAveragePriceHashMapOld.get(oldItem.getProductId());
-          String priceNew = productAveragePriceHashMapNew.get(newItem.getProductId());
-          if (priceOld == null && priceNew != null
-              || priceOld != null && priceNew != null && !priceOld.equals(priceNew)) {
-            return false;
-          }
-        } else if (activeFieldsNew.contains(StockOverviewViewModel.FIELD_LAST_PRICE)) {
-          ProductLastPurchased purchasedOld = productLastPurchasedHashMapOld
-              .get(oldItem.getProductId());
-          ProductLastPurchased purchasedNew = productLastPurchasedHashMapNew
-              .get(newItem.getProductId());
-          if (purchasedOld == null && purchasedNew != null
-              || purchasedOld != null && purchasedNew != null
-              && !purchasedOld.equals(purchasedNew)) {
-            return false;
-          }
-        }
-
         boolean missingOld = missingProductIdsOld.contains(oldItem.getProductId());
         boolean missingNew = missingProductIdsNew.contains(newItem.getProductId());
         if (missingOld != missingNew) {
           return false;
         }
 
-        QuantityUnitConversionResolved oldCon = QuantityUnitConversionResolved.findConversion(
-                unitConversionsOld,
-                oldItem.getProductId(),
-                oldItem.getProduct().getQuIdPriceInt(),
-                oldItem.getProduct().getQuIdStockInt()
-        );
-        QuantityUnitConversionResolved newCon = QuantityUnitConversionResolved.findConversion(
-                unitConversionsNew,
-                newItem.getProductId(),
-                newItem.getProduct().getQuIdPriceInt(),
-                newItem.getProduct().getQuIdStockInt()
-        );
-        if (oldCon == null && newCon != null || newCon != null && !newCon.equals(oldCon)) {
+        // covers everything displayed, like due days which change without new data
+        if (!Objects.equals(
+            rowsOld.get(oldItem.getProductId()), rowsNew.get(newItem.getProductId())
+        )) {
           return false;
         }
 
@@ -135,7 +135,7 @@ public class TaskEntryAdapter extends
     Integer days = null;
     boolean colorDays = false;
     if (date != null && !date.isEmpty()) {
-      days = DateUtil.getDaysFromNow(date);
+      days = DateUtil.getDaysFromNow(task.getDueDateEpochDay());
     }
 
     if (days != null && !task.isDone()) {
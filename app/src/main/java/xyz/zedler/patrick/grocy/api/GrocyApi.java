@@ -458,6 +458,13 @@ public class GrocyApi {
     );
   }
 
+  public String getRecipePositionsResolved(int recipeId) {
+    return getObjects(
+        ENTITY.RECIPES_POS_RESOLVED,
+        new COMPARISON("recipe_id", COMPARISON_OPERATOR.EQUAL, String.valueOf(recipeId))
+    );
+  }
+
   public String getRecipeNestings() {
     return getObjects(ENTITY.RECIPES_NESTINGS);
   }
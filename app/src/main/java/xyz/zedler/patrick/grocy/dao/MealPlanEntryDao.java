@@ -33,10 +33,16 @@ public interface MealPlanEntryDao {
   @Query("SELECT * FROM meal_plan_entry_table")
   Single<List<MealPlanEntry>> getMealPlanEntries();
 
+  @Query("SELECT * FROM meal_plan_entry_table WHERE day >= :from AND day <= :to")
+  Single<List<MealPlanEntry>> getMealPlanEntries(String from, String to);
+
   @Insert(onConflict = OnConflictStrategy.REPLACE)
   Single<List<Long>> insertMealPlanEntries(List<MealPlanEntry> mealPlanEntries);
 
   @Query("DELETE FROM meal_plan_entry_table")
   Single<Integer> deleteMealPlanEntries();
 
+  @Query("DELETE FROM meal_plan_entry_table WHERE day >= :from AND day <= :to")
+  Single<Integer> deleteMealPlanEntries(String from, String to);
+
 }
@@ -33,6 +33,20 @@ public interface ProductDao {
   @Query("SELECT * FROM product_table")
   Single<List<Product>> getProducts();
 
+  // products of stock and products which can be missing, and their parent products for grouping
+  @Query("SELECT * FROM product_table WHERE id IN (SELECT product_id FROM stock_item_table) "
+      + "OR CAST(min_stock_amount AS REAL) != 0 "
+      + "OR id IN (SELECT CAST(parent_product_id AS INTEGER) FROM product_table "
+      + "WHERE id IN (SELECT product_id FROM stock_item_table) "
+      + "OR CAST(min_stock_amount AS REAL) != 0)")
+  Single<List<Product>> getProductsForStockOverview();
+
+  // products with min stock amount and their parent products, for MinStockEngine
+  @Query("SELECT * FROM product_table WHERE CAST(min_stock_amount AS REAL) != 0 "
+      + "OR id IN (SELECT CAST(parent_product_id AS INTEGER) FROM product_table "
+      + "WHERE CAST(min_stock_amount AS REAL) != 0)")
+  Single<List<Product>> getProductsWithMinStockAmount();
+
   @Insert(onConflict = OnConflictStrategy.REPLACE)
   Single<List<Long>> insertProducts(List<Product> products);
 
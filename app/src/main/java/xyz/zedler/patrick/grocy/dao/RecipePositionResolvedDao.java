@@ -33,10 +33,16 @@ public interface RecipePositionResolvedDao {
   @Query("SELECT * FROM recipe_pos_resolved_table")
   Single<List<RecipePositionResolved>> getRecipePositionsResolved();
 
+  @Query("SELECT * FROM recipe_pos_resolved_table WHERE recipe_id = :recipeId")
+  Single<List<RecipePositionResolved>> getRecipePositionsResolved(int recipeId);
+
   @Insert(onConflict = OnConflictStrategy.REPLACE)
   Single<List<Long>> insertRecipePositionsResolved(List<RecipePositionResolved> recipePositions);
 
   @Query("DELETE FROM recipe_pos_resolved_table")
   Single<Integer> deleteRecipePositionsResolved();
 
+  @Query("DELETE FROM recipe_pos_resolved_table WHERE recipe_id = :recipeId")
+  Single<Integer> deleteRecipePositionsResolved(int recipeId);
+
 }
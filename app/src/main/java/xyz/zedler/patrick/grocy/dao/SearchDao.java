@@ -0,0 +1,126 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.dao;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import io.reactivex.rxjava3.core.Single;
+import java.util.List;
+
+/**
+ * Queries on the FTS4 tables. The rebuild methods have to be called after the indexed table
+ * has been replaced by a download, they run within the transaction of the sync.
+ */
+@Dao
+public abstract class SearchDao {
+
+  // PRODUCTS
+
+  // ranked by names starting with the first search term, then by shorter names
+  @Query("SELECT id FROM product_table WHERE id IN "
+      + "(SELECT rowid FROM product_fts WHERE product_fts MATCH :query "
+      + "UNION SELECT CAST(barcode.product_id AS INTEGER) FROM product_barcode_fts "
+      + "JOIN product_barcode_table barcode ON barcode.id = product_barcode_fts.rowid "
+      + "WHERE product_barcode_fts MATCH :query) "
+      + "ORDER BY name LIKE :firstTerm || '%' DESC, length(name)")
+  public abstract Single<List<Integer>> searchProductIds(String query, String firstTerm);
+
+  @Query("DELETE FROM product_fts")
+  public abstract void clearProductIndex();
+
+  @Query("INSERT INTO product_fts (rowid, name, description) "
+      + "SELECT id, name, description FROM product_table")
+  public abstract void fillProductIndex();
+
+  @Transaction
+  public void rebuildProductIndex() {
+    clearProductIndex();
+    fillProductIndex();
+  }
+
+  @Query("DELETE FROM product_barcode_fts")
+  public abstract void clearProductBarcodeIndex();
+
+  @Query("INSERT INTO product_barcode_fts (rowid, barcode) "
+      + "SELECT id, barcode FROM product_barcode_table")
+  public abstract void fillProductBarcodeIndex();
+
+  @Transaction
+  public void rebuildProductBarcodeIndex() {
+    clearProductBarcodeIndex();
+    fillProductBarcodeIndex();
+  }
+
+  // RECIPES
+
+  // recipes are also found by the products of their ingredients
+  @Query("SELECT rowid FROM recipe_fts WHERE recipe_fts MATCH :query "
+      + "UNION SELECT recipe_id FROM recipe_pos_table WHERE product_id IN "
+      + "(SELECT rowid FROM product_fts WHERE product_fts MATCH :query)")
+  public abstract Single<List<Integer>> searchRecipeIds(String query);
+
+  @Query("DELETE FROM recipe_fts")
+  public abstract void clearRecipeIndex();
+
+  @Query("INSERT INTO recipe_fts (rowid, name) SELECT id, name FROM recipe_table")
+  public abstract void fillRecipeIndex();
+
+  @Transaction
+  public void rebuildRecipeIndex() {
+    clearRecipeIndex();
+    fillRecipeIndex();
+  }
+
+  // CHORES
+
+  @Query("SELECT rowid FROM chore_fts WHERE chore_fts MATCH :query")
+  public abstract Single<List<Integer>> searchChoreIds(String query);
+
+  @Query("DELETE FROM chore_fts")
+  public abstract void clearChoreIndex();
+
+  @Query("INSERT INTO chore_fts (rowid, name) SELECT id, name FROM chore_table")
+  public abstract void fillChoreIndex();
+
+  @Transaction
+  public void rebuildChoreIndex() {
+    clearChoreIndex();
+    fillChoreIndex();
+  }
+
+  // TASKS
+
+  @Query("SELECT rowid FROM task_fts WHERE task_fts MATCH :query")
+  public abstract Single<List<Integer>> searchTaskIds(String query);
+
+  @Query("DELETE FROM task_fts")
+  public abstract void clearTaskIndex();
+
+  @Query("INSERT INTO task_fts (rowid, name, description) "
+      + "SELECT id, name, description FROM task_table")
+  public abstract void fillTaskIndex();
+
+  @Transaction
+  public void rebuildTaskIndex() {
+    clearTaskIndex();
+    fillTaskIndex();
+  }
+}
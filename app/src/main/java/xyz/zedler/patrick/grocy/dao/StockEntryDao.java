@@ -33,10 +33,16 @@ public interface StockEntryDao {
   @Query("SELECT * FROM stock_entry_table")
   Single<List<StockEntry>> getStockEntries();
 
+  @Query("SELECT * FROM stock_entry_table WHERE product_id = :productId")
+  Single<List<StockEntry>> getStockEntries(int productId);
+
   @Insert(onConflict = OnConflictStrategy.REPLACE)
   Single<List<Long>> insertStockEntries(List<StockEntry> stockEntries);
 
   @Query("DELETE FROM stock_entry_table")
   Single<Integer> deleteStockEntries();
 
+  @Query("DELETE FROM stock_entry_table WHERE product_id = :productId")
+  Single<Integer> deleteStockEntries(int productId);
+
 }
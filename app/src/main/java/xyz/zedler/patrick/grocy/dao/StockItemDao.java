@@ -26,6 +26,7 @@ import androidx.room.Query;
 import io.reactivex.rxjava3.core.Single;
 import java.util.List;
 import xyz.zedler.patrick.grocy.model.StockItem;
+import xyz.zedler.patrick.grocy.model.StockItemDetails;
 
 @Dao
 public interface StockItemDao {
@@ -33,6 +34,26 @@ public interface StockItemDao {
   @Query("SELECT * FROM stock_item_table")
   Single<List<StockItem>> getStockItems();
 
+  @Query("SELECT ids.product_id AS product_id, "
+      + "average_price.price AS average_price, "
+      + "last_purchased.price AS last_price, "
+      + "(SELECT conversion.factor FROM quantity_unit_conversion_resolved_table conversion "
+      + "WHERE conversion.product_id = CAST(ids.product_id AS TEXT) "
+      + "AND conversion.from_qu_id = CAST(product.qu_id_price AS INTEGER) "
+      + "AND conversion.to_qu_id = CAST(product.qu_id_stock AS INTEGER) "
+      + "LIMIT 1) AS factor_price_to_stock, "
+      + "EXISTS (SELECT 1 FROM shopping_list_item_table shopping_list_item "
+      + "WHERE shopping_list_item.product_id = CAST(ids.product_id AS TEXT)) "
+      + "AS on_shopping_list "
+      + "FROM (SELECT product_id FROM stock_item_table "
+      + "UNION SELECT id AS product_id FROM missing_item_table) ids "
+      + "LEFT JOIN product_table product ON product.id = ids.product_id "
+      + "LEFT JOIN product_average_price_table average_price "
+      + "ON average_price.product_id = ids.product_id "
+      + "LEFT JOIN product_last_purchased_table last_purchased "
+      + "ON last_purchased.product_id = ids.product_id")
+  Single<List<StockItemDetails>> getStockItemDetails();
+
   @Insert(onConflict = OnConflictStrategy.REPLACE)
   Single<List<Long>> insertStockItems(List<StockItem> stockItems);
 
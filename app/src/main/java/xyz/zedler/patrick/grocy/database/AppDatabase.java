@@ -20,6 +20,9 @@
 package xyz.zedler.patrick.grocy.database;
 
 import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+import androidx.preference.PreferenceManager;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
@@ -27,6 +30,11 @@ import androidx.room.TypeConverters;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.UUID;
+import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.dao.ChoreDao;
 import xyz.zedler.patrick.grocy.dao.ChoreEntryDao;
 import xyz.zedler.patrick.grocy.dao.LocationDao;
@@ -48,6 +56,7 @@ import xyz.zedler.patrick.grocy.dao.RecipeFulfillmentDao;
 import xyz.zedler.patrick.grocy.dao.RecipeNestingDao;
 import xyz.zedler.patrick.grocy.dao.RecipePositionDao;
 import xyz.zedler.patrick.grocy.dao.RecipePositionResolvedDao;
+import xyz.zedler.patrick.grocy.dao.SearchDao;
 import xyz.zedler.patrick.grocy.dao.ServerDao;
 import xyz.zedler.patrick.grocy.dao.ShoppingListDao;
 import xyz.zedler.patrick.grocy.dao.ShoppingListItemDao;
@@ -60,9 +69,11 @@ import xyz.zedler.patrick.grocy.dao.TaskCategoryDao;
 import xyz.zedler.patrick.grocy.dao.TaskDao;
 import xyz.zedler.patrick.grocy.dao.UserDao;
 import xyz.zedler.patrick.grocy.dao.UserfieldDao;
+import xyz.zedler.patrick.grocy.dao.UserfieldValueDao;
 import xyz.zedler.patrick.grocy.dao.VolatileItemDao;
 import xyz.zedler.patrick.grocy.model.Chore;
 import xyz.zedler.patrick.grocy.model.ChoreEntry;
+import xyz.zedler.patrick.grocy.model.ChoreFts;
 import xyz.zedler.patrick.grocy.model.Location;
 import xyz.zedler.patrick.grocy.model.MealPlanEntry;
 import xyz.zedler.patrick.grocy.model.MealPlanSection;
@@ -72,12 +83,15 @@ import xyz.zedler.patrick.grocy.model.PendingProductBarcode;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductAveragePrice;
 import xyz.zedler.patrick.grocy.model.ProductBarcode;
+import xyz.zedler.patrick.grocy.model.ProductBarcodeFts;
+import xyz.zedler.patrick.grocy.model.ProductFts;
 import xyz.zedler.patrick.grocy.model.ProductGroup;
 import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.Recipe;
+import xyz.zedler.patrick.grocy.model.RecipeFts;
 import xyz.zedler.patrick.grocy.model.RecipeFulfillment;
 import xyz.zedler.patrick.grocy.model.RecipeNesting;
 import xyz.zedler.patrick.grocy.model.RecipeNestingResolved;
@@ -93,9 +107,12 @@ import xyz.zedler.patrick.grocy.model.Store;
 import xyz.zedler.patrick.grocy.model.StoredPurchase;
 import xyz.zedler.patrick.grocy.model.Task;
 import xyz.zedler.patrick.grocy.model.TaskCategory;
+import xyz.zedler.patrick.grocy.model.TaskFts;
 import xyz.zedler.patrick.grocy.model.User;
 import xyz.zedler.patrick.grocy.model.Userfield;
+import xyz.zedler.patrick.grocy.model.UserfieldValue;
 import xyz.zedler.patrick.grocy.model.VolatileItem;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
 import xyz.zedler.patrick.grocy.repository.MainRepository.OnVersionListener;
 
 @Database(
@@ -133,17 +150,27 @@ import xyz.zedler.patrick.grocy.repository.MainRepository.OnVersionListener;
         RecipeNesting.class,
         MealPlanEntry.class,
         MealPlanSection.class,
-        Userfield.class
+        Userfield.class,
+        UserfieldValue.class,
+        ProductFts.class,
+        ProductBarcodeFts.class,
+        RecipeFts.class,
+        ChoreFts.class,
+        TaskFts.class
     },
     views = {
         RecipeNestingResolved.class
     },
-    version = 54
+    version = AppDatabase.VERSION
 )
 @TypeConverters({Converters.class})
 public abstract class AppDatabase extends RoomDatabase {
 
-  private static AppDatabase INSTANCE;
+  private final static String TAG = AppDatabase.class.getSimpleName();
+  public final static String DATABASE_NAME = "app_database";
+  public final static int VERSION = 62;
+
+  private static final HashMap<String, AppDatabase> INSTANCES = new HashMap<>();
 
   public abstract ShoppingListDao shoppingListDao();
 
@@ -211,21 +238,107 @@ public abstract class AppDatabase extends RoomDatabase {
 
   public abstract UserfieldDao userfieldDao();
 
+  public abstract UserfieldValueDao userfieldValueDao();
+
+  public abstract SearchDao searchDao();
+
   public abstract ServerDao serverDao();
 
-  public static AppDatabase getAppDatabase(Context context) {
-    if (INSTANCE == null) {
-      INSTANCE = Room.databaseBuilder(
+  /**
+   * Every server has its own database file, so that switching back to a server only needs a
+   * delta refresh. The databases of previous servers are kept open, repositories and caches
+   * may still hold them.
+   */
+  public static synchronized AppDatabase getAppDatabase(Context context) {
+    SharedPreferences sharedPrefs = PreferenceManager.getDefaultSharedPreferences(context);
+    String name = getDatabaseName(sharedPrefs);
+    AppDatabase instance = INSTANCES.get(name);
+    if (instance == null) {
+      moveLegacyDatabase(context, sharedPrefs, name);
+      RoomDatabase.Builder<AppDatabase> builder = Room.databaseBuilder(
           context.getApplicationContext(),
           AppDatabase.class,
-          "app_database"
-      ).fallbackToDestructiveMigration().build();
+          name
+      ).addMigrations(Migrations.ALL)
+          .fallbackToDestructiveMigrationFrom(getVersionsWithoutMigration());
+      // always added, so that enabling debugging later collects stats without a restart,
+      // the callback returns right away while it is disabled
+      QueryStats.getInstance().setEnabled(PrefsUtil.isDebuggingEnabled(context));
+      builder.setQueryCallback(QueryStats.getInstance(), Runnable::run);
+      instance = builder.build();
+      INSTANCES.put(name, instance);
+    }
+    return instance;
+  }
+
+  public static String getDatabaseName(Context context) {
+    return getDatabaseName(PreferenceManager.getDefaultSharedPreferences(context));
+  }
+
+  public static String getDatabaseName(SharedPreferences sharedPrefs) {
+    String serverUrl = sharedPrefs.getString(Constants.PREF.SERVER_URL, null);
+    if (serverUrl == null || serverUrl.isEmpty()) {
+      // not the legacy name, so that it is not taken over by the next server
+      return DATABASE_NAME + "_no_server";
+    }
+    UUID serverId = UUID.nameUUIDFromBytes(serverUrl.getBytes(StandardCharsets.UTF_8));
+    return DATABASE_NAME + "_" + serverId;
+  }
+
+  /**
+   * Before there was one database file per server, all data was stored in the default file.
+   * It belongs to the server the user was logged in with when the app was updated, which is
+   * saved the first time this runs. The file is only taken over by the database of this server,
+   * and deleted if no server was logged in.
+   */
+  private static void moveLegacyDatabase(
+      Context context,
+      SharedPreferences sharedPrefs,
+      String name
+  ) {
+    File legacyFile = context.getDatabasePath(DATABASE_NAME);
+    if (!legacyFile.exists()) {
+      return;
+    }
+    String serverUrl = sharedPrefs.getString(Constants.PREF.SERVER_URL, "");
+    String legacyServerUrl = sharedPrefs.getString(
+        Constants.PREF.LEGACY_DATABASE_SERVER_URL, null
+    );
+    if (legacyServerUrl == null) {
+      legacyServerUrl = serverUrl;
+      sharedPrefs.edit()
+          .putString(Constants.PREF.LEGACY_DATABASE_SERVER_URL, legacyServerUrl).apply();
+    }
+    if (legacyServerUrl.isEmpty()) {
+      context.deleteDatabase(DATABASE_NAME);
+      return;
+    }
+    if (!legacyServerUrl.equals(serverUrl) || context.getDatabasePath(name).exists()) {
+      return;
+    }
+    File file = context.getDatabasePath(name);
+    for (String suffix : new String[]{"", "-wal", "-shm", "-journal"}) {
+      File legacyPart = new File(legacyFile.getPath() + suffix);
+      if (legacyPart.exists() && !legacyPart.renameTo(new File(file.getPath() + suffix))) {
+        Log.e(TAG, "moveLegacyDatabase: failed to move " + legacyPart.getName());
+      }
+    }
+  }
+
+  /**
+   * Versions before the first migration, Room rejects versions which are also the start version
+   * of a migration.
+   */
+  static int[] getVersionsWithoutMigration() {
+    int[] versions = new int[Migrations.FIRST_MIGRATABLE_VERSION - 1];
+    for (int i = 0; i < versions.length; i++) {
+      versions[i] = i + 1;
     }
-    return INSTANCE;
+    return versions;
   }
 
-  public static void destroyInstance() {
-    INSTANCE = null;
+  public static synchronized void destroyInstance() {
+    INSTANCES.clear();
   }
 
   public void getVersion(OnVersionListener versionListener) {
@@ -0,0 +1,332 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.database;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import androidx.annotation.NonNull;
+import androidx.core.util.Pair;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import xyz.zedler.patrick.grocy.api.GrocyApi.ENTITY;
+import xyz.zedler.patrick.grocy.model.RecipeNestingResolved;
+import xyz.zedler.patrick.grocy.model.UserfieldValue;
+import xyz.zedler.patrick.grocy.util.LocaleUtil;
+
+/**
+ * Hand-written migrations between schema versions, so that an app update keeps pending
+ * products, stored purchases, offline changes and the last sync times. The SQL has to match
+ * the exported schema of the target version in app/schemas exactly.
+ * Schemas older than the first migration are still recreated on update.
+ */
+public class Migrations {
+
+  public static final int FIRST_MIGRATABLE_VERSION = 54;
+
+  public static final Migration MIGRATION_54_55 = new Migration(54, 55) {
+    @Override
+    public void migrate(@NonNull SupportSQLiteDatabase db) {
+      db.execSQL("CREATE TABLE IF NOT EXISTS `userfield_value_table` (`entity` TEXT NOT NULL, "
+          + "`object_id` INTEGER NOT NULL, `field` TEXT NOT NULL, `value` TEXT, "
+          + "`typed_value` REAL, PRIMARY KEY(`entity`, `object_id`, `field`))");
+      db.execSQL("CREATE INDEX IF NOT EXISTS `index_userfield_value_table_entity_field_typed_"
+          + "value_value` ON `userfield_value_table` (`entity`, `field`, `typed_value`, `value`)");
+      db.execSQL("CREATE INDEX IF NOT EXISTS `index_userfield_value_table_entity_object_id` "
+          + "ON `userfield_value_table` (`entity`, `object_id`)");
+
+      moveUserfieldsToValueTable(db, "product_table", ENTITY.PRODUCTS);
+      moveUserfieldsToValueTable(db, "product_group_table", ENTITY.PRODUCT_GROUPS);
+      moveUserfieldsToValueTable(db, "quantity_unit_table", ENTITY.QUANTITY_UNITS);
+      moveUserfieldsToValueTable(db, "store_table", ENTITY.STORES);
+      moveUserfieldsToValueTable(db, "location_table", ENTITY.LOCATIONS);
+      moveUserfieldsToValueTable(db, "task_category_table", ENTITY.TASK_CATEGORIES);
+      moveUserfieldsToValueTable(db, "recipe_table", ENTITY.RECIPES);
+
+      String productColumns = "`id`, `name`, `description`, `product_group_id`, `active`, "
+          + "`location_id`, `shopping_location_id`, `qu_id_purchase`, `qu_id_stock`, "
+          + "`qu_factor_purchase_to_stock`, `qu_id_consume`, `qu_id_price`, "
+          + "`min_stock_amount`, `default_best_before_days`, "
+          + "`default_best_before_days_after_open`, `default_best_before_days_after_freezing`, "
+          + "`default_best_before_days_after_thawing`, `picture_file_name`, "
+          + "`enable_tare_weight_handling`, `tare_weight`, "
+          + "`not_check_stock_fulfillment_for_recipes`, `parent_product_id`, `calories`, "
+          + "`cumulate_min_stock_amount_of_sub_products`, `due_type`, `quick_consume_amount`, "
+          + "`quick_open_amount`, `hide_on_stock_overview`, `default_stock_label_type`, "
+          + "`auto_reprint_stock_label`, `should_not_be_frozen`, "
+          + "`treat_opened_as_out_of_stock`, `no_own_stock`, `default_consume_location_id`, "
+          + "`move_on_open`, `row_created_timestamp`";
+      String productColumnDefinitions = "`description` TEXT, `product_group_id` TEXT, "
+          + "`active` TEXT, `location_id` TEXT, `shopping_location_id` TEXT, "
+          + "`qu_id_purchase` TEXT, `qu_id_stock` TEXT, `qu_factor_purchase_to_stock` TEXT, "
+          + "`qu_id_consume` TEXT, `qu_id_price` TEXT, `min_stock_amount` TEXT, "
+          + "`default_best_before_days` TEXT, `default_best_before_days_after_open` TEXT, "
+          + "`default_best_before_days_after_freezing` TEXT, "
+          + "`default_best_before_days_after_thawing` TEXT, `picture_file_name` TEXT, "
+          + "`enable_tare_weight_handling` TEXT, `tare_weight` TEXT, "
+          + "`not_check_stock_fulfillment_for_recipes` TEXT, `parent_product_id` TEXT, "
+          + "`calories` TEXT, `cumulate_min_stock_amount_of_sub_products` TEXT, "
+          + "`due_type` TEXT, `quick_consume_amount` TEXT, `quick_open_amount` TEXT, "
+          + "`hide_on_stock_overview` TEXT, `default_stock_label_type` TEXT, "
+          + "`auto_reprint_stock_label` TEXT, `should_not_be_frozen` TEXT, "
+          + "`treat_opened_as_out_of_stock` TEXT, `no_own_stock` TEXT, "
+          + "`default_consume_location_id` TEXT, `move_on_open` TEXT, "
+          + "`row_created_timestamp` TEXT";
+
+      recreateTable(db, "product_table",
+          "(`id` INTEGER NOT NULL, `name` TEXT, " + productColumnDefinitions
+              + ", PRIMARY KEY(`id`))",
+          productColumns);
+      recreateTable(db, "pending_product_table",
+          "(`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `name` TEXT NOT NULL, "
+              + "`name_is_from_off` INTEGER NOT NULL, " + productColumnDefinitions + ")",
+          productColumns.replace("`name`, ", "`name`, `name_is_from_off`, "));
+      recreateTable(db, "product_group_table",
+          "(`id` INTEGER NOT NULL, `name` TEXT, `description` TEXT, "
+              + "`row_created_timestamp` TEXT, PRIMARY KEY(`id`))",
+          "`id`, `name`, `description`, `row_created_timestamp`");
+      recreateTable(db, "quantity_unit_table",
+          "(`id` INTEGER NOT NULL, `name` TEXT, `description` TEXT, `name_plural` TEXT, "
+              + "`plural_forms` TEXT, `row_created_timestamp` TEXT, PRIMARY KEY(`id`))",
+          "`id`, `name`, `description`, `name_plural`, `plural_forms`, "
+              + "`row_created_timestamp`");
+      recreateTable(db, "store_table",
+          "(`id` INTEGER NOT NULL, `name` TEXT, `description` TEXT, "
+              + "`row_created_timestamp` TEXT, PRIMARY KEY(`id`))",
+          "`id`, `name`, `description`, `row_created_timestamp`");
+      recreateTable(db, "location_table",
+          "(`id` INTEGER NOT NULL, `name` TEXT, `description` TEXT, "
+              + "`row_created_timestamp` TEXT, `is_freezer` TEXT, PRIMARY KEY(`id`))",
+          "`id`, `name`, `description`, `row_created_timestamp`, `is_freezer`");
+      recreateTable(db, "task_category_table",
+          "(`id` INTEGER NOT NULL, `name` TEXT, `description` TEXT, "
+              + "`row_created_timestamp` TEXT, PRIMARY KEY(`id`))",
+          "`id`, `name`, `description`, `row_created_timestamp`");
+
+      // the view depends on recipe_table and would break while the table is renamed
+      db.execSQL("DROP VIEW IF EXISTS `RecipeNestingResolved`");
+      recreateTable(db, "recipe_table",
+          "(`id` INTEGER NOT NULL, `name` TEXT, `description` TEXT, `product_id` TEXT, "
+              + "`type` TEXT, `picture_file_name` TEXT, `base_servings` REAL, "
+              + "`desired_servings` REAL, `not_check_shoppinglist` INTEGER NOT NULL, "
+              + "PRIMARY KEY(`id`))",
+          "`id`, `name`, `description`, `product_id`, `type`, `picture_file_name`, "
+              + "`base_servings`, `desired_servings`, `not_check_shoppinglist`");
+      createRecipeNestingResolvedView(db);
+    }
+  };
+
+  public static final Migration MIGRATION_55_56 = new Migration(55, 56) {
+    @Override
+    public void migrate(@NonNull SupportSQLiteDatabase db) {
+      db.execSQL("CREATE INDEX IF NOT EXISTS `index_shopping_list_item_table_product_id` "
+          + "ON `shopping_list_item_table` (`product_id`)");
+      db.execSQL("CREATE INDEX IF NOT EXISTS `index_quantity_unit_conversion_resolved_table_"
+          + "product_id_from_qu_id_to_qu_id` ON `quantity_unit_conversion_resolved_table` "
+          + "(`product_id`, `from_qu_id`, `to_qu_id`)");
+    }
+  };
+
+  public static final Migration MIGRATION_56_57 = new Migration(56, 57) {
+    @Override
+    public void migrate(@NonNull SupportSQLiteDatabase db) {
+      db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `product_fts` USING FTS4("
+          + "`name` TEXT, `description` TEXT, tokenize=unicode61)");
+      db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `product_barcode_fts` USING FTS4("
+          + "`barcode` TEXT, tokenize=unicode61)");
+      db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `recipe_fts` USING FTS4("
+          + "`name` TEXT, tokenize=unicode61)");
+      db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `chore_fts` USING FTS4("
+          + "`name` TEXT, tokenize=unicode61)");
+      db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `task_fts` USING FTS4("
+          + "`name` TEXT, `description` TEXT, tokenize=unicode61)");
+
+      // same as the rebuild methods in SearchDao
+      db.execSQL("INSERT INTO product_fts (rowid, name, description) "
+          + "SELECT id, name, description FROM product_table");
+      db.execSQL("INSERT INTO product_barcode_fts (rowid, barcode) "
+          + "SELECT id, barcode FROM product_barcode_table");
+      db.execSQL("INSERT INTO recipe_fts (rowid, name) SELECT id, name FROM recipe_table");
+      db.execSQL("INSERT INTO chore_fts (rowid, name) SELECT id, name FROM chore_table");
+      db.execSQL("INSERT INTO task_fts (rowid, name, description) "
+          + "SELECT id, name, description FROM task_table");
+    }
+  };
+
+  public static final Migration MIGRATION_57_58 = new Migration(57, 58) {
+    @Override
+    public void migrate(@NonNull SupportSQLiteDatabase db) {
+      // existing rows are parsed on first access until the next sync writes them again
+      db.execSQL("ALTER TABLE `stock_item_table` ADD COLUMN `best_before_date_epoch_day` INTEGER");
+      db.execSQL("ALTER TABLE `stock_entry_table` ADD COLUMN `best_before_date_epoch_day` INTEGER");
+      db.execSQL("ALTER TABLE `task_table` ADD COLUMN `due_date_epoch_day` INTEGER");
+      db.execSQL("ALTER TABLE `chore_entry_table` "
+          + "ADD COLUMN `next_estimated_execution_time_millis` INTEGER");
+    }
+  };
+
+  public static final Migration MIGRATION_58_59 = new Migration(58, 59) {
+    @Override
+    public void migrate(@NonNull SupportSQLiteDatabase db) {
+      db.execSQL("CREATE INDEX IF NOT EXISTS `index_meal_plan_entry_table_day` "
+          + "ON `meal_plan_entry_table` (`day`)");
+    }
+  };
+
+  public static final Migration MIGRATION_59_60 = new Migration(59, 60) {
+    @Override
+    public void migrate(@NonNull SupportSQLiteDatabase db) {
+      // resolved positions are stored per recipe, so their ids are only unique per recipe
+      recreateTable(db, "recipe_pos_resolved_table",
+          "(`id` INTEGER NOT NULL, `recipe_id` INTEGER NOT NULL, "
+              + "`recipe_pos_id` INTEGER NOT NULL, `product_id` INTEGER NOT NULL, "
+              + "`recipe_amount` REAL NOT NULL, `stock_amount` REAL NOT NULL, "
+              + "`need_fulfilled` INTEGER NOT NULL, `missing_amount` REAL NOT NULL, "
+              + "`amount_on_shopping_list` REAL NOT NULL, "
+              + "`need_fulfilled_with_shopping_list` INTEGER NOT NULL, `qu_id` INTEGER NOT NULL, "
+              + "`costs` REAL NOT NULL, `is_nested_recipe_pos` INTEGER NOT NULL, "
+              + "`ingredient_group` TEXT, `product_group` TEXT, `recipe_type` TEXT, "
+              + "`child_recipe_id` INTEGER NOT NULL, `note` TEXT, "
+              + "`recipe_variable_amount` TEXT, "
+              + "`only_check_single_unit_in_stock` INTEGER NOT NULL, "
+              + "`calories` REAL NOT NULL, `product_active` INTEGER NOT NULL, "
+              + "`due_score` INTEGER NOT NULL, `product_id_effective` INTEGER NOT NULL, "
+              + "`product_name` TEXT, PRIMARY KEY(`recipe_id`, `id`))",
+          "`id`, `recipe_id`, `recipe_pos_id`, `product_id`, `recipe_amount`, `stock_amount`, "
+              + "`need_fulfilled`, `missing_amount`, `amount_on_shopping_list`, "
+              + "`need_fulfilled_with_shopping_list`, `qu_id`, `costs`, "
+              + "`is_nested_recipe_pos`, `ingredient_group`, `product_group`, `recipe_type`, "
+              + "`child_recipe_id`, `note`, `recipe_variable_amount`, "
+              + "`only_check_single_unit_in_stock`, `calories`, `product_active`, `due_score`, "
+              + "`product_id_effective`, `product_name`");
+    }
+  };
+
+  public static final Migration MIGRATION_60_61 = new Migration(60, 61) {
+    @Override
+    public void migrate(@NonNull SupportSQLiteDatabase db) {
+      db.execSQL("CREATE INDEX IF NOT EXISTS `index_stock_entry_table_product_id` "
+          + "ON `stock_entry_table` (`product_id`)");
+    }
+  };
+
+  public static final Migration MIGRATION_61_62 = new Migration(61, 62) {
+    @Override
+    public void migrate(@NonNull SupportSQLiteDatabase db) {
+      db.execSQL("DROP INDEX IF EXISTS `index_userfield_value_table_entity_field_typed_value_"
+          + "value`");
+      db.execSQL("ALTER TABLE `userfield_value_table` ADD COLUMN `sort_key` BLOB");
+      db.execSQL("CREATE INDEX IF NOT EXISTS `index_userfield_value_table_entity_field_sort_key` "
+          + "ON `userfield_value_table` (`entity`, `field`, `sort_key`)");
+      fillUserfieldSortKeys(db);
+    }
+  };
+
+  public static final Migration[] ALL = {
+      MIGRATION_54_55,
+      MIGRATION_55_56,
+      MIGRATION_56_57,
+      MIGRATION_57_58,
+      MIGRATION_58_59,
+      MIGRATION_59_60,
+      MIGRATION_60_61,
+      MIGRATION_61_62
+  };
+
+  /**
+   * SQLite can't drop columns on older Android versions, so the table is copied into a new one
+   * with the given column definitions and renamed afterwards.
+   */
+  private static void recreateTable(
+      SupportSQLiteDatabase db,
+      String tableName,
+      String columnDefinitions,
+      String columns
+  ) {
+    String newTableName = tableName + "_new";
+    db.execSQL("CREATE TABLE IF NOT EXISTS `" + newTableName + "` " + columnDefinitions);
+    db.execSQL("INSERT INTO `" + newTableName + "` (" + columns + ") "
+        + "SELECT " + columns + " FROM `" + tableName + "`");
+    db.execSQL("DROP TABLE `" + tableName + "`");
+    db.execSQL("ALTER TABLE `" + newTableName + "` RENAME TO `" + tableName + "`");
+  }
+
+  private static void moveUserfieldsToValueTable(
+      SupportSQLiteDatabase db,
+      String tableName,
+      String entity
+  ) {
+    List<Pair<Integer, Map<String, String>>> userfieldsOfObjects = new ArrayList<>();
+    try (Cursor cursor = db.query("SELECT `id`, `userfields` FROM `" + tableName
+        + "` WHERE `userfields` IS NOT NULL")) {
+      while (cursor.moveToNext()) {
+        Map<String, String> userfields;
+        try {
+          userfields = Converters.stringToMap(cursor.getString(1));
+        } catch (RuntimeException e) {
+          continue; // values are synced again with the next download
+        }
+        userfieldsOfObjects.add(new Pair<>(cursor.getInt(0), userfields));
+      }
+    }
+    List<UserfieldValue> userfieldValues = UserfieldValue.getUserfieldValues(
+        entity, userfieldsOfObjects, pair -> pair.first, pair -> pair.second
+    );
+    for (UserfieldValue userfieldValue : userfieldValues) {
+      ContentValues values = new ContentValues();
+      values.put("entity", userfieldValue.getEntity());
+      values.put("object_id", userfieldValue.getObjectId());
+      values.put("field", userfieldValue.getField());
+      values.put("value", userfieldValue.getValue());
+      values.put("typed_value", userfieldValue.getTypedValue());
+      db.insert("userfield_value_table", SQLiteDatabase.CONFLICT_REPLACE, values);
+    }
+  }
+
+  private static void fillUserfieldSortKeys(SupportSQLiteDatabase db) {
+    Collator collator = Collator.getInstance(LocaleUtil.getLocale());
+    List<Pair<Object[], ContentValues>> updates = new ArrayList<>();
+    try (Cursor cursor = db.query("SELECT `entity`, `object_id`, `field`, `value`, "
+        + "`typed_value` FROM `userfield_value_table`")) {
+      while (cursor.moveToNext()) {
+        Double typedValue = !cursor.isNull(4) ? cursor.getDouble(4) : null;
+        ContentValues values = new ContentValues();
+        values.put("sort_key", UserfieldValue.getSortKey(
+            cursor.getString(3), typedValue, collator
+        ));
+        updates.add(new Pair<>(
+            new Object[]{cursor.getString(0), cursor.getInt(1), cursor.getString(2)}, values
+        ));
+      }
+    }
+    for (Pair<Object[], ContentValues> update : updates) {
+      db.update("userfield_value_table", SQLiteDatabase.CONFLICT_NONE, update.second,
+          "`entity` = ? AND `object_id` = ? AND `field` = ?", update.first);
+    }
+  }
+
+  private static void createRecipeNestingResolvedView(SupportSQLiteDatabase db) {
+    db.execSQL("CREATE VIEW `RecipeNestingResolved` AS " + RecipeNestingResolved.QUERY);
+  }
+}
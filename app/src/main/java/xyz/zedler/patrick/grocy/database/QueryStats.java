@@ -0,0 +1,351 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.database;
+
+import android.database.Cursor;
+import androidx.annotation.NonNull;
+import androidx.room.RoomDatabase;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.core.SingleTransformer;
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Collects query latencies while debugging is enabled. The query callback of Room is executed
+ * directly on the querying thread, so the statements of a timed window (e.g. one
+ * loadFromDatabase zip, whose sources run one after the other) can be timed by the start of
+ * the following statement and the end of the window.
+ */
+public class QueryStats implements RoomDatabase.QueryCallback {
+
+  public static final long SLOW_QUERY_MS = 50;
+  private static final int MAX_SLOW_QUERIES = 30;
+  private static final int MAX_SQL_LENGTH = 300;
+
+  private static final QueryStats INSTANCE = new QueryStats();
+
+  private final ThreadLocal<Window> currentWindow = new ThreadLocal<>();
+  private final HashMap<String, Histogram> queryHistograms = new HashMap<>();
+  private final HashMap<String, Histogram> windowHistograms = new HashMap<>();
+  private final HashMap<String, Integer> untimedQueryCounts = new HashMap<>();
+  private final ArrayDeque<SlowQuery> slowQueries = new ArrayDeque<>();
+  private volatile boolean enabled = false;
+  private long collectingSince = System.currentTimeMillis();
+
+  private QueryStats() {
+  }
+
+  public static QueryStats getInstance() {
+    return INSTANCE;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  @Override
+  public void onQuery(@NonNull String sqlQuery, @NonNull List<?> bindArgs) {
+    if (!enabled) {
+      return;
+    }
+    Window window = currentWindow.get();
+    if (window != null) {
+      window.addStatement(sqlQuery, bindArgs, System.nanoTime());
+      return;
+    }
+    String sql = shorten(sqlQuery);
+    synchronized (this) {
+      Integer count = untimedQueryCounts.get(sql);
+      untimedQueryCounts.put(sql, count != null ? count + 1 : 1);
+    }
+  }
+
+  /**
+   * Times the subscription of the upstream as one window. Use it before subscribeOn, so that
+   * the window is opened on the thread where the DAO queries are executed.
+   */
+  public static <T> SingleTransformer<T, T> timed(String name) {
+    return upstream -> Single.defer(() -> {
+      QueryStats stats = getInstance();
+      if (!stats.enabled) {
+        return upstream;
+      }
+      Window window = stats.openWindow(name);
+      return upstream.doFinally(() -> stats.closeWindow(window));
+    });
+  }
+
+  public Window openWindow(String name) {
+    Window window = new Window(name, System.nanoTime());
+    if (enabled) {
+      currentWindow.set(window);
+    }
+    return window;
+  }
+
+  public void closeWindow(Window window) {
+    long endNanos = System.nanoTime();
+    if (currentWindow.get() == window) {
+      currentWindow.remove();
+    }
+    if (!enabled) {
+      return;
+    }
+    List<Statement> statements = window.getStatements();
+    synchronized (this) {
+      getHistogram(windowHistograms, window.name).add(toMillis(endNanos - window.startNanos));
+      for (int i = 0; i < statements.size(); i++) {
+        Statement statement = statements.get(i);
+        long statementEnd = i + 1 < statements.size()
+            ? statements.get(i + 1).startNanos : endNanos;
+        double millis = toMillis(statementEnd - statement.startNanos);
+        getHistogram(queryHistograms, statement.sql).add(millis);
+        if (millis >= SLOW_QUERY_MS) {
+          if (slowQueries.size() >= MAX_SLOW_QUERIES) {
+            slowQueries.removeFirst();
+          }
+          slowQueries.addLast(new SlowQuery(
+              window.name, statement.sql, statement.bindArgs, millis, System.currentTimeMillis()
+          ));
+        }
+      }
+    }
+  }
+
+  public synchronized void reset() {
+    queryHistograms.clear();
+    windowHistograms.clear();
+    untimedQueryCounts.clear();
+    slowQueries.clear();
+    collectingSince = System.currentTimeMillis();
+  }
+
+  /**
+   * Builds a plain text report with the table sizes, has to be called off the main thread.
+   */
+  public String getReport(AppDatabase appDatabase, File databaseFile) {
+    SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.ENGLISH);
+    StringBuilder report = new StringBuilder();
+    report.append("Collecting: ").append(enabled ? "yes" : "no (enable debugging)").append('\n');
+    report.append("Since: ").append(dateFormat.format(new Date(collectingSince))).append('\n');
+    report.append("Database file: ").append(databaseFile.length() / 1024).append(" KiB\n");
+    report.append("Histogram buckets (ms): ").append(Histogram.getBucketLabels()).append("\n\n");
+
+    synchronized (this) {
+      report.append("== LOADS ==\n");
+      appendHistograms(report, windowHistograms);
+      report.append("\n== QUERIES ==\n");
+      appendHistograms(report, queryHistograms);
+
+      report.append("\n== SLOW QUERIES (>= ").append(SLOW_QUERY_MS).append(" ms) ==\n");
+      if (slowQueries.isEmpty()) {
+        report.append("none\n");
+      }
+      for (SlowQuery slowQuery : slowQueries) {
+        report.append(dateFormat.format(new Date(slowQuery.time))).append("  ")
+            .append(String.format(Locale.ENGLISH, "%.1f ms  ", slowQuery.millis))
+            .append(slowQuery.windowName).append('\n')
+            .append("  ").append(slowQuery.sql).append('\n');
+        if (!slowQuery.bindArgs.isEmpty()) {
+          report.append("  args: ").append(slowQuery.bindArgs).append('\n');
+        }
+      }
+
+      report.append("\n== UNTIMED QUERIES (count) ==\n");
+      for (Map.Entry<String, Integer> entry : getSortedCounts(untimedQueryCounts)) {
+        report.append(entry.getValue()).append("  ").append(entry.getKey()).append('\n');
+      }
+    }
+
+    report.append("\n== TABLES (rows) ==\n");
+    for (String table : getTableNames(appDatabase)) {
+      try (Cursor cursor = appDatabase.query("SELECT COUNT(*) FROM `" + table + "`", null)) {
+        if (cursor.moveToFirst()) {
+          report.append(cursor.getLong(0)).append("  ").append(table).append('\n');
+        }
+      } catch (Exception e) {
+        report.append("?  ").append(table).append(" (").append(e.getMessage()).append(")\n");
+      }
+    }
+    return report.toString();
+  }
+
+  private static List<String> getTableNames(AppDatabase appDatabase) {
+    List<String> tables = new ArrayList<>();
+    try (Cursor cursor = appDatabase.query(
+        "SELECT name FROM sqlite_master WHERE type = 'table' "
+            + "AND name NOT LIKE 'sqlite_%' AND name NOT LIKE 'android_%' ORDER BY name",
+        null
+    )) {
+      while (cursor.moveToNext()) {
+        tables.add(cursor.getString(0));
+      }
+    }
+    return tables;
+  }
+
+  private static void appendHistograms(StringBuilder report, HashMap<String, Histogram> map) {
+    if (map.isEmpty()) {
+      report.append("none\n");
+      return;
+    }
+    List<Map.Entry<String, Histogram>> entries = new ArrayList<>(map.entrySet());
+    // most expensive first
+    entries.sort((e1, e2) -> Double.compare(e2.getValue().totalMillis, e1.getValue().totalMillis));
+    for (Map.Entry<String, Histogram> entry : entries) {
+      Histogram histogram = entry.getValue();
+      report.append(String.format(
+          Locale.ENGLISH,
+          "n=%d  avg=%.1f  max=%.1f  total=%.0f ms  %s\n  %s\n",
+          histogram.count,
+          histogram.totalMillis / histogram.count,
+          histogram.maxMillis,
+          histogram.totalMillis,
+          histogram.getBucketCounts(),
+          entry.getKey()
+      ));
+    }
+  }
+
+  private static List<Map.Entry<String, Integer>> getSortedCounts(HashMap<String, Integer> map) {
+    List<Map.Entry<String, Integer>> entries = new ArrayList<>(map.entrySet());
+    entries.sort((e1, e2) -> Integer.compare(e2.getValue(), e1.getValue()));
+    return entries;
+  }
+
+  private static Histogram getHistogram(HashMap<String, Histogram> map, String key) {
+    Histogram histogram = map.get(key);
+    if (histogram == null) {
+      histogram = new Histogram();
+      map.put(key, histogram);
+    }
+    return histogram;
+  }
+
+  private static double toMillis(long nanos) {
+    return nanos / 1_000_000d;
+  }
+
+  private static String shorten(String sql) {
+    String oneLine = sql.replaceAll("\\s+", " ").trim();
+    return oneLine.length() > MAX_SQL_LENGTH
+        ? oneLine.substring(0, MAX_SQL_LENGTH) + "…" : oneLine;
+  }
+
+  public static class Window {
+
+    private final String name;
+    private final long startNanos;
+    private final List<Statement> statements = new ArrayList<>();
+
+    private Window(String name, long startNanos) {
+      this.name = name;
+      this.startNanos = startNanos;
+    }
+
+    private synchronized void addStatement(String sql, List<?> bindArgs, long startNanos) {
+      statements.add(new Statement(shorten(sql), String.valueOf(bindArgs), startNanos));
+    }
+
+    private synchronized List<Statement> getStatements() {
+      return new ArrayList<>(statements);
+    }
+  }
+
+  private static class Statement {
+
+    private final String sql;
+    private final String bindArgs;
+    private final long startNanos;
+
+    private Statement(String sql, String bindArgs, long startNanos) {
+      this.sql = sql;
+      this.bindArgs = bindArgs;
+      this.startNanos = startNanos;
+    }
+  }
+
+  private static class SlowQuery {
+
+    private final String windowName;
+    private final String sql;
+    private final String bindArgs;
+    private final double millis;
+    private final long time;
+
+    private SlowQuery(String windowName, String sql, String bindArgs, double millis, long time) {
+      this.windowName = windowName;
+      this.sql = sql;
+      this.bindArgs = "[]".equals(bindArgs) ? "" : bindArgs;
+      this.millis = millis;
+      this.time = time;
+    }
+  }
+
+  private static class Histogram {
+
+    // upper bounds of the buckets in ms, the last bucket takes everything above
+    private static final double[] BOUNDS = {1, 2, 5, 10, 25, 50, 100, 250, 500};
+
+    private final int[] buckets = new int[BOUNDS.length + 1];
+    private int count;
+    private double totalMillis;
+    private double maxMillis;
+
+    private void add(double millis) {
+      int bucket = 0;
+      while (bucket < BOUNDS.length && millis >= BOUNDS[bucket]) {
+        bucket++;
+      }
+      buckets[bucket]++;
+      count++;
+      totalMillis += millis;
+      maxMillis = Math.max(maxMillis, millis);
+    }
+
+    private String getBucketCounts() {
+      StringBuilder builder = new StringBuilder("[");
+      for (int i = 0; i < buckets.length; i++) {
+        if (i > 0) builder.append(' ');
+        builder.append(buckets[i]);
+      }
+      return builder.append(']').toString();
+    }
+
+    private static String getBucketLabels() {
+      StringBuilder builder = new StringBuilder("[");
+      for (double bound : BOUNDS) {
+        builder.append('<').append((int) bound).append(' ');
+      }
+      return builder.append(">=").append((int) BOUNDS[BOUNDS.length - 1]).append(']').toString();
+    }
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.fragment;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.MenuItem;
+import android.view.View;
+import android.view.ViewGroup;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.io.File;
+import xyz.zedler.patrick.grocy.R;
+import xyz.zedler.patrick.grocy.activity.MainActivity;
+import xyz.zedler.patrick.grocy.behavior.SystemBarBehavior;
+import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.database.QueryStats;
+import xyz.zedler.patrick.grocy.databinding.FragmentDatabaseStatsBinding;
+import xyz.zedler.patrick.grocy.util.ChipPool;
+
+public class DatabaseStatsFragment extends BaseFragment {
+
+  private final static String TAG = DatabaseStatsFragment.class.getSimpleName();
+
+  private FragmentDatabaseStatsBinding binding;
+  private MainActivity activity;
+  private Disposable reportDisposable;
+  private String report;
+
+  @Override
+  public View onCreateView(
+      @NonNull LayoutInflater inflater,
+      ViewGroup container,
+      Bundle savedInstanceState
+  ) {
+    binding = FragmentDatabaseStatsBinding.inflate(inflater, container, false);
+    return binding.getRoot();
+  }
+
+  @Override
+  public void onDestroyView() {
+    super.onDestroyView();
+    if (reportDisposable != null) {
+      reportDisposable.dispose();
+    }
+    binding = null;
+  }
+
+  @Override
+  public void onViewCreated(@Nullable View view, @Nullable Bundle savedInstanceState) {
+    activity = (MainActivity) requireActivity();
+    binding.setActivity(activity);
+
+    SystemBarBehavior systemBarBehavior = new SystemBarBehavior(activity);
+    systemBarBehavior.setAppBar(binding.appBar);
+    systemBarBehavior.setScroll(binding.scroll, binding.frameContainer);
+    systemBarBehavior.setUp();
+    activity.setSystemBarBehavior(systemBarBehavior);
+
+    binding.toolbar.setNavigationOnClickListener(v -> activity.navUtil.navigateUp());
+
+    activity.getScrollBehavior().setNestedOverScrollFixEnabled(false);
+    activity.getScrollBehavior().setUpScroll(
+        binding.appBar, false, binding.scroll, true
+    );
+    activity.getScrollBehavior().setBottomBarVisibility(true);
+    activity.updateBottomAppBar(false, R.menu.menu_database_stats, this::onMenuItemClick);
+
+    loadReport();
+  }
+
+  private void loadReport() {
+    if (reportDisposable != null) {
+      reportDisposable.dispose();
+    }
+    AppDatabase appDatabase = AppDatabase.getAppDatabase(activity);
+    File databaseFile = activity.getDatabasePath(AppDatabase.getDatabaseName(activity));
+    // read here because the chip pools are only used on the main thread
+    String chipPoolReport = ChipPool.getReport();
+    reportDisposable = Single.fromCallable(
+            () -> QueryStats.getInstance().getReport(appDatabase, databaseFile)
+                + "\n== CHIP POOL ==\n" + chipPoolReport
+        )
+        .subscribeOn(Schedulers.io())
+        .observeOn(AndroidSchedulers.mainThread())
+        .subscribe(
+            report -> {
+              this.report = report;
+              if (binding != null) {
+                binding.text.setText(report);
+              }
+            },
+            error -> {
+              if (binding != null) {
+                binding.text.setText(error.toString());
+              }
+            }
+        );
+  }
+
+  private boolean onMenuItemClick(MenuItem item) {
+    if (item.getItemId() == R.id.action_refresh) {
+      loadReport();
+      return true;
+    } else if (item.getItemId() == R.id.action_share) {
+      if (report == null) {
+        return true;
+      }
+      Intent intent = new Intent(Intent.ACTION_SEND);
+      intent.putExtra(Intent.EXTRA_SUBJECT, getString(R.string.title_database_stats));
+      intent.putExtra(Intent.EXTRA_TEXT, report);
+      intent.setType("text/plain");
+      startActivity(Intent.createChooser(intent, null));
+      return true;
+    } else if (item.getItemId() == R.id.action_reset) {
+      QueryStats.getInstance().reset();
+      ChipPool.resetCounters();
+      loadReport();
+      return true;
+    }
+    return false;
+  }
+}
@@ -194,6 +194,7 @@ public class MealPlanFragment extends BaseFragment {
       binding.viewPager.setCurrentItem(position, viewModel.isInitialScrollDone());
       if (!viewModel.isInitialScrollDone()) viewModel.setInitialScrollDone(true);
       viewModel.getWeekCostsTextLive().setValue(viewModel.getWeekCostsText());
+      viewModel.updateWindow();
     });
 
     viewModel.getFilterChipLiveDataHeaderFields().observe(getViewLifecycleOwner(), data -> {
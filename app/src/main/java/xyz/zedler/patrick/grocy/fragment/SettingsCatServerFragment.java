@@ -190,8 +190,11 @@ public class SettingsCatServerFragment extends BaseFragment {
         .setMessage(isDemoInstance ? R.string.msg_logout_demo : R.string.msg_logout)
         .setPositiveButton(R.string.action_logout, (dialog, which) -> {
           performHapticHeavyClick();
-          viewModel.clearAllTables();
-          viewModel.clearServerRelatedSharedPreferences();
+          // the database of a real server is kept for the next login with this server
+          if (isDemoInstance) {
+            viewModel.clearAllTables();
+          }
+          viewModel.clearServerRelatedSharedPreferences(!isDemoInstance);
           new Handler().postDelayed(() -> RestartUtil.restartApp(requireContext()), 500);
         }).setNegativeButton(R.string.action_cancel, (dialog, which) -> performHapticClick())
         .setOnCancelListener(dialog -> performHapticClick())
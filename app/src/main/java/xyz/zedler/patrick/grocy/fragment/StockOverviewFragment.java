@@ -160,16 +160,14 @@ public class StockOverviewFragment extends BaseFragment implements
       adapter.updateData(
           requireContext(),
           items,
-          viewModel.getShoppingListItemsProductIds(),
+          viewModel.getStockItemDetailsHashMap(),
           viewModel.getQuantityUnitHashMap(),
-          viewModel.getQuantityUnitConversions(),
-          viewModel.getProductAveragePriceHashMap(),
-          viewModel.getProductLastPurchasedHashMap(),
           viewModel.getProductGroupHashMap(),
           viewModel.getProductHashMap(),
           viewModel.getLocationHashMap(),
           viewModel.getProductIdsMissingItems(),
           viewModel.getUserfieldHashMap(),
+          viewModel.getUserfieldSortRanksHashMap(),
           viewModel.getSortMode(),
           viewModel.isSortAscending(),
           viewModel.getGroupingMode(),
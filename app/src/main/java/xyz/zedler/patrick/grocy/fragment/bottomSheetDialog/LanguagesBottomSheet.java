@@ -28,6 +28,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatDelegate;
 import androidx.core.os.LocaleListCompat;
+import androidx.preference.PreferenceManager;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.activity.MainActivity;
@@ -35,6 +36,7 @@ import xyz.zedler.patrick.grocy.adapter.LanguageAdapter;
 import xyz.zedler.patrick.grocy.databinding.FragmentBottomsheetListSelectionBinding;
 import xyz.zedler.patrick.grocy.model.Language;
 import xyz.zedler.patrick.grocy.util.LocaleUtil;
+import xyz.zedler.patrick.grocy.util.PrefsUtil;
 import xyz.zedler.patrick.grocy.util.RestartUtil;
 import xyz.zedler.patrick.grocy.util.UiUtil;
 import xyz.zedler.patrick.grocy.util.ViewUtil;
@@ -90,6 +92,10 @@ public class LanguagesBottomSheet extends BaseBottomSheetDialogFragment
     if (!previous.equals(selected)) {
       performHapticClick();
       AppCompatDelegate.setApplicationLocales(selected);
+      // sort keys of the stored userfield values depend on the language
+      PrefsUtil.clearCachingRelatedSharedPreferences(
+          PreferenceManager.getDefaultSharedPreferences(requireContext())
+      );
       RestartUtil.restartApp(requireContext());
     }
   }
@@ -0,0 +1,73 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import android.os.Handler;
+import android.os.Looper;
+import androidx.recyclerview.widget.DiffUtil;
+import java.util.ArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Like AsyncListDiffer, but for the grouped adapters: the new grouped list is built and diffed
+ * against the old one on a background thread, and only the result of the latest submit is
+ * applied on the main thread. Until then, the adapter keeps showing its old data.
+ * Everything read on the background thread must not be modified afterwards, so adapters
+ * replace their lists and maps when applying instead of refilling them.
+ */
+public class AsyncDiffer<T> {
+
+  private static final Executor DIFF_EXECUTOR = Executors.newFixedThreadPool(2);
+
+  private final Handler mainHandler = new Handler(Looper.getMainLooper());
+  private int maxScheduledGeneration = 0;
+
+  /**
+   * Has to be called on the main thread. newItems and diffCallback are called on a background
+   * thread, apply is called on the main thread.
+   */
+  public void submit(
+      Supplier<ArrayList<T>> newItems,
+      Function<ArrayList<T>, DiffUtil.Callback> diffCallback,
+      BiConsumer<ArrayList<T>, DiffUtil.DiffResult> apply
+  ) {
+    int generation = ++maxScheduledGeneration;
+    DIFF_EXECUTOR.execute(() -> {
+      ArrayList<T> items = newItems.get();
+      DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback.apply(items));
+      mainHandler.post(() -> {
+        if (generation == maxScheduledGeneration) {
+          apply.accept(items, diffResult);
+        }
+      });
+    });
+  }
+
+  /**
+   * Drops the pending results, e.g. if the adapter has been detached with its view.
+   */
+  public void cancel() {
+    maxScheduledGeneration++;
+  }
+}
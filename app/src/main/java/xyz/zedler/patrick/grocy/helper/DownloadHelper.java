@@ -37,8 +37,15 @@ import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParseException;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.functions.Action;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.UUID;
 import org.json.JSONArray;
@@ -47,6 +54,7 @@ import org.json.JSONObject;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.database.QueryStats;
 import xyz.zedler.patrick.grocy.model.Chore;
 import xyz.zedler.patrick.grocy.model.ChoreEntry;
 import xyz.zedler.patrick.grocy.model.Location;
@@ -63,6 +71,7 @@ import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.Recipe;
 import xyz.zedler.patrick.grocy.model.RecipeFulfillment;
+import xyz.zedler.patrick.grocy.model.RecipeNesting;
 import xyz.zedler.patrick.grocy.model.RecipePosition;
 import xyz.zedler.patrick.grocy.model.RecipePositionResolved;
 import xyz.zedler.patrick.grocy.model.ShoppingList;
@@ -103,11 +112,17 @@ public class DownloadHelper {
   public final AppDatabase appDatabase;
 
   private final ArrayList<NetworkQueue> queueArrayList;
+  // open sync transactions of running updateData queues, key is the uuid of the queue
+  private final HashMap<String, SyncTransaction> syncTransactions;
   public final String tag;
   private final String apiKey;
   public final boolean debug;
   private final int timeoutSeconds;
   private int loadingRequests;
+  private LocalDate mealPlanWindowStart;
+  private int mealPlanWindowWeeks;
+  private Collection<Integer> recipeIdsForPositionsResolved;
+  private Integer productIdForStockEntries;
 
   public DownloadHelper(
       Application application,
@@ -127,6 +142,7 @@ public class DownloadHelper {
     apiKey = sharedPrefs.getString(Constants.PREF.API_KEY, "");
     uuidHelper = UUID.randomUUID().toString();
     queueArrayList = new ArrayList<>();
+    syncTransactions = new HashMap<>();
     loadingRequests = 0;
     this.onLoadingListener = onLoadingListener;
     this.offlineLive = offlineLive;
@@ -155,6 +171,7 @@ public class DownloadHelper {
     this.apiKey = apiKey;
     uuidHelper = UUID.randomUUID().toString();
     queueArrayList = new ArrayList<>();
+    syncTransactions = new HashMap<>();
     loadingRequests = 0;
     this.onLoadingListener = onLoadingListener;
     this.offlineLive = null;
@@ -177,9 +194,33 @@ public class DownloadHelper {
     for (NetworkQueue queue : queueArrayList) {
       queue.reset(true);
     }
+    syncTransactions.clear();
     requestQueue.cancelAll(uuidHelper);
   }
 
+  /**
+   * Meal plan entries are only downloaded for the given weeks by updateData of this helper.
+   */
+  public void setMealPlanWindow(LocalDate windowStart, int windowWeeks) {
+    mealPlanWindowStart = windowStart;
+    mealPlanWindowWeeks = windowWeeks;
+  }
+
+  /**
+   * Resolved recipe positions are only downloaded for the given recipes by updateData of this
+   * helper.
+   */
+  public void setRecipeIdsForPositionsResolved(Collection<Integer> recipeIds) {
+    recipeIdsForPositionsResolved = recipeIds;
+  }
+
+  /**
+   * Stock entries are only downloaded for the given product by updateData of this helper.
+   */
+  public void setProductIdForStockEntries(Integer productId) {
+    productIdForStockEntries = productId;
+  }
+
   public String getUuid() {
     return uuidHelper;
   }
@@ -488,16 +529,32 @@ public class DownloadHelper {
       return;
     }
 
+    // all downloaded objects are written in one transaction after the last response
+    SyncTransaction transaction = new SyncTransaction();
     NetworkQueue queue = newQueue(updated -> {
-      if (offlineLive != null) offlineLive.setValue(false);
-      onFinished.onQueueEmpty(updated);
+      syncTransactions.values().remove(transaction);
+      transaction.commit(appDatabase)
+          .subscribeOn(Schedulers.io())
+          .observeOn(AndroidSchedulers.mainThread())
+          .subscribe(() -> {
+            if (offlineLive != null) offlineLive.setValue(false);
+            onFinished.onQueueEmpty(updated);
+          }, throwable -> {
+            Log.e(tag, "updateData: sync transaction failed: " + throwable);
+            if (errorsOnlyWithForceUpdate && !forceUpdate) {
+              return;
+            }
+            errorListener.onError(throwable);
+          });
     }, error -> {
+      syncTransactions.values().remove(transaction);
       if (offlineLive != null) offlineLive.setValue(true);
       if (errorsOnlyWithForceUpdate && !forceUpdate) {
         return;
       }
       errorListener.onError(error);
     });
+    syncTransactions.put(queue.getUuid(), transaction);
 
     for (Class<?> type : types) {
       if (type == Product.class) {
@@ -525,7 +582,13 @@ public class DownloadHelper {
       } else if (type == StockItem.class) {
         queue.append(StockItem.updateStockItems(this, dbChangedTime, forceUpdate, null));
       } else if (type == StockEntry.class) {
-        queue.append(StockEntry.updateStockEntries(this, dbChangedTime, forceUpdate, null));
+        if (productIdForStockEntries != null) {
+          queue.append(StockEntry.updateStockEntriesOfProduct(
+              this, dbChangedTime, forceUpdate, productIdForStockEntries
+          ));
+        } else {
+          queue.append(StockEntry.updateStockEntries(this, dbChangedTime, forceUpdate, null));
+        }
       } else if (type == VolatileItem.class) {
         queue.append(VolatileItem.updateVolatile(this, dbChangedTime, forceUpdate, null));
       } else if (type == MissingItem.class) {
@@ -555,11 +618,23 @@ public class DownloadHelper {
       } else if (type == RecipePosition.class) {
         queue.append(RecipePosition.updateRecipePositions(this, dbChangedTime, forceUpdate, null));
       } else if (type == RecipePositionResolved.class) {
-        queue.append(RecipePositionResolved.updateRecipePositionsResolved(this, dbChangedTime, forceUpdate, null));
+        if (recipeIdsForPositionsResolved != null) {
+          queue.append(RecipePositionResolved.updateRecipePositionsResolvedOfRecipes(
+              this, dbChangedTime, forceUpdate, recipeIdsForPositionsResolved
+          ));
+        } else {
+          queue.append(RecipePositionResolved.updateRecipePositionsResolved(
+              this, dbChangedTime, forceUpdate, null
+          ));
+        }
+      } else if (type == RecipeNesting.class) {
+        queue.append(RecipeNesting.updateRecipeNestings(this, dbChangedTime, forceUpdate, null));
       } else if (type == Userfield.class) {
         queue.append(Userfield.updateUserfields(this, dbChangedTime, forceUpdate, null));
       } else if (type == MealPlanEntry.class) {
-        queue.append(MealPlanEntry.updateMealPlanEntries(this, dbChangedTime, null));
+        queue.append(MealPlanEntry.updateMealPlanEntries(
+            this, dbChangedTime, mealPlanWindowStart, mealPlanWindowWeeks, null
+        ));
       } else if (type == MealPlanSection.class) {
         queue.append(MealPlanSection.updateMealPlanSections(this, dbChangedTime, null));
       }
@@ -569,6 +644,54 @@ public class DownloadHelper {
     queue.start();
   }
 
+  /**
+   * Writes downloaded objects to the database. If the QueueItem belongs to a queue of
+   * updateData, the writes are only collected here and executed together with all other
+   * entities of the queue in one transaction. Otherwise they are executed directly.
+   * The prefsWrites (db-changed-times) are executed only after the writes have succeeded,
+   * so they are never saved for data which has been rolled back.
+   */
+  public Completable writeToDatabase(@Nullable String uuid, Action writes, Action prefsWrites) {
+    SyncTransaction transaction = uuid != null ? syncTransactions.get(uuid) : null;
+    if (transaction == null) {
+      return writeDirectly(writes, prefsWrites);
+    }
+    return Completable.fromAction(() -> transaction.add(writes, prefsWrites));
+  }
+
+  /**
+   * Like writeToDatabase, but inside of an updateData transaction the writes are executed after
+   * the writes of all other entities, so they can read what the other entities have written.
+   */
+  public Completable writeToDatabaseLast(
+      @Nullable String uuid,
+      Action writes,
+      Action prefsWrites
+  ) {
+    SyncTransaction transaction = uuid != null ? syncTransactions.get(uuid) : null;
+    if (transaction == null) {
+      return writeDirectly(writes, prefsWrites);
+    }
+    return Completable.fromAction(() -> transaction.addLast(writes, prefsWrites));
+  }
+
+  private static Completable writeDirectly(Action writes, Action prefsWrites) {
+    return Completable.fromAction(() -> {
+      writes.run();
+      onDatabaseWritten();
+      prefsWrites.run();
+    });
+  }
+
+  /**
+   * Room notifies the observers of the caches asynchronously after the write, so without
+   * this a screen which reloads directly after the sync could still get the old data.
+   */
+  private static void onDatabaseWritten() {
+    MasterDataCache.getInstance().invalidate();
+    RecipePositionCache.getInstance().invalidate();
+  }
+
   public interface OnObjectsResponseListener<T> {
 
     void onResponse(List<T> objects);
@@ -619,6 +742,63 @@ public class DownloadHelper {
     void onFinished(@StringRes int msg);
   }
 
+  public static class SyncTransaction {
+
+    private final List<Action> writes = new ArrayList<>();
+    private final List<Action> lastWrites = new ArrayList<>();
+    private final List<Action> prefsWrites = new ArrayList<>();
+
+    public synchronized void add(Action write, Action prefsWrite) {
+      writes.add(write);
+      prefsWrites.add(prefsWrite);
+    }
+
+    public synchronized void addLast(Action write, Action prefsWrite) {
+      lastWrites.add(write);
+      prefsWrites.add(prefsWrite);
+    }
+
+    public Completable commit(AppDatabase appDatabase) {
+      return Completable.fromAction(() -> {
+        List<Action> writesToCommit;
+        List<Action> prefsWritesToCommit;
+        synchronized (this) {
+          if (writes.isEmpty() && lastWrites.isEmpty()) {
+            return;
+          }
+          writesToCommit = new ArrayList<>(writes);
+          writesToCommit.addAll(lastWrites);
+          prefsWritesToCommit = new ArrayList<>(prefsWrites);
+          writes.clear();
+          lastWrites.clear();
+          prefsWrites.clear();
+        }
+        // Room reuses the compiled insert and delete statements of the DAOs within the
+        // transaction, and the journal is synced only once for all entities
+        QueryStats.Window window = QueryStats.getInstance().openWindow("SyncTransaction.commit");
+        try {
+          appDatabase.runInTransaction(() -> {
+            for (Action write : writesToCommit) {
+              try {
+                write.run();
+              } catch (Throwable e) {
+                throw new RuntimeException(e);
+              }
+            }
+          });
+        } finally {
+          QueryStats.getInstance().closeWindow(window);
+        }
+        onDatabaseWritten();
+        // not reached if the transaction has been rolled back, so the db-changed-times of the
+        // next update still point to the data which is actually in the database
+        for (Action prefsWrite : prefsWritesToCommit) {
+          prefsWrite.run();
+        }
+      });
+    }
+  }
+
   public static class BadDoubleDeserializer implements JsonDeserializer<Double> {
     @Override
     public Double deserialize(JsonElement element, Type type, JsonDeserializationContext context) throws JsonParseException {
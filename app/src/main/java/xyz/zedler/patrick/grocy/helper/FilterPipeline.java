@@ -0,0 +1,96 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import android.util.Log;
+import androidx.annotation.Nullable;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Runs the filtering and sorting of a list screen on a background thread. Every submit cancels
+ * the previous one, so only the result of the latest submit is posted on the main thread.
+ * The filter must only read state which has been captured on the main thread before submitting.
+ */
+public class FilterPipeline {
+
+  public static final long SEARCH_DEBOUNCE_MILLIS = 200;
+
+  private final String tag;
+  private volatile long generation = 0;
+  private Disposable disposable;
+
+  public FilterPipeline(String tag) {
+    this.tag = tag;
+  }
+
+  public interface Filter<R> {
+
+    /**
+     * Can return null to stop early if isCancelled returns true, the result would not be
+     * posted anyway.
+     */
+    @Nullable
+    R apply(BooleanSupplier isCancelled);
+  }
+
+  /**
+   * Has to be called on the main thread, onResult is called on the main thread as well.
+   */
+  public <R> void submit(long delayMillis, Filter<R> filter, Consumer<R> onResult) {
+    cancel();
+    long submitted = ++generation;
+    BooleanSupplier isCancelled = () -> generation != submitted;
+
+    Maybe<R> maybe = Maybe.fromCallable(
+        () -> isCancelled.getAsBoolean() ? null : filter.apply(isCancelled)
+    ).subscribeOn(Schedulers.computation());
+    if (delayMillis > 0) {
+      maybe = maybe.delaySubscription(delayMillis, TimeUnit.MILLISECONDS);
+    }
+    disposable = maybe
+        .observeOn(AndroidSchedulers.mainThread())
+        .subscribe(
+            result -> {
+              if (submitted == generation) {
+                onResult.accept(result);
+              }
+            },
+            error -> Log.e(tag, "filter: " + error)
+        );
+  }
+
+  public <R> void submit(Filter<R> filter, Consumer<R> onResult) {
+    submit(0, filter, onResult);
+  }
+
+  public void cancel() {
+    generation++;
+    if (disposable != null) {
+      disposable.dispose();
+      disposable = null;
+    }
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+import io.reactivex.rxjava3.core.Single;
+import java.util.Set;
+import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.model.MasterDataSnapshot;
+
+/**
+ * Process-wide cache of products, quantity units, locations, product groups and stores.
+ * The version is increased by Room's invalidation tracker after every committed write to one
+ * of these tables, so a snapshot is built once per change and then shared by all screens.
+ * Because the tracker runs asynchronously, DownloadHelper also invalidates the cache directly
+ * after its writes have been committed.
+ */
+public class MasterDataCache {
+
+  private static final String[] TABLES = {
+      "product_table",
+      "quantity_unit_table",
+      "location_table",
+      "product_group_table",
+      "store_table"
+  };
+
+  private static final MasterDataCache INSTANCE = new MasterDataCache();
+
+  private final long memoryBudgetBytes;
+  private AppDatabase appDatabase;
+  private InvalidationTracker.Observer observer;
+  private long version = 0;
+  private MasterDataSnapshot snapshot;
+  private Single<MasterDataSnapshot> pendingLoad;
+  private long pendingLoadVersion = -1;
+
+  private MasterDataCache() {
+    // a small part of the heap, the catalogue is copied again by the adapters
+    memoryBudgetBytes = Runtime.getRuntime().maxMemory() / 16;
+  }
+
+  public static MasterDataCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Emits the current snapshot, or loads it from the database of the current server if the
+   * master data has changed since. Has to be subscribed off the main thread.
+   */
+  public Single<MasterDataSnapshot> getSnapshot(Context context) {
+    Context appContext = context.getApplicationContext();
+    return Single.defer(() -> getOrLoadSnapshot(appContext));
+  }
+
+  private synchronized Single<MasterDataSnapshot> getOrLoadSnapshot(Context context) {
+    AppDatabase currentDatabase = AppDatabase.getAppDatabase(context);
+    if (currentDatabase != appDatabase) {
+      attachTo(currentDatabase);
+    }
+    if (snapshot != null && snapshot.getVersion() == version) {
+      return Single.just(snapshot);
+    }
+    if (pendingLoad != null && pendingLoadVersion == version) {
+      return pendingLoad;
+    }
+    long loadVersion = version;
+    AppDatabase database = appDatabase;
+    pendingLoadVersion = loadVersion;
+    pendingLoad = Single.zip(
+            database.productDao().getProducts(),
+            database.quantityUnitDao().getQuantityUnits(),
+            database.locationDao().getLocations(),
+            database.productGroupDao().getProductGroups(),
+            database.storeDao().getStores(),
+            (products, quantityUnits, locations, productGroups, stores) -> new MasterDataSnapshot(
+                loadVersion, products, quantityUnits, locations, productGroups, stores
+            )
+        )
+        .doOnSuccess(this::onLoaded)
+        .doOnError(error -> onLoadFailed(loadVersion))
+        .cache();
+    return pendingLoad;
+  }
+
+  private synchronized void onLoaded(MasterDataSnapshot loaded) {
+    if (pendingLoadVersion == loaded.getVersion()) {
+      pendingLoad = null;
+      pendingLoadVersion = -1;
+    }
+    if (loaded.getVersion() != version) {
+      // data has changed while loading, callers still get this snapshot once
+      return;
+    }
+    if (loaded.getEstimatedBytes() > memoryBudgetBytes) {
+      return;
+    }
+    snapshot = loaded;
+  }
+
+  private synchronized void onLoadFailed(long loadVersion) {
+    if (pendingLoadVersion == loadVersion) {
+      pendingLoad = null;
+      pendingLoadVersion = -1;
+    }
+  }
+
+  private void attachTo(AppDatabase database) {
+    if (appDatabase != null && observer != null) {
+      appDatabase.getInvalidationTracker().removeObserver(observer);
+    }
+    appDatabase = database;
+    observer = new InvalidationTracker.Observer(TABLES) {
+      @Override
+      public void onInvalidated(@NonNull Set<String> tables) {
+        invalidate();
+      }
+    };
+    database.getInvalidationTracker().addObserver(observer);
+    invalidate();
+  }
+
+  public synchronized void invalidate() {
+    version++;
+    snapshot = null;
+  }
+
+  /**
+   * Drops the snapshot if the system is short on memory, it is loaded again when needed.
+   */
+  public synchronized void trimMemory(int level) {
+    if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW
+        && level != ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN
+        && snapshot != null) {
+      snapshot = null;
+    }
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import xyz.zedler.patrick.grocy.helper.RecipeFulfillmentEngine.Demand;
+import xyz.zedler.patrick.grocy.model.MealPlanEntry;
+import xyz.zedler.patrick.grocy.model.RecipeFulfillment;
+import xyz.zedler.patrick.grocy.util.ArrayUtil;
+import xyz.zedler.patrick.grocy.util.NumUtil;
+
+/**
+ * Computes costs, calories and missing ingredients of the meal plan per entry, day and week
+ * with the RecipeFulfillmentEngine, instead of reading them from the downloaded fulfillments of
+ * the server's shadow recipes. Results are memoized per day and week and only computed again if
+ * the entries of the day or the stock, prices or recipes they depend on have changed.
+ * The engine has to be updated before.
+ */
+public class MealPlanAggregator {
+
+  private HashMap<String, Day> days = new HashMap<>();
+  private HashMap<LocalDate, Week> weeks = new HashMap<>();
+
+  public static class Result {
+
+    private final HashMap<String, RecipeFulfillment> resolvedFulfillments;
+    private final HashMap<LocalDate, RecipeFulfillment> weekFulfillments;
+
+    private Result(
+        HashMap<String, RecipeFulfillment> resolvedFulfillments,
+        HashMap<LocalDate, RecipeFulfillment> weekFulfillments
+    ) {
+      this.resolvedFulfillments = resolvedFulfillments;
+      this.weekFulfillments = weekFulfillments;
+    }
+
+    /**
+     * Keys are the same as the names of the server's shadow recipes: the day (yyyy-MM-dd) for
+     * the day summary and the day with the entry id (yyyy-MM-dd#id) for recipe entries.
+     */
+    public HashMap<String, RecipeFulfillment> getResolvedFulfillments() {
+      return resolvedFulfillments;
+    }
+
+    /**
+     * Keys are the first days of the weeks.
+     */
+    public HashMap<LocalDate, RecipeFulfillment> getWeekFulfillments() {
+      return weekFulfillments;
+    }
+  }
+
+  public synchronized Result update(List<MealPlanEntry> entries, DayOfWeek firstDayOfWeek) {
+    RecipeFulfillmentEngine engine = RecipeFulfillmentEngine.getInstance();
+    HashMap<String, RecipeFulfillment> resolvedFulfillments = new HashMap<>();
+    HashMap<LocalDate, List<Day>> daysByWeekStart = new HashMap<>();
+
+    HashMap<String, Day> newDays = new HashMap<>();
+    for (Map.Entry<String, List<MealPlanEntry>> dayEntries
+        : ArrayUtil.getMealPlanEntriesForDayHashMap(entries).entrySet()) {
+      String date = dayEntries.getKey();
+      Day day = days.get(date);
+      Demand demand = getDemand(dayEntries.getValue());
+      long version = engine.getVersion(demand);
+      if (day == null || !day.entries.equals(dayEntries.getValue()) || day.version != version) {
+        day = computeDay(engine, date, dayEntries.getValue(), demand, version);
+      }
+      newDays.put(date, day);
+      resolvedFulfillments.putAll(day.fulfillments);
+
+      try {
+        LocalDate weekStart = LocalDate.parse(date)
+            .with(TemporalAdjusters.previousOrSame(firstDayOfWeek));
+        List<Day> weekDays = daysByWeekStart.get(weekStart);
+        if (weekDays == null) {
+          weekDays = new ArrayList<>();
+          daysByWeekStart.put(weekStart, weekDays);
+        }
+        weekDays.add(day);
+      } catch (DateTimeParseException ignored) {
+      }
+    }
+    days = newDays;
+
+    HashMap<LocalDate, RecipeFulfillment> weekFulfillments = new HashMap<>();
+    HashMap<LocalDate, Week> newWeeks = new HashMap<>();
+    for (Map.Entry<LocalDate, List<Day>> weekDays : daysByWeekStart.entrySet()) {
+      Demand demand = new Demand();
+      for (Day day : weekDays.getValue()) {
+        demand.addAll(day.demand);
+      }
+      Week week = weeks.get(weekDays.getKey());
+      long version = engine.getVersion(demand);
+      if (week == null || !week.demand.equals(demand) || week.version != version) {
+        week = new Week(demand, version, engine.getFulfillment(demand));
+      }
+      newWeeks.put(weekDays.getKey(), week);
+      weekFulfillments.put(weekDays.getKey(), week.fulfillment);
+    }
+    weeks = newWeeks;
+
+    return new Result(resolvedFulfillments, weekFulfillments);
+  }
+
+  private static Day computeDay(
+      RecipeFulfillmentEngine engine,
+      String date,
+      List<MealPlanEntry> entries,
+      Demand demand,
+      long version
+  ) {
+    HashMap<String, RecipeFulfillment> fulfillments = new HashMap<>();
+    for (MealPlanEntry entry : entries) {
+      if (!MealPlanEntry.TYPE_RECIPE.equals(entry.getType())
+          || !NumUtil.isStringInt(entry.getRecipeId())) {
+        continue;
+      }
+      double servings = getServings(entry);
+      Demand entryDemand = new Demand();
+      entryDemand.addRecipe(Integer.parseInt(entry.getRecipeId()), servings);
+      RecipeFulfillment fulfillment = engine.getFulfillment(entryDemand);
+      // energy of recipe entries is displayed per serving, costs as total
+      fulfillment.setCalories(fulfillment.getCalories() / servings);
+      fulfillments.put(date + "#" + entry.getId(), fulfillment);
+    }
+    if (!demand.isEmpty()) {
+      fulfillments.put(date, engine.getFulfillment(demand));
+    }
+    return new Day(new ArrayList<>(entries), demand, version, fulfillments);
+  }
+
+  private static Demand getDemand(List<MealPlanEntry> entries) {
+    Demand demand = new Demand();
+    for (MealPlanEntry entry : entries) {
+      if (MealPlanEntry.TYPE_RECIPE.equals(entry.getType())
+          && NumUtil.isStringInt(entry.getRecipeId())) {
+        demand.addRecipe(Integer.parseInt(entry.getRecipeId()), getServings(entry));
+      } else if (MealPlanEntry.TYPE_PRODUCT.equals(entry.getType())
+          && NumUtil.isStringInt(entry.getProductId())) {
+        // product amounts of the meal plan are stored in the stock unit
+        double amount = NumUtil.parseDouble(entry.getProductAmount());
+        if (!Double.isNaN(amount)) {
+          demand.addProduct(Integer.parseInt(entry.getProductId()), amount);
+        }
+      }
+    }
+    return demand;
+  }
+
+  private static double getServings(MealPlanEntry entry) {
+    double servings = NumUtil.parseDouble(entry.getRecipeServings());
+    return !Double.isNaN(servings) && servings > 0 ? servings : 1;
+  }
+
+  private static class Day {
+
+    private final List<MealPlanEntry> entries;
+    private final Demand demand;
+    private final long version;
+    private final HashMap<String, RecipeFulfillment> fulfillments;
+
+    private Day(
+        List<MealPlanEntry> entries,
+        Demand demand,
+        long version,
+        HashMap<String, RecipeFulfillment> fulfillments
+    ) {
+      this.entries = entries;
+      this.demand = demand;
+      this.version = version;
+      this.fulfillments = fulfillments;
+    }
+  }
+
+  private static class Week {
+
+    private final Demand demand;
+    private final long version;
+    private final RecipeFulfillment fulfillment;
+
+    private Week(Demand demand, long version, RecipeFulfillment fulfillment) {
+      this.demand = demand;
+      this.version = version;
+      this.fulfillment = fulfillment;
+    }
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import xyz.zedler.patrick.grocy.model.MissingItem;
+import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.StockItem;
+import xyz.zedler.patrick.grocy.util.NumUtil;
+
+/**
+ * Computes the products below their min stock amount from the local stock with the rules of the
+ * server's stock_missing_products view, so they don't depend on the last download of the
+ * volatile stock. Sub products of a parent which accumulates the min stock amounts of its sub
+ * products are checked together as the parent, all other products on their own.
+ * Opened amounts count as missing for products which treat opened as out of stock.
+ * If the products haven't changed since the last update, only the products with changed stock
+ * amounts are checked again.
+ */
+public class MinStockEngine {
+
+  private static MinStockEngine instance;
+
+  private List<Product> products;
+  private HashMap<Integer, Product> productHashMap;
+  private HashMap<Integer, Integer> checkedIdByProductId;
+  private HashMap<Integer, List<Product>> productsByCheckedId;
+  private HashMap<Integer, Double> amounts;
+  private HashMap<Integer, MissingItem> missingItems;
+
+  public static synchronized MinStockEngine getInstance() {
+    if (instance == null) {
+      instance = new MinStockEngine();
+    }
+    return instance;
+  }
+
+  /**
+   * Products must contain all products with min stock amount and their parent products.
+   * The returned list and its items are not modified by later updates.
+   */
+  public synchronized List<MissingItem> update(List<Product> products, List<StockItem> stockItems) {
+    boolean productsChanged = missingItems == null || !Objects.equals(this.products, products);
+    if (productsChanged) {
+      this.products = products;
+      buildCheckedProducts();
+    }
+
+    HashMap<Integer, Double> newAmounts = new HashMap<>();
+    for (StockItem stockItem : stockItems) {
+      Integer checkedId = checkedIdByProductId.get(stockItem.getProductId());
+      if (checkedId == null) {
+        continue;
+      }
+      Product product = productHashMap.get(stockItem.getProductId());
+      double amount = stockItem.getAmountDouble();
+      if (product != null && product.getTreatOpenedAsOutOfStockBoolean()) {
+        amount -= stockItem.getAmountOpenedDouble();
+      }
+      newAmounts.put(stockItem.getProductId(), amount);
+    }
+
+    if (productsChanged) {
+      amounts = newAmounts;
+      missingItems = new HashMap<>();
+      for (int checkedId : productsByCheckedId.keySet()) {
+        check(checkedId);
+      }
+    } else {
+      HashSet<Integer> changedCheckedIds = new HashSet<>();
+      for (Integer productId : newAmounts.keySet()) {
+        if (!Objects.equals(amounts.get(productId), newAmounts.get(productId))) {
+          changedCheckedIds.add(checkedIdByProductId.get(productId));
+        }
+      }
+      for (Integer productId : amounts.keySet()) {
+        if (!newAmounts.containsKey(productId)) {
+          changedCheckedIds.add(checkedIdByProductId.get(productId));
+        }
+      }
+      amounts = newAmounts;
+      for (int checkedId : changedCheckedIds) {
+        check(checkedId);
+      }
+    }
+    return new ArrayList<>(missingItems.values());
+  }
+
+  /**
+   * Same products in the same order as ProductDao.getProductsWithMinStockAmount, for callers
+   * which have already loaded them with other products. Equal lists let update only check the
+   * changed stock amounts.
+   */
+  public static List<Product> getProductsWithMinStockAmount(List<Product> products) {
+    HashSet<Integer> parentIds = new HashSet<>();
+    for (Product product : products) {
+      if (product.getMinStockAmountDouble() != 0
+          && NumUtil.isStringInt(product.getParentProductId())) {
+        parentIds.add(Integer.parseInt(product.getParentProductId()));
+      }
+    }
+    List<Product> productsWithMinStockAmount = new ArrayList<>();
+    for (Product product : products) {
+      if (product.getMinStockAmountDouble() != 0 || parentIds.contains(product.getId())) {
+        productsWithMinStockAmount.add(product);
+      }
+    }
+    return productsWithMinStockAmount;
+  }
+
+  private void buildCheckedProducts() {
+    productHashMap = new HashMap<>();
+    for (Product product : products) {
+      productHashMap.put(product.getId(), product);
+    }
+    checkedIdByProductId = new HashMap<>();
+    productsByCheckedId = new HashMap<>();
+    for (Product product : products) {
+      if (product.getMinStockAmountDouble() == 0) {
+        continue;
+      }
+      Product parent = NumUtil.isStringInt(product.getParentProductId())
+          ? productHashMap.get(Integer.parseInt(product.getParentProductId())) : null;
+      int checkedId;
+      if (parent != null && parent.getAccumulateSubProductsMinStockAmountBoolean()) {
+        checkedId = parent.getId();
+      } else if (product.isActive()) {
+        checkedId = product.getId();
+      } else {
+        continue;
+      }
+      checkedIdByProductId.put(product.getId(), checkedId);
+      List<Product> checkedProducts = productsByCheckedId.get(checkedId);
+      if (checkedProducts == null) {
+        checkedProducts = new ArrayList<>();
+        productsByCheckedId.put(checkedId, checkedProducts);
+      }
+      checkedProducts.add(product);
+    }
+  }
+
+  private void check(int checkedId) {
+    List<Product> checkedProducts = productsByCheckedId.get(checkedId);
+    Product product = productHashMap.get(checkedId);
+    if (checkedProducts == null || product == null) {
+      missingItems.remove(checkedId);
+      return;
+    }
+    double minStockAmount = 0;
+    double amount = 0;
+    for (Product checkedProduct : checkedProducts) {
+      minStockAmount += checkedProduct.getMinStockAmountDouble();
+      Double productAmount = amounts.get(checkedProduct.getId());
+      amount += productAmount != null ? productAmount : 0;
+    }
+    if (amount >= minStockAmount) {
+      missingItems.remove(checkedId);
+      return;
+    }
+    MissingItem missingItem = new MissingItem();
+    missingItem.setId(checkedId);
+    missingItem.setName(product.getName());
+    missingItem.setAmountMissing(String.valueOf(minStockAmount - amount));
+    missingItem.setIsPartlyInStock(amount > 0 ? "1" : "0");
+    missingItems.put(checkedId, missingItem);
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import android.content.SharedPreferences;
+import androidx.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+
+/**
+ * Sync state of an entity which can be downloaded as a whole or in parts, e.g. per product or
+ * per week. The db-changed-time of the last download is stored like for every other entity,
+ * the keys of the parts downloaded with this time are stored comma-separated.
+ * No stored keys with a matching db-changed-time means that the whole entity has been synced.
+ */
+public class PartialSyncState {
+
+  private final SharedPreferences sharedPrefs;
+  private final String lastTimeKey;
+  private final String syncedKeysKey;
+
+  public PartialSyncState(
+      SharedPreferences sharedPrefs,
+      String lastTimeKey,
+      String syncedKeysKey
+  ) {
+    this.sharedPrefs = sharedPrefs;
+    this.lastTimeKey = lastTimeKey;
+    this.syncedKeysKey = syncedKeysKey;
+  }
+
+  public boolean isFullySynced(String dbChangedTime) {
+    return isUpToDate(dbChangedTime) && sharedPrefs.getString(syncedKeysKey, null) == null;
+  }
+
+  public boolean isSynced(String dbChangedTime, String key) {
+    return isFullySynced(dbChangedTime) || getSyncedKeys(dbChangedTime).contains(key);
+  }
+
+  /**
+   * Keys of the parts synced with the given db-changed-time, empty if the whole entity has been
+   * synced or nothing has been synced with this time.
+   */
+  public LinkedHashSet<String> getSyncedKeys(String dbChangedTime) {
+    LinkedHashSet<String> syncedKeys = new LinkedHashSet<>();
+    String syncedKeysPref = sharedPrefs.getString(syncedKeysKey, null);
+    if (isUpToDate(dbChangedTime) && syncedKeysPref != null && !syncedKeysPref.isEmpty()) {
+      syncedKeys.addAll(Arrays.asList(syncedKeysPref.split(",")));
+    }
+    return syncedKeys;
+  }
+
+  /**
+   * Has to be called after the parts have been written, reads the stored keys again because
+   * other parts may have been written before in the same sync.
+   */
+  public void markSynced(String dbChangedTime, Collection<String> keys) {
+    if (isFullySynced(dbChangedTime)) {
+      return;
+    }
+    LinkedHashSet<String> syncedKeys = getSyncedKeys(dbChangedTime);
+    syncedKeys.addAll(keys);
+    sharedPrefs.edit()
+        .putString(lastTimeKey, dbChangedTime)
+        .putString(syncedKeysKey, join(syncedKeys))
+        .apply();
+  }
+
+  public void markFullySynced(String dbChangedTime) {
+    sharedPrefs.edit()
+        .putString(lastTimeKey, dbChangedTime)
+        .remove(syncedKeysKey)
+        .apply();
+  }
+
+  private boolean isUpToDate(@Nullable String dbChangedTime) {
+    String lastTime = sharedPrefs.getString(lastTimeKey, null);
+    return lastTime != null && lastTime.equals(dbChangedTime);
+  }
+
+  private static String join(Collection<String> keys) {
+    StringBuilder builder = new StringBuilder();
+    for (String key : keys) {
+      if (builder.length() > 0) {
+        builder.append(',');
+      }
+      builder.append(key);
+    }
+    return builder.toString();
+  }
+}
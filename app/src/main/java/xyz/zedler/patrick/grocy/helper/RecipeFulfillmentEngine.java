@@ -0,0 +1,625 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversionIndex;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
+import xyz.zedler.patrick.grocy.model.Recipe;
+import xyz.zedler.patrick.grocy.model.RecipeFulfillment;
+import xyz.zedler.patrick.grocy.model.RecipeNesting;
+import xyz.zedler.patrick.grocy.model.RecipePosition;
+import xyz.zedler.patrick.grocy.model.ShoppingListItem;
+import xyz.zedler.patrick.grocy.model.StockItem;
+import xyz.zedler.patrick.grocy.util.NumUtil;
+
+/**
+ * Computes recipe fulfillments from the local stock, shopping list and recipe ingredients with
+ * the rules of the server's recipes_fulfillment view, so they don't depend on its last download.
+ * The ingredients of every recipe (including nested recipes) are flattened once per recipe data.
+ * If only stock, shopping list or prices have changed since the last update, only the recipes
+ * which use one of the changed products are computed again.
+ * Due scores are not computed locally, they are taken from the downloaded fulfillments.
+ */
+public class RecipeFulfillmentEngine {
+
+  private static final int MAX_NESTING_DEPTH = 10;
+
+  private static RecipeFulfillmentEngine instance;
+
+  private List<Recipe> recipes;
+  private List<RecipePosition> recipePositions;
+  private List<RecipeNesting> recipeNestings;
+  private List<Product> products;
+  private List<QuantityUnitConversionResolved> conversions;
+
+  private HashMap<Integer, Recipe> recipeHashMap;
+  private HashMap<Integer, List<Requirement>> requirements;
+  private HashMap<Integer, HashSet<Integer>> recipeIdsByProductId;
+  private HashMap<Integer, Product> productHashMap;
+  private HashMap<Integer, ProductState> productStates;
+  private HashMap<Integer, RecipeFulfillment> serverFulfillments;
+  private HashMap<Integer, RecipeFulfillment> fulfillments;
+
+  // increased on every change, so the highest version of a demand's dependencies tells if it
+  // has to be computed again
+  private long versionCounter = 0;
+  private long structureVersion = 0;
+  private final HashMap<Integer, Long> productVersions = new HashMap<>();
+
+  public static synchronized RecipeFulfillmentEngine getInstance() {
+    if (instance == null) {
+      instance = new RecipeFulfillmentEngine();
+    }
+    return instance;
+  }
+
+  /**
+   * Returns the fulfillments of all recipes by recipe id. The returned map and its
+   * fulfillments are not modified by later updates.
+   */
+  public synchronized HashMap<Integer, RecipeFulfillment> update(
+      List<Recipe> recipes,
+      List<RecipePosition> recipePositions,
+      List<RecipeNesting> recipeNestings,
+      List<Product> products,
+      List<QuantityUnitConversionResolved> conversions,
+      List<StockItem> stockItems,
+      List<ShoppingListItem> shoppingListItems,
+      List<ProductLastPurchased> productsLastPurchased,
+      List<RecipeFulfillment> downloadedFulfillments
+  ) {
+    HashMap<Integer, ProductState> newProductStates = getProductStates(
+        stockItems, shoppingListItems, productsLastPurchased
+    );
+    HashMap<Integer, RecipeFulfillment> newServerFulfillments = new HashMap<>();
+    for (RecipeFulfillment fulfillment : downloadedFulfillments) {
+      newServerFulfillments.put(fulfillment.getRecipeId(), fulfillment);
+    }
+
+    boolean structureChanged = fulfillments == null
+        || !Objects.equals(this.recipes, recipes)
+        || !Objects.equals(this.recipePositions, recipePositions)
+        || !Objects.equals(this.recipeNestings, recipeNestings)
+        || !Objects.equals(this.products, products)
+        || !Objects.equals(this.conversions, conversions);
+
+    HashMap<Integer, RecipeFulfillment> newFulfillments;
+    if (structureChanged) {
+      this.recipes = recipes;
+      this.recipePositions = recipePositions;
+      this.recipeNestings = recipeNestings;
+      this.products = products;
+      this.conversions = conversions;
+      buildRequirements();
+      structureVersion = ++versionCounter;
+      productVersions.clear();
+      productStates = newProductStates;
+      serverFulfillments = newServerFulfillments;
+
+      newFulfillments = new HashMap<>();
+      for (Recipe recipe : recipes) {
+        newFulfillments.put(recipe.getId(), computeFulfillment(recipe));
+      }
+    } else {
+      HashSet<Integer> affectedRecipeIds = new HashSet<>();
+      HashSet<Integer> productIds = new HashSet<>(productStates.keySet());
+      productIds.addAll(newProductStates.keySet());
+      for (int productId : productIds) {
+        if (Objects.equals(productStates.get(productId), newProductStates.get(productId))) {
+          continue;
+        }
+        productVersions.put(productId, ++versionCounter);
+        HashSet<Integer> recipeIds = recipeIdsByProductId.get(productId);
+        if (recipeIds != null) {
+          affectedRecipeIds.addAll(recipeIds);
+        }
+      }
+      for (Recipe recipe : recipes) {
+        if (!Objects.equals(
+            serverFulfillments.get(recipe.getId()), newServerFulfillments.get(recipe.getId())
+        )) {
+          affectedRecipeIds.add(recipe.getId());
+        }
+      }
+      productStates = newProductStates;
+      serverFulfillments = newServerFulfillments;
+
+      newFulfillments = new HashMap<>(fulfillments);
+      for (Recipe recipe : recipes) {
+        if (affectedRecipeIds.contains(recipe.getId())) {
+          newFulfillments.put(recipe.getId(), computeFulfillment(recipe));
+        }
+      }
+    }
+    fulfillments = newFulfillments;
+    return new HashMap<>(newFulfillments);
+  }
+
+  private void buildRequirements() {
+    recipeHashMap = new HashMap<>();
+    for (Recipe recipe : recipes) {
+      recipeHashMap.put(recipe.getId(), recipe);
+    }
+    productHashMap = new HashMap<>();
+    for (Product product : products) {
+      productHashMap.put(product.getId(), product);
+    }
+    HashMap<Integer, List<RecipePosition>> positionsByRecipeId = new HashMap<>();
+    for (RecipePosition position : recipePositions) {
+      List<RecipePosition> positions = positionsByRecipeId.get(position.getRecipeId());
+      if (positions == null) {
+        positions = new ArrayList<>();
+        positionsByRecipeId.put(position.getRecipeId(), positions);
+      }
+      positions.add(position);
+    }
+    HashMap<Integer, List<RecipeNesting>> nestingsByRecipeId = new HashMap<>();
+    for (RecipeNesting nesting : recipeNestings) {
+      List<RecipeNesting> nestings = nestingsByRecipeId.get(nesting.getRecipeId());
+      if (nestings == null) {
+        nestings = new ArrayList<>();
+        nestingsByRecipeId.put(nesting.getRecipeId(), nestings);
+      }
+      nestings.add(nesting);
+    }
+    QuantityUnitConversionIndex conversionIndex = new QuantityUnitConversionIndex(conversions);
+
+    requirements = new HashMap<>();
+    recipeIdsByProductId = new HashMap<>();
+    for (Recipe recipe : recipes) {
+      List<Requirement> recipeRequirements = new ArrayList<>();
+      double servingsFactor = getServings(recipe.getDesiredServings(), recipe)
+          / getServings(recipe.getBaseServings(), null);
+      addRequirements(
+          recipeRequirements,
+          recipe.getId(),
+          servingsFactor,
+          0,
+          positionsByRecipeId,
+          nestingsByRecipeId,
+          conversionIndex
+      );
+      requirements.put(recipe.getId(), recipeRequirements);
+      for (Requirement requirement : recipeRequirements) {
+        HashSet<Integer> recipeIds = recipeIdsByProductId.get(requirement.productId);
+        if (recipeIds == null) {
+          recipeIds = new HashSet<>();
+          recipeIdsByProductId.put(requirement.productId, recipeIds);
+        }
+        recipeIds.add(recipe.getId());
+      }
+    }
+  }
+
+  private void addRequirements(
+      List<Requirement> recipeRequirements,
+      int recipeId,
+      double factor,
+      int depth,
+      HashMap<Integer, List<RecipePosition>> positionsByRecipeId,
+      HashMap<Integer, List<RecipeNesting>> nestingsByRecipeId,
+      QuantityUnitConversionIndex conversionIndex
+  ) {
+    List<RecipePosition> positions = positionsByRecipeId.get(recipeId);
+    if (positions != null) {
+      for (RecipePosition position : positions) {
+        recipeRequirements.add(new Requirement(position, factor, productHashMap, conversionIndex));
+      }
+    }
+    List<RecipeNesting> nestings = nestingsByRecipeId.get(recipeId);
+    if (nestings == null || depth >= MAX_NESTING_DEPTH) {
+      return;
+    }
+    for (RecipeNesting nesting : nestings) {
+      Recipe included = recipeHashMap.get(nesting.getIncludesRecipeId());
+      if (included == null) {
+        continue;
+      }
+      // the servings of the nesting are servings of the included recipe
+      addRequirements(
+          recipeRequirements,
+          included.getId(),
+          factor * nesting.getServings() / getServings(included.getBaseServings(), null),
+          depth + 1,
+          positionsByRecipeId,
+          nestingsByRecipeId,
+          conversionIndex
+      );
+    }
+  }
+
+  private RecipeFulfillment computeFulfillment(Recipe recipe) {
+    boolean needFulfilled = true;
+    boolean needFulfilledWithShoppingList = true;
+    int missingProductsCount = 0;
+    double costs = 0;
+    double calories = 0;
+    LinkedHashSet<String> productNames = new LinkedHashSet<>();
+
+    List<Requirement> recipeRequirements = requirements.get(recipe.getId());
+    if (recipeRequirements != null) {
+      for (Requirement requirement : recipeRequirements) {
+        ProductState state = productStates.get(requirement.productId);
+        double stockAmount = state != null ? state.stockAmount : 0;
+        double shoppingListAmount = state != null ? state.shoppingListAmount : 0;
+        double price = state != null ? state.price : 0;
+
+        if (!requirement.notCheckStockFulfillment) {
+          if (stockAmount < requirement.checkAmount) {
+            needFulfilled = false;
+            missingProductsCount++;
+          }
+          if (round(stockAmount + shoppingListAmount) < round(requirement.checkAmount)) {
+            needFulfilledWithShoppingList = false;
+          }
+        }
+        costs += requirement.amount * price * requirement.priceFactor;
+        calories += requirement.amount * requirement.calories;
+        if (requirement.productName != null) {
+          productNames.add(requirement.productName);
+        }
+      }
+    }
+
+    double desiredServings = getServings(recipe.getDesiredServings(), recipe);
+    RecipeFulfillment fulfillment = new RecipeFulfillment();
+    fulfillment.setRecipeId(recipe.getId());
+    fulfillment.setNeedFulfilled(needFulfilled);
+    fulfillment.setNeedFulfilledWithShoppingList(needFulfilledWithShoppingList);
+    fulfillment.setMissingProductsCount(missingProductsCount);
+    fulfillment.setCosts(costs);
+    fulfillment.setCostsPerServing(costs / desiredServings);
+    fulfillment.setCalories(calories / desiredServings);
+
+    RecipeFulfillment downloaded = serverFulfillments.get(recipe.getId());
+    if (downloaded != null) {
+      fulfillment.setDueScore(downloaded.getDueScore());
+      fulfillment.setProductNamesCommaSeparated(downloaded.getProductNamesCommaSeparated());
+    } else {
+      fulfillment.setProductNamesCommaSeparated(join(productNames));
+    }
+    return fulfillment;
+  }
+
+  /**
+   * Fulfillment of all recipes and products of the demand together, like the server computes it
+   * for the shadow recipes of the meal plan. Costs and calories are totals of the demand.
+   */
+  public synchronized RecipeFulfillment getFulfillment(Demand demand) {
+    HashMap<Integer, Need> needs = new HashMap<>();
+    double costs = 0;
+    double calories = 0;
+    LinkedHashSet<String> productNames = new LinkedHashSet<>();
+
+    if (requirements != null) {
+      for (Map.Entry<Integer, Double> entry : demand.servingsByRecipeId.entrySet()) {
+        Recipe recipe = recipeHashMap.get(entry.getKey());
+        List<Requirement> recipeRequirements = requirements.get(entry.getKey());
+        if (recipe == null || recipeRequirements == null) {
+          continue;
+        }
+        // the requirements are flattened for the desired servings of the recipe
+        double factor = entry.getValue() / getServings(recipe.getDesiredServings(), recipe);
+        for (Requirement requirement : recipeRequirements) {
+          Need need = getOrCreateNeed(needs, requirement.productId);
+          if (!requirement.notCheckStockFulfillment) {
+            need.check = true;
+            // one unit is enough for a single unit check, whatever the servings
+            need.checkAmount += requirement.onlyCheckSingleUnit
+                ? requirement.checkAmount : requirement.checkAmount * factor;
+          }
+          costs += requirement.amount * factor * getPrice(requirement.productId)
+              * requirement.priceFactor;
+          calories += requirement.amount * factor * requirement.calories;
+          if (requirement.productName != null) {
+            productNames.add(requirement.productName);
+          }
+        }
+      }
+      for (Map.Entry<Integer, Double> entry : demand.amountsByProductId.entrySet()) {
+        Product product = productHashMap.get(entry.getKey());
+        Need need = getOrCreateNeed(needs, entry.getKey());
+        need.check = true;
+        need.checkAmount += entry.getValue();
+        costs += entry.getValue() * getPrice(entry.getKey());
+        if (product != null) {
+          calories += entry.getValue() * product.getCaloriesDouble();
+          productNames.add(product.getName());
+        }
+      }
+    }
+
+    boolean needFulfilled = true;
+    boolean needFulfilledWithShoppingList = true;
+    int missingProductsCount = 0;
+    for (Map.Entry<Integer, Need> entry : needs.entrySet()) {
+      Need need = entry.getValue();
+      if (!need.check) {
+        continue;
+      }
+      ProductState state = productStates.get(entry.getKey());
+      double stockAmount = state != null ? state.stockAmount : 0;
+      double shoppingListAmount = state != null ? state.shoppingListAmount : 0;
+      if (stockAmount < need.checkAmount) {
+        needFulfilled = false;
+        missingProductsCount++;
+      }
+      if (round(stockAmount + shoppingListAmount) < round(need.checkAmount)) {
+        needFulfilledWithShoppingList = false;
+      }
+    }
+
+    RecipeFulfillment fulfillment = new RecipeFulfillment();
+    fulfillment.setNeedFulfilled(needFulfilled);
+    fulfillment.setNeedFulfilledWithShoppingList(needFulfilledWithShoppingList);
+    fulfillment.setMissingProductsCount(missingProductsCount);
+    fulfillment.setCosts(costs);
+    fulfillment.setCostsPerServing(costs);
+    fulfillment.setCalories(calories);
+    fulfillment.setProductNamesCommaSeparated(join(productNames));
+    return fulfillment;
+  }
+
+  /**
+   * Changes if anything the fulfillment of the demand depends on has changed since.
+   */
+  public synchronized long getVersion(Demand demand) {
+    long version = structureVersion;
+    if (requirements == null) {
+      return version;
+    }
+    for (int recipeId : demand.servingsByRecipeId.keySet()) {
+      List<Requirement> recipeRequirements = requirements.get(recipeId);
+      if (recipeRequirements == null) {
+        continue;
+      }
+      for (Requirement requirement : recipeRequirements) {
+        version = Math.max(version, getProductVersion(requirement.productId));
+      }
+    }
+    for (int productId : demand.amountsByProductId.keySet()) {
+      version = Math.max(version, getProductVersion(productId));
+    }
+    return version;
+  }
+
+  private long getProductVersion(int productId) {
+    Long version = productVersions.get(productId);
+    return version != null ? version : 0;
+  }
+
+  private double getPrice(int productId) {
+    ProductState state = productStates.get(productId);
+    return state != null ? state.price : 0;
+  }
+
+  private static Need getOrCreateNeed(HashMap<Integer, Need> needs, int productId) {
+    Need need = needs.get(productId);
+    if (need == null) {
+      need = new Need();
+      needs.put(productId, need);
+    }
+    return need;
+  }
+
+  private static HashMap<Integer, ProductState> getProductStates(
+      List<StockItem> stockItems,
+      List<ShoppingListItem> shoppingListItems,
+      List<ProductLastPurchased> productsLastPurchased
+  ) {
+    HashMap<Integer, ProductState> states = new HashMap<>();
+    for (StockItem stockItem : stockItems) {
+      ProductState state = getOrCreateState(states, stockItem.getProductId());
+      state.stockAmount = stockItem.getAmountAggregatedDouble();
+      // the server uses the price of the next stock entry, the average is the closest here
+      double amount = stockItem.getAmountDouble();
+      if (amount > 0) {
+        state.price = stockItem.getValueDouble() / amount;
+      }
+    }
+    for (ProductLastPurchased lastPurchased : productsLastPurchased) {
+      double price = NumUtil.parseDouble(lastPurchased.getPrice());
+      if (Double.isNaN(price)) {
+        continue;
+      }
+      ProductState state = getOrCreateState(states, lastPurchased.getProductId());
+      if (state.price == 0) {
+        state.price = price;
+      }
+    }
+    for (ShoppingListItem item : shoppingListItems) {
+      if (!item.hasProduct()) {
+        continue;
+      }
+      ProductState state = getOrCreateState(states, item.getProductIdInt());
+      state.shoppingListAmount += item.getAmountDouble();
+    }
+    return states;
+  }
+
+  private static ProductState getOrCreateState(HashMap<Integer, ProductState> states, int id) {
+    ProductState state = states.get(id);
+    if (state == null) {
+      state = new ProductState();
+      states.put(id, state);
+    }
+    return state;
+  }
+
+  private static double getServings(Double servings, Recipe fallbackToBaseOf) {
+    if (servings != null && servings > 0) {
+      return servings;
+    }
+    if (fallbackToBaseOf != null) {
+      return getServings(fallbackToBaseOf.getBaseServings(), null);
+    }
+    return 1;
+  }
+
+  private static String join(Collection<String> names) {
+    StringBuilder builder = new StringBuilder();
+    for (String name : names) {
+      if (builder.length() > 0) {
+        builder.append(',');
+      }
+      builder.append(name);
+    }
+    return builder.toString();
+  }
+
+  private static double round(double amount) {
+    // the server compares the amounts with the shopping list rounded to two decimal places
+    return Math.round(amount * 100) / 100.0;
+  }
+
+  private static class Requirement {
+
+    private final int productId;
+    private final String productName;
+    private final double amount;
+    private final double checkAmount;
+    private final double priceFactor;
+    private final double calories;
+    private final boolean onlyCheckSingleUnit;
+    private final boolean notCheckStockFulfillment;
+
+    private Requirement(
+        RecipePosition position,
+        double factor,
+        HashMap<Integer, Product> productHashMap,
+        QuantityUnitConversionIndex conversionIndex
+    ) {
+      Product product = productHashMap.get(position.getProductId());
+      productId = position.getProductId();
+      productName = product != null ? product.getName() : null;
+      // ingredient amounts are stored in the stock unit of the product
+      amount = position.getAmount() * factor;
+      onlyCheckSingleUnit = position.isOnlyCheckSingleUnitInStock();
+      if (onlyCheckSingleUnit) {
+        // one unit of the ingredient's unit, in the stock unit
+        QuantityUnitConversion conversion = product != null
+            ? conversionIndex.getConversion(
+                productId, product.getQuIdStockInt(), position.getQuantityUnitId()
+            ) : null;
+        checkAmount = conversion != null && conversion.getFactor() > 0
+            ? 1 / conversion.getFactor() : 1;
+      } else {
+        checkAmount = amount;
+      }
+      priceFactor = position.getPriceFactor();
+      calories = product != null ? product.getCaloriesDouble() : 0;
+      notCheckStockFulfillment = position.isNotCheckStockFulfillment();
+    }
+  }
+
+  /**
+   * Recipes with servings and products with amounts in their stock unit which are needed
+   * together, e.g. everything planned for one day of the meal plan.
+   */
+  public static class Demand {
+
+    private final HashMap<Integer, Double> servingsByRecipeId = new HashMap<>();
+    private final HashMap<Integer, Double> amountsByProductId = new HashMap<>();
+
+    public void addRecipe(int recipeId, double servings) {
+      Double current = servingsByRecipeId.get(recipeId);
+      servingsByRecipeId.put(recipeId, current != null ? current + servings : servings);
+    }
+
+    public void addProduct(int productId, double amount) {
+      Double current = amountsByProductId.get(productId);
+      amountsByProductId.put(productId, current != null ? current + amount : amount);
+    }
+
+    public void addAll(Demand demand) {
+      for (Map.Entry<Integer, Double> entry : demand.servingsByRecipeId.entrySet()) {
+        addRecipe(entry.getKey(), entry.getValue());
+      }
+      for (Map.Entry<Integer, Double> entry : demand.amountsByProductId.entrySet()) {
+        addProduct(entry.getKey(), entry.getValue());
+      }
+    }
+
+    public boolean isEmpty() {
+      return servingsByRecipeId.isEmpty() && amountsByProductId.isEmpty();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Demand demand = (Demand) o;
+      return servingsByRecipeId.equals(demand.servingsByRecipeId)
+          && amountsByProductId.equals(demand.amountsByProductId);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(servingsByRecipeId, amountsByProductId);
+    }
+  }
+
+  private static class Need {
+
+    private double checkAmount = 0;
+    private boolean check = false;
+  }
+
+  private static class ProductState {
+
+    private double stockAmount = 0;
+    private double shoppingListAmount = 0;
+    private double price = 0;
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      ProductState that = (ProductState) o;
+      return Double.compare(that.stockAmount, stockAmount) == 0
+          && Double.compare(that.shoppingListAmount, shoppingListAmount) == 0
+          && Double.compare(that.price, price) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(stockAmount, shoppingListAmount, price);
+    }
+  }
+}
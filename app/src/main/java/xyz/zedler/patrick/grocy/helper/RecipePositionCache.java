@@ -0,0 +1,124 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.util.LruCache;
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+import io.reactivex.rxjava3.core.Single;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.model.RecipePositionResolved;
+
+/**
+ * Resolved ingredients of the recently opened recipes, loaded per recipe from the database.
+ * The number of cached recipes is bounded, so memory doesn't grow with the size of the
+ * cookbook. Like in MasterDataCache, all recipes are dropped after a committed write to the
+ * table, also directly by DownloadHelper, and loads which started before are not cached.
+ */
+public class RecipePositionCache {
+
+  private static final String TABLE = "recipe_pos_resolved_table";
+  private static final int MAX_CACHED_RECIPES = 32;
+
+  private static final RecipePositionCache INSTANCE = new RecipePositionCache();
+
+  private final LruCache<Integer, List<RecipePositionResolved>> cache
+      = new LruCache<>(MAX_CACHED_RECIPES);
+  private AppDatabase appDatabase;
+  private InvalidationTracker.Observer observer;
+  private long version = 0;
+
+  public static RecipePositionCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Emits a new list with the resolved positions of the recipe, the positions themselves are
+   * shared with other callers. Has to be subscribed off the main thread.
+   */
+  public Single<List<RecipePositionResolved>> getRecipePositionsResolved(
+      Context context,
+      int recipeId
+  ) {
+    Context appContext = context.getApplicationContext();
+    return Single.defer(() -> getOrLoad(appContext, recipeId));
+  }
+
+  private synchronized Single<List<RecipePositionResolved>> getOrLoad(
+      Context context,
+      int recipeId
+  ) {
+    AppDatabase currentDatabase = AppDatabase.getAppDatabase(context);
+    if (currentDatabase != appDatabase) {
+      attachTo(currentDatabase);
+    }
+    List<RecipePositionResolved> cached = cache.get(recipeId);
+    if (cached != null) {
+      return Single.just(new ArrayList<>(cached));
+    }
+    long loadVersion = version;
+    return appDatabase.recipePositionResolvedDao().getRecipePositionsResolved(recipeId)
+        .doOnSuccess(positions -> onLoaded(recipeId, positions, loadVersion));
+  }
+
+  private synchronized void onLoaded(
+      int recipeId,
+      List<RecipePositionResolved> positions,
+      long loadVersion
+  ) {
+    if (loadVersion != version) {
+      return;
+    }
+    cache.put(recipeId, new ArrayList<>(positions));
+  }
+
+  private void attachTo(AppDatabase database) {
+    if (appDatabase != null && observer != null) {
+      appDatabase.getInvalidationTracker().removeObserver(observer);
+    }
+    appDatabase = database;
+    observer = new InvalidationTracker.Observer(TABLE) {
+      @Override
+      public void onInvalidated(@NonNull Set<String> tables) {
+        invalidate();
+      }
+    };
+    database.getInvalidationTracker().addObserver(observer);
+    invalidate();
+  }
+
+  public synchronized void invalidate() {
+    version++;
+    cache.evictAll();
+  }
+
+  public synchronized void trimMemory(int level) {
+    if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW
+        && level != ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN
+        && cache.size() > 0) {
+      cache.evictAll();
+    }
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import android.content.SharedPreferences;
+import androidx.annotation.VisibleForTesting;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import xyz.zedler.patrick.grocy.Constants.SETTINGS.STOCK;
+import xyz.zedler.patrick.grocy.Constants.SETTINGS_DEFAULT;
+import xyz.zedler.patrick.grocy.model.StockItem;
+import xyz.zedler.patrick.grocy.model.VolatileItem;
+import xyz.zedler.patrick.grocy.util.DateUtil;
+import xyz.zedler.patrick.grocy.util.NumUtil;
+
+/**
+ * Classifies the stock as due soon, overdue or expired from the next due date of every product,
+ * like the server does for the volatile stock, so it works offline and at day rollover without
+ * downloading the volatile stock again. Only stock items whose due date or due type has changed
+ * since the last update are classified again, and the counts are updated with them.
+ * All items are classified again if the day or the due soon days setting has changed.
+ */
+public class StockDueClassifier {
+
+  private static StockDueClassifier instance;
+
+  private final HashMap<Integer, Classified> classifiedItems = new HashMap<>();
+  private final HashMap<Integer, Integer> types = new HashMap<>();
+  private long today = DateUtil.NO_DATE;
+  private int dueSoonDays = -1;
+  private int dueCount = 0;
+  private int overdueCount = 0;
+  private int expiredCount = 0;
+  private int generation = 0;
+
+  public static synchronized StockDueClassifier getInstance() {
+    if (instance == null) {
+      instance = new StockDueClassifier();
+    }
+    return instance;
+  }
+
+  public static int getDueSoonDays(SharedPreferences sharedPrefs) {
+    String days = sharedPrefs.getString(STOCK.DUE_SOON_DAYS, SETTINGS_DEFAULT.STOCK.DUE_SOON_DAYS);
+    if (NumUtil.isStringInt(days)) {
+      return Integer.parseInt(days);
+    } else {
+      return Integer.parseInt(SETTINGS_DEFAULT.STOCK.DUE_SOON_DAYS);
+    }
+  }
+
+  public Result update(List<StockItem> stockItems, int dueSoonDays) {
+    return update(stockItems, dueSoonDays, DateUtil.getEpochDayToday());
+  }
+
+  @VisibleForTesting
+  synchronized Result update(List<StockItem> stockItems, int dueSoonDays, long today) {
+    boolean dayChanged = today != this.today || dueSoonDays != this.dueSoonDays;
+    this.today = today;
+    this.dueSoonDays = dueSoonDays;
+    int currentGeneration = ++generation;
+
+    if (dayChanged) {
+      for (Classified classified : classifiedItems.values()) {
+        setType(classified, classify(classified.dueDate, classified.dueType));
+      }
+    }
+    for (StockItem stockItem : stockItems) {
+      long dueDate = stockItem.getBestBeforeDateEpochDay();
+      int dueType = stockItem.getDueTypeInt();
+      Classified classified = classifiedItems.get(stockItem.getProductId());
+      if (classified == null) {
+        classified = new Classified(stockItem.getProductId());
+        classifiedItems.put(stockItem.getProductId(), classified);
+      } else if (classified.dueDate == dueDate && classified.dueType == dueType) {
+        classified.generation = currentGeneration;
+        continue;
+      }
+      classified.dueDate = dueDate;
+      classified.dueType = dueType;
+      classified.generation = currentGeneration;
+      setType(classified, classify(dueDate, dueType));
+    }
+    // products which are not in stock anymore
+    Iterator<Classified> iterator = classifiedItems.values().iterator();
+    while (iterator.hasNext()) {
+      Classified classified = iterator.next();
+      if (classified.generation != currentGeneration) {
+        setType(classified, 0);
+        iterator.remove();
+      }
+    }
+    return new Result(new HashMap<>(types), dueCount, overdueCount, expiredCount);
+  }
+
+  /**
+   * Returns one of the volatile types of VolatileItem, or 0 if the item is fresh.
+   */
+  private int classify(long dueDate, int dueType) {
+    if (dueDate == DateUtil.NO_DATE) {
+      return 0;
+    }
+    long days = dueDate - today;
+    if (days < 0) {
+      return dueType == StockItem.DUE_TYPE_EXPIRATION
+          ? VolatileItem.TYPE_EXPIRED : VolatileItem.TYPE_OVERDUE;
+    } else if (days <= dueSoonDays) {
+      // due soon for both due types, like the due products of the server
+      return VolatileItem.TYPE_DUE;
+    }
+    return 0;
+  }
+
+  private void setType(Classified classified, int type) {
+    count(classified.type, -1);
+    classified.type = type;
+    count(type, 1);
+    if (type != 0) {
+      types.put(classified.productId, type);
+    } else {
+      types.remove(classified.productId);
+    }
+  }
+
+  private void count(int type, int delta) {
+    if (type == VolatileItem.TYPE_DUE) {
+      dueCount += delta;
+    } else if (type == VolatileItem.TYPE_OVERDUE) {
+      overdueCount += delta;
+    } else if (type == VolatileItem.TYPE_EXPIRED) {
+      expiredCount += delta;
+    }
+  }
+
+  public static class Result {
+
+    private final HashMap<Integer, Integer> types;
+    private final int dueCount;
+    private final int overdueCount;
+    private final int expiredCount;
+
+    private Result(
+        HashMap<Integer, Integer> types,
+        int dueCount,
+        int overdueCount,
+        int expiredCount
+    ) {
+      this.types = types;
+      this.dueCount = dueCount;
+      this.overdueCount = overdueCount;
+      this.expiredCount = expiredCount;
+    }
+
+    /**
+     * Volatile types of VolatileItem by product id, only for products which are not fresh.
+     */
+    public HashMap<Integer, Integer> getTypes() {
+      return types;
+    }
+
+    public int getDueCount() {
+      return dueCount;
+    }
+
+    public int getOverdueCount() {
+      return overdueCount;
+    }
+
+    public int getExpiredCount() {
+      return expiredCount;
+    }
+
+    public int getNotFreshCount() {
+      return dueCount + overdueCount + expiredCount;
+    }
+  }
+
+  private static class Classified {
+
+    private final int productId;
+    private long dueDate;
+    private int dueType;
+    private int type = 0;
+    private int generation;
+
+    private Classified(int productId) {
+      this.productId = productId;
+    }
+  }
+}
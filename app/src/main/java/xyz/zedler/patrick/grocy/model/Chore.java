@@ -32,7 +32,6 @@ import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
-import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
@@ -451,13 +450,12 @@ public class Chore implements Parcelable {
                 if (dlHelper.debug) {
                   Log.i(dlHelper.tag, "download Chores: " + chores);
                 }
-                Single.fromCallable(() -> {
+                dlHelper.writeToDatabase(uuid, () -> {
                   dlHelper.appDatabase.choreDao().deleteChores().blockingSubscribe();
                   dlHelper.appDatabase.choreDao().insertChores(chores).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_CHORES, dbChangedTime).apply();
-                  return true;
-                })
+                  dlHelper.appDatabase.searchDao().rebuildChoreIndex();
+                }, () -> dlHelper.sharedPrefs.edit()
+                    .putString(PREF.DB_LAST_TIME_CHORES, dbChangedTime).apply())
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -468,7 +466,7 @@ public class Chore implements Parcelable {
                         responseListener.onResponse(response);
                       }
                     })
-                    .subscribe(ignored -> {}, throwable -> {
+                    .subscribe(() -> {}, throwable -> {
                       if (errorListener != null) {
                         errorListener.onError(throwable);
                       }
@@ -33,7 +33,6 @@ import com.android.volley.Response;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
-import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
@@ -46,6 +45,7 @@ import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DateUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
@@ -81,6 +81,9 @@ public class ChoreEntry implements Parcelable {
   @SerializedName("next_execution_assigned_to_user_id")
   private String nextExecutionAssignedToUserId;
 
+  @ColumnInfo(name = "next_estimated_execution_time_millis")
+  private Long nextEstimatedExecutionTimeMillis;
+
   public ChoreEntry() {
   }  // for Room
 
@@ -157,6 +160,21 @@ public class ChoreEntry implements Parcelable {
 
   public void setNextEstimatedExecutionTime(String nextEstimatedExecutionTime) {
     this.nextEstimatedExecutionTime = nextEstimatedExecutionTime;
+    this.nextEstimatedExecutionTimeMillis = null;
+  }
+
+  /**
+   * Next estimated execution time in epoch milliseconds or DateUtil.NO_DATE, parsed once and stored in the database next to the string.
+   */
+  public Long getNextEstimatedExecutionTimeMillis() {
+    if (nextEstimatedExecutionTimeMillis == null) {
+      nextEstimatedExecutionTimeMillis = DateUtil.getEpochMillis(nextEstimatedExecutionTime);
+    }
+    return nextEstimatedExecutionTimeMillis;
+  }
+
+  public void setNextEstimatedExecutionTimeMillis(Long nextEstimatedExecutionTimeMillis) {
+    this.nextEstimatedExecutionTimeMillis = nextEstimatedExecutionTimeMillis;
   }
 
   public String getTrackDateOnly() {
@@ -275,15 +293,13 @@ public class ChoreEntry implements Parcelable {
                 if (dlHelper.debug) {
                   Log.i(dlHelper.tag, "download ChoreEntries: " + choreEntries);
                 }
-                Single.fromCallable(() -> {
+                dlHelper.writeToDatabase(uuid, () -> {
                   dlHelper.appDatabase.choreEntryDao()
                       .deleteChoreEntries().blockingSubscribe();
                   dlHelper.appDatabase.choreEntryDao()
                       .insertChoreEntries(choreEntries).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_CHORE_ENTRIES, dbChangedTime).apply();
-                  return true;
-                })
+                }, () -> dlHelper.sharedPrefs.edit()
+                    .putString(PREF.DB_LAST_TIME_CHORE_ENTRIES, dbChangedTime).apply())
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -294,7 +310,7 @@ public class ChoreEntry implements Parcelable {
                         responseListener.onResponse(response);
                       }
                     })
-                    .subscribe(ignored -> {}, throwable -> {
+                    .subscribe(() -> {}, throwable -> {
                       if (errorListener != null) {
                         errorListener.onError(throwable);
                       }
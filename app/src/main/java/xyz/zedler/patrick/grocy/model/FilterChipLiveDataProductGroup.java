@@ -62,6 +62,7 @@ public class FilterChipLiveDataProductGroup extends FilterChipLiveData {
   }
 
   public void setProductGroups(List<ProductGroup> productGroups) {
+    productGroups = new ArrayList<>(productGroups);
     SortUtil.sortProductGroupsByName(productGroups, true);
     ArrayList<MenuItemData> menuItemDataList = new ArrayList<>();
     menuItemDataList.add(new MenuItemData(
@@ -27,11 +27,11 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Ignore;
 import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
-import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
@@ -65,7 +65,7 @@ public class Location implements Parcelable {
   @SerializedName("description")
   private String description;
 
-  @ColumnInfo(name = "userfields")
+  @Ignore
   @SerializedName("userfields")
   private Map<String, String> userfields;
 
@@ -277,15 +277,22 @@ public class Location implements Parcelable {
                 if (dlHelper.debug) {
                   Log.i(dlHelper.tag, "download Locations: " + locations);
                 }
-                Single.fromCallable(() -> {
+                dlHelper.writeToDatabase(uuid, () -> {
                   dlHelper.appDatabase.locationDao()
                       .deleteLocations().blockingSubscribe();
                   dlHelper.appDatabase.locationDao()
                       .insertLocations(locations).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_LOCATIONS, dbChangedTime).apply();
-                  return true;
-                })
+                  dlHelper.appDatabase.userfieldValueDao()
+                      .deleteUserfieldValues(GrocyApi.ENTITY.LOCATIONS).blockingSubscribe();
+                  dlHelper.appDatabase.userfieldValueDao()
+                      .insertUserfieldValues(UserfieldValue.getUserfieldValues(
+                          GrocyApi.ENTITY.LOCATIONS,
+                          locations,
+                          Location::getId,
+                          Location::getUserfields
+                      )).blockingSubscribe();
+                }, () -> dlHelper.sharedPrefs.edit()
+                    .putString(PREF.DB_LAST_TIME_LOCATIONS, dbChangedTime).apply())
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -296,7 +303,7 @@ public class Location implements Parcelable {
                         responseListener.onResponse(response);
                       }
                     })
-                    .subscribe(ignored -> {}, throwable -> {
+                    .subscribe(() -> {}, throwable -> {
                       if (errorListener != null) {
                         errorListener.onError(throwable);
                       }
@@ -0,0 +1,266 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.model;
+
+import androidx.annotation.NonNull;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import xyz.zedler.patrick.grocy.util.ArrayUtil;
+
+/**
+ * Master data of one database version, shared by all screens through MasterDataCache.
+ * Lists and maps can't be modified, and the objects in them must not be modified either.
+ */
+public class MasterDataSnapshot {
+
+  // rough heap sizes of one object with its strings, used for the memory budget
+  private static final int PRODUCT_BYTES = 900;
+  private static final int OBJECT_BYTES = 300;
+
+  private final long version;
+  private final List<Product> products;
+  private final List<QuantityUnit> quantityUnits;
+  private final List<Location> locations;
+  private final List<ProductGroup> productGroups;
+  private final List<Store> stores;
+  private final HashMap<Integer, Product> productHashMap;
+  private final HashMap<Integer, QuantityUnit> quantityUnitHashMap;
+  private final HashMap<Integer, Location> locationHashMap;
+  private final HashMap<Integer, ProductGroup> productGroupHashMap;
+  private final HashMap<Integer, Store> storeHashMap;
+  private final long estimatedBytes;
+
+  public MasterDataSnapshot(
+      long version,
+      List<Product> products,
+      List<QuantityUnit> quantityUnits,
+      List<Location> locations,
+      List<ProductGroup> productGroups,
+      List<Store> stores
+  ) {
+    this.version = version;
+    this.products = Collections.unmodifiableList(products);
+    this.quantityUnits = Collections.unmodifiableList(quantityUnits);
+    this.locations = Collections.unmodifiableList(locations);
+    this.productGroups = Collections.unmodifiableList(productGroups);
+    this.stores = Collections.unmodifiableList(stores);
+    productHashMap = new FrozenHashMap<>(ArrayUtil.getProductsHashMap(products));
+    quantityUnitHashMap = new FrozenHashMap<>(ArrayUtil.getQuantityUnitsHashMap(quantityUnits));
+    locationHashMap = new FrozenHashMap<>(ArrayUtil.getLocationsHashMap(locations));
+    productGroupHashMap = new FrozenHashMap<>(ArrayUtil.getProductGroupsHashMap(productGroups));
+    storeHashMap = new FrozenHashMap<>(ArrayUtil.getStoresHashMap(stores));
+
+    long bytes = (long) OBJECT_BYTES
+        * (quantityUnits.size() + locations.size() + productGroups.size() + stores.size());
+    for (Product product : products) {
+      bytes += PRODUCT_BYTES;
+      if (product.getDescription() != null) {
+        bytes += 2L * product.getDescription().length();
+      }
+    }
+    estimatedBytes = bytes;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public List<Product> getProducts() {
+    return products;
+  }
+
+  public List<QuantityUnit> getQuantityUnits() {
+    return quantityUnits;
+  }
+
+  public List<Location> getLocations() {
+    return locations;
+  }
+
+  public List<ProductGroup> getProductGroups() {
+    return productGroups;
+  }
+
+  public List<Store> getStores() {
+    return stores;
+  }
+
+  public HashMap<Integer, Product> getProductHashMap() {
+    return productHashMap;
+  }
+
+  public HashMap<Integer, QuantityUnit> getQuantityUnitHashMap() {
+    return quantityUnitHashMap;
+  }
+
+  public HashMap<Integer, Location> getLocationHashMap() {
+    return locationHashMap;
+  }
+
+  public HashMap<Integer, ProductGroup> getProductGroupHashMap() {
+    return productGroupHashMap;
+  }
+
+  public HashMap<Integer, Store> getStoreHashMap() {
+    return storeHashMap;
+  }
+
+  public long getEstimatedBytes() {
+    return estimatedBytes;
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return "MasterDataSnapshot(version=" + version + ", products=" + products.size() + ')';
+  }
+
+  /**
+   * HashMap which throws on every modification, so that it can be passed to the existing
+   * methods taking a HashMap without copying it.
+   */
+  private static class FrozenHashMap<K, V> extends HashMap<K, V> {
+
+    private final boolean frozen;
+
+    private FrozenHashMap(Map<K, V> map) {
+      super(map);
+      frozen = true;
+    }
+
+    private void checkNotFrozen() {
+      if (frozen) {
+        throw new UnsupportedOperationException("Master data snapshot can't be modified");
+      }
+    }
+
+    @Override
+    public V put(K key, V value) {
+      checkNotFrozen();
+      return super.put(key, value);
+    }
+
+    @Override
+    public void putAll(@NonNull Map<? extends K, ? extends V> map) {
+      checkNotFrozen();
+      super.putAll(map);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+      checkNotFrozen();
+      return super.putIfAbsent(key, value);
+    }
+
+    @Override
+    public V remove(Object key) {
+      checkNotFrozen();
+      return super.remove(key);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+      checkNotFrozen();
+      return super.remove(key, value);
+    }
+
+    @Override
+    public void clear() {
+      checkNotFrozen();
+      super.clear();
+    }
+
+    @Override
+    public V replace(K key, V value) {
+      checkNotFrozen();
+      return super.replace(key, value);
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+      checkNotFrozen();
+      return super.replace(key, oldValue, newValue);
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+      checkNotFrozen();
+      super.replaceAll(function);
+    }
+
+    @Override
+    public V compute(
+        K key,
+        BiFunction<? super K, ? super V, ? extends V> remappingFunction
+    ) {
+      checkNotFrozen();
+      return super.compute(key, remappingFunction);
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+      checkNotFrozen();
+      return super.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public V computeIfPresent(
+        K key,
+        BiFunction<? super K, ? super V, ? extends V> remappingFunction
+    ) {
+      checkNotFrozen();
+      return super.computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public V merge(
+        K key,
+        V value,
+        BiFunction<? super V, ? super V, ? extends V> remappingFunction
+    ) {
+      checkNotFrozen();
+      return super.merge(key, value, remappingFunction);
+    }
+
+    @NonNull
+    @Override
+    public Set<K> keySet() {
+      return Collections.unmodifiableSet(super.keySet());
+    }
+
+    @NonNull
+    @Override
+    public Collection<V> values() {
+      return Collections.unmodifiableCollection(super.values());
+    }
+
+    @NonNull
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+      return Collections.unmodifiableSet(super.entrySet());
+    }
+  }
+}
@@ -27,26 +27,33 @@ import androidx.annotation.Nullable;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
-import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
-import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
+import xyz.zedler.patrick.grocy.api.GrocyApi.COMPARISON;
+import xyz.zedler.patrick.grocy.api.GrocyApi.COMPARISON_OPERATOR;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.helper.PartialSyncState;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
-@Entity(tableName = "meal_plan_entry_table")
+@Entity(
+    tableName = "meal_plan_entry_table",
+    indices = {@Index(value = {"day"})}
+)
 public class MealPlanEntry extends GroupedListItem implements Parcelable {
 
   public final static String TYPE_RECIPE = "recipe";
@@ -295,10 +302,44 @@ public class MealPlanEntry extends GroupedListItem implements Parcelable {
       String dbChangedTime,
       OnObjectsResponseListener<MealPlanEntry> onResponseListener
   ) {
-    String lastTime = dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        Constants.PREF.DB_LAST_TIME_MEAL_PLAN_ENTRIES, null
+    return updateMealPlanEntries(dlHelper, dbChangedTime, null, 0, onResponseListener);
+  }
+
+  /**
+   * Downloads only the entries of the given weeks which have not been synced since the last
+   * change on the server, or the whole meal plan if windowStart is null.
+   * The synced weeks are stored with their first days in the PartialSyncState.
+   */
+  public static QueueItem updateMealPlanEntries(
+      DownloadHelper dlHelper,
+      String dbChangedTime,
+      @Nullable LocalDate windowStart,
+      int windowWeeks,
+      OnObjectsResponseListener<MealPlanEntry> onResponseListener
+  ) {
+    PartialSyncState syncState = new PartialSyncState(
+        dlHelper.sharedPrefs, PREF.DB_LAST_TIME_MEAL_PLAN_ENTRIES, PREF.DB_SYNCED_MEAL_PLAN_WEEKS
     );
-    if (lastTime == null || !lastTime.equals(dbChangedTime)) {
+    boolean fullySynced = syncState.isFullySynced(dbChangedTime);
+    LinkedHashSet<String> syncedWeeks = syncState.getSyncedKeys(dbChangedTime);
+    LocalDate from = null;
+    LocalDate to = null;
+    if (windowStart != null && !fullySynced) {
+      for (int i = 0; i < windowWeeks; i++) {
+        LocalDate weekStart = windowStart.plusWeeks(i);
+        if (!syncedWeeks.contains(weekStart.toString())) {
+          if (from == null) {
+            from = weekStart;
+          }
+          to = weekStart.plusDays(6);
+        }
+      }
+    }
+    boolean download = windowStart != null ? from != null : !fullySynced;
+
+    if (download) {
+      LocalDate windowFrom = from;
+      LocalDate windowTo = to;
       return new QueueItem() {
         @Override
         public void perform(
@@ -307,7 +348,12 @@ public class MealPlanEntry extends GroupedListItem implements Parcelable {
             @Nullable String uuid
         ) {
           dlHelper.get(
-              dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.MEAL_PLAN),
+              windowFrom != null ? dlHelper.grocyApi.getObjects(
+                  GrocyApi.ENTITY.MEAL_PLAN,
+                  new COMPARISON("day", COMPARISON_OPERATOR.GREATER_OR_EQUAL,
+                      windowFrom.toString()),
+                  new COMPARISON("day", COMPARISON_OPERATOR.LESS_OR_EQUAL, windowTo.toString())
+              ) : dlHelper.grocyApi.getObjects(GrocyApi.ENTITY.MEAL_PLAN),
               uuid,
               response -> {
                 Type type = new TypeToken<List<MealPlanEntry>>() {
@@ -316,14 +362,28 @@ public class MealPlanEntry extends GroupedListItem implements Parcelable {
                 if (dlHelper.debug) {
                   Log.i(dlHelper.tag, "download MealPlanEntries: " + mealPlanEntries);
                 }
-                Single.fromCallable(() -> {
-                      dlHelper.appDatabase.mealPlanEntryDao()
-                          .deleteMealPlanEntries().blockingSubscribe();
+                dlHelper.writeToDatabase(uuid, () -> {
+                      if (windowFrom != null) {
+                        dlHelper.appDatabase.mealPlanEntryDao().deleteMealPlanEntries(
+                            windowFrom.toString(), windowTo.toString()
+                        ).blockingSubscribe();
+                      } else {
+                        dlHelper.appDatabase.mealPlanEntryDao()
+                            .deleteMealPlanEntries().blockingSubscribe();
+                      }
                       dlHelper.appDatabase.mealPlanEntryDao()
                           .insertMealPlanEntries(mealPlanEntries).blockingSubscribe();
-                      dlHelper.sharedPrefs.edit()
-                          .putString(PREF.DB_LAST_TIME_MEAL_PLAN_ENTRIES, dbChangedTime).apply();
-                      return true;
+                    }, () -> {
+                      if (windowFrom != null) {
+                        List<String> weeks = new ArrayList<>();
+                        for (LocalDate weekStart = windowFrom; weekStart.isBefore(windowTo);
+                            weekStart = weekStart.plusWeeks(1)) {
+                          weeks.add(weekStart.toString());
+                        }
+                        syncState.markSynced(dbChangedTime, weeks);
+                      } else {
+                        syncState.markFullySynced(dbChangedTime);
+                      }
                     })
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
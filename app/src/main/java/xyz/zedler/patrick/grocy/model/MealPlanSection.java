@@ -31,7 +31,6 @@ import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
-import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
@@ -232,15 +231,13 @@ public class MealPlanSection extends GroupedListItem implements Parcelable {
                 if (dlHelper.debug) {
                   Log.i(dlHelper.tag, "download MealPlanSections: " + mealPlanSections);
                 }
-                Single.fromCallable(() -> {
+                dlHelper.writeToDatabase(uuid, () -> {
                       dlHelper.appDatabase.mealPlanSectionDao()
                           .deleteMealPlanSections().blockingSubscribe();
                       dlHelper.appDatabase.mealPlanSectionDao()
                           .insertMealPlanSections(mealPlanSections).blockingSubscribe();
-                      dlHelper.sharedPrefs.edit()
-                          .putString(PREF.DB_LAST_TIME_MEAL_PLAN_SECTIONS, dbChangedTime).apply();
-                      return true;
-                    })
+                    }, () -> dlHelper.sharedPrefs.edit()
+                        .putString(PREF.DB_LAST_TIME_MEAL_PLAN_SECTIONS, dbChangedTime).apply())
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doOnError(throwable -> {
@@ -31,7 +31,6 @@ import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
-import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.util.ArrayList;
 import java.util.List;
@@ -197,14 +196,12 @@ public class MissingItem implements Parcelable {
                   }
                 }
                 ArrayList<MissingItem> finalMissingItems = missingItems;
-                Single.fromCallable(() -> {
+                dlHelper.writeToDatabase(uuid, () -> {
                   dlHelper.appDatabase.missingItemDao().deleteMissingItems().blockingSubscribe();
                   dlHelper.appDatabase.missingItemDao()
                       .insertMissingItems(finalMissingItems).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_VOLATILE_MISSING, dbChangedTime).apply();
-                  return true;
-                })
+                }, () -> dlHelper.sharedPrefs.edit()
+                    .putString(PREF.DB_LAST_TIME_VOLATILE_MISSING, dbChangedTime).apply())
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -215,7 +212,7 @@ public class MissingItem implements Parcelable {
                         responseListener.onResponse(response);
                       }
                     })
-                    .subscribe(ignored -> {}, throwable -> {
+                    .subscribe(() -> {}, throwable -> {
                       if (errorListener != null) {
                         errorListener.onError(throwable);
                       }
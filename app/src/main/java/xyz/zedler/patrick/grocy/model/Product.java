@@ -33,7 +33,6 @@ import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
-import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
@@ -201,7 +200,7 @@ public class Product extends GroupedListItem implements Parcelable {
   @SerializedName("move_on_open")
   private String moveOnOpen;
 
-  @ColumnInfo(name = "userfields")
+  @Ignore
   @SerializedName("userfields")
   private Map<String, String> userfields;
 
@@ -1117,15 +1116,23 @@ public class Product extends GroupedListItem implements Parcelable {
                 if (dlHelper.debug) {
                   Log.i(dlHelper.tag, "download Products: " + products);
                 }
-                Single.fromCallable(() -> {
+                dlHelper.writeToDatabase(uuid, () -> {
                   dlHelper.appDatabase.productDao()
                       .deleteProducts().blockingSubscribe();
                   dlHelper.appDatabase.productDao()
                       .insertProducts(products).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_PRODUCTS, dbChangedTime).apply();
-                  return true;
-                })
+                  dlHelper.appDatabase.searchDao().rebuildProductIndex();
+                  dlHelper.appDatabase.userfieldValueDao()
+                      .deleteUserfieldValues(GrocyApi.ENTITY.PRODUCTS).blockingSubscribe();
+                  dlHelper.appDatabase.userfieldValueDao()
+                      .insertUserfieldValues(UserfieldValue.getUserfieldValues(
+                          GrocyApi.ENTITY.PRODUCTS,
+                          products,
+                          Product::getId,
+                          Product::getUserfields
+                      )).blockingSubscribe();
+                }, () -> dlHelper.sharedPrefs.edit()
+                    .putString(PREF.DB_LAST_TIME_PRODUCTS, dbChangedTime).apply())
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -1136,7 +1143,7 @@ public class Product extends GroupedListItem implements Parcelable {
                         responseListener.onResponse(response);
                       }
                     })
-                    .subscribe(ignored -> {}, throwable -> {
+                    .subscribe(() -> {}, throwable -> {
                       if (errorListener != null) {
                         errorListener.onError(throwable);
                       }
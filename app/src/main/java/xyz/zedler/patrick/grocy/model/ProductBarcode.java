@@ -32,7 +32,6 @@ import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
-import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
@@ -359,15 +358,14 @@ public class ProductBarcode implements Parcelable {
                 if (dlHelper.debug) {
                   Log.i(dlHelper.tag, "download Barcodes: " + barcodes);
                 }
-                Single.fromCallable(() -> {
+                dlHelper.writeToDatabase(uuid, () -> {
                   dlHelper.appDatabase.productBarcodeDao()
                       .deleteProductBarcodes().blockingSubscribe();
                   dlHelper.appDatabase.productBarcodeDao()
                       .insertProductBarcodes(barcodes).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_PRODUCT_BARCODES, dbChangedTime).apply();
-                  return true;
-                })
+                  dlHelper.appDatabase.searchDao().rebuildProductBarcodeIndex();
+                }, () -> dlHelper.sharedPrefs.edit()
+                    .putString(PREF.DB_LAST_TIME_PRODUCT_BARCODES, dbChangedTime).apply())
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -378,7 +376,7 @@ public class ProductBarcode implements Parcelable {
                         responseListener.onResponse(response);
                       }
                     })
-                    .subscribe(ignored -> {}, throwable -> {
+                    .subscribe(() -> {}, throwable -> {
                       if (errorListener != null) {
                         errorListener.onError(throwable);
                       }
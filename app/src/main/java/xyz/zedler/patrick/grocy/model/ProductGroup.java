@@ -32,7 +32,6 @@ import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
-import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
@@ -66,7 +65,7 @@ public class ProductGroup extends GroupedListItem implements Parcelable {
   @SerializedName("description")
   private String description;
 
-  @ColumnInfo(name = "userfields")
+  @Ignore
   @SerializedName("userfields")
   private Map<String, String> userfields;
 
@@ -265,15 +264,22 @@ public class ProductGroup extends GroupedListItem implements Parcelable {
                 if (dlHelper.debug) {
                   Log.i(dlHelper.tag, "download ProductGroups: " + productGroups);
                 }
-                Single.fromCallable(() -> {
+                dlHelper.writeToDatabase(uuid, () -> {
                       dlHelper.appDatabase.productGroupDao()
                           .deleteProductGroups().blockingSubscribe();
                       dlHelper.appDatabase.productGroupDao()
                           .insertProductGroups(productGroups).blockingSubscribe();
-                      dlHelper.sharedPrefs.edit()
-                          .putString(PREF.DB_LAST_TIME_PRODUCT_GROUPS, dbChangedTime).apply();
-                      return true;
-                    })
+                      dlHelper.appDatabase.userfieldValueDao()
+                          .deleteUserfieldValues(GrocyApi.ENTITY.PRODUCT_GROUPS).blockingSubscribe();
+                      dlHelper.appDatabase.userfieldValueDao()
+                          .insertUserfieldValues(UserfieldValue.getUserfieldValues(
+                              GrocyApi.ENTITY.PRODUCT_GROUPS,
+                              productGroups,
+                              ProductGroup::getId,
+                              ProductGroup::getUserfields
+                          )).blockingSubscribe();
+                    }, () -> dlHelper.sharedPrefs.edit()
+                        .putString(PREF.DB_LAST_TIME_PRODUCT_GROUPS, dbChangedTime).apply())
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -284,7 +290,7 @@ public class ProductGroup extends GroupedListItem implements Parcelable {
                         responseListener.onResponse(response);
                       }
                     })
-                    .subscribe(ignored -> {}, throwable -> {
+                    .subscribe(() -> {}, throwable -> {
                       if (errorListener != null) {
                         errorListener.onError(throwable);
                       }
@@ -32,7 +32,6 @@ import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
-import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
@@ -74,7 +73,7 @@ public class QuantityUnit implements Parcelable {
   @SerializedName("plural_forms")
   private String pluralForms;
 
-  @ColumnInfo(name = "userfields")
+  @Ignore
   @SerializedName("userfields")
   private Map<String, String> userfields;
 
@@ -312,14 +311,21 @@ public class QuantityUnit implements Parcelable {
                 if (dlHelper.debug) {
                   Log.i(dlHelper.tag, "download QuantityUnits: " + quantityUnits);
                 }
-                Single.fromCallable(() -> {
+                dlHelper.writeToDatabase(uuid, () -> {
                   dlHelper.appDatabase.quantityUnitDao().deleteQuantityUnits().blockingSubscribe();
                   dlHelper.appDatabase.quantityUnitDao()
                       .insertQuantityUnits(quantityUnits).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_QUANTITY_UNITS, dbChangedTime).apply();
-                  return true;
-                })
+                  dlHelper.appDatabase.userfieldValueDao()
+                      .deleteUserfieldValues(GrocyApi.ENTITY.QUANTITY_UNITS).blockingSubscribe();
+                  dlHelper.appDatabase.userfieldValueDao()
+                      .insertUserfieldValues(UserfieldValue.getUserfieldValues(
+                          GrocyApi.ENTITY.QUANTITY_UNITS,
+                          quantityUnits,
+                          QuantityUnit::getId,
+                          QuantityUnit::getUserfields
+                      )).blockingSubscribe();
+                }, () -> dlHelper.sharedPrefs.edit()
+                    .putString(PREF.DB_LAST_TIME_QUANTITY_UNITS, dbChangedTime).apply())
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -330,7 +336,7 @@ public class QuantityUnit implements Parcelable {
                         responseListener.onResponse(response);
                       }
                     })
-                    .subscribe(ignored -> {}, throwable -> {
+                    .subscribe(() -> {}, throwable -> {
                       if (errorListener != null) {
                         errorListener.onError(throwable);
                       }
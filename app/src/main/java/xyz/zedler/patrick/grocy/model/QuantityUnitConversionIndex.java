@@ -0,0 +1,118 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.model;
+
+import androidx.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import xyz.zedler.patrick.grocy.util.NumUtil;
+
+/**
+ * Conversions of one conversion list, grouped by product and keyed by their units.
+ * The index has to be built again when the list is replaced, callers which look up many
+ * conversions (e.g. adapters for every row) keep it next to their list, so lookups don't have
+ * to scan the whole list and parse product ids again.
+ */
+public class QuantityUnitConversionIndex {
+
+  private final HashMap<Integer, Conversions> productConversions = new HashMap<>();
+  private final Conversions standardConversions = new Conversions();
+
+  public QuantityUnitConversionIndex(List<? extends QuantityUnitConversion> conversions) {
+    for (QuantityUnitConversion conversion : conversions) {
+      if (!NumUtil.isStringInt(conversion.getProductId())) {
+        standardConversions.add(conversion);
+        continue;
+      }
+      int productId = Integer.parseInt(conversion.getProductId());
+      Conversions forProduct = productConversions.get(productId);
+      if (forProduct == null) {
+        forProduct = new Conversions();
+        productConversions.put(productId, forProduct);
+      }
+      forProduct.add(conversion);
+    }
+  }
+
+  /**
+   * First product specific conversion between the two units, like the first match of a linear
+   * search through the list.
+   */
+  @Nullable
+  public QuantityUnitConversion getConversion(int productId, int fromQuId, int toQuId) {
+    Conversions forProduct = productConversions.get(productId);
+    return forProduct != null ? forProduct.byUnits.get(getUnitsKey(fromQuId, toQuId)) : null;
+  }
+
+  /**
+   * First conversion without product between the two units.
+   */
+  @Nullable
+  public QuantityUnitConversion getStandardConversion(int fromQuId, int toQuId) {
+    return standardConversions.byUnits.get(getUnitsKey(fromQuId, toQuId));
+  }
+
+  /**
+   * First product specific conversion to the given unit, regardless of the unit it comes from.
+   */
+  @Nullable
+  public QuantityUnitConversion getConversionToUnit(int productId, int toQuId) {
+    Conversions forProduct = productConversions.get(productId);
+    return forProduct != null ? forProduct.byToUnit.get(toQuId) : null;
+  }
+
+  /**
+   * Product specific conversions in the order of the list.
+   */
+  public List<QuantityUnitConversion> getConversions(int productId) {
+    Conversions forProduct = productConversions.get(productId);
+    return forProduct != null ? forProduct.rows : new ArrayList<>();
+  }
+
+  /**
+   * Conversions without product in the order of the list.
+   */
+  public List<QuantityUnitConversion> getStandardConversions() {
+    return standardConversions.rows;
+  }
+
+  private static long getUnitsKey(int fromQuId, int toQuId) {
+    return ((long) fromQuId << 32) | (toQuId & 0xffffffffL);
+  }
+
+  private static class Conversions {
+
+    private final List<QuantityUnitConversion> rows = new ArrayList<>();
+    private final HashMap<Long, QuantityUnitConversion> byUnits = new HashMap<>();
+    private final HashMap<Integer, QuantityUnitConversion> byToUnit = new HashMap<>();
+
+    private void add(QuantityUnitConversion conversion) {
+      rows.add(conversion);
+      long key = getUnitsKey(conversion.getFromQuId(), conversion.getToQuId());
+      if (byUnits.get(key) == null) {
+        byUnits.put(key, conversion);
+      }
+      if (byToUnit.get(conversion.getToQuId()) == null) {
+        byToUnit.put(conversion.getToQuId(), conversion);
+      }
+    }
+  }
+}
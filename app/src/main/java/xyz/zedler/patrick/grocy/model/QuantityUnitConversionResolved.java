@@ -20,12 +20,15 @@
 package xyz.zedler.patrick.grocy.model;
 
 import android.annotation.SuppressLint;
+import android.content.SharedPreferences;
 import android.util.Log;
 import androidx.annotation.Nullable;
 import androidx.room.Entity;
+import androidx.room.Index;
 import com.google.gson.reflect.TypeToken;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.functions.Action;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
@@ -36,10 +39,14 @@ import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.QuantityUnitConversionUtil;
 import xyz.zedler.patrick.grocy.util.VersionUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
-@Entity(tableName = "quantity_unit_conversion_resolved_table")
+@Entity(
+    tableName = "quantity_unit_conversion_resolved_table",
+    indices = {@Index(value = {"product_id", "from_qu_id", "to_qu_id"})}
+)
 public class QuantityUnitConversionResolved extends QuantityUnitConversion {
 
   public QuantityUnitConversionResolved() {
@@ -54,21 +61,17 @@ public class QuantityUnitConversionResolved extends QuantityUnitConversion {
     setRowCreatedTimestamp(conversion.getRowCreatedTimestamp());
   }
 
+  /**
+   * The index has to be built from a list of resolved conversions.
+   */
   public static QuantityUnitConversionResolved findConversion(
-      List<QuantityUnitConversionResolved> conversionsResolved,
+      QuantityUnitConversionIndex conversionsResolvedIndex,
       int productId,
       int fromQuId,
       int toQuId
   ) {
-    String productIdStr = String.valueOf(productId);
-    for (QuantityUnitConversionResolved tmpConversion : conversionsResolved) {
-      if (productIdStr.equals(tmpConversion.getProductId())
-          && tmpConversion.getFromQuId() == fromQuId
-          && tmpConversion.getToQuId() == toQuId) {
-        return tmpConversion;
-      }
-    }
-    return null;
+    return (QuantityUnitConversionResolved) conversionsResolvedIndex
+        .getConversion(productId, fromQuId, toQuId);
   }
 
   @SuppressLint("CheckResult")
@@ -114,8 +117,8 @@ public class QuantityUnitConversionResolved extends QuantityUnitConversion {
                         id++;
                       }
                     } else {
-                      // Below server version 4.0.0, transitive conversions are not
-                      // working and thus disallowed.
+                      // Below server version 4.0.0, the server returns only the direct
+                      // conversions, transitive conversions are resolved before writing.
                       conversionsResolved = dlHelper.gson
                           .fromJson(response, type);
                       if (dlHelper.debug) {
@@ -123,20 +126,48 @@ public class QuantityUnitConversionResolved extends QuantityUnitConversion {
                             + conversionsResolved);
                       }
                     }
-                dlHelper.appDatabase.quantityUnitConversionResolvedDao()
-                    .deleteConversionsResolved().blockingSubscribe();
-                dlHelper.appDatabase.quantityUnitConversionResolvedDao()
-                    .insertConversionsResolved(conversionsResolved).blockingSubscribe();
-                dlHelper.sharedPrefs.edit()
-                    .putString(PREF.DB_LAST_TIME_QUANTITY_UNIT_CONVERSIONS_RESOLVED, dbChangedTime).apply();
                 return conversionsResolved;
               })
+                  .flatMapCompletable(conversionsResolved -> {
+                    List<QuantityUnitConversionResolved> conversionsToInsert = new ArrayList<>();
+                    Action writes = () -> {
+                      conversionsToInsert.addAll(isServerVersion4
+                          ? conversionsResolved
+                          : QuantityUnitConversionUtil.resolveConversions(
+                              dlHelper.appDatabase.productDao().getProducts().blockingGet(),
+                              conversionsResolved
+                          ));
+                      dlHelper.appDatabase.quantityUnitConversionResolvedDao()
+                          .deleteConversionsResolved().blockingSubscribe();
+                      dlHelper.appDatabase.quantityUnitConversionResolvedDao()
+                          .insertConversionsResolved(conversionsToInsert).blockingSubscribe();
+                    };
+                    Action prefsWrites = () -> {
+                      SharedPreferences.Editor editPrefs = dlHelper.sharedPrefs.edit()
+                          .putString(PREF.DB_LAST_TIME_QUANTITY_UNIT_CONVERSIONS_RESOLVED, dbChangedTime);
+                      if (isServerVersion4) {
+                        editPrefs.remove(PREF.DB_LAST_TIME_QUANTITY_UNIT_CONVERSIONS_RESOLVED_LOCALLY);
+                      } else {
+                        editPrefs.putString(
+                            PREF.DB_LAST_TIME_QUANTITY_UNIT_CONVERSIONS_RESOLVED_LOCALLY, dbChangedTime
+                        );
+                      }
+                      editPrefs.apply();
+                      // inside of a sync transaction the conversions are resolved on commit
+                      if (onResponseListener != null) {
+                        AndroidSchedulers.mainThread().scheduleDirect(
+                            () -> onResponseListener.onResponse(conversionsToInsert)
+                        );
+                      }
+                    };
+                    // products of the same sync have to be written before they are read
+                    return isServerVersion4
+                        ? dlHelper.writeToDatabase(uuid, writes, prefsWrites)
+                        : dlHelper.writeToDatabaseLast(uuid, writes, prefsWrites);
+                  })
                   .subscribeOn(Schedulers.io())
                   .observeOn(AndroidSchedulers.mainThread())
-                  .subscribe(conversionsResolved -> {
-                    if (onResponseListener != null) {
-                      onResponseListener.onResponse(conversionsResolved);
-                    }
+                  .subscribe(() -> {
                     if (responseListener != null) {
                       responseListener.onResponse(response);
                     }
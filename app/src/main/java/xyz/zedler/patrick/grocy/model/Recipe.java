@@ -32,7 +32,6 @@ import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
-import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
@@ -92,7 +91,7 @@ public class Recipe implements Parcelable {
   @SerializedName("not_check_shoppinglist")
   private int notCheckShoppingList;
 
-  @ColumnInfo(name = "userfields")
+  @Ignore
   @SerializedName("userfields")
   private Map<String, String> userfields;
 
@@ -358,14 +357,22 @@ public class Recipe implements Parcelable {
                 if (dlHelper.debug) {
                   Log.i(dlHelper.tag, "download Recipes: " + recipes);
                 }
-                Single.fromCallable(() -> {
+                dlHelper.writeToDatabase(uuid, () -> {
                   dlHelper.appDatabase.recipeDao().deleteRecipes().blockingSubscribe();
                   dlHelper.appDatabase.recipeDao()
                       .insertRecipes(recipes).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_RECIPES, dbChangedTime).apply();
-                  return true;
-                })
+                  dlHelper.appDatabase.searchDao().rebuildRecipeIndex();
+                  dlHelper.appDatabase.userfieldValueDao()
+                      .deleteUserfieldValues(ENTITY.RECIPES).blockingSubscribe();
+                  dlHelper.appDatabase.userfieldValueDao()
+                      .insertUserfieldValues(UserfieldValue.getUserfieldValues(
+                          ENTITY.RECIPES,
+                          recipes,
+                          Recipe::getId,
+                          Recipe::getUserfields
+                      )).blockingSubscribe();
+                }, () -> dlHelper.sharedPrefs.edit()
+                    .putString(PREF.DB_LAST_TIME_RECIPES, dbChangedTime).apply())
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -376,7 +383,7 @@ public class Recipe implements Parcelable {
                         responseListener.onResponse(response);
                       }
                     })
-                    .subscribe(ignored -> {}, throwable -> {
+                    .subscribe(() -> {}, throwable -> {
                       if (errorListener != null) {
                         errorListener.onError(throwable);
                       }
@@ -25,31 +25,35 @@ import androidx.room.DatabaseView;
 import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
 
-@DatabaseView("WITH RECURSIVE r1(recipe_id, includes_recipe_id, includes_servings, level)\n"
-    + "AS ( "
-    + " SELECT "
-    + "  id AS recipe_id, "
-    + "  id AS includes_recipe_id, "
-    + "  1 AS includes_servings, "
-    + "  0 AS level "
-    + " FROM recipe_table "
-    + " "
-    + " UNION ALL "
-    + " "
-    + " SELECT "
-    + "  rn.recipe_id, "
-    + "  r1.includes_recipe_id, "
-    + "  CASE WHEN r1.level = 0 THEN rn.servings ELSE (SELECT servings FROM recipe_nesting_table WHERE recipe_id = r1.recipe_id AND includes_recipe_id = r1.includes_recipe_id) END AS includes_servings, "
-    + "  r1.level + 1 AS level "
-    + " FROM recipe_nesting_table rn, r1 r1 "
-    + " WHERE rn.includes_recipe_id = r1.recipe_id "
-    + ") "
-    + "SELECT "
-    + " *, "
-    + " 1 AS id "
-    + "FROM r1;")
+@DatabaseView(RecipeNestingResolved.QUERY)
 public class RecipeNestingResolved {
 
+  // also used by database migrations which have to recreate this view
+  public static final String QUERY = "WITH RECURSIVE "
+      + "r1(recipe_id, includes_recipe_id, includes_servings, level)\n"
+      + "AS ( "
+      + " SELECT "
+      + "  id AS recipe_id, "
+      + "  id AS includes_recipe_id, "
+      + "  1 AS includes_servings, "
+      + "  0 AS level "
+      + " FROM recipe_table "
+      + " "
+      + " UNION ALL "
+      + " "
+      + " SELECT "
+      + "  rn.recipe_id, "
+      + "  r1.includes_recipe_id, "
+      + "  CASE WHEN r1.level = 0 THEN rn.servings ELSE (SELECT servings FROM recipe_nesting_table WHERE recipe_id = r1.recipe_id AND includes_recipe_id = r1.includes_recipe_id) END AS includes_servings, "
+      + "  r1.level + 1 AS level "
+      + " FROM recipe_nesting_table rn, r1 r1 "
+      + " WHERE rn.includes_recipe_id = r1.recipe_id "
+      + ") "
+      + "SELECT "
+      + " *, "
+      + " 1 AS id "
+      + "FROM r1;";
+
   @PrimaryKey
   @ColumnInfo(name = "id")
   @SerializedName("id")
@@ -26,28 +26,31 @@ import androidx.annotation.Nullable;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.Ignore;
-import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
-import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.helper.PartialSyncState;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
-@Entity(tableName = "recipe_pos_resolved_table")
+@Entity(
+    tableName = "recipe_pos_resolved_table",
+    primaryKeys = {"recipe_id", "id"}
+)
 public class RecipePositionResolved extends GroupedListItem {
 
-  @PrimaryKey
   @ColumnInfo(name = "id")
   @SerializedName("id")
   private int id;
@@ -404,13 +407,6 @@ public class RecipePositionResolved extends GroupedListItem {
     return "RecipePositionResolved(" + id + ")";
   }
 
-  public static List<RecipePositionResolved> getRecipePositionsFromRecipeId(
-      List<RecipePositionResolved> recipePositions, int recipeId
-  ) {
-    return recipePositions.stream().filter(pos -> pos.getRecipeId() == recipeId)
-        .collect(Collectors.toList());
-  }
-
   public static void fillRecipePositionsResolvedWithNotCheckStockFulfillment(
       List<RecipePositionResolved> recipePositionsResolved,
       HashMap<Integer, RecipePosition> recipePositionHashMap
@@ -430,10 +426,9 @@ public class RecipePositionResolved extends GroupedListItem {
       boolean forceUpdate,
       OnObjectsResponseListener<RecipePositionResolved> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        PREF.DB_LAST_TIME_RECIPE_POSITIONS_RESOLVED, null
-    ) : null;
-    if (lastTime == null || !lastTime.equals(dbChangedTime)) {
+    PartialSyncState syncState = getSyncState(dlHelper);
+    // positions of single recipes may have been synced with the same db-changed-time
+    if (forceUpdate || !syncState.isFullySynced(dbChangedTime)) {
       return new QueueItem() {
         @Override
         public void perform(
@@ -453,28 +448,14 @@ public class RecipePositionResolved extends GroupedListItem {
                   Log.i(dlHelper.tag, "download RecipePositionResolved: "
                       + recipePositionsResolved);
                 }
-                // fix crash, amount can be NaN according to a user
-                for (int i = 0; i < recipePositionsResolved.size(); i++) {
-                  RecipePositionResolved recipePos = recipePositionsResolved.get(i);
-                  recipePos.setId(i);
-                  if (Double.isNaN(recipePos.getRecipeAmount())) {
-                    recipePos.setRecipeAmount(0);
-                  }
-                  if (Double.isNaN(recipePos.getStockAmount())) {
-                    recipePos.setStockAmount(0);
-                  }
-                }
-                Single.fromCallable(() -> {
+                fixDownloadedPositions(recipePositionsResolved);
+                dlHelper.writeToDatabase(uuid, () -> {
                       dlHelper.appDatabase.recipePositionResolvedDao()
                           .deleteRecipePositionsResolved().blockingSubscribe();
                       dlHelper.appDatabase.recipePositionResolvedDao()
                           .insertRecipePositionsResolved(recipePositionsResolved)
                           .blockingSubscribe();
-                      dlHelper.sharedPrefs.edit()
-                          .putString(PREF.DB_LAST_TIME_RECIPE_POSITIONS_RESOLVED, dbChangedTime)
-                          .apply();
-                      return true;
-                    })
+                    }, () -> syncState.markFullySynced(dbChangedTime))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -485,7 +466,7 @@ public class RecipePositionResolved extends GroupedListItem {
                         responseListener.onResponse(response);
                       }
                     })
-                    .subscribe(ignored -> {}, throwable -> {
+                    .subscribe(() -> {}, throwable -> {
                       if (errorListener != null) {
                         errorListener.onError(throwable);
                       }
@@ -507,6 +488,118 @@ public class RecipePositionResolved extends GroupedListItem {
     }
   }
 
+  /**
+   * Downloads the resolved positions of every given recipe which have not been synced since the
+   * last change on the server, each recipe with its own request.
+   * The synced recipes are stored with their ids in the PartialSyncState.
+   */
+  public static QueueItem[] updateRecipePositionsResolvedOfRecipes(
+      DownloadHelper dlHelper,
+      String dbChangedTime,
+      boolean forceUpdate,
+      Collection<Integer> recipeIds
+  ) {
+    PartialSyncState syncState = getSyncState(dlHelper);
+    boolean fullySynced = !forceUpdate && syncState.isFullySynced(dbChangedTime);
+    Set<String> syncedRecipeIds = !forceUpdate
+        ? syncState.getSyncedKeys(dbChangedTime) : Collections.emptySet();
+
+    List<QueueItem> queueItems = new ArrayList<>();
+    for (int recipeId : recipeIds) {
+      if (fullySynced || syncedRecipeIds.contains(String.valueOf(recipeId))) {
+        continue;
+      }
+      queueItems.add(updateRecipePositionsResolvedOfRecipe(
+          dlHelper, syncState, dbChangedTime, recipeId
+      ));
+    }
+    if (queueItems.isEmpty() && dlHelper.debug) {
+      Log.i(dlHelper.tag, "downloadData: skipped RecipePositionResolved download");
+    }
+    return queueItems.toArray(new QueueItem[0]);
+  }
+
+  @SuppressLint("CheckResult")
+  private static QueueItem updateRecipePositionsResolvedOfRecipe(
+      DownloadHelper dlHelper,
+      PartialSyncState syncState,
+      String dbChangedTime,
+      int recipeId
+  ) {
+    return new QueueItem() {
+      @Override
+      public void perform(
+          @Nullable OnStringResponseListener responseListener,
+          @Nullable OnMultiTypeErrorListener errorListener,
+          @Nullable String uuid
+      ) {
+        dlHelper.get(
+            dlHelper.grocyApi.getRecipePositionsResolved(recipeId),
+            uuid,
+            response -> {
+              Type type = new TypeToken<List<RecipePositionResolved>>() {
+              }.getType();
+              ArrayList<RecipePositionResolved> recipePositionsResolved = dlHelper.gson
+                  .fromJson(response, type);
+              if (dlHelper.debug) {
+                Log.i(dlHelper.tag, "download RecipePositionResolved of recipe "
+                    + recipeId + ": " + recipePositionsResolved);
+              }
+              fixDownloadedPositions(recipePositionsResolved);
+              dlHelper.writeToDatabase(uuid, () -> {
+                    dlHelper.appDatabase.recipePositionResolvedDao()
+                        .deleteRecipePositionsResolved(recipeId).blockingSubscribe();
+                    dlHelper.appDatabase.recipePositionResolvedDao()
+                        .insertRecipePositionsResolved(recipePositionsResolved)
+                        .blockingSubscribe();
+                  }, () -> syncState.markSynced(
+                      dbChangedTime, Collections.singletonList(String.valueOf(recipeId))
+                  ))
+                  .subscribeOn(Schedulers.io())
+                  .observeOn(AndroidSchedulers.mainThread())
+                  .doFinally(() -> {
+                    if (responseListener != null) {
+                      responseListener.onResponse(response);
+                    }
+                  })
+                  .subscribe(() -> {}, throwable -> {
+                    if (errorListener != null) {
+                      errorListener.onError(throwable);
+                    }
+                  });
+            },
+            error -> {
+              if (errorListener != null) {
+                errorListener.onError(error);
+              }
+            }
+        );
+      }
+    };
+  }
+
+  private static PartialSyncState getSyncState(DownloadHelper dlHelper) {
+    return new PartialSyncState(
+        dlHelper.sharedPrefs,
+        PREF.DB_LAST_TIME_RECIPE_POSITIONS_RESOLVED,
+        PREF.DB_SYNCED_RECIPE_POSITIONS_RESOLVED
+    );
+  }
+
+  private static void fixDownloadedPositions(List<RecipePositionResolved> recipePositions) {
+    // fix crash, amount can be NaN according to a user
+    for (int i = 0; i < recipePositions.size(); i++) {
+      RecipePositionResolved recipePos = recipePositions.get(i);
+      recipePos.setId(i);
+      if (Double.isNaN(recipePos.getRecipeAmount())) {
+        recipePos.setRecipeAmount(0);
+      }
+      if (Double.isNaN(recipePos.getStockAmount())) {
+        recipePos.setStockAmount(0);
+      }
+    }
+  }
+
   @Override
   public int getType(String context) {
     return GroupedListItem.TYPE_ENTRY;
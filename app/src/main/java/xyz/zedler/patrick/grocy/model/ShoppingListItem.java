@@ -27,11 +27,11 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
-import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
@@ -52,7 +52,10 @@ import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
-@Entity(tableName = "shopping_list_item_table")
+@Entity(
+    tableName = "shopping_list_item_table",
+    indices = {@Index(value = {"product_id"})}
+)
 public class ShoppingListItem extends GroupedListItem implements Parcelable {
 
   @PrimaryKey
@@ -381,15 +384,13 @@ public class ShoppingListItem extends GroupedListItem implements Parcelable {
                 if (dlHelper.debug) {
                   Log.i(dlHelper.tag, "download ShoppingListItems: " + shoppingListItems);
                 }
-                Single.fromCallable(() -> {
+                dlHelper.writeToDatabase(uuid, () -> {
                   dlHelper.appDatabase.shoppingListItemDao()
                       .deleteShoppingListItems().blockingSubscribe();
                   dlHelper.appDatabase.shoppingListItemDao()
                       .insertShoppingListItems(shoppingListItems).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_SHOPPING_LIST_ITEMS, dbChangedTime).apply();
-                  return true;
-                })
+                }, () -> dlHelper.sharedPrefs.edit()
+                    .putString(PREF.DB_LAST_TIME_SHOPPING_LIST_ITEMS, dbChangedTime).apply())
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -400,7 +401,7 @@ public class ShoppingListItem extends GroupedListItem implements Parcelable {
                         responseListener.onResponse(response);
                       }
                     })
-                    .subscribe(ignored -> {}, throwable -> {
+                    .subscribe(() -> {}, throwable -> {
                       if (errorListener != null) {
                         errorListener.onError(throwable);
                       }
@@ -467,13 +468,12 @@ public class ShoppingListItem extends GroupedListItem implements Parcelable {
                         }
                       }
                     })
-                    .flatMap(completeItems -> {
+                    .flatMap(completeItems -> dlHelper.writeToDatabase(uuid, () -> {
                       dlHelper.appDatabase.shoppingListItemDao().deleteAll();
                       dlHelper.appDatabase.shoppingListItemDao().insertAll(shoppingListItems);
-                      dlHelper.sharedPrefs.edit()
-                          .putString(PREF.DB_LAST_TIME_SHOPPING_LIST_ITEMS, dbChangedTime).apply();
-                      return Single.just(shoppingListItems);
-                    })
+                    }, () -> dlHelper.sharedPrefs.edit()
+                        .putString(PREF.DB_LAST_TIME_SHOPPING_LIST_ITEMS, dbChangedTime).apply()
+                    ).toSingleDefault(shoppingListItems))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doOnError(throwable -> {
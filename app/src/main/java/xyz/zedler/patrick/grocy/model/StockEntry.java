@@ -28,27 +28,35 @@ import androidx.annotation.Nullable;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
-import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import xyz.zedler.patrick.grocy.Constants.PREF;
+import xyz.zedler.patrick.grocy.api.GrocyApi.COMPARISON;
+import xyz.zedler.patrick.grocy.api.GrocyApi.COMPARISON_OPERATOR;
 import xyz.zedler.patrick.grocy.api.GrocyApi.ENTITY;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.helper.PartialSyncState;
+import xyz.zedler.patrick.grocy.util.DateUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
-@Entity(tableName = "stock_entry_table")
+@Entity(
+    tableName = "stock_entry_table",
+    indices = {@Index(value = {"product_id"})}
+)
 public class StockEntry extends GroupedListItem implements Parcelable {
 
   @PrimaryKey
@@ -104,6 +112,9 @@ public class StockEntry extends GroupedListItem implements Parcelable {
   @SerializedName("note")
   private String note;
 
+  @ColumnInfo(name = "best_before_date_epoch_day")
+  private Long bestBeforeDateEpochDay;
+
   public StockEntry() {
   }
 
@@ -189,6 +200,21 @@ public class StockEntry extends GroupedListItem implements Parcelable {
 
   public void setBestBeforeDate(String bestBeforeDate) {
     this.bestBeforeDate = bestBeforeDate;
+    this.bestBeforeDateEpochDay = null;
+  }
+
+  /**
+   * Best before date as epoch day or DateUtil.NO_DATE, parsed once and stored in the database next to the string.
+   */
+  public Long getBestBeforeDateEpochDay() {
+    if (bestBeforeDateEpochDay == null) {
+      bestBeforeDateEpochDay = DateUtil.getEpochDay(bestBeforeDate);
+    }
+    return bestBeforeDateEpochDay;
+  }
+
+  public void setBestBeforeDateEpochDay(Long bestBeforeDateEpochDay) {
+    this.bestBeforeDateEpochDay = bestBeforeDateEpochDay;
   }
 
   public String getPurchasedDate() {
@@ -327,10 +353,9 @@ public class StockEntry extends GroupedListItem implements Parcelable {
       boolean forceUpdate,
       OnObjectsResponseListener<StockEntry> onResponseListener
   ) {
-    String lastTime = !forceUpdate ? dlHelper.sharedPrefs.getString(  // get last offline db-changed-time value
-        PREF.DB_LAST_TIME_STOCK_ENTRIES, null
-    ) : null;
-    if (lastTime == null || !lastTime.equals(dbChangedTime)) {
+    PartialSyncState syncState = getSyncState(dlHelper);
+    // entries of single products may have been synced with the same db-changed-time
+    if (forceUpdate || !syncState.isFullySynced(dbChangedTime)) {
       return new QueueItem() {
         @Override
         public void perform(
@@ -348,14 +373,11 @@ public class StockEntry extends GroupedListItem implements Parcelable {
                 if (dlHelper.debug) {
                   Log.i(dlHelper.tag, "dowload StockEntries: " + stockEntries);
                 }
-                Single.fromCallable(() -> {
+                dlHelper.writeToDatabase(uuid, () -> {
                   dlHelper.appDatabase.stockEntryDao().deleteStockEntries().blockingSubscribe();
                   dlHelper.appDatabase.stockEntryDao()
                       .insertStockEntries(stockEntries).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_STOCK_ENTRIES, dbChangedTime).apply();
-                  return true;
-                })
+                }, () -> syncState.markFullySynced(dbChangedTime))
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -366,7 +388,7 @@ public class StockEntry extends GroupedListItem implements Parcelable {
                         responseListener.onResponse(response);
                       }
                     })
-                    .subscribe(ignored -> {}, throwable -> {
+                    .subscribe(() -> {}, throwable -> {
                       if (errorListener != null) {
                         errorListener.onError(throwable);
                       }
@@ -388,6 +410,84 @@ public class StockEntry extends GroupedListItem implements Parcelable {
     }
   }
 
+  /**
+   * Downloads only the stock entries of the product, if they have not been synced since the last
+   * change on the server. The synced products are stored with their ids in the PartialSyncState.
+   */
+  @SuppressLint("CheckResult")
+  public static QueueItem updateStockEntriesOfProduct(
+      DownloadHelper dlHelper,
+      String dbChangedTime,
+      boolean forceUpdate,
+      int productId
+  ) {
+    PartialSyncState syncState = getSyncState(dlHelper);
+    if (!forceUpdate && syncState.isSynced(dbChangedTime, String.valueOf(productId))) {
+      if (dlHelper.debug) {
+        Log.i(dlHelper.tag, "downloadData: skipped StockEntries download of product");
+      }
+      return null;
+    }
+    return new QueueItem() {
+      @Override
+      public void perform(
+          @Nullable OnStringResponseListener responseListener,
+          @Nullable OnMultiTypeErrorListener errorListener,
+          @Nullable String uuid
+      ) {
+        dlHelper.get(
+            dlHelper.grocyApi.getObjects(
+                ENTITY.STOCK_ENTRIES,
+                new COMPARISON("product_id", COMPARISON_OPERATOR.EQUAL, String.valueOf(productId))
+            ),
+            uuid,
+            response -> {
+              Type type = new TypeToken<List<StockEntry>>() {
+              }.getType();
+              ArrayList<StockEntry> stockEntries = dlHelper.gson.fromJson(response, type);
+              if (dlHelper.debug) {
+                Log.i(dlHelper.tag, "download StockEntries of product " + productId + ": "
+                    + stockEntries);
+              }
+              dlHelper.writeToDatabase(uuid, () -> {
+                dlHelper.appDatabase.stockEntryDao()
+                    .deleteStockEntries(productId).blockingSubscribe();
+                dlHelper.appDatabase.stockEntryDao()
+                    .insertStockEntries(stockEntries).blockingSubscribe();
+              }, () -> syncState.markSynced(
+                  dbChangedTime, Collections.singletonList(String.valueOf(productId))
+              ))
+                  .subscribeOn(Schedulers.io())
+                  .observeOn(AndroidSchedulers.mainThread())
+                  .doFinally(() -> {
+                    if (responseListener != null) {
+                      responseListener.onResponse(response);
+                    }
+                  })
+                  .subscribe(() -> {}, throwable -> {
+                    if (errorListener != null) {
+                      errorListener.onError(throwable);
+                    }
+                  });
+            },
+            error -> {
+              if (errorListener != null) {
+                errorListener.onError(error);
+              }
+            }
+        );
+      }
+    };
+  }
+
+  private static PartialSyncState getSyncState(DownloadHelper dlHelper) {
+    return new PartialSyncState(
+        dlHelper.sharedPrefs,
+        PREF.DB_LAST_TIME_STOCK_ENTRIES,
+        PREF.DB_SYNCED_STOCK_ENTRIES_PRODUCTS
+    );
+  }
+
   public static QueueItem getStockEntries(
       DownloadHelper dlHelper,
       int productId,
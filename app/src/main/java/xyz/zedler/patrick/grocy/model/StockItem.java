@@ -32,7 +32,6 @@ import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
-import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
@@ -44,6 +43,7 @@ import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DateUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
@@ -109,6 +109,9 @@ public class StockItem extends GroupedListItem implements Parcelable {
   @ColumnInfo(name = "item_missing_partly_in_stock")
   private boolean itemMissingAndPartlyInStock = false;
 
+  @ColumnInfo(name = "best_before_date_epoch_day")
+  private Long bestBeforeDateEpochDay;
+
   public StockItem() {
   }
 
@@ -248,6 +251,21 @@ public class StockItem extends GroupedListItem implements Parcelable {
 
   public void setBestBeforeDate(String bestBeforeDate) {
     this.bestBeforeDate = bestBeforeDate;
+    this.bestBeforeDateEpochDay = null;
+  }
+
+  /**
+   * Best before date as epoch day or DateUtil.NO_DATE, parsed once and stored in the database next to the string.
+   */
+  public Long getBestBeforeDateEpochDay() {
+    if (bestBeforeDateEpochDay == null) {
+      bestBeforeDateEpochDay = DateUtil.getEpochDay(bestBeforeDate);
+    }
+    return bestBeforeDateEpochDay;
+  }
+
+  public void setBestBeforeDateEpochDay(Long bestBeforeDateEpochDay) {
+    this.bestBeforeDateEpochDay = bestBeforeDateEpochDay;
   }
 
   public void setAmountOpened(String amountOpened) {
@@ -411,14 +429,12 @@ public class StockItem extends GroupedListItem implements Parcelable {
                 if (dlHelper.debug) {
                   Log.i(dlHelper.tag, "download StockItems: " + stockItems);
                 }
-                Single.fromCallable(() -> {
+                dlHelper.writeToDatabase(uuid, () -> {
                   dlHelper.appDatabase.stockItemDao().deleteStockItems().blockingSubscribe();
                   dlHelper.appDatabase.stockItemDao()
                       .insertStockItems(stockItems).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_STOCK_ITEMS, dbChangedTime).apply();
-                  return true;
-                })
+                }, () -> dlHelper.sharedPrefs.edit()
+                    .putString(PREF.DB_LAST_TIME_STOCK_ITEMS, dbChangedTime).apply())
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -429,7 +445,7 @@ public class StockItem extends GroupedListItem implements Parcelable {
                         responseListener.onResponse(response);
                       }
                     })
-                    .subscribe(ignored -> {}, throwable -> {
+                    .subscribe(() -> {}, throwable -> {
                       if (errorListener != null) {
                         errorListener.onError(throwable);
                       }
@@ -0,0 +1,114 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import java.util.Objects;
+
+/**
+ * Row data of one product on the stock overview which is joined from the price, conversion
+ * and shopping list tables in StockItemDao, so these tables don't have to be loaded completely.
+ */
+public class StockItemDetails {
+
+  @ColumnInfo(name = "product_id")
+  private int productId;
+
+  @ColumnInfo(name = "average_price")
+  private String averagePrice;
+
+  @ColumnInfo(name = "last_price")
+  private String lastPrice;
+
+  // null if there is no conversion from price unit to stock unit
+  @ColumnInfo(name = "factor_price_to_stock")
+  private Double factorPriceToStock;
+
+  @ColumnInfo(name = "on_shopping_list")
+  private boolean onShoppingList;
+
+  public int getProductId() {
+    return productId;
+  }
+
+  public void setProductId(int productId) {
+    this.productId = productId;
+  }
+
+  public String getAveragePrice() {
+    return averagePrice;
+  }
+
+  public void setAveragePrice(String averagePrice) {
+    this.averagePrice = averagePrice;
+  }
+
+  public String getLastPrice() {
+    return lastPrice;
+  }
+
+  public void setLastPrice(String lastPrice) {
+    this.lastPrice = lastPrice;
+  }
+
+  public Double getFactorPriceToStock() {
+    return factorPriceToStock;
+  }
+
+  public void setFactorPriceToStock(Double factorPriceToStock) {
+    this.factorPriceToStock = factorPriceToStock;
+  }
+
+  public boolean isOnShoppingList() {
+    return onShoppingList;
+  }
+
+  public void setOnShoppingList(boolean onShoppingList) {
+    this.onShoppingList = onShoppingList;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    StockItemDetails that = (StockItemDetails) o;
+    return productId == that.productId
+        && onShoppingList == that.onShoppingList
+        && Objects.equals(averagePrice, that.averagePrice)
+        && Objects.equals(lastPrice, that.lastPrice)
+        && Objects.equals(factorPriceToStock, that.factorPriceToStock);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(productId, averagePrice, lastPrice, factorPriceToStock, onShoppingList);
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return "StockItemDetails(" + productId + ')';
+  }
+}
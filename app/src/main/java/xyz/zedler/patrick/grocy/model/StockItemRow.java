@@ -0,0 +1,159 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.model;
+
+import androidx.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Display data of one stock overview row, prepared together with the grouped list so that
+ * binding a row only has to set texts and colors.
+ */
+public class StockItemRow {
+
+  public static final int COLOR_NONE = 0;
+  public static final int COLOR_BLUE = 1;
+  public static final int COLOR_YELLOW = 2;
+  public static final int COLOR_ORANGE = 3;
+  public static final int COLOR_ERROR = 4;
+
+  private final String name;
+  private final boolean onShoppingList;
+  private final List<ChipData> chips;
+  private final String pictureFileName;
+
+  public StockItemRow(
+      String name,
+      boolean onShoppingList,
+      List<ChipData> chips,
+      @Nullable String pictureFileName
+  ) {
+    this.name = name;
+    this.onShoppingList = onShoppingList;
+    this.chips = Collections.unmodifiableList(new ArrayList<>(chips));
+    this.pictureFileName = pictureFileName;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public boolean isOnShoppingList() {
+    return onShoppingList;
+  }
+
+  public List<ChipData> getChips() {
+    return chips;
+  }
+
+  /**
+   * Null if the picture is not displayed or the product has no picture.
+   */
+  @Nullable
+  public String getPictureFileName() {
+    return pictureFileName;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    StockItemRow that = (StockItemRow) o;
+    return onShoppingList == that.onShoppingList
+        && Objects.equals(name, that.name)
+        && Objects.equals(chips, that.chips)
+        && Objects.equals(pictureFileName, that.pictureFileName);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(name, onShoppingList, chips, pictureFileName);
+  }
+
+  public static class ChipData {
+
+    private final String text;
+    private final int color;
+    private final Userfield userfield;
+    private final String userfieldValue;
+
+    public ChipData(String text, int color) {
+      this.text = text;
+      this.color = color;
+      this.userfield = null;
+      this.userfieldValue = null;
+    }
+
+    /**
+     * Userfield chips are filled when binding, they can have icons and click listeners.
+     */
+    public ChipData(Userfield userfield, @Nullable String userfieldValue) {
+      this.text = null;
+      this.color = COLOR_NONE;
+      this.userfield = userfield;
+      this.userfieldValue = userfieldValue;
+    }
+
+    public String getText() {
+      return text;
+    }
+
+    public int getColor() {
+      return color;
+    }
+
+    @Nullable
+    public Userfield getUserfield() {
+      return userfield;
+    }
+
+    @Nullable
+    public String getUserfieldValue() {
+      return userfieldValue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      ChipData chipData = (ChipData) o;
+      return color == chipData.color
+          && Objects.equals(text, chipData.text)
+          && Objects.equals(userfield, chipData.userfield)
+          && Objects.equals(userfieldValue, chipData.userfieldValue);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(text, color, userfield, userfieldValue);
+    }
+  }
+}
@@ -27,11 +27,11 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Ignore;
 import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
-import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
@@ -63,7 +63,7 @@ public class Store implements Parcelable {
   @SerializedName("description")
   private String description;
 
-  @ColumnInfo(name = "userfields")
+  @Ignore
   @SerializedName("userfields")
   private Map<String, String> userfields;
 
@@ -200,13 +200,20 @@ public class Store implements Parcelable {
                 if (dlHelper.debug) {
                   Log.i(dlHelper.tag, "download Stores: " + stores);
                 }
-                Single.fromCallable(() -> {
+                dlHelper.writeToDatabase(uuid, () -> {
                       dlHelper.appDatabase.storeDao().deleteStores().blockingSubscribe();
                       dlHelper.appDatabase.storeDao().insertStores(stores).blockingSubscribe();
-                      dlHelper.sharedPrefs.edit()
-                          .putString(Constants.PREF.DB_LAST_TIME_STORES, dbChangedTime).apply();
-                      return true;
-                    })
+                      dlHelper.appDatabase.userfieldValueDao()
+                          .deleteUserfieldValues(GrocyApi.ENTITY.STORES).blockingSubscribe();
+                      dlHelper.appDatabase.userfieldValueDao()
+                          .insertUserfieldValues(UserfieldValue.getUserfieldValues(
+                              GrocyApi.ENTITY.STORES,
+                              stores,
+                              Store::getId,
+                              Store::getUserfields
+                          )).blockingSubscribe();
+                    }, () -> dlHelper.sharedPrefs.edit()
+                        .putString(Constants.PREF.DB_LAST_TIME_STORES, dbChangedTime).apply())
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -217,7 +224,7 @@ public class Store implements Parcelable {
                         responseListener.onResponse(response);
                       }
                     })
-                    .subscribe(ignored -> {}, throwable -> {
+                    .subscribe(() -> {}, throwable -> {
                       if (errorListener != null) {
                         errorListener.onError(throwable);
                       }
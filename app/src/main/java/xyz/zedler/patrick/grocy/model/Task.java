@@ -32,7 +32,6 @@ import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
-import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
@@ -47,6 +46,7 @@ import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnMultiTypeErrorListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnObjectsResponseListener;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper.OnStringResponseListener;
+import xyz.zedler.patrick.grocy.util.DateUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.web.NetworkQueue.QueueItem;
 
@@ -86,6 +86,9 @@ public class Task implements Parcelable {
   @SerializedName("assigned_to_user_id")
   private String assignedToUserId;
 
+  @ColumnInfo(name = "due_date_epoch_day")
+  private Long dueDateEpochDay;
+
   public Task() {
   }  // for Room
 
@@ -156,6 +159,21 @@ public class Task implements Parcelable {
 
   public void setDueDate(String dueDate) {
     this.dueDate = dueDate;
+    this.dueDateEpochDay = null;
+  }
+
+  /**
+   * Due date as epoch day or DateUtil.NO_DATE, parsed once and stored in the database next to the string.
+   */
+  public Long getDueDateEpochDay() {
+    if (dueDateEpochDay == null) {
+      dueDateEpochDay = DateUtil.getEpochDay(dueDate);
+    }
+    return dueDateEpochDay;
+  }
+
+  public void setDueDateEpochDay(Long dueDateEpochDay) {
+    this.dueDateEpochDay = dueDateEpochDay;
   }
 
   public Integer getDone() {
@@ -326,13 +344,12 @@ public class Task implements Parcelable {
                 if (dlHelper.debug) {
                   Log.i(dlHelper.tag, "download Tasks: " + tasks);
                 }
-                Single.fromCallable(() -> {
+                dlHelper.writeToDatabase(uuid, () -> {
                   dlHelper.appDatabase.taskDao().deleteTasks().blockingSubscribe();
                   dlHelper.appDatabase.taskDao().insertTasks(tasks).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_TASKS, dbChangedTime).apply();
-                  return true;
-                })
+                  dlHelper.appDatabase.searchDao().rebuildTaskIndex();
+                }, () -> dlHelper.sharedPrefs.edit()
+                    .putString(PREF.DB_LAST_TIME_TASKS, dbChangedTime).apply())
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -343,7 +360,7 @@ public class Task implements Parcelable {
                         responseListener.onResponse(response);
                       }
                     })
-                    .subscribe(ignored -> {}, throwable -> {
+                    .subscribe(() -> {}, throwable -> {
                       if (errorListener != null) {
                         errorListener.onError(throwable);
                       }
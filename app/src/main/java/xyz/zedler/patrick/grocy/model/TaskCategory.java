@@ -32,7 +32,6 @@ import androidx.room.PrimaryKey;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
-import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
@@ -64,7 +63,7 @@ public class TaskCategory extends GroupedListItem implements Parcelable {
   @SerializedName("description")
   private String description;
 
-  @ColumnInfo(name = "userfields")
+  @Ignore
   @SerializedName("userfields")
   private Map<String, String> userfields;
 
@@ -248,14 +247,21 @@ public class TaskCategory extends GroupedListItem implements Parcelable {
                 if (dlHelper.debug) {
                   Log.i(dlHelper.tag, "download Task categories: " + taskCategories);
                 }
-                Single.fromCallable(() -> {
+                dlHelper.writeToDatabase(uuid, () -> {
                   dlHelper.appDatabase.taskCategoryDao().deleteCategories().blockingSubscribe();
                   dlHelper.appDatabase.taskCategoryDao()
                       .insertCategories(taskCategories).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_TASK_CATEGORIES, dbChangedTime).apply();
-                  return true;
-                })
+                  dlHelper.appDatabase.userfieldValueDao()
+                      .deleteUserfieldValues(ENTITY.TASK_CATEGORIES).blockingSubscribe();
+                  dlHelper.appDatabase.userfieldValueDao()
+                      .insertUserfieldValues(UserfieldValue.getUserfieldValues(
+                          ENTITY.TASK_CATEGORIES,
+                          taskCategories,
+                          TaskCategory::getId,
+                          TaskCategory::getUserfields
+                      )).blockingSubscribe();
+                }, () -> dlHelper.sharedPrefs.edit()
+                    .putString(PREF.DB_LAST_TIME_TASK_CATEGORIES, dbChangedTime).apply())
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -266,7 +272,7 @@ public class TaskCategory extends GroupedListItem implements Parcelable {
                         responseListener.onResponse(response);
                       }
                     })
-                    .subscribe(ignored -> {}, throwable -> {
+                    .subscribe(() -> {}, throwable -> {
                       if (errorListener != null) {
                         errorListener.onError(throwable);
                       }
@@ -37,7 +37,6 @@ import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
-import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
@@ -61,6 +60,10 @@ public class Userfield implements Parcelable {
   public static final String TYPE_CHECKBOX = "checkbox";
   public static final String TYPE_TEXT_SINGLE_LINE = "text-single-line";
   public static final String TYPE_TEXT_MULTI_LINE = "text-multi-line";
+  public static final String TYPE_NUMBER_INTEGRAL = "number-integral";
+  public static final String TYPE_NUMBER_DECIMAL = "number-decimal";
+  public static final String TYPE_DATE = "date";
+  public static final String TYPE_DATETIME = "datetime";
 
   @PrimaryKey
   @ColumnInfo(name = "id")
@@ -363,13 +366,11 @@ public class Userfield implements Parcelable {
                 if (dlHelper.debug) {
                   Log.i(dlHelper.tag, "download Userfields: " + userfields);
                 }
-                Single.fromCallable(() -> {
+                dlHelper.writeToDatabase(uuid, () -> {
                       dlHelper.appDatabase.userfieldDao().deleteUserfields().blockingSubscribe();
                       dlHelper.appDatabase.userfieldDao().insertStores(userfields).blockingSubscribe();
-                      dlHelper.sharedPrefs.edit()
-                          .putString(PREF.DB_LAST_TIME_USERFIELDS, dbChangedTime).apply();
-                      return true;
-                    })
+                    }, () -> dlHelper.sharedPrefs.edit()
+                        .putString(PREF.DB_LAST_TIME_USERFIELDS, dbChangedTime).apply())
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -380,7 +381,7 @@ public class Userfield implements Parcelable {
                         responseListener.onResponse(response);
                       }
                     })
-                    .subscribe(ignored -> {}, throwable -> {
+                    .subscribe(() -> {}, throwable -> {
                       if (errorListener != null) {
                         errorListener.onError(throwable);
                       }
@@ -0,0 +1,299 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.model;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import java.nio.ByteBuffer;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import xyz.zedler.patrick.grocy.util.LocaleUtil;
+import xyz.zedler.patrick.grocy.util.NumUtil;
+
+/**
+ * One userfield value of one object, stored in its own row instead of a JSON string
+ * inside the object table, so that values can be loaded per field and sorted by index.
+ */
+@Entity(
+    tableName = "userfield_value_table",
+    primaryKeys = {"entity", "object_id", "field"},
+    indices = {
+        @Index(value = {"entity", "field", "sort_key"}),
+        @Index(value = {"entity", "object_id"})
+    }
+)
+public class UserfieldValue {
+
+  private static final byte SORT_KEY_NUMBER = 0;
+  private static final byte SORT_KEY_TEXT = 1;
+
+  @NonNull
+  @ColumnInfo(name = "entity")
+  private String entity;
+
+  @ColumnInfo(name = "object_id")
+  private int objectId;
+
+  @NonNull
+  @ColumnInfo(name = "field")
+  private String field;
+
+  @ColumnInfo(name = "value")
+  private String value;
+
+  // numeric representation (numbers and checkboxes), null if value is not a number
+  @ColumnInfo(name = "typed_value")
+  private Double typedValue;
+
+  // bytewise comparable like SQLite compares blobs, see getSortKey
+  @ColumnInfo(name = "sort_key")
+  private byte[] sortKey;
+
+  public UserfieldValue(
+      @NonNull String entity,
+      int objectId,
+      @NonNull String field,
+      String value,
+      Double typedValue,
+      byte[] sortKey
+  ) {
+    this.entity = entity;
+    this.objectId = objectId;
+    this.field = field;
+    this.value = value;
+    this.typedValue = typedValue;
+    this.sortKey = sortKey;
+  }
+
+  @NonNull
+  public String getEntity() {
+    return entity;
+  }
+
+  public void setEntity(@NonNull String entity) {
+    this.entity = entity;
+  }
+
+  public int getObjectId() {
+    return objectId;
+  }
+
+  public void setObjectId(int objectId) {
+    this.objectId = objectId;
+  }
+
+  @NonNull
+  public String getField() {
+    return field;
+  }
+
+  public void setField(@NonNull String field) {
+    this.field = field;
+  }
+
+  public String getValue() {
+    return value;
+  }
+
+  public void setValue(String value) {
+    this.value = value;
+  }
+
+  public Double getTypedValue() {
+    return typedValue;
+  }
+
+  public void setTypedValue(Double typedValue) {
+    this.typedValue = typedValue;
+  }
+
+  public byte[] getSortKey() {
+    return sortKey;
+  }
+
+  public void setSortKey(byte[] sortKey) {
+    this.sortKey = sortKey;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    UserfieldValue that = (UserfieldValue) o;
+    return objectId == that.objectId
+        && Objects.equals(entity, that.entity)
+        && Objects.equals(field, that.field)
+        && Objects.equals(value, that.value)
+        && Objects.equals(typedValue, that.typedValue);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(entity, objectId, field, value, typedValue);
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return "UserfieldValue(" + entity + ", " + objectId + ", " + field + ')';
+  }
+
+  public static <T> List<UserfieldValue> getUserfieldValues(
+      String entity,
+      List<T> objects,
+      ToIntFunction<T> idGetter,
+      Function<T, Map<String, String>> userfieldsGetter
+  ) {
+    return getUserfieldValues(
+        entity,
+        objects,
+        idGetter,
+        userfieldsGetter,
+        Collator.getInstance(LocaleUtil.getLocale())
+    );
+  }
+
+  public static <T> List<UserfieldValue> getUserfieldValues(
+      String entity,
+      List<T> objects,
+      ToIntFunction<T> idGetter,
+      Function<T, Map<String, String>> userfieldsGetter,
+      Collator collator
+  ) {
+    List<UserfieldValue> userfieldValues = new ArrayList<>();
+    if (objects == null) {
+      return userfieldValues;
+    }
+    for (T object : objects) {
+      Map<String, String> userfields = userfieldsGetter.apply(object);
+      if (userfields == null) continue;
+      int objectId = idGetter.applyAsInt(object);
+      for (Map.Entry<String, String> entry : userfields.entrySet()) {
+        String value = entry.getValue();
+        if (entry.getKey() == null || value == null || value.isEmpty()) continue;
+        double number = NumUtil.parseDouble(value);
+        Double typedValue = !Double.isNaN(number) ? number : null;
+        userfieldValues.add(new UserfieldValue(
+            entity,
+            objectId,
+            entry.getKey(),
+            value,
+            typedValue,
+            getSortKey(value, typedValue, collator)
+        ));
+      }
+    }
+    return userfieldValues;
+  }
+
+  /**
+   * Sets the userfields map of every object from the given rows. Objects without a stored
+   * value get an empty map, so callers can always read from it.
+   */
+  public static <T> void fillObjectsWithUserfields(
+      List<T> objects,
+      @Nullable List<UserfieldValue> userfieldValues,
+      ToIntFunction<T> idGetter,
+      BiConsumer<T, Map<String, String>> userfieldsSetter
+  ) {
+    if (objects == null) {
+      return;
+    }
+    HashMap<Integer, Map<String, String>> valuesHashMap = new HashMap<>();
+    if (userfieldValues != null) {
+      for (UserfieldValue userfieldValue : userfieldValues) {
+        Map<String, String> values = valuesHashMap.get(userfieldValue.getObjectId());
+        if (values == null) {
+          values = new HashMap<>();
+          valuesHashMap.put(userfieldValue.getObjectId(), values);
+        }
+        values.put(userfieldValue.getField(), userfieldValue.getValue());
+      }
+    }
+    for (T object : objects) {
+      Map<String, String> values = valuesHashMap.get(idGetter.applyAsInt(object));
+      userfieldsSetter.accept(object, values != null ? values : Collections.emptyMap());
+    }
+  }
+
+  /**
+   * Values which are numbers (also checkboxes) are ordered by their number before all other
+   * values, which are ordered by the collation key of the collator. Dates are stored as
+   * yyyy-MM-dd HH:mm:ss, so their collation order is the chronological order.
+   * The keys are written with the locale of the sync, after a language change all data is
+   * downloaded again (see LanguagesBottomSheet).
+   */
+  public static byte[] getSortKey(String value, @Nullable Double typedValue, Collator collator) {
+    if (typedValue != null) {
+      // -0.0 has other bits than 0.0
+      long bits = Double.doubleToLongBits(typedValue == 0 ? 0 : typedValue);
+      // unsigned order of the bits: flip the sign bit of positive and all bits of negative numbers
+      bits ^= bits < 0 ? -1L : Long.MIN_VALUE;
+      return ByteBuffer.allocate(9).put(SORT_KEY_NUMBER).putLong(bits).array();
+    }
+    byte[] collationKey = collator.getCollationKey(value).toByteArray();
+    byte[] sortKey = new byte[collationKey.length + 1];
+    sortKey[0] = SORT_KEY_TEXT;
+    System.arraycopy(collationKey, 0, sortKey, 1, collationKey.length);
+    return sortKey;
+  }
+
+  /**
+   * Rows have to be ordered by field and sort key like in UserfieldValueDao, so the order comes
+   * from the index and no values are compared here. Objects with equal values get the same
+   * rank, objects without value get none.
+   */
+  public static HashMap<String, HashMap<Integer, Integer>> getSortRanksHashMap(
+      List<UserfieldValue> sortedUserfieldValues
+  ) {
+    HashMap<String, HashMap<Integer, Integer>> ranksHashMap = new HashMap<>();
+    HashMap<Integer, Integer> ranks = null;
+    UserfieldValue previous = null;
+    int rank = 0;
+    for (UserfieldValue userfieldValue : sortedUserfieldValues) {
+      if (previous == null || !previous.getField().equals(userfieldValue.getField())) {
+        ranks = new HashMap<>();
+        ranksHashMap.put(userfieldValue.getField(), ranks);
+        rank = 0;
+      } else if (!Arrays.equals(previous.getSortKey(), userfieldValue.getSortKey())) {
+        rank++;
+      }
+      ranks.put(userfieldValue.getObjectId(), rank);
+      previous = userfieldValue;
+    }
+    return ranksHashMap;
+  }
+}
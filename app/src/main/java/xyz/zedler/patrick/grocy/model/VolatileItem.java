@@ -32,7 +32,6 @@ import androidx.room.PrimaryKey;
 import com.android.volley.Response;
 import com.google.gson.reflect.TypeToken;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
-import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
@@ -198,7 +197,6 @@ public class VolatileItem implements Parcelable {
                 }
                 ArrayList<VolatileItem> volatileItemsTogether = new ArrayList<>();
                 for (StockItem stockItem : dueItems) {
-                  if (stockItem.getDueTypeInt() != StockItem.DUE_TYPE_BEST_BEFORE) continue;
                   volatileItemsTogether.add(
                       new VolatileItem(stockItem.getProductId(), VolatileItem.TYPE_DUE)
                   );
@@ -219,18 +217,16 @@ public class VolatileItem implements Parcelable {
                 ArrayList<StockItem> finalOverdueItems = overdueItems;
                 ArrayList<StockItem> finalExpiredItems = expiredItems;
                 ArrayList<MissingItem> finalMissingItems = missingItems;
-                Single.fromCallable(() -> {
+                dlHelper.writeToDatabase(uuid, () -> {
                   dlHelper.appDatabase.volatileItemDao().deleteVolatileItems().blockingSubscribe();
                   dlHelper.appDatabase.volatileItemDao()
                       .insertVolatileItems(volatileItemsTogether).blockingSubscribe();
                   dlHelper.appDatabase.missingItemDao().deleteMissingItems().blockingSubscribe();
                   dlHelper.appDatabase.missingItemDao()
                       .insertMissingItems(finalMissingItems).blockingSubscribe();
-                  dlHelper.sharedPrefs.edit()
-                      .putString(PREF.DB_LAST_TIME_VOLATILE, dbChangedTime)
-                      .putString(PREF.DB_LAST_TIME_VOLATILE_MISSING, dbChangedTime).apply();
-                  return true;
-                })
+                }, () -> dlHelper.sharedPrefs.edit()
+                    .putString(PREF.DB_LAST_TIME_VOLATILE, dbChangedTime)
+                    .putString(PREF.DB_LAST_TIME_VOLATILE_MISSING, dbChangedTime).apply())
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .doFinally(() -> {
@@ -242,7 +238,7 @@ public class VolatileItem implements Parcelable {
                         responseListener.onResponse(response);
                       }
                     })
-                    .subscribe(ignored -> {}, throwable -> {
+                    .subscribe(() -> {}, throwable -> {
                       if (errorListener != null) {
                         errorListener.onError(throwable);
                       }
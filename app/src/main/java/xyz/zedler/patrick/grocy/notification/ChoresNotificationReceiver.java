@@ -81,7 +81,7 @@ public class ChoresNotificationReceiver extends BroadcastReceiver {
           continue;
         }
         int daysFromNow = DateUtil
-            .getDaysFromNow(choreEntry.getNextEstimatedExecutionTime());
+            .getDaysFromNowForMillis(choreEntry.getNextEstimatedExecutionTimeMillis());
         if (daysFromNow <= 0) {
           choresDueCount++;
         }
@@ -28,22 +28,17 @@ import android.content.SharedPreferences;
 import android.net.Uri;
 import android.os.Build;
 import androidx.preference.PreferenceManager;
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
-import java.lang.reflect.Type;
-import java.util.ArrayList;
-import java.util.List;
-import org.json.JSONException;
-import org.json.JSONObject;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS.NOTIFICATIONS;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS_DEFAULT;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.activity.MainActivity;
 import xyz.zedler.patrick.grocy.fragment.StockOverviewFragmentArgs;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.helper.StockDueClassifier;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataStatusStock;
 import xyz.zedler.patrick.grocy.model.StockItem;
-import xyz.zedler.patrick.grocy.model.VolatileItem;
 import xyz.zedler.patrick.grocy.util.NavUtil;
 import xyz.zedler.patrick.grocy.util.ReminderUtil;
 
@@ -79,58 +74,56 @@ public class StockNotificationReceiver extends BroadcastReceiver {
     }
     DownloadHelper dlHelper = new DownloadHelper(context, StockNotificationReceiver.class.getSimpleName());
 
-    VolatileItem.getVolatile(dlHelper, response -> {
-      try {
-        Type typeStockItem = new TypeToken<List<StockItem>>() {
-        }.getType();
-        JSONObject jsonObject = new JSONObject(response);
-        ArrayList<StockItem> dueItems = (new Gson()).fromJson(
-            jsonObject.getJSONArray("due_products").toString(), typeStockItem
-        );
-        ArrayList<StockItem> overdueItems = dlHelper.gson.fromJson(
-            jsonObject.getJSONArray("overdue_products").toString(), typeStockItem
-        );
-        ArrayList<StockItem> expiredItems = dlHelper.gson.fromJson(
-            jsonObject.getJSONArray("expired_products").toString(), typeStockItem
-        );
-        int notFreshCount = dueItems.size() + overdueItems.size() + expiredItems.size();
-        if (notFreshCount == 0 ) return;
+    // the stock is classified locally, so the last synced stock is used if the server is offline
+    dlHelper.updateData(
+        updated -> notifyNotFresh(context, notificationManager, dlHelper),
+        error -> notifyNotFresh(context, notificationManager, dlHelper),
+        false,
+        false,
+        StockItem.class
+    );
+  }
 
-        String titleText = context.getResources().getQuantityString(
-            R.plurals.notification_stock_not_fresh_title,
-            notFreshCount, notFreshCount
-        );
+  private void notifyNotFresh(
+      Context context,
+      NotificationManager notificationManager,
+      DownloadHelper dlHelper
+  ) {
+    dlHelper.destroy();
+    int dueSoonDays = StockDueClassifier.getDueSoonDays(dlHelper.sharedPrefs);
+    dlHelper.appDatabase.stockItemDao().getStockItems()
+        .map(stockItems -> StockDueClassifier.getInstance().update(stockItems, dueSoonDays))
+        .subscribeOn(Schedulers.io())
+        .observeOn(AndroidSchedulers.mainThread())
+        .subscribe(stockDue -> {
+          int notFreshCount = stockDue.getNotFreshCount();
+          if (notFreshCount == 0) return;
 
-        Uri uri = NavUtil.getUriWithArgs(
-            context.getString(R.string.deep_link_stockOverviewFragment),
-            new StockOverviewFragmentArgs.Builder()
-                .setStatusFilterId(String.valueOf(FilterChipLiveDataStatusStock.STATUS_NOT_FRESH))
-                .build().toBundle()
-        );
-        Intent notificationIntent = new Intent(Intent.ACTION_VIEW, uri);
-        notificationIntent.setClass(context, MainActivity.class);
-        notificationIntent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+          String titleText = context.getResources().getQuantityString(
+              R.plurals.notification_stock_not_fresh_title,
+              notFreshCount, notFreshCount
+          );
 
-        notificationManager.notify(NOTIFICATIONS.STOCK_ID, ReminderUtil.getNotification(
-            context,
-            titleText,
-            context.getString(R.string.notification_stock_content),
-            NOTIFICATIONS.STOCK_ID,
-            NOTIFICATIONS.STOCK_CHANNEL,
-            notificationIntent
-        ));
-        dlHelper.destroy();
-      } catch (JSONException e) {
-        e.printStackTrace();
-        dlHelper.destroy();
-      }
-    }, error -> {
-      dlHelper.destroy();
+          Uri uri = NavUtil.getUriWithArgs(
+              context.getString(R.string.deep_link_stockOverviewFragment),
+              new StockOverviewFragmentArgs.Builder()
+                  .setStatusFilterId(String.valueOf(FilterChipLiveDataStatusStock.STATUS_NOT_FRESH))
+                  .build().toBundle()
+          );
+          Intent notificationIntent = new Intent(Intent.ACTION_VIEW, uri);
+          notificationIntent.setClass(context, MainActivity.class);
+          notificationIntent.setFlags(
+              Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK
+          );
 
-      new ReminderUtil(context).scheduleAgainIn10Minutes(
-          NOTIFICATIONS.STOCK_ID,
-          StockNotificationReceiver.class
-      );
-    });
+          notificationManager.notify(NOTIFICATIONS.STOCK_ID, ReminderUtil.getNotification(
+              context,
+              titleText,
+              context.getString(R.string.notification_stock_content),
+              NOTIFICATIONS.STOCK_ID,
+              NOTIFICATIONS.STOCK_CHANNEL,
+              notificationIntent
+          ));
+        }, Throwable::printStackTrace);
   }
 }
@@ -26,6 +26,7 @@ import io.reactivex.rxjava3.functions.Consumer;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.util.List;
 import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.database.QueryStats;
 import xyz.zedler.patrick.grocy.model.PendingProduct;
 import xyz.zedler.patrick.grocy.model.Product;
 
@@ -69,6 +70,7 @@ public class ChooseProductRepository {
         appDatabase.pendingProductDao().getPendingProducts(),
         ChooseProductData::new
     )
+        .compose(QueryStats.timed("ChooseProductRepository.loadFromDatabase"))
         .subscribeOn(Schedulers.io())
         .observeOn(AndroidSchedulers.mainThread())
         .doOnSuccess(onSuccess::actionFinished)
@@ -25,7 +25,9 @@ import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.functions.Consumer;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.util.List;
+import xyz.zedler.patrick.grocy.api.GrocyApi.ENTITY;
 import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.database.QueryStats;
 import xyz.zedler.patrick.grocy.model.Location;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductGroup;
@@ -33,6 +35,7 @@ import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.Store;
 import xyz.zedler.patrick.grocy.model.TaskCategory;
 import xyz.zedler.patrick.grocy.model.Userfield;
+import xyz.zedler.patrick.grocy.model.UserfieldValue;
 
 public class MasterObjectListRepository {
 
@@ -101,9 +104,48 @@ public class MasterObjectListRepository {
     public List<Userfield> getUserfields() {
       return userfields;
     }
+
+    private void fillWithUserfieldValues(String entity, List<UserfieldValue> values) {
+      switch (entity) {
+        case ENTITY.PRODUCTS:
+          UserfieldValue.fillObjectsWithUserfields(
+              products, values, Product::getId, Product::setUserfields
+          );
+          break;
+        case ENTITY.PRODUCT_GROUPS:
+          UserfieldValue.fillObjectsWithUserfields(
+              productGroups, values, ProductGroup::getId, ProductGroup::setUserfields
+          );
+          break;
+        case ENTITY.LOCATIONS:
+          UserfieldValue.fillObjectsWithUserfields(
+              locations, values, Location::getId, Location::setUserfields
+          );
+          break;
+        case ENTITY.QUANTITY_UNITS:
+          UserfieldValue.fillObjectsWithUserfields(
+              quantityUnits, values, QuantityUnit::getId, QuantityUnit::setUserfields
+          );
+          break;
+        case ENTITY.TASK_CATEGORIES:
+          UserfieldValue.fillObjectsWithUserfields(
+              taskCategories, values, TaskCategory::getId, TaskCategory::setUserfields
+          );
+          break;
+        case ENTITY.STORES:
+          UserfieldValue.fillObjectsWithUserfields(
+              stores, values, Store::getId, Store::setUserfields
+          );
+          break;
+      }
+    }
   }
 
-  public void loadFromDatabase(DataListener onSuccess, Consumer<Throwable> onError) {
+  public void loadFromDatabase(
+      String entity,
+      DataListener onSuccess,
+      Consumer<Throwable> onError
+  ) {
     Single
         .zip(
             appDatabase.productDao().getProducts(),
@@ -115,6 +157,12 @@ public class MasterObjectListRepository {
             appDatabase.userfieldDao().getUserfields(),
             MasterObjectData::new
         )
+        .flatMap(data -> appDatabase.userfieldValueDao().getUserfieldValues(entity)
+            .map(userfieldValues -> {
+              data.fillWithUserfieldValues(entity, userfieldValues);
+              return data;
+            }))
+        .compose(QueryStats.timed("MasterObjectListRepository.loadFromDatabase"))
         .subscribeOn(Schedulers.io())
         .observeOn(AndroidSchedulers.mainThread())
         .doOnSuccess(onSuccess::actionFinished)
@@ -21,28 +21,41 @@ package xyz.zedler.patrick.grocy.repository;
 
 import android.app.Application;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.functions.Consumer;
 import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.util.List;
+import xyz.zedler.patrick.grocy.api.GrocyApi.ENTITY;
 import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.database.QueryStats;
+import xyz.zedler.patrick.grocy.helper.MealPlanAggregator;
+import xyz.zedler.patrick.grocy.helper.RecipeFulfillmentEngine;
 import xyz.zedler.patrick.grocy.model.MealPlanEntry;
 import xyz.zedler.patrick.grocy.model.MealPlanSection;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.Recipe;
 import xyz.zedler.patrick.grocy.model.RecipeFulfillment;
+import xyz.zedler.patrick.grocy.model.RecipeNesting;
 import xyz.zedler.patrick.grocy.model.RecipePosition;
+import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.StockItem;
 import xyz.zedler.patrick.grocy.model.Userfield;
+import xyz.zedler.patrick.grocy.model.UserfieldValue;
 import xyz.zedler.patrick.grocy.util.RxJavaUtil;
 
 public class MealPlanRepository {
 
   private final AppDatabase appDatabase;
+  private final MealPlanAggregator mealPlanAggregator;
 
   public MealPlanRepository(Application application) {
     this.appDatabase = AppDatabase.getAppDatabase(application);
+    this.mealPlanAggregator = new MealPlanAggregator();
   }
 
   public interface MealPlanDataListener {
@@ -55,35 +68,45 @@ public class MealPlanRepository {
     private final List<Recipe> recipes;
     private final List<RecipeFulfillment> recipeFulfillments;
     private final List<RecipePosition> recipePositions;
+    private final List<RecipeNesting> recipeNestings;
     private final List<Product> products;
     private final List<QuantityUnit> quantityUnits;
+    private final List<QuantityUnitConversionResolved> quantityUnitConversionsResolved;
     private final List<ProductLastPurchased> productsLastPurchased;
     private final List<MealPlanEntry> mealPlanEntries;
     private final List<MealPlanSection> mealPlanSections;
     private final List<StockItem> stockItems;
+    private final List<ShoppingListItem> shoppingListItems;
     private final List<Userfield> userfields;
+    private MealPlanAggregator.Result mealPlanFulfillments;
 
     public MealPlanData(
         List<Recipe> recipes,
         List<RecipeFulfillment> recipeFulfillments,
         List<RecipePosition> recipePositions,
+        List<RecipeNesting> recipeNestings,
         List<Product> products,
         List<QuantityUnit> quantityUnits,
+        List<QuantityUnitConversionResolved> quantityUnitConversionsResolved,
         List<ProductLastPurchased> productsLastPurchased,
         List<MealPlanEntry> mealPlanEntries,
         List<MealPlanSection> mealPlanSections,
         List<StockItem> stockItems,
+        List<ShoppingListItem> shoppingListItems,
         List<Userfield> userfields
     ) {
       this.recipes = recipes;
       this.recipeFulfillments = recipeFulfillments;
       this.recipePositions = recipePositions;
+      this.recipeNestings = recipeNestings;
       this.products = products;
       this.quantityUnits = quantityUnits;
+      this.quantityUnitConversionsResolved = quantityUnitConversionsResolved;
       this.productsLastPurchased = productsLastPurchased;
       this.mealPlanEntries = mealPlanEntries;
       this.mealPlanSections = mealPlanSections;
       this.stockItems = stockItems;
+      this.shoppingListItems = shoppingListItems;
       this.userfields = userfields;
     }
 
@@ -99,6 +122,10 @@ public class MealPlanRepository {
       return recipePositions;
     }
 
+    public List<RecipeNesting> getRecipeNestings() {
+      return recipeNestings;
+    }
+
     public List<Product> getProducts() {
       return products;
     }
@@ -107,6 +134,10 @@ public class MealPlanRepository {
       return quantityUnits;
     }
 
+    public List<QuantityUnitConversionResolved> getQuantityUnitConversionsResolved() {
+      return quantityUnitConversionsResolved;
+    }
+
     public List<ProductLastPurchased> getProductsLastPurchased() {
       return productsLastPurchased;
     }
@@ -123,26 +154,82 @@ public class MealPlanRepository {
       return stockItems;
     }
 
+    public List<ShoppingListItem> getShoppingListItems() {
+      return shoppingListItems;
+    }
+
     public List<Userfield> getUserfields() {
       return userfields;
     }
+
+    /**
+     * Computed locally from the other data, see MealPlanAggregator.
+     */
+    public MealPlanAggregator.Result getMealPlanFulfillments() {
+      return mealPlanFulfillments;
+    }
   }
 
-  public void loadFromDatabase(MealPlanDataListener onSuccess, Consumer<Throwable> onError) {
+  /**
+   * Only the meal plan entries from windowStart to windowEnd (inclusive) are loaded.
+   */
+  public void loadFromDatabase(
+      LocalDate windowStart,
+      LocalDate windowEnd,
+      DayOfWeek firstDayOfWeek,
+      MealPlanDataListener onSuccess,
+      Consumer<Throwable> onError
+  ) {
     RxJavaUtil
         .zip(
             appDatabase.recipeDao().getRecipes(),
             appDatabase.recipeFulfillmentDao().getRecipeFulfillments(),
             appDatabase.recipePositionDao().getRecipePositions(),
+            appDatabase.recipeNestingDao().getRecipeNestings(),
             appDatabase.productDao().getProducts(),
             appDatabase.quantityUnitDao().getQuantityUnits(),
+            appDatabase.quantityUnitConversionResolvedDao().getConversionsResolved(),
             appDatabase.productLastPurchasedDao().getProductsLastPurchased(),
-            appDatabase.mealPlanEntryDao().getMealPlanEntries(),
+            appDatabase.mealPlanEntryDao().getMealPlanEntries(
+                windowStart.toString(), windowEnd.toString()
+            ),
             appDatabase.mealPlanSectionDao().getMealPlanSections(),
             appDatabase.stockItemDao().getStockItems(),
+            appDatabase.shoppingListItemDao().getShoppingListItems(),
             appDatabase.userfieldDao().getUserfields(),
             MealPlanData::new
         )
+        .flatMap(data -> Single.zip(
+            appDatabase.userfieldValueDao().getUserfieldValues(ENTITY.RECIPES),
+            appDatabase.userfieldValueDao().getUserfieldValues(ENTITY.PRODUCTS),
+            (recipeValues, productValues) -> {
+              UserfieldValue.fillObjectsWithUserfields(
+                  data.getRecipes(), recipeValues, Recipe::getId, Recipe::setUserfields
+              );
+              UserfieldValue.fillObjectsWithUserfields(
+                  data.getProducts(), productValues, Product::getId, Product::setUserfields
+              );
+              return data;
+            }
+        ))
+        .map(data -> {
+          RecipeFulfillmentEngine.getInstance().update(
+              data.getRecipes(),
+              data.getRecipePositions(),
+              data.getRecipeNestings(),
+              data.getProducts(),
+              data.getQuantityUnitConversionsResolved(),
+              data.getStockItems(),
+              data.getShoppingListItems(),
+              data.getProductsLastPurchased(),
+              data.getRecipeFulfillments()
+          );
+          data.mealPlanFulfillments = mealPlanAggregator.update(
+              data.getMealPlanEntries(), firstDayOfWeek
+          );
+          return data;
+        })
+        .compose(QueryStats.timed("MealPlanRepository.loadFromDatabase"))
         .subscribeOn(Schedulers.io())
         .observeOn(AndroidSchedulers.mainThread())
         .doOnSuccess(onSuccess::actionFinished)
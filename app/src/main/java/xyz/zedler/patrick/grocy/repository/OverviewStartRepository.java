@@ -20,11 +20,17 @@
 package xyz.zedler.patrick.grocy.repository;
 
 import android.app.Application;
+import android.content.SharedPreferences;
+import androidx.preference.PreferenceManager;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.functions.Consumer;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.util.List;
 import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.database.QueryStats;
+import xyz.zedler.patrick.grocy.helper.MinStockEngine;
+import xyz.zedler.patrick.grocy.helper.StockDueClassifier;
 import xyz.zedler.patrick.grocy.model.ChoreEntry;
 import xyz.zedler.patrick.grocy.model.MissingItem;
 import xyz.zedler.patrick.grocy.model.Product;
@@ -34,15 +40,16 @@ import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.StockItem;
 import xyz.zedler.patrick.grocy.model.StoredPurchase;
 import xyz.zedler.patrick.grocy.model.Task;
-import xyz.zedler.patrick.grocy.model.VolatileItem;
 import xyz.zedler.patrick.grocy.util.RxJavaUtil;
 
 public class OverviewStartRepository {
 
   private final AppDatabase appDatabase;
+  private final SharedPreferences sharedPrefs;
 
   public OverviewStartRepository(Application application) {
     this.appDatabase = AppDatabase.getAppDatabase(application);
+    this.sharedPrefs = PreferenceManager.getDefaultSharedPreferences(application);
   }
 
   public interface DataListener {
@@ -59,7 +66,7 @@ public class OverviewStartRepository {
     private final List<Recipe> recipes;
     private final List<ChoreEntry> choreEntries;
     private final List<Task> tasks;
-    private final List<VolatileItem> volatileItems;
+    private final StockDueClassifier.Result stockDue;
     private final List<MissingItem> missingItems;
 
     public OverviewStartData(
@@ -71,7 +78,7 @@ public class OverviewStartRepository {
         List<Recipe> recipes,
         List<ChoreEntry> choreEntries,
         List<Task> tasks,
-        List<VolatileItem> volatileItems,
+        StockDueClassifier.Result stockDue,
         List<MissingItem> missingItems
     ) {
       this.stockItems = stockItems;
@@ -82,7 +89,7 @@ public class OverviewStartRepository {
       this.recipes = recipes;
       this.choreEntries = choreEntries;
       this.tasks = tasks;
-      this.volatileItems = volatileItems;
+      this.stockDue = stockDue;
       this.missingItems = missingItems;
     }
 
@@ -118,8 +125,11 @@ public class OverviewStartRepository {
       return tasks;
     }
 
-    public List<VolatileItem> getVolatileItems() {
-      return volatileItems;
+    /**
+     * Computed locally from the stock items, see StockDueClassifier.
+     */
+    public StockDueClassifier.Result getStockDue() {
+      return stockDue;
     }
 
     public List<MissingItem> getMissingItems() {
@@ -138,10 +148,19 @@ public class OverviewStartRepository {
             appDatabase.recipeDao().getRecipes(),
             appDatabase.choreEntryDao().getChoreEntries(),
             appDatabase.taskDao().getTasks(),
-            appDatabase.volatileItemDao().getVolatileItems(),
-            appDatabase.missingItemDao().getMissingItems(),
+            appDatabase.stockItemDao().getStockItems().map(
+                stockItems -> StockDueClassifier.getInstance().update(
+                    stockItems, StockDueClassifier.getDueSoonDays(sharedPrefs)
+                )
+            ),
+            Single.zip(
+                appDatabase.productDao().getProductsWithMinStockAmount(),
+                appDatabase.stockItemDao().getStockItems(),
+                MinStockEngine.getInstance()::update
+            ),
             OverviewStartData::new
         )
+        .compose(QueryStats.timed("OverviewStartRepository.loadFromDatabase"))
         .subscribeOn(Schedulers.io())
         .observeOn(AndroidSchedulers.mainThread())
         .doOnSuccess(onSuccess::actionFinished)
@@ -21,27 +21,28 @@ package xyz.zedler.patrick.grocy.repository;
 
 import android.app.Application;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.functions.Consumer;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.util.List;
 import xyz.zedler.patrick.grocy.database.AppDatabase;
-import xyz.zedler.patrick.grocy.model.Location;
+import xyz.zedler.patrick.grocy.database.QueryStats;
+import xyz.zedler.patrick.grocy.helper.MasterDataCache;
+import xyz.zedler.patrick.grocy.model.MasterDataSnapshot;
 import xyz.zedler.patrick.grocy.model.PendingProduct;
 import xyz.zedler.patrick.grocy.model.PendingProductBarcode;
-import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductBarcode;
-import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
-import xyz.zedler.patrick.grocy.model.Store;
 import xyz.zedler.patrick.grocy.model.StoredPurchase;
-import xyz.zedler.patrick.grocy.util.RxJavaUtil;
 
 public class PurchaseRepository {
 
+  private final Application application;
   private final AppDatabase appDatabase;
 
   public PurchaseRepository(Application application) {
+    this.application = application;
     this.appDatabase = AppDatabase.getAppDatabase(application);
   }
 
@@ -51,43 +52,34 @@ public class PurchaseRepository {
 
   public static class PurchaseData {
 
-    private final List<Product> products;
+    private final MasterDataSnapshot masterData;
     private final List<PendingProduct> pendingProducts;
     private final List<ProductBarcode> barcodes;
     private final List<PendingProductBarcode> pendingProductBarcodes;
-    private final List<QuantityUnit> quantityUnits;
     private final List<QuantityUnitConversionResolved> quantityUnitConversions;
-    private final List<Store> stores;
-    private final List<Location> locations;
     private final List<ShoppingListItem> shoppingListItems;
     private final List<StoredPurchase> storedPurchases;
 
     public PurchaseData(
-        List<Product> products,
+        MasterDataSnapshot masterData,
         List<PendingProduct> pendingProducts,
         List<ProductBarcode> barcodes,
         List<PendingProductBarcode> pendingProductBarcodes,
-        List<QuantityUnit> quantityUnits,
         List<QuantityUnitConversionResolved> quantityUnitConversions,
-        List<Store> stores,
-        List<Location> locations,
         List<ShoppingListItem> shoppingListItems,
         List<StoredPurchase> storedPurchases
     ) {
-      this.products = products;
+      this.masterData = masterData;
       this.pendingProducts = pendingProducts;
       this.barcodes = barcodes;
       this.pendingProductBarcodes = pendingProductBarcodes;
-      this.quantityUnits = quantityUnits;
       this.quantityUnitConversions = quantityUnitConversions;
-      this.stores = stores;
-      this.locations = locations;
       this.shoppingListItems = shoppingListItems;
       this.storedPurchases = storedPurchases;
     }
 
-    public List<Product> getProducts() {
-      return products;
+    public MasterDataSnapshot getMasterData() {
+      return masterData;
     }
 
     public List<PendingProduct> getPendingProducts() {
@@ -102,22 +94,10 @@ public class PurchaseRepository {
       return pendingProductBarcodes;
     }
 
-    public List<QuantityUnit> getQuantityUnits() {
-      return quantityUnits;
-    }
-
     public List<QuantityUnitConversionResolved> getQuantityUnitConversionsResolved() {
       return quantityUnitConversions;
     }
 
-    public List<Store> getStores() {
-      return stores;
-    }
-
-    public List<Location> getLocations() {
-      return locations;
-    }
-
     public List<ShoppingListItem> getShoppingListItems() {
       return shoppingListItems;
     }
@@ -128,20 +108,18 @@ public class PurchaseRepository {
   }
 
   public void loadFromDatabase(DataListener onSuccess, Consumer<Throwable> onError) {
-    RxJavaUtil
+    Single
         .zip(
-            appDatabase.productDao().getProducts(),
+            MasterDataCache.getInstance().getSnapshot(application),
             appDatabase.pendingProductDao().getPendingProducts(),
             appDatabase.productBarcodeDao().getProductBarcodes(),
             appDatabase.pendingProductBarcodeDao().getProductBarcodes(),
-            appDatabase.quantityUnitDao().getQuantityUnits(),
             appDatabase.quantityUnitConversionResolvedDao().getConversionsResolved(),
-            appDatabase.storeDao().getStores(),
-            appDatabase.locationDao().getLocations(),
             appDatabase.shoppingListItemDao().getShoppingListItems(),
             appDatabase.storedPurchaseDao().getStoredPurchases(),
             PurchaseData::new
         )
+        .compose(QueryStats.timed("PurchaseRepository.loadFromDatabase"))
         .subscribeOn(Schedulers.io())
         .observeOn(AndroidSchedulers.mainThread())
         .doOnSuccess(onSuccess::actionFinished)
@@ -20,28 +20,40 @@
 package xyz.zedler.patrick.grocy.repository;
 
 import android.app.Application;
+import androidx.annotation.Nullable;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.functions.Consumer;
 import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.util.HashMap;
 import java.util.List;
+import xyz.zedler.patrick.grocy.api.GrocyApi.ENTITY;
 import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.database.QueryStats;
+import xyz.zedler.patrick.grocy.helper.RecipeFulfillmentEngine;
+import xyz.zedler.patrick.grocy.helper.RecipePositionCache;
 import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.Recipe;
 import xyz.zedler.patrick.grocy.model.RecipeFulfillment;
+import xyz.zedler.patrick.grocy.model.RecipeNesting;
 import xyz.zedler.patrick.grocy.model.RecipePosition;
 import xyz.zedler.patrick.grocy.model.RecipePositionResolved;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.StockItem;
 import xyz.zedler.patrick.grocy.model.Userfield;
+import xyz.zedler.patrick.grocy.model.UserfieldValue;
 import xyz.zedler.patrick.grocy.util.RxJavaUtil;
 
 public class RecipesRepository {
 
+  private final Application application;
   private final AppDatabase appDatabase;
 
   public RecipesRepository(Application application) {
+    this.application = application;
     this.appDatabase = AppDatabase.getAppDatabase(application);
   }
 
@@ -55,35 +67,40 @@ public class RecipesRepository {
     private final List<Recipe> recipes;
     private final List<RecipeFulfillment> recipeFulfillments;
     private final List<RecipePosition> recipePositions;
-    private final List<RecipePositionResolved> recipePositionsResolved;
+    private final List<RecipeNesting> recipeNestings;
     private final List<Product> products;
     private final List<QuantityUnit> quantityUnits;
     private final List<QuantityUnitConversionResolved> quantityUnitConversions;
     private final List<StockItem> stockItems;
     private final List<ShoppingListItem> shoppingListItems;
+    private final List<ProductLastPurchased> productsLastPurchased;
     private final List<Userfield> userfields;
+    private HashMap<Integer, RecipeFulfillment> recipeFulfillmentHashMap;
+    private List<RecipePositionResolved> recipePositionsResolved;
 
     public RecipesData(
         List<Recipe> recipes,
         List<RecipeFulfillment> recipeFulfillments,
         List<RecipePosition> recipePositions,
-        List<RecipePositionResolved> recipePositionsResolved,
+        List<RecipeNesting> recipeNestings,
         List<Product> products,
         List<QuantityUnit> quantityUnits,
         List<QuantityUnitConversionResolved> quantityUnitConversions,
         List<StockItem> stockItems,
         List<ShoppingListItem> shoppingListItems,
+        List<ProductLastPurchased> productsLastPurchased,
         List<Userfield> userfields
     ) {
       this.recipes = recipes;
       this.recipeFulfillments = recipeFulfillments;
       this.recipePositions = recipePositions;
-      this.recipePositionsResolved = recipePositionsResolved;
+      this.recipeNestings = recipeNestings;
       this.products = products;
       this.quantityUnits = quantityUnits;
       this.quantityUnitConversions = quantityUnitConversions;
       this.stockItems = stockItems;
       this.shoppingListItems = shoppingListItems;
+      this.productsLastPurchased = productsLastPurchased;
       this.userfields = userfields;
     }
 
@@ -95,14 +112,31 @@ public class RecipesRepository {
       return recipeFulfillments;
     }
 
+    /**
+     * Fulfillments computed from the local stock and shopping list by recipe id.
+     */
+    public HashMap<Integer, RecipeFulfillment> getRecipeFulfillmentHashMap() {
+      return recipeFulfillmentHashMap;
+    }
+
     public List<RecipePosition> getRecipePositions() {
       return recipePositions;
     }
 
+    /**
+     * Only loaded for the recipe given to loadFromDatabase.
+     */
     public List<RecipePositionResolved> getRecipePositionsResolved() {
+      if (recipePositionsResolved == null) {
+        throw new IllegalStateException("Resolved positions are only loaded for a recipe id");
+      }
       return recipePositionsResolved;
     }
 
+    public List<RecipeNesting> getRecipeNestings() {
+      return recipeNestings;
+    }
+
     public List<Product> getProducts() {
       return products;
     }
@@ -123,26 +157,75 @@ public class RecipesRepository {
       return shoppingListItems;
     }
 
+    public List<ProductLastPurchased> getProductsLastPurchased() {
+      return productsLastPurchased;
+    }
+
     public List<Userfield> getUserfields() {
       return userfields;
     }
   }
 
   public void loadFromDatabase(RecipesDataListener onSuccess, Consumer<Throwable> onError) {
+    loadFromDatabase(null, onSuccess, onError);
+  }
+
+  /**
+   * The resolved positions are only loaded for the given recipe, through RecipePositionCache.
+   */
+  public void loadFromDatabase(
+      @Nullable Integer recipeId,
+      RecipesDataListener onSuccess,
+      Consumer<Throwable> onError
+  ) {
     RxJavaUtil
         .zip(
             appDatabase.recipeDao().getRecipes(),
             appDatabase.recipeFulfillmentDao().getRecipeFulfillments(),
             appDatabase.recipePositionDao().getRecipePositions(),
-            appDatabase.recipePositionResolvedDao().getRecipePositionsResolved(),
+            appDatabase.recipeNestingDao().getRecipeNestings(),
             appDatabase.productDao().getProducts(),
             appDatabase.quantityUnitDao().getQuantityUnits(),
             appDatabase.quantityUnitConversionResolvedDao().getConversionsResolved(),
             appDatabase.stockItemDao().getStockItems(),
             appDatabase.shoppingListItemDao().getShoppingListItems(),
+            appDatabase.productLastPurchasedDao().getProductsLastPurchased(),
             appDatabase.userfieldDao().getUserfields(),
             RecipesData::new
         )
+        .flatMap(data -> appDatabase.userfieldValueDao().getUserfieldValues(ENTITY.RECIPES)
+            .map(userfieldValues -> {
+              UserfieldValue.fillObjectsWithUserfields(
+                  data.getRecipes(), userfieldValues, Recipe::getId, Recipe::setUserfields
+              );
+              return data;
+            }))
+        .flatMap(data -> {
+          if (recipeId == null) {
+            return Single.just(data);
+          }
+          return RecipePositionCache.getInstance()
+              .getRecipePositionsResolved(application, recipeId)
+              .map(positions -> {
+                data.recipePositionsResolved = positions;
+                return data;
+              });
+        })
+        .map(data -> {
+          data.recipeFulfillmentHashMap = RecipeFulfillmentEngine.getInstance().update(
+              data.getRecipes(),
+              data.getRecipePositions(),
+              data.getRecipeNestings(),
+              data.getProducts(),
+              data.getQuantityUnitConversionsResolved(),
+              data.getStockItems(),
+              data.getShoppingListItems(),
+              data.getProductsLastPurchased(),
+              data.getRecipeFulfillments()
+          );
+          return data;
+        })
+        .compose(QueryStats.timed("RecipesRepository.loadFromDatabase"))
         .subscribeOn(Schedulers.io())
         .observeOn(AndroidSchedulers.mainThread())
         .doOnSuccess(onSuccess::actionFinished)
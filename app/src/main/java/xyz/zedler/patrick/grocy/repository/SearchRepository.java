@@ -0,0 +1,173 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.repository;
+
+import android.app.Application;
+import androidx.annotation.Nullable;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.functions.Consumer;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.helper.FilterPipeline;
+
+public class SearchRepository {
+
+  private final AppDatabase appDatabase;
+  private Disposable disposable;
+
+  public SearchRepository(Application application) {
+    this.appDatabase = AppDatabase.getAppDatabase(application);
+  }
+
+  public interface SearchResultListener {
+    void actionFinished(String searchInput, List<Integer> objectIds);
+  }
+
+  public void searchProducts(
+      String searchInput,
+      SearchResultListener onSuccess,
+      Consumer<Throwable> onError
+  ) {
+    cancel();
+    List<String> terms = getSearchTerms(searchInput);
+    if (terms.isEmpty()) {
+      onSuccess.actionFinished(searchInput, new ArrayList<>());
+      return;
+    }
+    search(
+        appDatabase.searchDao().searchProductIds(getMatchQuery(terms), terms.get(0)),
+        searchInput,
+        onSuccess,
+        onError
+    );
+  }
+
+  public void searchRecipes(
+      String searchInput,
+      SearchResultListener onSuccess,
+      Consumer<Throwable> onError
+  ) {
+    cancel();
+    List<String> terms = getSearchTerms(searchInput);
+    if (terms.isEmpty()) {
+      onSuccess.actionFinished(searchInput, new ArrayList<>());
+      return;
+    }
+    search(
+        appDatabase.searchDao().searchRecipeIds(getMatchQuery(terms)),
+        searchInput,
+        onSuccess,
+        onError
+    );
+  }
+
+  public void searchChores(
+      String searchInput,
+      SearchResultListener onSuccess,
+      Consumer<Throwable> onError
+  ) {
+    cancel();
+    List<String> terms = getSearchTerms(searchInput);
+    if (terms.isEmpty()) {
+      onSuccess.actionFinished(searchInput, new ArrayList<>());
+      return;
+    }
+    search(
+        appDatabase.searchDao().searchChoreIds(getMatchQuery(terms)),
+        searchInput,
+        onSuccess,
+        onError
+    );
+  }
+
+  public void searchTasks(
+      String searchInput,
+      SearchResultListener onSuccess,
+      Consumer<Throwable> onError
+  ) {
+    cancel();
+    List<String> terms = getSearchTerms(searchInput);
+    if (terms.isEmpty()) {
+      onSuccess.actionFinished(searchInput, new ArrayList<>());
+      return;
+    }
+    search(
+        appDatabase.searchDao().searchTaskIds(getMatchQuery(terms)),
+        searchInput,
+        onSuccess,
+        onError
+    );
+  }
+
+  /**
+   * Queries are debounced like the filters in FilterPipeline, every search cancels the
+   * previous one of this repository.
+   */
+  private void search(
+      Single<List<Integer>> query,
+      String searchInput,
+      SearchResultListener onSuccess,
+      Consumer<Throwable> onError
+  ) {
+    disposable = query
+        .subscribeOn(Schedulers.io())
+        .delaySubscription(FilterPipeline.SEARCH_DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)
+        .observeOn(AndroidSchedulers.mainThread())
+        .subscribe(ids -> onSuccess.actionFinished(searchInput, ids), onError);
+  }
+
+  public void cancel() {
+    if (disposable != null) {
+      disposable.dispose();
+      disposable = null;
+    }
+  }
+
+  // only letters and digits, so that the input can't contain FTS operators
+  private static List<String> getSearchTerms(@Nullable String searchInput) {
+    List<String> terms = new ArrayList<>();
+    if (searchInput == null) {
+      return terms;
+    }
+    for (String term : searchInput.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+      if (!term.isEmpty()) {
+        terms.add(term);
+      }
+    }
+    return terms;
+  }
+
+  // every term has to match the start of a token, e.g. "app jui" finds "Apple juice"
+  private static String getMatchQuery(List<String> terms) {
+    StringBuilder query = new StringBuilder();
+    for (String term : terms) {
+      if (query.length() > 0) {
+        query.append(' ');
+      }
+      query.append(term).append('*');
+    }
+    return query.toString();
+  }
+}
@@ -27,21 +27,23 @@ import io.reactivex.rxjava3.functions.Consumer;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.util.List;
 import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.database.QueryStats;
+import xyz.zedler.patrick.grocy.helper.MasterDataCache;
+import xyz.zedler.patrick.grocy.helper.MinStockEngine;
+import xyz.zedler.patrick.grocy.model.MasterDataSnapshot;
 import xyz.zedler.patrick.grocy.model.MissingItem;
-import xyz.zedler.patrick.grocy.model.Product;
-import xyz.zedler.patrick.grocy.model.ProductGroup;
 import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
-import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.ShoppingList;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
-import xyz.zedler.patrick.grocy.model.Store;
 
 public class ShoppingListRepository {
 
+  private final Application application;
   private final AppDatabase appDatabase;
 
   public ShoppingListRepository(Application application) {
+    this.application = application;
     this.appDatabase = AppDatabase.getAppDatabase(application);
   }
 
@@ -54,33 +56,24 @@ public class ShoppingListRepository {
 
     private final List<ShoppingListItem> shoppingListItems;
     private final List<ShoppingList> shoppingLists;
-    private final List<ProductGroup> productGroups;
-    private final List<QuantityUnit> quantityUnits;
+    private final MasterDataSnapshot masterData;
     private final List<QuantityUnitConversionResolved> unitConversions;
-    private final List<Product> products;
     private final List<ProductLastPurchased> productsLastPurchased;
-    private final List<Store> stores;
     private final List<MissingItem> missingItems;
 
     public ShoppingListData(
         List<ShoppingListItem> shoppingListItems,
         List<ShoppingList> shoppingLists,
-        List<ProductGroup> productGroups,
-        List<QuantityUnit> quantityUnits,
+        MasterDataSnapshot masterData,
         List<QuantityUnitConversionResolved> unitConversions,
-        List<Product> products,
         List<ProductLastPurchased> productsLastPurchased,
-        List<Store> stores,
         List<MissingItem> missingItems
     ) {
       this.shoppingListItems = shoppingListItems;
       this.shoppingLists = shoppingLists;
-      this.productGroups = productGroups;
-      this.quantityUnits = quantityUnits;
+      this.masterData = masterData;
       this.unitConversions = unitConversions;
-      this.products = products;
       this.productsLastPurchased = productsLastPurchased;
-      this.stores = stores;
       this.missingItems = missingItems;
     }
 
@@ -92,30 +85,18 @@ public class ShoppingListRepository {
       return shoppingLists;
     }
 
-    public List<ProductGroup> getProductGroups() {
-      return productGroups;
-    }
-
-    public List<QuantityUnit> getQuantityUnits() {
-      return quantityUnits;
+    public MasterDataSnapshot getMasterData() {
+      return masterData;
     }
 
     public List<QuantityUnitConversionResolved> getUnitConversionsResolved() {
       return unitConversions;
     }
 
-    public List<Product> getProducts() {
-      return products;
-    }
-
     public List<ProductLastPurchased> getProductsLastPurchased() {
       return productsLastPurchased;
     }
 
-    public List<Store> getStores() {
-      return stores;
-    }
-
     public List<MissingItem> getMissingItems() {
       return missingItems;
     }
@@ -126,15 +107,17 @@ public class ShoppingListRepository {
         .zip(
             appDatabase.shoppingListItemDao().getShoppingListItems(),
             appDatabase.shoppingListDao().getShoppingLists(),
-            appDatabase.productGroupDao().getProductGroups(),
-            appDatabase.quantityUnitDao().getQuantityUnits(),
+            MasterDataCache.getInstance().getSnapshot(application),
             appDatabase.quantityUnitConversionResolvedDao().getConversionsResolved(),
-            appDatabase.productDao().getProducts(),
             appDatabase.productLastPurchasedDao().getProductsLastPurchased(),
-            appDatabase.storeDao().getStores(),
-            appDatabase.missingItemDao().getMissingItems(),
+            Single.zip(
+                appDatabase.productDao().getProductsWithMinStockAmount(),
+                appDatabase.stockItemDao().getStockItems(),
+                MinStockEngine.getInstance()::update
+            ),
             ShoppingListData::new
         )
+        .compose(QueryStats.timed("ShoppingListRepository.loadFromDatabase"))
         .subscribeOn(Schedulers.io())
         .observeOn(AndroidSchedulers.mainThread())
         .doOnSuccess(onSuccess::actionFinished)
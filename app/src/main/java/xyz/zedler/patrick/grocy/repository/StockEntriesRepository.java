@@ -20,12 +20,14 @@
 package xyz.zedler.patrick.grocy.repository;
 
 import android.app.Application;
+import androidx.annotation.Nullable;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.functions.Consumer;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.util.List;
 import xyz.zedler.patrick.grocy.database.AppDatabase;
+import xyz.zedler.patrick.grocy.database.QueryStats;
 import xyz.zedler.patrick.grocy.model.Location;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductBarcode;
@@ -103,11 +105,20 @@ public class StockEntriesRepository {
     }
   }
 
-  public void loadFromDatabase(StockOverviewDataListener onSuccess, Consumer<Throwable> onError) {
+  /**
+   * Loads only the stock entries of the given product, or all if it is null.
+   */
+  public void loadFromDatabase(
+      @Nullable Integer productId,
+      StockOverviewDataListener onSuccess,
+      Consumer<Throwable> onError
+  ) {
     Single
         .zip(
             appDatabase.quantityUnitDao().getQuantityUnits(),
-            appDatabase.stockEntryDao().getStockEntries(),
+            productId != null
+                ? appDatabase.stockEntryDao().getStockEntries(productId)
+                : appDatabase.stockEntryDao().getStockEntries(),
             appDatabase.productDao().getProducts(),
             appDatabase.productBarcodeDao().getProductBarcodes(),
             appDatabase.locationDao().getLocations(),
@@ -115,6 +126,7 @@ public class StockEntriesRepository {
             appDatabase.userDao().getUsers(),
             StockOverviewData::new
         )
+        .compose(QueryStats.timed("StockEntriesRepository.loadFromDatabase"))
         .subscribeOn(Schedulers.io())
         .observeOn(AndroidSchedulers.mainThread())
         .doOnSuccess(onSuccess::actionFinished)
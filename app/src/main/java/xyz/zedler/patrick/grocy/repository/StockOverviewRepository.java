@@ -20,134 +20,112 @@
 package xyz.zedler.patrick.grocy.repository;
 
 import android.app.Application;
+import android.content.SharedPreferences;
+import androidx.preference.PreferenceManager;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.functions.Consumer;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.util.List;
+import xyz.zedler.patrick.grocy.api.GrocyApi.ENTITY;
 import xyz.zedler.patrick.grocy.database.AppDatabase;
-import xyz.zedler.patrick.grocy.model.Location;
+import xyz.zedler.patrick.grocy.database.QueryStats;
+import xyz.zedler.patrick.grocy.helper.MasterDataCache;
+import xyz.zedler.patrick.grocy.helper.MinStockEngine;
+import xyz.zedler.patrick.grocy.helper.StockDueClassifier;
+import xyz.zedler.patrick.grocy.model.MasterDataSnapshot;
 import xyz.zedler.patrick.grocy.model.MissingItem;
 import xyz.zedler.patrick.grocy.model.Product;
-import xyz.zedler.patrick.grocy.model.ProductAveragePrice;
 import xyz.zedler.patrick.grocy.model.ProductBarcode;
-import xyz.zedler.patrick.grocy.model.ProductGroup;
-import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
-import xyz.zedler.patrick.grocy.model.QuantityUnit;
-import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
-import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.StockItem;
+import xyz.zedler.patrick.grocy.model.StockItemDetails;
 import xyz.zedler.patrick.grocy.model.StockLocation;
 import xyz.zedler.patrick.grocy.model.Userfield;
-import xyz.zedler.patrick.grocy.model.VolatileItem;
-import xyz.zedler.patrick.grocy.util.RxJavaUtil;
+import xyz.zedler.patrick.grocy.model.UserfieldValue;
 
 public class StockOverviewRepository {
 
+  private final Application application;
   private final AppDatabase appDatabase;
+  private final SharedPreferences sharedPrefs;
 
   public StockOverviewRepository(Application application) {
+    this.application = application;
     this.appDatabase = AppDatabase.getAppDatabase(application);
+    this.sharedPrefs = PreferenceManager.getDefaultSharedPreferences(application);
   }
 
   public interface StockOverviewDataListener {
     void actionFinished(StockOverviewData data);
   }
 
+  public interface UserfieldValuesListener {
+    void actionFinished(List<UserfieldValue> userfieldValues);
+  }
+
   public static class StockOverviewData {
 
-    private final List<QuantityUnit> quantityUnits;
-    private final List<QuantityUnitConversionResolved> quantityUnitConversions;
-    private final List<ProductGroup> productGroups;
+    private final MasterDataSnapshot masterData;
     private final List<StockItem> stockItems;
+    private final List<StockItemDetails> stockItemDetails;
     private final List<Product> products;
-    private final List<ProductAveragePrice> productsAveragePrice;
-    private final List<ProductLastPurchased> productsLastPurchased;
     private final List<ProductBarcode> productBarcodes;
-    private final List<ShoppingListItem> shoppingListItems;
-    private final List<Location> locations;
     private final List<StockLocation> stockCurrentLocations;
-    private final List<VolatileItem> volatileItems;
+    private final StockDueClassifier.Result stockDue;
     private final List<MissingItem> missingItems;
     private final List<Userfield> userfields;
 
     public StockOverviewData(
-        List<QuantityUnit> quantityUnits,
-        List<QuantityUnitConversionResolved> quantityUnitConversions,
-        List<ProductGroup> productGroups,
+        MasterDataSnapshot masterData,
         List<StockItem> stockItems,
+        List<StockItemDetails> stockItemDetails,
         List<Product> products,
-        List<ProductAveragePrice> productsAveragePrice,
-        List<ProductLastPurchased> productsLastPurchased,
         List<ProductBarcode> productBarcodes,
-        List<ShoppingListItem> shoppingListItems,
-        List<Location> locations,
         List<StockLocation> stockCurrentLocations,
-        List<VolatileItem> volatileItems,
+        StockDueClassifier.Result stockDue,
         List<MissingItem> missingItems,
         List<Userfield> userfields
     ) {
-      this.quantityUnits = quantityUnits;
-      this.quantityUnitConversions = quantityUnitConversions;
-      this.productGroups = productGroups;
+      this.masterData = masterData;
       this.stockItems = stockItems;
+      this.stockItemDetails = stockItemDetails;
       this.products = products;
-      this.productsAveragePrice = productsAveragePrice;
-      this.productsLastPurchased = productsLastPurchased;
       this.productBarcodes = productBarcodes;
-      this.shoppingListItems = shoppingListItems;
-      this.locations = locations;
       this.stockCurrentLocations = stockCurrentLocations;
-      this.volatileItems = volatileItems;
+      this.stockDue = stockDue;
       this.missingItems = missingItems;
       this.userfields = userfields;
     }
 
-    public List<QuantityUnit> getQuantityUnits() {
-      return quantityUnits;
-    }
-
-    public List<QuantityUnitConversionResolved> getQuantityUnitConversions() {
-      return quantityUnitConversions;
-    }
-
-    public List<ProductGroup> getProductGroups() {
-      return productGroups;
+    public MasterDataSnapshot getMasterData() {
+      return masterData;
     }
 
     public List<StockItem> getStockItems() {
       return stockItems;
     }
 
-    public List<Product> getProducts() {
-      return products;
-    }
-
-    public List<ProductAveragePrice> getProductsAveragePrice() {
-      return productsAveragePrice;
+    public List<StockItemDetails> getStockItemDetails() {
+      return stockItemDetails;
     }
 
-    public List<ProductLastPurchased> getProductsLastPurchased() {
-      return productsLastPurchased;
+    public List<Product> getProducts() {
+      return products;
     }
 
     public List<ProductBarcode> getProductBarcodes() {
       return productBarcodes;
     }
 
-    public List<ShoppingListItem> getShoppingListItems() {
-      return shoppingListItems;
-    }
-
-    public List<Location> getLocations() {
-      return locations;
-    }
-
     public List<StockLocation> getStockCurrentLocations() {
       return stockCurrentLocations;
     }
 
-    public List<VolatileItem> getVolatileItems() {
-      return volatileItems;
+    /**
+     * Computed locally from the stock items, see StockDueClassifier.
+     */
+    public StockDueClassifier.Result getStockDue() {
+      return stockDue;
     }
 
     public List<MissingItem> getMissingItems() {
@@ -160,24 +138,48 @@ public class StockOverviewRepository {
   }
 
   public void loadFromDatabase(StockOverviewDataListener onSuccess, Consumer<Throwable> onError) {
-    RxJavaUtil
+    Single
         .zip(
-            appDatabase.quantityUnitDao().getQuantityUnits(),
-            appDatabase.quantityUnitConversionResolvedDao().getConversionsResolved(),
-            appDatabase.productGroupDao().getProductGroups(),
+            MasterDataCache.getInstance().getSnapshot(application),
             appDatabase.stockItemDao().getStockItems(),
-            appDatabase.productDao().getProducts(),
-            appDatabase.productAveragePriceDao().getProductsAveragePrice(),
-            appDatabase.productLastPurchasedDao().getProductsLastPurchased(),
+            appDatabase.stockItemDao().getStockItemDetails(),
+            appDatabase.productDao().getProductsForStockOverview(),
             appDatabase.productBarcodeDao().getProductBarcodes(),
-            appDatabase.shoppingListItemDao().getShoppingListItems(),
-            appDatabase.locationDao().getLocations(),
             appDatabase.stockLocationDao().getStockLocations(),
-            appDatabase.volatileItemDao().getVolatileItems(),
-            appDatabase.missingItemDao().getMissingItems(),
             appDatabase.userfieldDao().getUserfields(),
-            StockOverviewData::new
+            // due and missing products are derived from the same stock items and products
+            (masterData, stockItems, stockItemDetails, products, productBarcodes,
+                stockCurrentLocations, userfields) -> new StockOverviewData(
+                masterData,
+                stockItems,
+                stockItemDetails,
+                products,
+                productBarcodes,
+                stockCurrentLocations,
+                StockDueClassifier.getInstance().update(
+                    stockItems, StockDueClassifier.getDueSoonDays(sharedPrefs)
+                ),
+                MinStockEngine.getInstance().update(
+                    MinStockEngine.getProductsWithMinStockAmount(products), stockItems
+                ),
+                userfields
+            )
         )
+        .compose(QueryStats.timed("StockOverviewRepository.loadFromDatabase"))
+        .subscribeOn(Schedulers.io())
+        .observeOn(AndroidSchedulers.mainThread())
+        .doOnSuccess(onSuccess::actionFinished)
+        .doOnError(onError)
+        .onErrorComplete()
+        .subscribe();
+  }
+
+  public void loadUserfieldValues(
+      List<String> userfieldNames,
+      UserfieldValuesListener onSuccess,
+      Consumer<Throwable> onError
+  ) {
+    appDatabase.userfieldValueDao().getUserfieldValuesSorted(ENTITY.PRODUCTS, userfieldNames)
         .subscribeOn(Schedulers.io())
         .observeOn(AndroidSchedulers.mainThread())
         .doOnSuccess(onSuccess::actionFinished)
@@ -23,12 +23,11 @@ import android.content.Context;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import java.util.HashMap;
-import java.util.List;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductDetails;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
-import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversionIndex;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.StockEntry;
 import xyz.zedler.patrick.grocy.model.StockItem;
@@ -39,7 +38,7 @@ public class AmountUtil {
       ShoppingListItem item,
       HashMap<Integer, Product> productHashMap,
       HashMap<Integer, QuantityUnit> quantityUnitHashMap,
-      List<QuantityUnitConversionResolved> unitConversions,
+      QuantityUnitConversionIndex unitConversionIndex,
       boolean isServerVersionMin400
   ) {
     if (!item.hasProduct()) {
@@ -53,9 +52,10 @@ public class AmountUtil {
     if (stock == null || purchase == null) {
       return null;
     }
-    HashMap<QuantityUnit, Double> unitFactors = QuantityUnitConversionUtil
-        .getUnitFactors(quantityUnitHashMap, unitConversions, product, isServerVersionMin400);
-    Double factor = unitFactors.get(quantityUnitHashMap.get(item.getQuIdInt()));
+    Double factor = QuantityUnitConversionUtil.getUnitFactor(
+        quantityUnitHashMap, unitConversionIndex, product, item.getQuIdInt(),
+        isServerVersionMin400
+    );
     return factor != null ? item.getAmountDouble() * factor : item.getAmountDouble();
   }
 
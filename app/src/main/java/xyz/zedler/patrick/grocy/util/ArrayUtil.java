@@ -39,6 +39,7 @@ import xyz.zedler.patrick.grocy.model.RecipeFulfillment;
 import xyz.zedler.patrick.grocy.model.RecipePosition;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.StockItem;
+import xyz.zedler.patrick.grocy.model.StockItemDetails;
 import xyz.zedler.patrick.grocy.model.Store;
 import xyz.zedler.patrick.grocy.model.Task;
 import xyz.zedler.patrick.grocy.model.TaskCategory;
@@ -197,6 +198,16 @@ public class ArrayUtil {
     return stockItemHashMap;
   }
 
+  public static HashMap<Integer, StockItemDetails> getStockItemDetailsHashMap(
+      List<StockItemDetails> stockItemDetails
+  ) {
+    HashMap<Integer, StockItemDetails> hashMap = new HashMap<>();
+    for (StockItemDetails details : stockItemDetails) {
+      hashMap.put(details.getProductId(), details);
+    }
+    return hashMap;
+  }
+
   public static HashMap<Integer, Recipe> getRecipesHashMap(List<Recipe> recipes) {
     HashMap<Integer, Recipe> recipeHashMap = new HashMap<>();
     for (Recipe recipe : recipes) {
@@ -245,21 +256,6 @@ public class ArrayUtil {
     return recipeFulfillmentHashMap;
   }
 
-  public static HashMap<String, RecipeFulfillment> getRecipeResolvedFulfillmentForMealplanHashMap(
-      HashMap<Integer, RecipeFulfillment> recipeFulfillmentHashMap,
-      List<Recipe> recipes
-  ) {
-    HashMap<String, RecipeFulfillment> resolvedFulfillments = new HashMap<>();
-    for (Recipe recipe : recipes) {
-      if (recipe.getId() >= 0) {
-        continue;
-      }
-      RecipeFulfillment recipeFulfillment = recipeFulfillmentHashMap.get(recipe.getId());
-      resolvedFulfillments.put(recipe.getName(), recipeFulfillment);
-    }
-    return resolvedFulfillments;
-  }
-
   public static HashMap<String, List<MealPlanEntry>> getMealPlanEntriesForDayHashMap(
       List<MealPlanEntry> mealPlanEntries
   ) {
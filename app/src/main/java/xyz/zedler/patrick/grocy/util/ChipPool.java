@@ -0,0 +1,163 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import com.google.android.material.chip.Chip;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import xyz.zedler.patrick.grocy.R;
+
+/**
+ * Info chips of list rows, shared by all holders of one adapter. Instead of removing the chips
+ * of a row and inflating new ones on every bind, the old chips are put back into the pool and
+ * reused with their state reset to the one of a freshly inflated chip.
+ * Has to be used on the main thread only.
+ */
+public class ChipPool {
+
+  private static final int MAX_POOL_SIZE = 64;
+
+  // of all pools, only counted on the main thread like the pools are used
+  private static int inflated = 0;
+  private static int reused = 0;
+
+  private final ArrayDeque<Chip> pool = new ArrayDeque<>();
+  private Context context;
+
+  private ColorStateList defaultTextColors;
+  private ColorStateList defaultBackgroundColor;
+  private ColorStateList defaultChipIconTint;
+  private ColorStateList defaultCloseIconTint;
+  private float defaultTextStartPadding;
+  private float defaultCloseIconStartPadding;
+  private int defaultPaintFlags;
+  private boolean defaultClickable;
+  private boolean defaultFocusable;
+
+  /**
+   * Puts all chips of the layout back into the pool and removes all views of the layout.
+   */
+  public void recycleAll(ViewGroup layout) {
+    for (int i = 0; i < layout.getChildCount(); i++) {
+      View child = layout.getChildAt(i);
+      if (child instanceof Chip && child.getContext() == context) {
+        addToPool((Chip) child);
+      }
+    }
+    layout.removeAllViews();
+  }
+
+  /**
+   * Puts a chip back which has been obtained but not added to a layout.
+   */
+  public void recycle(Chip chip) {
+    if (chip.getParent() == null && chip.getContext() == context) {
+      addToPool(chip);
+    }
+  }
+
+  public Chip obtain(Context context, String text) {
+    if (this.context != context) {
+      // chips are themed by their context, the ones of another context can't be reused
+      pool.clear();
+      this.context = context;
+      defaultTextColors = null;
+    }
+    Chip chip = pool.poll();
+    if (chip == null) {
+      chip = inflate(context);
+      inflated++;
+    } else {
+      reset(chip);
+      reused++;
+    }
+    chip.setText(text);
+    return chip;
+  }
+
+  private Chip inflate(Context context) {
+    @SuppressLint("InflateParams")
+    Chip chip = (Chip) LayoutInflater.from(context).inflate(
+        R.layout.view_info_chip, null, false
+    );
+    if (defaultTextColors == null) {
+      defaultTextColors = chip.getTextColors();
+      defaultBackgroundColor = chip.getChipBackgroundColor();
+      defaultChipIconTint = chip.getChipIconTint();
+      defaultCloseIconTint = chip.getCloseIconTint();
+      defaultTextStartPadding = chip.getTextStartPadding();
+      defaultCloseIconStartPadding = chip.getCloseIconStartPadding();
+      defaultPaintFlags = chip.getPaintFlags();
+      defaultClickable = chip.isClickable();
+      defaultFocusable = chip.isFocusable();
+    }
+    return chip;
+  }
+
+  private void reset(Chip chip) {
+    chip.setTextColor(defaultTextColors);
+    chip.setChipBackgroundColor(defaultBackgroundColor);
+    chip.setChipIcon(null);
+    chip.setChipIconTint(defaultChipIconTint);
+    chip.setCloseIcon(null);
+    chip.setCloseIconVisible(false);
+    chip.setCloseIconTint(defaultCloseIconTint);
+    chip.setTextStartPadding(defaultTextStartPadding);
+    chip.setCloseIconStartPadding(defaultCloseIconStartPadding);
+    chip.setPaintFlags(defaultPaintFlags);
+    chip.setAlpha(1);
+    chip.setOnClickListener(null);
+    chip.setEnabled(true);
+    chip.setClickable(defaultClickable);
+    chip.setFocusable(defaultFocusable);
+  }
+
+  /**
+   * Has to be called on the main thread.
+   */
+  public static String getReport() {
+    int obtained = inflated + reused;
+    return String.format(
+        Locale.ENGLISH,
+        "Obtained: %d, inflated: %d, reused: %d (%.1f %%)\n",
+        obtained,
+        inflated,
+        reused,
+        obtained > 0 ? reused * 100.0 / obtained : 0.0
+    );
+  }
+
+  public static void resetCounters() {
+    inflated = 0;
+    reused = 0;
+  }
+
+  private void addToPool(Chip chip) {
+    if (pool.size() < MAX_POOL_SIZE) {
+      pool.push(chip);
+    }
+  }
+}
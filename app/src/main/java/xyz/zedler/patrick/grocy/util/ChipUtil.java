@@ -23,6 +23,7 @@ import android.annotation.SuppressLint;
 import android.content.Context;
 import android.content.res.ColorStateList;
 import android.view.LayoutInflater;
+import androidx.annotation.Nullable;
 import androidx.core.content.ContextCompat;
 import com.google.android.material.chip.Chip;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
@@ -33,18 +34,27 @@ import xyz.zedler.patrick.grocy.model.Userfield;
 public class ChipUtil {
 
   private final Context context;
+  private final ChipPool chipPool;
   private final int colorGreenContainer, colorOnGreenContainer;
   private final int colorYellowContainer, colorOnYellowContainer;
 
   public ChipUtil(Context context) {
+    this(context, null);
+  }
+
+  public ChipUtil(Context context, @Nullable ChipPool chipPool) {
     this.context = context;
+    this.chipPool = chipPool;
     colorGreenContainer = ResUtil.getColor(context, R.attr.colorCustomGreenContainer);
     colorOnGreenContainer = ResUtil.getColor(context, R.attr.colorOnCustomGreenContainer);
     colorYellowContainer = ResUtil.getColor(context, R.attr.colorCustomYellowContainer);
     colorOnYellowContainer = ResUtil.getColor(context, R.attr.colorOnCustomYellowContainer);
   }
 
-  private static Chip createChip(Context ctx, String text) {
+  private Chip createChip(Context ctx, String text) {
+    if (chipPool != null) {
+      return chipPool.obtain(ctx, text);
+    }
     @SuppressLint("InflateParams")
     Chip chip = (Chip) LayoutInflater.from(ctx).inflate(
         R.layout.view_info_chip, null, false
@@ -196,6 +206,10 @@ public class ChipUtil {
 
   public Chip createUserfieldChip(Userfield userfield, String value) {
     Chip chipUserfield = createTextChip(null);
-    return Userfield.fillChipWithUserfield(chipUserfield, userfield, value);
+    Chip chipFilled = Userfield.fillChipWithUserfield(chipUserfield, userfield, value);
+    if (chipFilled == null && chipPool != null) {
+      chipPool.recycle(chipUserfield);
+    }
+    return chipFilled;
   }
 }
@@ -45,14 +45,17 @@ public class DateUtil {
   public static final int FORMAT_SHORT = 0;
   public static final int FORMAT_SHORT_WITH_TIME = 3;
 
-  public static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat(
-      "yyyy-MM-dd", Locale.ENGLISH
-  );
-  private static final SimpleDateFormat DATE_FORMAT_WITH_TIME = new SimpleDateFormat(
-      "yyyy-MM-dd HH:mm:ss", Locale.ENGLISH
+  // dates without a value or which can't be parsed, first in ascending order
+  public static final long NO_DATE = Long.MIN_VALUE;
+
+  // SimpleDateFormat is not thread-safe, dates are parsed on worker and main threads
+  public static final ThreadLocal<SimpleDateFormat> DATE_FORMAT = getThreadLocalFormat(
+      "yyyy-MM-dd"
   );
-  private static final SimpleDateFormat TIME_FORMAT = new SimpleDateFormat(
-      "HH:mm:ss", Locale.ENGLISH
+  private static final ThreadLocal<SimpleDateFormat> DATE_FORMAT_WITH_TIME
+      = getThreadLocalFormat("yyyy-MM-dd HH:mm:ss");
+  private static final ThreadLocal<SimpleDateFormat> TIME_FORMAT = getThreadLocalFormat(
+      "HH:mm:ss"
   );
   private final Context context;
 
@@ -67,16 +70,71 @@ public class DateUtil {
     Date date = null;
     try {
       date = dateString.split(" ").length == 2
-          ? DATE_FORMAT_WITH_TIME.parse(dateString)
-          : DATE_FORMAT.parse(dateString);
+          ? DATE_FORMAT_WITH_TIME.get().parse(dateString)
+          : DATE_FORMAT.get().parse(dateString);
     } catch (ParseException e) {
       Log.e(TAG, "getDate: ");
     }
     return date;
   }
 
+  private static ThreadLocal<SimpleDateFormat> getThreadLocalFormat(String pattern) {
+    return new ThreadLocal<SimpleDateFormat>() {
+      @Override
+      protected SimpleDateFormat initialValue() {
+        return new SimpleDateFormat(pattern, Locale.ENGLISH);
+      }
+    };
+  }
+
+  /**
+   * Day of a date string like "2023-12-24" (time of a timestamp is ignored) since 1970-01-01,
+   * or NO_DATE. Stored next to the date strings, so that they don't have to be parsed again
+   * for sorting and for getDaysFromNow.
+   */
+  public static long getEpochDay(String dateString) {
+    if (dateString == null || dateString.length() < 10) {
+      return NO_DATE;
+    }
+    try {
+      return LocalDate.of(
+          Integer.parseInt(dateString.substring(0, 4)),
+          Integer.parseInt(dateString.substring(5, 7)),
+          Integer.parseInt(dateString.substring(8, 10))
+      ).toEpochDay();
+    } catch (RuntimeException e) {
+      return NO_DATE;
+    }
+  }
+
+  /**
+   * Milliseconds of a date or timestamp string in the default time zone, or NO_DATE.
+   */
+  public static long getEpochMillis(String dateString) {
+    Date date = getDate(dateString);
+    return date != null ? date.getTime() : NO_DATE;
+  }
+
+  public static long getEpochDayToday() {
+    return LocalDate.now().toEpochDay();
+  }
+
+  public static int getDaysFromNow(long epochDay) {
+    if (epochDay == NO_DATE) return 0;
+    return (int) (epochDay - getEpochDayToday());
+  }
+
+  /**
+   * Like getDaysFromNow(String) for a timestamp, from epoch milliseconds.
+   */
+  public static int getDaysFromNowForMillis(long millis) {
+    if (millis == NO_DATE) return 0;
+    long diff = millis - getCurrentDate().getTime();
+    return (int) TimeUnit.DAYS.convert(diff, TimeUnit.MILLISECONDS);
+  }
+
   public static String getDateStringToday() {
-    return DATE_FORMAT.format(getCurrentDate());
+    return DATE_FORMAT.get().format(getCurrentDate());
   }
 
   public static int getDaysFromNow(String dateString) {
@@ -89,7 +147,7 @@ public class DateUtil {
   public static String getTodayWithDaysAdded(int daysToAdd) {
     Calendar calendar = Calendar.getInstance();
     calendar.add(Calendar.DAY_OF_MONTH, daysToAdd);
-    return DATE_FORMAT.format(calendar.getTime());
+    return DATE_FORMAT.get().format(calendar.getTime());
   }
 
   public static String getDateWithDaysAdded(String dateString, int daysToAdd) {
@@ -98,7 +156,7 @@ public class DateUtil {
     Calendar calendar = Calendar.getInstance();
     calendar.setTime(date);
     calendar.add(Calendar.DAY_OF_MONTH, daysToAdd);
-    return DATE_FORMAT.format(calendar.getTime());
+    return DATE_FORMAT.get().format(calendar.getTime());
   }
 
   private static Date getCurrentDate() {
@@ -119,13 +177,13 @@ public class DateUtil {
   public String getCurrentDateWithTimeStr() {
     Calendar cal = Calendar.getInstance();
     cal.set(Calendar.MILLISECOND, 0);
-    return DATE_FORMAT_WITH_TIME.format(cal.getTime());
+    return DATE_FORMAT_WITH_TIME.get().format(cal.getTime());
   }
 
   public String getCurrentDateWithoutTimeStr() {
     Calendar cal = Calendar.getInstance();
     cal.set(Calendar.MILLISECOND, 0);
-    return DATE_FORMAT.format(cal.getTime());
+    return DATE_FORMAT.get().format(cal.getTime());
   }
 
   public boolean isTimeLessThanOneMinuteAway(String dateWithTimeStr) {
@@ -135,7 +193,7 @@ public class DateUtil {
     Date currentDateWithTime = getCurrentDateWithTime();
     Date askedDateWithTime = null;
     try {
-      askedDateWithTime = DATE_FORMAT_WITH_TIME.parse(dateWithTimeStr);
+      askedDateWithTime = DATE_FORMAT_WITH_TIME.get().parse(dateWithTimeStr);
     } catch (ParseException e) {
       Log.e(TAG, "isTimeMoreThanOneMinuteAway: " + e);
     }
@@ -157,8 +215,8 @@ public class DateUtil {
     Date date = null;
     try {
       date = dateString.split(" ").length == 2
-          ? DATE_FORMAT_WITH_TIME.parse(dateString)
-          : DATE_FORMAT.parse(dateString);
+          ? DATE_FORMAT_WITH_TIME.get().parse(dateString)
+          : DATE_FORMAT.get().parse(dateString);
     } catch (ParseException e) {
       Log.e(TAG, "getLocalizedDate: " + e);
     }
@@ -189,7 +247,7 @@ public class DateUtil {
     }
     Date date = null;
     try {
-      date = TIME_FORMAT.parse(timeString);
+      date = TIME_FORMAT.get().parse(timeString);
     } catch (ParseException e) {
       Log.e(TAG, "getLocalizedTime: " + e);
     }
@@ -269,7 +327,7 @@ public class DateUtil {
         // Check if days are about the same as to the never expiring date
         Calendar calendarNever = Calendar.getInstance();
         try {
-          Date dateNever = DATE_FORMAT.parse(Constants.DATE.NEVER_OVERDUE);
+          Date dateNever = DATE_FORMAT.get().parse(Constants.DATE.NEVER_OVERDUE);
           if (dateNever != null) {
             calendarNever.setTime(dateNever);
           }
@@ -0,0 +1,143 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import me.xdrop.fuzzywuzzy.FuzzySearch;
+
+/**
+ * Trigram index over the names of a list, built once per list. A search only scores the names
+ * which share the most trigrams with the query with FuzzySearch (WeightedRatio, like
+ * FuzzySearch.extractSorted), instead of every name of the list.
+ */
+public class FuzzySearchIndex<T> {
+
+  private static final int MAX_CANDIDATES = 100;
+
+  private final List<T> items;
+  private final String[] names;
+  private final HashMap<String, int[]> postings;
+
+  public FuzzySearchIndex(List<T> items, Function<T, String> getName) {
+    this.items = new ArrayList<>(items);
+    names = new String[this.items.size()];
+    HashMap<String, List<Integer>> postingLists = new HashMap<>();
+    for (int i = 0; i < names.length; i++) {
+      String name = getName.apply(this.items.get(i));
+      names[i] = name != null ? name.toLowerCase() : "";
+      for (String trigram : getTrigrams(names[i])) {
+        List<Integer> postingList = postingLists.get(trigram);
+        if (postingList == null) {
+          postingList = new ArrayList<>();
+          postingLists.put(trigram, postingList);
+        }
+        postingList.add(i);
+      }
+    }
+    postings = new HashMap<>(postingLists.size());
+    for (Map.Entry<String, List<Integer>> entry : postingLists.entrySet()) {
+      List<Integer> postingList = entry.getValue();
+      int[] itemIndices = new int[postingList.size()];
+      for (int i = 0; i < itemIndices.length; i++) {
+        itemIndices[i] = postingList.get(i);
+      }
+      postings.put(entry.getKey(), itemIndices);
+    }
+  }
+
+  /**
+   * Items with a score of at least cutoff (0-100), best first. Items with the same score keep
+   * the order of the list.
+   */
+  public List<T> search(String query, int cutoff) {
+    List<T> results = new ArrayList<>();
+    if (query == null || query.isEmpty()) {
+      return results;
+    }
+    String queryLower = query.toLowerCase();
+    List<Integer> candidates = getCandidates(queryLower);
+
+    List<int[]> scored = new ArrayList<>(candidates.size());
+    for (int index : candidates) {
+      int score = FuzzySearch.weightedRatio(queryLower, names[index]);
+      if (score >= cutoff) {
+        scored.add(new int[]{index, score});
+      }
+    }
+    Collections.sort(scored, (a, b) -> a[1] != b[1]
+        ? Integer.compare(b[1], a[1]) : Integer.compare(a[0], b[0]));
+    for (int[] result : scored) {
+      results.add(items.get(result[0]));
+    }
+    return results;
+  }
+
+  private List<Integer> getCandidates(String query) {
+    List<Integer> candidates = new ArrayList<>();
+    if (query.length() < 3) {
+      // too short for a trigram inside of names, but a substring check is cheap
+      for (int i = 0; i < names.length; i++) {
+        if (names[i].contains(query)) {
+          candidates.add(i);
+        }
+      }
+      return candidates;
+    }
+
+    int[] sharedTrigrams = new int[names.length];
+    List<Integer> touched = new ArrayList<>();
+    for (String trigram : getTrigrams(query)) {
+      int[] itemIndices = postings.get(trigram);
+      if (itemIndices == null) continue;
+      for (int index : itemIndices) {
+        if (sharedTrigrams[index] == 0) {
+          touched.add(index);
+        }
+        sharedTrigrams[index]++;
+      }
+    }
+    if (touched.size() > MAX_CANDIDATES) {
+      Collections.sort(touched, (a, b) -> sharedTrigrams[a] != sharedTrigrams[b]
+          ? Integer.compare(sharedTrigrams[b], sharedTrigrams[a]) : Integer.compare(a, b));
+      return new ArrayList<>(touched.subList(0, MAX_CANDIDATES));
+    }
+    return touched;
+  }
+
+  /**
+   * Distinct trigrams of the text with a space before and after it, so that the beginning
+   * and end of words count as well.
+   */
+  private static Set<String> getTrigrams(String text) {
+    String padded = " " + text + " ";
+    Set<String> trigrams = new HashSet<>();
+    for (int i = 0; i + 3 <= padded.length(); i++) {
+      trigrams.add(padded.substring(i, i + 3));
+    }
+    return trigrams;
+  }
+}
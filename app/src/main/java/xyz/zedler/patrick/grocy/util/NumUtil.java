@@ -20,9 +20,24 @@
 package xyz.zedler.patrick.grocy.util;
 
 import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
 
 public class NumUtil {
 
+  private static final int MAX_CACHED_DECIMAL_PLACES = 10;
+  private static final double MAX_FAST_INTEGER = 1e15;
+  // every long with up to 15 digits and every power of ten up to 10^22 is an exact double,
+  // so one division of both is rounded correctly like Double.parseDouble
+  private static final int MAX_FAST_DIGITS = 15;
+  private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+
+  // DecimalFormat is not thread-safe, so every thread gets its own formats
+  private static final ThreadLocal<Formats> formats = new ThreadLocal<>();
+
   public static String outputSpoilRate(double value) {
     // server cuts off to 0 decimal places
     return String.valueOf(Math.round(value));
@@ -30,33 +45,23 @@ public class NumUtil {
 
   public static String trimAmount(double value, int decimalPlaces) {
     // also is applied to servings, qu factors and calories
-
-    StringBuilder formatPattern = new StringBuilder("#");
-    if (decimalPlaces > 0) {
-      formatPattern.append(".");
-      for (int i=0; i<=decimalPlaces-1; i++) {
-        formatPattern.append("#");
-      }
+    Formats formats = getFormats();
+    if (formats.asciiDigits && value == Math.rint(value) && Math.abs(value) < MAX_FAST_INTEGER
+        && (value != 0 || 1 / value > 0)) {
+      // same as the pattern without decimal places, but without DecimalFormat
+      return Long.toString((long) value);
     }
-    DecimalFormat decimalFormat = new DecimalFormat(formatPattern.toString());
-    return decimalFormat.format(value).replace(",", ".");
+    return formats.getAmountFormat(decimalPlaces).format(value);
   }
 
   public static String trimPrice(double value, int decimalPlaces) {
-    StringBuilder formatPattern = new StringBuilder("0");
-    if (decimalPlaces > 0) {
-      formatPattern.append(".");
-      for (int i=0; i<=decimalPlaces-1; i++) {
-        formatPattern.append("0");
-      }
-    }
-    DecimalFormat decimalFormat = new DecimalFormat(formatPattern.toString());
-    return decimalFormat.format(value).replace(",", ".");
+    return getFormats().getPriceFormat(decimalPlaces).format(value);
   }
 
   public static int getDecimalPlacesCount(String input) {
-    if (!isStringDouble(input)) return 0;
-    String text = Double.toString(Math.abs(toDouble(input)));
+    double value = parseDouble(input);
+    if (Double.isNaN(value)) return 0;
+    String text = Double.toString(Math.abs(value));
     if (text.endsWith(".0")) {
       return 0;
     }
@@ -66,39 +71,42 @@ public class NumUtil {
   }
 
   public static double toDouble(String input) {
-    if (input == null || input.isEmpty()) {
-      return -1;
-    }
-    try {
-      return Double.parseDouble(input.replace(",", "."));
-    } catch (NumberFormatException ex) {
-      return -1;
-    }
+    double value = parseDouble(input);
+    return Double.isNaN(value) && !isNaNString(input) ? -1 : value;
   }
 
   public static boolean isStringInt(String s) {
     if (s == null || s.isEmpty()) {
       return false;
     }
-    try {
-      Integer.parseInt(s);
-      return true;
-    } catch (NumberFormatException ex) {
-      return false;
+    // same rules as Integer.parseInt, without an exception for invalid strings
+    int length = s.length();
+    int i = 0;
+    char first = s.charAt(0);
+    if (first == '-' || first == '+') {
+      if (length == 1) return false;
+      i++;
+    }
+    long limit = first == '-' ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+    long result = 0;
+    for (; i < length; i++) {
+      int digit = Character.digit(s.charAt(i), 10);
+      if (digit < 0) return false;
+      result = result * 10 + digit;
+      if (result > limit) return false;
     }
+    return true;
   }
 
+  /**
+   * Only rejects empty strings and "NaN", because toDouble returns -1 for every other invalid
+   * number. Use parseDouble to check if a string really is a number.
+   */
   public static boolean isStringDouble(String s) {
     if (s == null || s.isEmpty()) {
       return false;
     }
-    s = s.replace(",", ".");
-    try {
-      double result = NumUtil.toDouble(s);
-      return !Double.isNaN(result);
-    } catch (NumberFormatException ex) {
-      return false;
-    }
+    return !isNaNString(s);
   }
 
   public static boolean isStringNum(String s) {
@@ -107,4 +115,145 @@ public class NumUtil {
     }
     return isStringInt(s) || isStringDouble(s);
   }
+
+  /**
+   * Parses numbers with "." or "," as decimal separator like Double.parseDouble.
+   * Returns NaN instead of throwing if the string is not a number.
+   */
+  public static double parseDouble(String s) {
+    if (s == null || s.isEmpty()) {
+      return Double.NaN;
+    }
+    int length = s.length();
+    int i = 0;
+    boolean negative = false;
+    char first = s.charAt(0);
+    if (first == '-' || first == '+') {
+      negative = first == '-';
+      i++;
+    }
+    long mantissa = 0;
+    int significantDigits = 0;
+    int fractionDigits = 0;
+    boolean hasDigits = false;
+    boolean hasSeparator = false;
+    for (; i < length; i++) {
+      char c = s.charAt(i);
+      if (c >= '0' && c <= '9') {
+        hasDigits = true;
+        if (mantissa != 0 || c != '0') {
+          significantDigits++;
+        }
+        mantissa = mantissa * 10 + (c - '0');
+        if (hasSeparator) {
+          fractionDigits++;
+        }
+        if (significantDigits > MAX_FAST_DIGITS || fractionDigits >= POWERS_OF_TEN.length) {
+          return parseDoubleSlow(s);
+        }
+      } else if ((c == '.' || c == ',') && !hasSeparator) {
+        hasSeparator = true;
+      } else {
+        return parseDoubleSlow(s);
+      }
+    }
+    if (!hasDigits) {
+      return Double.NaN;
+    }
+    double value = mantissa / POWERS_OF_TEN[fractionDigits];
+    return negative ? -value : value;
+  }
+
+  /**
+   * For exponents, whitespace, very long numbers and everything else which is rare.
+   */
+  private static double parseDoubleSlow(String s) {
+    String trimmed = s.trim();
+    if (trimmed.isEmpty()) {
+      return Double.NaN;
+    }
+    char first = trimmed.charAt(0);
+    char start = (first == '-' || first == '+') && trimmed.length() > 1
+        ? trimmed.charAt(1) : first;
+    if (!(start >= '0' && start <= '9') && start != '.' && start != ','
+        && start != 'N' && start != 'I') {
+      return Double.NaN;
+    }
+    try {
+      return Double.parseDouble(trimmed.replace(",", "."));
+    } catch (NumberFormatException ex) {
+      return Double.NaN;
+    }
+  }
+
+  private static boolean isNaNString(String s) {
+    if (s == null) {
+      return false;
+    }
+    String trimmed = s.trim();
+    int start = trimmed.startsWith("-") || trimmed.startsWith("+") ? 1 : 0;
+    return trimmed.length() == start + 3 && trimmed.startsWith("NaN", start);
+  }
+
+  private static Formats getFormats() {
+    Formats cached = formats.get();
+    Locale locale = Locale.getDefault();
+    if (cached == null || !cached.locale.equals(locale)) {
+      cached = new Formats(locale);
+      formats.set(cached);
+    }
+    return cached;
+  }
+
+  private static class Formats {
+
+    private final Locale locale;
+    private final boolean asciiDigits;
+    private final DecimalFormat[] amountFormats = new DecimalFormat[MAX_CACHED_DECIMAL_PLACES + 1];
+    private final DecimalFormat[] priceFormats = new DecimalFormat[MAX_CACHED_DECIMAL_PLACES + 1];
+
+    private Formats(Locale locale) {
+      this.locale = locale;
+      DecimalFormatSymbols symbols = new DecimalFormat("#").getDecimalFormatSymbols();
+      asciiDigits = symbols.getZeroDigit() == '0' && symbols.getMinusSign() == '-';
+    }
+
+    private DecimalFormat getAmountFormat(int decimalPlaces) {
+      if (decimalPlaces < 0 || decimalPlaces > MAX_CACHED_DECIMAL_PLACES) {
+        return createFormat('#', decimalPlaces);
+      }
+      if (amountFormats[decimalPlaces] == null) {
+        amountFormats[decimalPlaces] = createFormat('#', decimalPlaces);
+      }
+      return amountFormats[decimalPlaces];
+    }
+
+    private DecimalFormat getPriceFormat(int decimalPlaces) {
+      if (decimalPlaces < 0 || decimalPlaces > MAX_CACHED_DECIMAL_PLACES) {
+        return createFormat('0', decimalPlaces);
+      }
+      if (priceFormats[decimalPlaces] == null) {
+        priceFormats[decimalPlaces] = createFormat('0', decimalPlaces);
+      }
+      return priceFormats[decimalPlaces];
+    }
+
+    private static DecimalFormat createFormat(char digit, int decimalPlaces) {
+      StringBuilder formatPattern = new StringBuilder().append(digit);
+      if (decimalPlaces > 0) {
+        formatPattern.append(".");
+        for (int i=0; i<=decimalPlaces-1; i++) {
+          formatPattern.append(digit);
+        }
+      }
+      DecimalFormat decimalFormat = new DecimalFormat(formatPattern.toString());
+      // "." is always used as separator, the patterns have no grouping
+      DecimalFormatSymbols symbols = decimalFormat.getDecimalFormatSymbols();
+      if (symbols.getDecimalSeparator() == ',') {
+        symbols.setDecimalSeparator('.');
+        decimalFormat.setDecimalFormatSymbols(symbols);
+      }
+      return decimalFormat;
+    }
+  }
 }
@@ -46,6 +46,7 @@ import xyz.zedler.patrick.grocy.Constants.SETTINGS;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS_DEFAULT;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.activity.MainActivity;
+import xyz.zedler.patrick.grocy.database.AppDatabase;
 
 public class PrefsUtil {
   private final SharedPreferences sharedPreferences;
@@ -213,39 +214,98 @@ public class PrefsUtil {
     }
   }
 
+  // when adding new constant for DB, also add it here
+  private final static String[] CACHING_RELATED_KEYS = {
+      PREF.DB_LAST_TIME_STOCK_ITEMS,
+      PREF.DB_LAST_TIME_STOCK_ENTRIES,
+      PREF.DB_LAST_TIME_STORES,
+      PREF.DB_LAST_TIME_LOCATIONS,
+      PREF.DB_LAST_TIME_STOCK_LOCATIONS,
+      PREF.DB_LAST_TIME_SHOPPING_LIST_ITEMS,
+      PREF.DB_LAST_TIME_SHOPPING_LISTS,
+      PREF.DB_LAST_TIME_PRODUCT_GROUPS,
+      PREF.DB_LAST_TIME_QUANTITY_UNITS,
+      PREF.DB_LAST_TIME_QUANTITY_UNIT_CONVERSIONS,
+      PREF.DB_LAST_TIME_QUANTITY_UNIT_CONVERSIONS_RESOLVED,
+      PREF.DB_LAST_TIME_QUANTITY_UNIT_CONVERSIONS_RESOLVED_LOCALLY,
+      PREF.DB_LAST_TIME_PRODUCTS,
+      PREF.DB_LAST_TIME_PRODUCTS_LAST_PURCHASED,
+      PREF.DB_LAST_TIME_PRODUCTS_AVERAGE_PRICE,
+      PREF.DB_LAST_TIME_PRODUCT_BARCODES,
+      PREF.DB_LAST_TIME_VOLATILE,
+      PREF.DB_LAST_TIME_VOLATILE_MISSING,
+      PREF.DB_LAST_TIME_TASKS,
+      PREF.DB_LAST_TIME_TASK_CATEGORIES,
+      PREF.DB_LAST_TIME_CHORES,
+      PREF.DB_LAST_TIME_CHORE_ENTRIES,
+      PREF.DB_LAST_TIME_USERS,
+      PREF.DB_LAST_TIME_RECIPES,
+      PREF.DB_LAST_TIME_RECIPE_FULFILLMENTS,
+      PREF.DB_LAST_TIME_RECIPE_POSITIONS,
+      PREF.DB_LAST_TIME_RECIPE_POSITIONS_RESOLVED,
+      PREF.DB_LAST_TIME_RECIPE_NESTINGS,
+      PREF.DB_LAST_TIME_USERFIELDS,
+      PREF.DB_LAST_TIME_MEAL_PLAN_ENTRIES,
+      PREF.DB_LAST_TIME_MEAL_PLAN_SECTIONS,
+      PREF.DB_SYNCED_MEAL_PLAN_WEEKS,
+      PREF.DB_SYNCED_RECIPE_POSITIONS_RESOLVED,
+      PREF.DB_SYNCED_STOCK_ENTRIES_PRODUCTS
+  };
+
   public static void clearCachingRelatedSharedPreferences(SharedPreferences sharedPrefs) {
     SharedPreferences.Editor editPrefs = sharedPrefs.edit();
-    editPrefs.remove(PREF.DB_LAST_TIME_STOCK_ITEMS);
-    editPrefs.remove(PREF.DB_LAST_TIME_STOCK_ENTRIES);
-    editPrefs.remove(PREF.DB_LAST_TIME_STORES);
-    editPrefs.remove(PREF.DB_LAST_TIME_LOCATIONS);
-    editPrefs.remove(PREF.DB_LAST_TIME_STOCK_LOCATIONS);
-    editPrefs.remove(PREF.DB_LAST_TIME_SHOPPING_LIST_ITEMS);
-    editPrefs.remove(PREF.DB_LAST_TIME_SHOPPING_LISTS);
-    editPrefs.remove(PREF.DB_LAST_TIME_PRODUCT_GROUPS);
-    editPrefs.remove(PREF.DB_LAST_TIME_QUANTITY_UNITS);
-    editPrefs.remove(PREF.DB_LAST_TIME_QUANTITY_UNIT_CONVERSIONS);
-    editPrefs.remove(PREF.DB_LAST_TIME_QUANTITY_UNIT_CONVERSIONS_RESOLVED);
-    editPrefs.remove(PREF.DB_LAST_TIME_PRODUCTS);
-    editPrefs.remove(PREF.DB_LAST_TIME_PRODUCTS_LAST_PURCHASED);
-    editPrefs.remove(PREF.DB_LAST_TIME_PRODUCTS_AVERAGE_PRICE);
-    editPrefs.remove(PREF.DB_LAST_TIME_PRODUCT_BARCODES);
-    editPrefs.remove(PREF.DB_LAST_TIME_VOLATILE);
-    editPrefs.remove(PREF.DB_LAST_TIME_VOLATILE_MISSING);
-    editPrefs.remove(PREF.DB_LAST_TIME_TASKS);
-    editPrefs.remove(PREF.DB_LAST_TIME_TASK_CATEGORIES);
-    editPrefs.remove(PREF.DB_LAST_TIME_CHORES);
-    editPrefs.remove(PREF.DB_LAST_TIME_CHORE_ENTRIES);
-    editPrefs.remove(PREF.DB_LAST_TIME_USERS);
-    editPrefs.remove(PREF.DB_LAST_TIME_RECIPES);
-    editPrefs.remove(PREF.DB_LAST_TIME_RECIPE_FULFILLMENTS);
-    editPrefs.remove(PREF.DB_LAST_TIME_RECIPE_POSITIONS);
-    editPrefs.remove(PREF.DB_LAST_TIME_RECIPE_POSITIONS_RESOLVED);
-    editPrefs.remove(PREF.DB_LAST_TIME_RECIPE_NESTINGS);
-    editPrefs.remove(PREF.DB_LAST_TIME_USERFIELDS);
-    editPrefs.remove(PREF.DB_LAST_TIME_MEAL_PLAN_ENTRIES);
-    editPrefs.remove(PREF.DB_LAST_TIME_MEAL_PLAN_SECTIONS);
+    for (String key : CACHING_RELATED_KEYS) {
+      editPrefs.remove(key);
+    }
+    editPrefs.apply();
+  }
+
+  /**
+   * Stores the sync times of the current server next to its database file, so that they can be
+   * restored with restoreServerSyncState when the user logs in to this server again.
+   */
+  public static void saveServerSyncState(Context context, SharedPreferences sharedPrefs) {
+    if (isServerUrlEmpty(sharedPrefs)) {
+      return;
+    }
+    SharedPreferences.Editor editState = getServerSyncStatePrefs(context, sharedPrefs)
+        .edit().clear();
+    for (String key : CACHING_RELATED_KEYS) {
+      editState.putString(key, sharedPrefs.getString(key, null));
+    }
+    editState.putInt(PREF.SYNC_STATE_SCHEMA_VERSION, AppDatabase.VERSION);
+    editState.apply();
+  }
+
+  /**
+   * Has to be called after the server URL of a login has been stored. Sync times are only
+   * restored if the database of the server still exists and its schema was not changed since.
+   */
+  public static void restoreServerSyncState(Context context, SharedPreferences sharedPrefs) {
+    SharedPreferences statePrefs = getServerSyncStatePrefs(context, sharedPrefs);
+    boolean isValid = statePrefs.getInt(PREF.SYNC_STATE_SCHEMA_VERSION, -1)
+        == AppDatabase.VERSION
+        && context.getDatabasePath(AppDatabase.getDatabaseName(sharedPrefs)).exists();
+    SharedPreferences.Editor editPrefs = sharedPrefs.edit();
+    for (String key : CACHING_RELATED_KEYS) {
+      String value = isValid ? statePrefs.getString(key, null) : null;
+      if (value != null) {
+        editPrefs.putString(key, value);
+      } else {
+        editPrefs.remove(key);
+      }
+    }
     editPrefs.apply();
+    statePrefs.edit().clear().apply();
+  }
+
+  private static SharedPreferences getServerSyncStatePrefs(
+      Context context,
+      SharedPreferences sharedPrefs
+  ) {
+    return context.getSharedPreferences(
+        AppDatabase.getDatabaseName(sharedPrefs) + "_sync_state", Context.MODE_PRIVATE
+    );
   }
 
   public static void clearServerRelatedSharedPreferences(SharedPreferences sharedPrefs) {
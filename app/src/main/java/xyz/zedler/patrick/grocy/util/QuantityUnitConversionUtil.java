@@ -19,11 +19,16 @@
 
 package xyz.zedler.patrick.grocy.util;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversionIndex;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversionPath;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 
 public class QuantityUnitConversionUtil {
@@ -33,19 +38,20 @@ public class QuantityUnitConversionUtil {
       Product product,
       boolean useResolvedConversions
   ) {
-    // useResolvedConversions is always the VersionUtil.isGrocyServerMin400() value because
-    // starting with this version, transitive conversions are
-    // calculated (see QuantityUnitConversionResolved class). For easier version compatibility
-    // changes of this app in future versions, the QuantityUnitConversionsResolved table of this app
-    // contains with earlier server versions just the simple conversions from the Grocy
-    // server (not resolved). If 4.0.0 is the min. server version requirement, this behavior
-    // can simply be removed and not all pages have to be edited.
+    // useResolvedConversions is always the VersionUtil.hasResolvedConversions() value because
+    // starting with server version 4.0.0, transitive conversions are
+    // calculated (see QuantityUnitConversionResolved class), and with earlier versions the app
+    // resolves them itself after downloading (see resolveConversions). Until the first sync
+    // after an app update, the QuantityUnitConversionsResolved table of this app can still
+    // contain just the simple conversions from older servers (not resolved). If 4.0.0 is the
+    // min. server version requirement, this behavior can simply be removed and not all pages
+    // have to be edited.
     if (!useResolvedConversions) {
       return getUnitFactors(quantityUnitHashMap, unitConversions, product);
     }
     HashMap<QuantityUnit, Double> unitFactors = new HashMap<>();
-    for (QuantityUnitConversion conversion : unitConversions) {
-      if (conversion.getProductIdInt() != product.getId()) continue;
+    QuantityUnitConversionIndex index = new QuantityUnitConversionIndex(unitConversions);
+    for (QuantityUnitConversion conversion : index.getConversions(product.getId())) {
 
       // We need this check because unitConversions list can contain multiple entry for the same "to" QU.
       //
@@ -80,11 +86,8 @@ public class QuantityUnitConversionUtil {
     if (!unitFactors.containsKey(purchaseUnit)) {
       unitFactors.put(purchaseUnit, 1 / product.getQuFactorPurchaseToStockDouble());
     }
-    for (QuantityUnitConversion conversion : unitConversions) {
-      if (!NumUtil.isStringInt(conversion.getProductId())
-          || product.getId() != conversion.getProductIdInt()) {
-        continue;
-      }
+    QuantityUnitConversionIndex index = new QuantityUnitConversionIndex(unitConversions);
+    for (QuantityUnitConversion conversion : index.getConversions(product.getId())) {
       // Only add product specific conversions
       // ("overriding" standard conversions which are added in the next step)
       QuantityUnit unit = quantityUnitHashMap.get(conversion.getToQuId());
@@ -93,9 +96,8 @@ public class QuantityUnitConversionUtil {
       }
       unitFactors.put(unit, conversion.getFactor());
     }
-    for (QuantityUnitConversion conversion : unitConversions) {
-      if (NumUtil.isStringInt(conversion.getProductId())
-          || stockUnit.getId() != conversion.getFromQuId()) {
+    for (QuantityUnitConversion conversion : index.getStandardConversions()) {
+      if (stockUnit.getId() != conversion.getFromQuId()) {
         continue;
       }
       // Only add standard unit conversions
@@ -108,6 +110,226 @@ public class QuantityUnitConversionUtil {
     return unitFactors;
   }
 
+  /**
+   * Same factor as getUnitFactors(...).get(unit of toQuId), but without building the map.
+   * Returns null if there is no conversion to this unit. The index has to be built from the
+   * resolved conversions, so it can be reused for the rows of a list.
+   */
+  public static Double getUnitFactor(
+      HashMap<Integer, QuantityUnit> quantityUnitHashMap,
+      QuantityUnitConversionIndex index,
+      Product product,
+      int toQuId,
+      boolean useResolvedConversions
+  ) {
+    if (quantityUnitHashMap.get(toQuId) == null) {
+      return null;
+    }
+    if (useResolvedConversions) {
+      QuantityUnitConversion conversion = index.getConversion(
+          product.getId(), product.getQuIdStockInt(), toQuId
+      );
+      return conversion != null ? conversion.getFactor() : null;
+    }
+    QuantityUnit stockUnit = quantityUnitHashMap.get(product.getQuIdStockInt());
+    QuantityUnit purchaseUnit = quantityUnitHashMap.get(product.getQuIdPurchaseInt());
+    if (stockUnit == null || purchaseUnit == null) {
+      return null;
+    }
+    if (toQuId == stockUnit.getId()) {
+      return 1d;
+    } else if (toQuId == purchaseUnit.getId()) {
+      return 1 / product.getQuFactorPurchaseToStockDouble();
+    }
+    QuantityUnitConversion conversion = index.getConversionToUnit(product.getId(), toQuId);
+    if (conversion == null) {
+      conversion = index.getStandardConversion(stockUnit.getId(), toQuId);
+    }
+    return conversion != null ? conversion.getFactor() : null;
+  }
+
+  /**
+   * Resolves transitive conversions for servers below 4.0.0, which only return the direct
+   * conversions. Like the resolved conversions of newer servers, the result contains for every
+   * product all conversions between the units reachable from its stock unit (including 1:1
+   * conversions of every unit to itself). Direct conversions take precedence in this order:
+   * product specific conversions, the purchase to stock factor of the product, default
+   * conversions, and then the inverse of these if no conversion in that direction exists.
+   * Paths are extended breadth-first, so the shortest path between two units is used, and
+   * never visit a unit twice.
+   */
+  public static List<QuantityUnitConversionResolved> resolveConversions(
+      List<Product> products,
+      List<? extends QuantityUnitConversion> conversions
+  ) {
+    LinkedHashMap<Long, QuantityUnitConversionPath> defaultEdges = new LinkedHashMap<>();
+    HashMap<Long, Integer> defaultPrecedences = new HashMap<>();
+    HashMap<Integer, List<QuantityUnitConversion>> productConversions = new HashMap<>();
+    for (QuantityUnitConversion conversion : conversions) {
+      if (!NumUtil.isStringInt(conversion.getProductId())) {
+        putEdgeWithInverse(defaultEdges, defaultPrecedences, 0, null,
+            conversion.getFromQuId(), conversion.getToQuId(), conversion.getFactor());
+        continue;
+      }
+      int productId = Integer.parseInt(conversion.getProductId());
+      List<QuantityUnitConversion> forProduct = productConversions.get(productId);
+      if (forProduct == null) {
+        forProduct = new ArrayList<>();
+        productConversions.put(productId, forProduct);
+      }
+      forProduct.add(conversion);
+    }
+
+    List<QuantityUnitConversionResolved> resolved = new ArrayList<>();
+    for (Product product : products) {
+      int stockQuId = product.getQuIdStockInt();
+      int purchaseQuId = product.getQuIdPurchaseInt();
+      String productId = String.valueOf(product.getId());
+
+      LinkedHashMap<Long, QuantityUnitConversionPath> edges = new LinkedHashMap<>();
+      HashMap<Long, Integer> precedences = new HashMap<>(defaultPrecedences);
+      for (QuantityUnitConversionPath edge : defaultEdges.values()) {
+        edges.put(getEdgeKey(edge.getFromQuId(), edge.getToQuId()), new QuantityUnitConversionPath(
+            1, productId, edge.getFromQuId(), edge.getToQuId(), edge.getFactor(), edge.getPath()
+        ));
+      }
+      if (purchaseQuId != stockQuId) {
+        putEdgeWithInverse(edges, precedences, 1, productId,
+            purchaseQuId, stockQuId, product.getQuFactorPurchaseToStockDouble());
+      }
+      List<QuantityUnitConversion> forProduct = productConversions.get(product.getId());
+      if (forProduct != null) {
+        for (QuantityUnitConversion conversion : forProduct) {
+          putEdgeWithInverse(edges, precedences, 2, productId,
+              conversion.getFromQuId(), conversion.getToQuId(), conversion.getFactor());
+        }
+      }
+
+      HashMap<Integer, List<QuantityUnitConversionPath>> edgesFrom = new HashMap<>();
+      for (QuantityUnitConversionPath edge : edges.values()) {
+        if (edge.getFromQuId() == edge.getToQuId()) continue;
+        List<QuantityUnitConversionPath> fromUnit = edgesFrom.get(edge.getFromQuId());
+        if (fromUnit == null) {
+          fromUnit = new ArrayList<>();
+          edgesFrom.put(edge.getFromQuId(), fromUnit);
+        }
+        fromUnit.add(edge);
+      }
+
+      for (int fromQuId : getReachableUnits(edgesFrom, stockQuId)) {
+        resolved.add(new QuantityUnitConversionPath(
+            0, productId, fromQuId, fromQuId, 1, "/" + fromQuId + "/"
+        ).toConversion(resolved.size()));
+        for (QuantityUnitConversionPath path : getShortestPaths(edgesFrom, fromQuId)) {
+          resolved.add(path.toConversion(resolved.size()));
+        }
+      }
+    }
+    return resolved;
+  }
+
+  /**
+   * Puts the edge and its inverse, unless there already is an edge with higher precedence.
+   * The inverse has a lower precedence than a direct edge from the same source.
+   */
+  private static void putEdgeWithInverse(
+      LinkedHashMap<Long, QuantityUnitConversionPath> edges,
+      HashMap<Long, Integer> precedences,
+      int source,
+      String productId,
+      int fromQuId,
+      int toQuId,
+      double factor
+  ) {
+    if (factor <= 0) return;
+    putEdge(edges, precedences, source * 2, productId, toQuId, fromQuId, 1 / factor);
+    putEdge(edges, precedences, source * 2 + 1, productId, fromQuId, toQuId, factor);
+  }
+
+  private static void putEdge(
+      LinkedHashMap<Long, QuantityUnitConversionPath> edges,
+      HashMap<Long, Integer> precedences,
+      int precedence,
+      String productId,
+      int fromQuId,
+      int toQuId,
+      double factor
+  ) {
+    long key = getEdgeKey(fromQuId, toQuId);
+    Integer existing = precedences.get(key);
+    if (existing != null && existing > precedence) return;
+    precedences.put(key, precedence);
+    edges.put(key, new QuantityUnitConversionPath(
+        1, productId, fromQuId, toQuId, factor, "/" + fromQuId + "/" + toQuId + "/"
+    ));
+  }
+
+  private static List<Integer> getReachableUnits(
+      HashMap<Integer, List<QuantityUnitConversionPath>> edgesFrom,
+      int startQuId
+  ) {
+    List<Integer> units = new ArrayList<>();
+    units.add(startQuId);
+    for (int i = 0; i < units.size(); i++) {
+      List<QuantityUnitConversionPath> fromUnit = edgesFrom.get(units.get(i));
+      if (fromUnit == null) continue;
+      for (QuantityUnitConversionPath edge : fromUnit) {
+        if (!units.contains(edge.getToQuId())) {
+          units.add(edge.getToQuId());
+        }
+      }
+    }
+    return units;
+  }
+
+  private static List<QuantityUnitConversionPath> getShortestPaths(
+      HashMap<Integer, List<QuantityUnitConversionPath>> edgesFrom,
+      int fromQuId
+  ) {
+    List<QuantityUnitConversionPath> paths = new ArrayList<>();
+    HashMap<Integer, QuantityUnitConversionPath> reached = new HashMap<>();
+    ArrayDeque<QuantityUnitConversionPath> queue = new ArrayDeque<>();
+    List<QuantityUnitConversionPath> firstEdges = edgesFrom.get(fromQuId);
+    if (firstEdges == null) return paths;
+    for (QuantityUnitConversionPath edge : firstEdges) {
+      QuantityUnitConversionPath path = new QuantityUnitConversionPath(
+          1, edge.getProductId(), fromQuId, edge.getToQuId(), edge.getFactor(), edge.getPath()
+      );
+      reached.put(edge.getToQuId(), path);
+      paths.add(path);
+      queue.add(path);
+    }
+    while (!queue.isEmpty()) {
+      QuantityUnitConversionPath path = queue.poll();
+      List<QuantityUnitConversionPath> nextEdges = edgesFrom.get(path.getToQuId());
+      if (nextEdges == null) continue;
+      for (QuantityUnitConversionPath edge : nextEdges) {
+        int toQuId = edge.getToQuId();
+        // cycle protection, no unit is visited twice on one path
+        if (toQuId == fromQuId || reached.containsKey(toQuId)
+            || path.getPath().contains("/" + toQuId + "/")) {
+          continue;
+        }
+        QuantityUnitConversionPath longerPath = new QuantityUnitConversionPath(
+            path.getDepth() + 1,
+            path.getProductId(),
+            fromQuId,
+            toQuId,
+            path.getFactor() * edge.getFactor(),
+            path.getPath() + toQuId + "/"
+        );
+        reached.put(toQuId, longerPath);
+        paths.add(longerPath);
+        queue.add(longerPath);
+      }
+    }
+    return paths;
+  }
+
+  private static long getEdgeKey(int fromQuId, int toQuId) {
+    return ((long) fromQuId << 32) | (toQuId & 0xffffffffL);
+  }
+
   public static String getAmountStock(
       QuantityUnit stock,
       QuantityUnit current,
@@ -21,16 +21,20 @@ package xyz.zedler.patrick.grocy.util;
 
 import android.content.pm.ShortcutInfo;
 import android.os.Build;
+import android.util.LruCache;
+import androidx.annotation.Nullable;
 import androidx.annotation.RequiresApi;
+import androidx.annotation.VisibleForTesting;
+import java.text.CollationKey;
 import java.text.Collator;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.function.Function;
 import xyz.zedler.patrick.grocy.model.ChoreEntry;
 import xyz.zedler.patrick.grocy.model.Language;
 import xyz.zedler.patrick.grocy.model.Location;
@@ -52,48 +56,110 @@ import xyz.zedler.patrick.grocy.model.Userfield;
 
 public class SortUtil {
 
-  // Source: https://medium.com/fme-developer-stories/how-to-sort-umlaute-in-java-correctly-13f3262f15a1
-  private static final String EXT_GERMAN_RULES = "&< ' ' < '.'" +
-      "<0<1<2<3<4<5<6<7<8<9<a,A<b,B<c,C<d,D<ð,Ð<e,E<f,F<g,G<h,H<i,I<j" +
-      ",J<k,K<l,L<m,M<n,N<o,O<p,P<q,Q<r,R<s, S & SS,ß<t,T& TH, Þ &TH," +
-      "þ <u,U<v,V<w,W<x,X<y,Y<z,Z&AE,Æ&AE,æ&OE,Œ&OE,œ";
+  private static final int COLLATION_KEY_CACHE_SIZE = 4096;
+
+  private static Locale collatorLocale;
+  private static Collator collator;
+  private static LruCache<String, CollationKey> collationKeys;
+  private static LruCache<String, CollationKey> collationKeysLowerCase;
+
+  /**
+   * Sorts by collation keys of the texts, which are created once per element and not in every
+   * comparison. Keys are also cached by text for the current locale, so sorting the same names
+   * again (e.g. after a filter change) doesn't create them again. Elements without text are
+   * first in ascending order, like in the comparators before. The sort is stable.
+   */
+  private static <T> void sortByCollationKeys(
+      List<T> list,
+      Function<T, String> getText,
+      boolean lowerCase,
+      boolean ascending
+  ) {
+    if (list.size() < 2) {
+      return;
+    }
+    sortByCollationKeys(list, getText, lowerCase, ascending, LocaleUtil.getLocale());
+  }
 
-  private static void compareStockItemsWithExtGerman(List<StockItem> items, boolean asc) {
-    Collections.sort(items, (item1, item2) -> Collator.getInstance(Locale.GERMAN).compare(
-        (asc ? item1 : item2).getProduct().getName().toLowerCase(),
-        (asc ? item2 : item1).getProduct().getName().toLowerCase()
+  @VisibleForTesting
+  static <T> void sortByCollationKeys(
+      List<T> list,
+      Function<T, String> getText,
+      boolean lowerCase,
+      boolean ascending,
+      Locale locale
+  ) {
+    List<KeyedElement<T>> keyedElements = new ArrayList<>(list.size());
+    synchronized (SortUtil.class) {
+      if (!locale.equals(collatorLocale)) {
+        collatorLocale = locale;
+        collator = Collator.getInstance(locale);
+        collationKeys = new LruCache<>(COLLATION_KEY_CACHE_SIZE);
+        collationKeysLowerCase = new LruCache<>(COLLATION_KEY_CACHE_SIZE);
+      }
+      LruCache<String, CollationKey> cache = lowerCase ? collationKeysLowerCase : collationKeys;
+      for (T element : list) {
+        String text = getText.apply(element);
+        CollationKey key = null;
+        if (text != null) {
+          key = cache.get(text);
+          if (key == null) {
+            key = collator.getCollationKey(lowerCase ? text.toLowerCase() : text);
+            cache.put(text, key);
+          }
+        }
+        keyedElements.add(new KeyedElement<>(key, element));
+      }
+    }
+    Collections.sort(keyedElements, (element1, element2) -> compareCollationKeys(
+        (ascending ? element1 : element2).key,
+        (ascending ? element2 : element1).key
     ));
+    for (int i = 0; i < keyedElements.size(); i++) {
+      list.set(i, keyedElements.get(i).element);
+    }
+  }
+
+  private static int compareCollationKeys(CollationKey key1, CollationKey key2) {
+    if (key1 == null && key2 == null) {
+      return 0;
+    } else if (key1 == null) {
+      return -1;
+    } else if (key2 == null) {
+      return 1;
+    }
+    return key1.compareTo(key2);
+  }
+
+  private static class KeyedElement<T> {
+
+    private final CollationKey key;
+    private final T element;
+
+    private KeyedElement(CollationKey key, T element) {
+      this.key = key;
+      this.element = element;
+    }
   }
 
   public static void sortStockItemsByName(List<StockItem> stockItems, boolean ascending) {
     if (stockItems == null) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(stockItems, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).getProduct().getName().toLowerCase(),
-        (ascending ? item2 : item1).getProduct().getName().toLowerCase())
-    );
+    sortByCollationKeys(stockItems, item -> item.getProduct().getName(), true, ascending);
   }
 
   public static void sortStockItemsByBBD(List<StockItem> stockItems, boolean ascending) {
     if (stockItems == null) {
       return;
     }
+    // items without BBD are first, they have the smallest value
     Collections.sort(
         stockItems,
-        (item1, item2) -> {
-          String bbd1 = (ascending ? item1 : item2).getBestBeforeDate();
-          String bbd2 = (ascending ? item2 : item1).getBestBeforeDate();
-          if (bbd1 == null && bbd2 == null) {
-            return 0;
-          } else if (bbd1 == null) {
-            return -1; // or 1 when items without BBD should be last
-          } else if (bbd2 == null) {
-            return 1; // or -1 when items without BBD should be last
-          }
-          return DateUtil.getDate(bbd1).compareTo(DateUtil.getDate(bbd2));
-        }
+        (item1, item2) -> Long.compare(
+            (ascending ? item1 : item2).getBestBeforeDateEpochDay(),
+            (ascending ? item2 : item1).getBestBeforeDateEpochDay()
+        )
     );
   }
 
@@ -122,62 +188,53 @@ public class SortUtil {
 
   public static void sortStockItemsByUserfieldValue(
       List<StockItem> stockItems,
-      Userfield userfield,
+      @Nullable HashMap<Integer, Integer> sortRanks,
       boolean ascending
   ) {
     if (stockItems == null) {
       return;
     }
+    // ranks come from UserfieldValue.getSortRanksHashMap, items without value are always last
     Collections.sort(
         stockItems,
         (item1, item2) -> {
-          Product product1 = (ascending ? item1 : item2).getProduct();
-          Product product2 = (ascending ? item2 : item1).getProduct();
-          Map<String, String> userfieldMap1 = product1.getUserfields();
-          Map<String, String> userfieldMap2 = product2.getUserfields();
-          String value1 = userfieldMap1 != null ? userfieldMap1.get(userfield.getName()) : null;
-          String value2 = userfieldMap2 != null ? userfieldMap2.get(userfield.getName()) : null;
-          return compareUserfieldValues(value1, value2, userfield.getType());
+          Integer rank1 = sortRanks != null ? sortRanks.get(item1.getProductId()) : null;
+          Integer rank2 = sortRanks != null ? sortRanks.get(item2.getProductId()) : null;
+          if (rank1 == null && rank2 == null) {
+            return 0;
+          } else if (rank1 == null) {
+            return 1;
+          } else if (rank2 == null) {
+            return -1;
+          }
+          return ascending ? Integer.compare(rank1, rank2) : Integer.compare(rank2, rank1);
         }
     );
   }
 
-  private static int compareUserfieldValues(String value1, String value2, String userfieldType) {
-    if (value1 == null && value2 == null) {
-      return 0;
-    } else if (value1 == null) {
-      return -1;
-    } else if (value2 == null) {
-      return 1;
-    }
+  private static String getUserfieldValue(
+      @Nullable Map<String, String> userfields,
+      Userfield userfield
+  ) {
     /*if (userfieldType.equals(Userfield.TYPE_NUMBER)) {
       return Double.compare(NumUtil.toDouble(value1), NumUtil.toDouble(value2));
     } else if (userfieldType.equals(Userfield.TYPE_DATE)) {
       return DateUtil.getDate(value1).compareTo(DateUtil.getDate(value2));
-    } else {
-      return Collator.getInstance(LocaleUtil.getLocale()).compare(value1, value2);
     }*/
-    return Collator.getInstance(LocaleUtil.getLocale()).compare(value1, value2);
+    return userfields != null ? userfields.get(userfield.getName()) : null;
   }
 
   public static void sortStockEntriesByDueDate(List<StockEntry> stockEntries, boolean ascending) {
     if (stockEntries == null) {
       return;
     }
+    // entries without BBD are first, they have the smallest value
     Collections.sort(
         stockEntries,
-        (item1, item2) -> {
-          String bbd1 = (ascending ? item1 : item2).getBestBeforeDate();
-          String bbd2 = (ascending ? item2 : item1).getBestBeforeDate();
-          if (bbd1 == null && bbd2 == null) {
-            return 0;
-          } else if (bbd1 == null) {
-            return -1; // or 1 when items without BBD should be last
-          } else if (bbd2 == null) {
-            return 1; // or -1 when items without BBD should be last
-          }
-          return DateUtil.getDate(bbd1).compareTo(DateUtil.getDate(bbd2));
-        }
+        (item1, item2) -> Long.compare(
+            (ascending ? item1 : item2).getBestBeforeDateEpochDay(),
+            (ascending ? item2 : item1).getBestBeforeDateEpochDay()
+        )
     );
   }
 
@@ -187,24 +244,10 @@ public class SortUtil {
     if (stockEntries == null || productHashMap == null) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(stockEntries, (entry1, entry2) -> {
-      int productId1 = (ascending ? entry1 : entry2).getProductId();
-      int productId2 = (ascending ? entry2 : entry1).getProductId();
-      Product product1 = productHashMap.get(productId1);
-      Product product2 = productHashMap.get(productId2);
-      if (product1 == null && product2 == null) {
-        return 0;
-      } else if (product1 == null) {
-        return -1;
-      } else if (product2 == null) {
-        return 1;
-      }
-      return Collator.getInstance(locale).compare(
-          product1.getName().toLowerCase(),
-          product2.getName().toLowerCase()
-      );
-    });
+    sortByCollationKeys(stockEntries, entry -> {
+      Product product = productHashMap.get(entry.getProductId());
+      return product != null ? product.getName() : null;
+    }, true, ascending);
   }
 
   public static void sortProductsByName(List<Product> products, boolean ascending) {
@@ -232,32 +275,20 @@ public class SortUtil {
     if (tasks == null || tasks.isEmpty()) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(tasks, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).getName().toLowerCase(),
-        (ascending ? item2 : item1).getName().toLowerCase()
-    ));
+    sortByCollationKeys(tasks, Task::getName, true, ascending);
   }
 
   public static void sortTasksByDueDate(List<Task> tasks, boolean ascending) {
     if (tasks == null || tasks.isEmpty()) {
       return;
     }
+    // tasks without due date are first, they have the smallest value
     Collections.sort(
         tasks,
-        (item1, item2) -> {
-          String bbd1 = (ascending ? item1 : item2).getDueDate();
-          String bbd2 = (ascending ? item2 : item1).getDueDate();
-          if (bbd1 == null && bbd2 == null
-              || bbd1 != null && bbd1.isEmpty() && bbd2 != null && bbd2.isEmpty()) {
-            return 0;
-          } else if (bbd1 == null || bbd1.isEmpty()) {
-            return -1; // or 1 when items without BBD should be last
-          } else if (bbd2 == null || bbd2.isEmpty()) {
-            return 1; // or -1 when items without BBD should be last
-          }
-          return DateUtil.getDate(bbd1).compareTo(DateUtil.getDate(bbd2));
-        }
+        (item1, item2) -> Long.compare(
+            (ascending ? item1 : item2).getDueDateEpochDay(),
+            (ascending ? item2 : item1).getDueDateEpochDay()
+        )
     );
   }
 
@@ -267,11 +298,7 @@ public class SortUtil {
     if (taskCategories == null || taskCategories.isEmpty()) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(taskCategories, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).getName().toLowerCase(),
-        (ascending ? item2 : item1).getName().toLowerCase()
-    ));
+    sortByCollationKeys(taskCategories, TaskCategory::getName, true, ascending);
   }
 
   public static void sortTasksByCategory(
@@ -310,26 +337,13 @@ public class SortUtil {
     if (choreEntries == null || choreEntries.isEmpty()) {
       return;
     }
+    // chores without next execution are first, they have the smallest value
     Collections.sort(
         choreEntries,
-        (item1, item2) -> {
-          String time1 = (ascending ? item1 : item2).getNextEstimatedExecutionTime();
-          String time2 = (ascending ? item2 : item1).getNextEstimatedExecutionTime();
-          if (time1 == null && time2 == null
-              || time1 != null && time1.isEmpty() && time2 != null && time2.isEmpty()) {
-            return 0;
-          } else if (time1 == null || time1.isEmpty()) {
-            return -1; // or 1 when items without BBD should be last
-          } else if (time2 == null || time2.isEmpty()) {
-            return 1; // or -1 when items without BBD should be last
-          }
-          Date date1 = DateUtil.getDate(time1);
-          Date date2 = DateUtil.getDate(time2);
-          if (date1 == null || date2 == null) {
-            return 0;
-          }
-          return DateUtil.getDate(time1).compareTo(DateUtil.getDate(time2));
-        }
+        (item1, item2) -> Long.compare(
+            (ascending ? item1 : item2).getNextEstimatedExecutionTimeMillis(),
+            (ascending ? item2 : item1).getNextEstimatedExecutionTimeMillis()
+        )
     );
   }
 
@@ -337,33 +351,21 @@ public class SortUtil {
     if (choreEntries == null || choreEntries.isEmpty()) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(choreEntries, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).getChoreName().toLowerCase(),
-        (ascending ? item2 : item1).getChoreName().toLowerCase()
-    ));
+    sortByCollationKeys(choreEntries, ChoreEntry::getChoreName, true, ascending);
   }
 
   public static void sortUsersByName(ArrayList<User> users, boolean ascending) {
     if (users == null || users.isEmpty()) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(users, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).getDisplayName().toLowerCase(),
-        (ascending ? item2 : item1).getDisplayName().toLowerCase()
-    ));
+    sortByCollationKeys(users, User::getDisplayName, true, ascending);
   }
 
   public static void sortStringsByName(List<String> strings, boolean ascending) {
     if (strings == null || strings.isEmpty()) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(strings, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).toLowerCase(),
-        (ascending ? item2 : item1).toLowerCase()
-    ));
+    sortByCollationKeys(strings, item -> item, true, ascending);
   }
 
   public static void sortStringsByValue(List<String> strings) {
@@ -389,32 +391,21 @@ public class SortUtil {
     if (locations == null) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(locations, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).getName().toLowerCase(),
-        (ascending ? item2 : item1).getName().toLowerCase()
-    ));
+    sortByCollationKeys(locations, Location::getName, true, ascending);
   }
 
   public static void sortStoresByName(List<Store> stores, boolean ascending) {
     if (stores == null) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(stores, (item1, item2) -> Collator.getInstance(locale).compare(
-            (ascending ? item1 : item2).getName().toLowerCase(),
-            (ascending ? item2 : item1).getName().toLowerCase()));
+    sortByCollationKeys(stores, Store::getName, true, ascending);
   }
 
   public static void sortProductGroupsByName(List<ProductGroup> productGroups, boolean ascending) {
     if (productGroups == null || productGroups.isEmpty()) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(productGroups, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).getName().toLowerCase(),
-        (ascending ? item2 : item1).getName().toLowerCase()
-    ));
+    sortByCollationKeys(productGroups, ProductGroup::getName, true, ascending);
   }
 
   public static void sortQuantityUnitsByName(
@@ -423,11 +414,7 @@ public class SortUtil {
     if (quantityUnits == null) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(quantityUnits, (item1, item2) -> Collator.getInstance(locale).compare(
-            (ascending ? item1 : item2).getName().toLowerCase(),
-            (ascending ? item2 : item1).getName().toLowerCase()
-    ));
+    sortByCollationKeys(quantityUnits, QuantityUnit::getName, true, ascending);
   }
 
   public static void sortShoppingListItemsByName(
@@ -438,48 +425,24 @@ public class SortUtil {
     if (shoppingListItems == null) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
     ArrayList<ShoppingListItem> itemsWithoutProduct = new ArrayList<>();
+    ArrayList<ShoppingListItem> itemsWithProduct = new ArrayList<>();
     for (ShoppingListItem shoppingListItem : shoppingListItems) {
       if (!shoppingListItem.hasProduct()) {
         itemsWithoutProduct.add(shoppingListItem);
+      } else {
+        itemsWithProduct.add(shoppingListItem);
       }
     }
-    Collections.sort(
-        itemsWithoutProduct,
-        (item1, item2) -> {
-          String noteA = (ascending ? item1 : item2).getNote();
-          String noteB = (ascending ? item2 : item1).getNote();
-          if (noteA != null && noteB != null) {
-            return Collator.getInstance(locale).compare(noteA, noteB);
-          } else if (noteA == null && noteB != null) {
-            return -1;
-          } else if (noteA != null) {
-            return 1;
-          } else {
-            return 0;
-          }
-        }
-    );
-    shoppingListItems.removeAll(itemsWithoutProduct);
-    Collections.sort(
-        shoppingListItems,
-        (item1, item2) -> {
-          String nameA = productNamesHashMap.get((ascending ? item1 : item2)
-              .getProductIdInt());
-          String nameB = productNamesHashMap.get((ascending ? item2 : item1)
-              .getProductIdInt());
-          if (nameA != null && nameB != null) {
-            return Collator.getInstance(locale).compare(nameA, nameB);
-          } else if (nameA == null && nameB != null) {
-            return -1;
-          } else if (nameA != null) {
-            return 1;
-          } else {
-            return 0;
-          }
-        }
+    sortByCollationKeys(itemsWithoutProduct, ShoppingListItem::getNote, false, ascending);
+    sortByCollationKeys(
+        itemsWithProduct,
+        item -> productNamesHashMap.get(item.getProductIdInt()),
+        false,
+        ascending
     );
+    shoppingListItems.clear();
+    shoppingListItems.addAll(itemsWithProduct);
     shoppingListItems.addAll(itemsWithoutProduct);
   }
 
@@ -487,11 +450,7 @@ public class SortUtil {
     if (users == null || users.isEmpty()) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(users, (item1, item2) -> Collator.getInstance(locale).compare(
-        (ascending ? item1 : item2).getUserName().toLowerCase(),
-        (ascending ? item2 : item1).getUserName().toLowerCase()
-    ));
+    sortByCollationKeys(users, User::getUserName, true, ascending);
   }
 
   public static void sortMealPlanSections(List<MealPlanSection> mealPlanSections) {
@@ -534,19 +493,16 @@ public class SortUtil {
     if (recipes == null) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(recipes, (item1, item2) -> Collator.getInstance(locale).compare(
-            (ascending ? item1 : item2).getName().toLowerCase(),
-            (ascending ? item2 : item1).getName().toLowerCase()));
+    sortByCollationKeys(recipes, Recipe::getName, true, ascending);
   }
 
-  public static void sortRecipesByCalories(List<Recipe> recipes, List<RecipeFulfillment> recipeFulfillments, boolean ascending) {
+  public static void sortRecipesByCalories(List<Recipe> recipes, HashMap<Integer, RecipeFulfillment> recipeFulfillments, boolean ascending) {
     if (recipes == null || recipeFulfillments == null) {
       return;
     }
     Collections.sort(recipes, (recipe1, recipe2) -> {
-      RecipeFulfillment recipeFulfillment1 = RecipeFulfillment.getRecipeFulfillmentFromRecipeId(recipeFulfillments, recipe1.getId());
-      RecipeFulfillment recipeFulfillment2 = RecipeFulfillment.getRecipeFulfillmentFromRecipeId(recipeFulfillments, recipe2.getId());
+      RecipeFulfillment recipeFulfillment1 = recipeFulfillments.get(recipe1.getId());
+      RecipeFulfillment recipeFulfillment2 = recipeFulfillments.get(recipe2.getId());
 
       double recipe1Calories = recipeFulfillment1 != null ? recipeFulfillment1.getCalories() : 0;
       double recipe2Calories = recipeFulfillment2 != null ? recipeFulfillment2.getCalories() : 0;
@@ -555,13 +511,13 @@ public class SortUtil {
     });
   }
 
-  public static void sortRecipesByDueScore(List<Recipe> recipes, List<RecipeFulfillment> recipeFulfillments, boolean ascending) {
+  public static void sortRecipesByDueScore(List<Recipe> recipes, HashMap<Integer, RecipeFulfillment> recipeFulfillments, boolean ascending) {
     if (recipes == null || recipeFulfillments == null) {
       return;
     }
     Collections.sort(recipes, (recipe1, recipe2) -> {
-      RecipeFulfillment recipeFulfillment1 = RecipeFulfillment.getRecipeFulfillmentFromRecipeId(recipeFulfillments, recipe1.getId());
-      RecipeFulfillment recipeFulfillment2 = RecipeFulfillment.getRecipeFulfillmentFromRecipeId(recipeFulfillments, recipe2.getId());
+      RecipeFulfillment recipeFulfillment1 = recipeFulfillments.get(recipe1.getId());
+      RecipeFulfillment recipeFulfillment2 = recipeFulfillments.get(recipe2.getId());
 
       int recipe1DueScore = recipeFulfillment1 != null ? recipeFulfillment1.getDueScore() : 0;
       int recipe2DueScore = recipeFulfillment2 != null ? recipeFulfillment2.getDueScore() : 0;
@@ -578,15 +534,11 @@ public class SortUtil {
     if (recipes == null) {
       return;
     }
-    Collections.sort(
+    sortByCollationKeys(
         recipes,
-        (item1, item2) -> {
-          Map<String, String> userfieldMap1 = (ascending ? item1 : item2).getUserfields();
-          Map<String, String> userfieldMap2 = (ascending ? item2 : item1).getUserfields();
-          String value1 = userfieldMap1 != null ? userfieldMap1.get(userfield.getName()) : null;
-          String value2 = userfieldMap2 != null ? userfieldMap2.get(userfield.getName()) : null;
-          return compareUserfieldValues(value1, value2, userfield.getType());
-        }
+        recipe -> getUserfieldValue(recipe.getUserfields(), userfield),
+        false,
+        ascending
     );
   }
 
@@ -594,18 +546,12 @@ public class SortUtil {
     if (objects == null) {
       return;
     }
-    Locale locale = LocaleUtil.getLocale();
-    Collections.sort(objects, (item1, item2) -> {
-      String name1 = ObjectUtil.getObjectName(isAscending ? item1 : item2, entity);
-      String name2 = ObjectUtil.getObjectName(isAscending ? item2 : item1, entity);
-      if (name1 == null || name2 == null) {
-        return 0;
-      }
-      return Collator.getInstance(locale).compare(
-          name1.toLowerCase(locale),
-          name2.toLowerCase(locale)
-      );
-    });
+    sortByCollationKeys(
+        objects,
+        object -> ObjectUtil.getObjectName(object, entity),
+        true,
+        isAscending
+    );
   }
 
   public static void sortObjectsByCreatedTimestamp(
@@ -639,12 +585,11 @@ public class SortUtil {
     if (objects == null || userfield == null) {
       return;
     }
-    Collections.sort(objects, (item1, item2) -> {
-      Map<String, String> uf1 = ObjectUtil.getObjectUserfields(isAscending ? item1 : item2, entity);
-      Map<String, String> uf2 = ObjectUtil.getObjectUserfields(isAscending ? item2 : item1, entity);
-      String value1 = uf1 != null ? uf1.get(userfield.getName()) : null;
-      String value2 = uf2 != null ? uf2.get(userfield.getName()) : null;
-      return compareUserfieldValues(value1, value2, userfield.getType());
-    });
+    sortByCollationKeys(
+        objects,
+        object -> getUserfieldValue(ObjectUtil.getObjectUserfields(object, entity), userfield),
+        false,
+        isAscending
+    );
   }
 }
@@ -55,6 +55,16 @@ public class VersionUtil {
     return isGrocyThisVersionOrHigher(prefs, SERVER_4_0_0);
   }
 
+  /**
+   * True if the conversions table contains transitive conversions, either from the server
+   * (min. 4.0.0) or resolved by the app after the last sync with an older server.
+   */
+  public static boolean hasResolvedConversions(SharedPreferences prefs) {
+    return isGrocyServerMin400(prefs) || prefs.getString(
+        PREF.DB_LAST_TIME_QUANTITY_UNIT_CONVERSIONS_RESOLVED_LOCALLY, null
+    ) != null;
+  }
+
   public static boolean isGrocyThisVersionOrHigher(SharedPreferences prefs, @NonNull String version) {
     String current = prefs.getString(PREF.GROCY_VERSION, null);
     if (current == null) return true;
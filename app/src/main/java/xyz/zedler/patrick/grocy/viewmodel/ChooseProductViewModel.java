@@ -29,8 +29,6 @@ import androidx.preference.PreferenceManager;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import me.xdrop.fuzzywuzzy.FuzzySearch;
-import me.xdrop.fuzzywuzzy.model.BoundExtractedResult;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
 import xyz.zedler.patrick.grocy.model.Event;
@@ -39,6 +37,7 @@ import xyz.zedler.patrick.grocy.model.OpenFoodFactsProduct;
 import xyz.zedler.patrick.grocy.model.PendingProduct;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.repository.ChooseProductRepository;
+import xyz.zedler.patrick.grocy.util.FuzzySearchIndex;
 import xyz.zedler.patrick.grocy.util.PrefsUtil;
 import xyz.zedler.patrick.grocy.util.SortUtil;
 
@@ -66,6 +65,7 @@ public class ChooseProductViewModel extends BaseViewModel {
   private List<Product> products;
   private final HashMap<String, Product> productHashMap;
   private List<PendingProduct> pendingProducts;
+  private FuzzySearchIndex<Product> searchIndex;
   private final HashMap<String, PendingProduct> pendingProductHashMap;
   private final boolean forbidCreateProductInitial;
   private final boolean pendingProductsActive;
@@ -115,6 +115,7 @@ public class ChooseProductViewModel extends BaseViewModel {
   public void loadFromDatabase(boolean downloadAfterLoading) {
     repository.loadFromDatabase(data -> {
       this.products = data.getProducts();
+      searchIndex = null;
       productHashMap.clear();
       for (Product product : products) {
         productHashMap.put(product.getName().toLowerCase(), product);
@@ -170,21 +171,13 @@ public class ChooseProductViewModel extends BaseViewModel {
       productNameErrorLive.setValue(null);
     }
 
-    ArrayList<Product> allProducts = new ArrayList<>();
-    allProducts.addAll(products);
-    allProducts.addAll(pendingProducts);
-    ArrayList<Product> suggestions = new ArrayList<>(allProducts.size());
-    List<BoundExtractedResult<Product>> results = FuzzySearch.extractSorted(
-            productName.toLowerCase(),
-            allProducts,
-            Product::getName,
-            20
-    );
-    for (BoundExtractedResult<Product> result : results) {
-      suggestions.add(result.getReferent());
+    if (searchIndex == null) {
+      ArrayList<Product> allProducts = new ArrayList<>();
+      allProducts.addAll(products);
+      allProducts.addAll(pendingProducts);
+      searchIndex = new FuzzySearchIndex<>(allProducts, Product::getName);
     }
-
-    displayedItemsLive.setValue(suggestions);
+    displayedItemsLive.setValue(searchIndex.search(productName, 20));
     createProductTextLive.setValue(
         getApplication().getString(R.string.msg_create_new_product_filled, productName)
     );
@@ -30,7 +30,9 @@ import androidx.lifecycle.ViewModelProvider;
 import androidx.preference.PreferenceManager;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import org.json.JSONException;
 import org.json.JSONObject;
 import xyz.zedler.patrick.grocy.Constants.PREF;
@@ -40,6 +42,7 @@ import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.fragment.ChoresFragmentArgs;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.helper.FilterPipeline;
 import xyz.zedler.patrick.grocy.model.Chore;
 import xyz.zedler.patrick.grocy.model.ChoreEntry;
 import xyz.zedler.patrick.grocy.model.Event;
@@ -51,6 +54,7 @@ import xyz.zedler.patrick.grocy.model.FilterChipLiveDataSort.SortOption;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
 import xyz.zedler.patrick.grocy.model.User;
 import xyz.zedler.patrick.grocy.repository.ChoresRepository;
+import xyz.zedler.patrick.grocy.repository.SearchRepository;
 import xyz.zedler.patrick.grocy.util.ArrayUtil;
 import xyz.zedler.patrick.grocy.util.DateUtil;
 import xyz.zedler.patrick.grocy.util.NumUtil;
@@ -67,8 +71,10 @@ public class ChoresViewModel extends BaseViewModel {
 
   private final SharedPreferences sharedPrefs;
   private final DownloadHelper dlHelper;
+  private final FilterPipeline filterPipeline;
   private final GrocyApi grocyApi;
   private final ChoresRepository repository;
+  private final SearchRepository searchRepository;
   private final DateUtil dateUtil;
 
   private final MutableLiveData<Boolean> isLoadingLive;
@@ -84,6 +90,7 @@ public class ChoresViewModel extends BaseViewModel {
   private HashMap<Integer, User> usersHashMap;
 
   private String searchInput;
+  private HashSet<Integer> searchResultIds;
   private int choresDueTodayCount;
   private int choresDueSoonCount;
   private int choresOverdueCount;
@@ -99,8 +106,10 @@ public class ChoresViewModel extends BaseViewModel {
 
     isLoadingLive = new MutableLiveData<>(false);
     dlHelper = new DownloadHelper(getApplication(), TAG, isLoadingLive::setValue, getOfflineLive());
+    filterPipeline = new FilterPipeline(TAG);
     grocyApi = new GrocyApi(getApplication());
     repository = new ChoresRepository(application);
+    searchRepository = new SearchRepository(application);
     dateUtil = new DateUtil(application);
 
     infoFullscreenLive = new MutableLiveData<>();
@@ -149,7 +158,9 @@ public class ChoresViewModel extends BaseViewModel {
             || choreEntry.getNextEstimatedExecutionTime().isEmpty()) {
           continue;
         }
-        int daysFromNow = DateUtil.getDaysFromNow(choreEntry.getNextEstimatedExecutionTime());
+        int daysFromNow = DateUtil.getDaysFromNowForMillis(
+            choreEntry.getNextEstimatedExecutionTimeMillis()
+        );
         if (daysFromNow < 0) {
           choresOverdueCount++;
         }
@@ -193,55 +204,83 @@ public class ChoresViewModel extends BaseViewModel {
   }
 
   public void updateFilteredChoreEntries() {
-    ArrayList<ChoreEntry> filteredChoreEntries = new ArrayList<>();
+    updateFilteredChoreEntries(0, false);
+  }
 
-    for (ChoreEntry choreEntry : this.choreEntries) {
-      boolean searchContainsItem = true;
-      if (searchInput != null && !searchInput.isEmpty()) {
-        searchContainsItem = choreEntry.getChoreName().toLowerCase().contains(searchInput);
-      }
-      if (!searchContainsItem) {
-        continue;
-      }
+  private void updateFilteredChoreEntries(long delayMillis, boolean scrollUp) {
+    if (choreEntries == null) {
+      return;
+    }
+    // captured here, the filter runs on a background thread
+    List<ChoreEntry> choreEntries = this.choreEntries;
+    String searchInput = this.searchInput;
+    HashSet<Integer> searchResultIds = this.searchResultIds;
+    int status = filterChipLiveDataStatus.getStatus();
+    boolean assignmentActive = filterChipLiveDataAssignment.isActive();
+    int assignmentId = filterChipLiveDataAssignment.getSelectedId();
+    boolean sortByDueDate = filterChipLiveDataSort.getSortMode().equals(SORT_DUE_DATE);
+    boolean sortAscending = filterChipLiveDataSort.isSortAscending();
+
+    filterPipeline.submit(delayMillis, isCancelled -> {
+      ArrayList<ChoreEntry> filteredChoreEntries = new ArrayList<>();
 
-      int daysFromNow = DateUtil.getDaysFromNow(choreEntry.getNextEstimatedExecutionTime());
-      if (filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusChores.STATUS_DUE
-          && daysFromNow > 0
-          || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusChores.STATUS_OVERDUE
-          && daysFromNow >= 0
-          || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusChores.STATUS_DUE_TODAY
-          && daysFromNow != 0
-          || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusChores.STATUS_DUE_SOON
-          && !(daysFromNow >= 0 && daysFromNow <= dueSoonDays)) {
-        if (choreEntry.getNextEstimatedExecutionTime() != null
-            && !choreEntry.getNextEstimatedExecutionTime().isEmpty()) {
+      for (ChoreEntry choreEntry : choreEntries) {
+        if (isCancelled.getAsBoolean()) {
+          return null;
+        }
+        boolean searchContainsItem = true;
+        if (searchInput != null && !searchInput.isEmpty()) {
+          searchContainsItem = choreEntry.getChoreName().toLowerCase().contains(searchInput);
+          if (!searchContainsItem && searchResultIds != null) {
+            searchContainsItem = searchResultIds.contains(choreEntry.getChoreId());
+          }
+        }
+        if (!searchContainsItem) {
           continue;
         }
-      }
-      if (filterChipLiveDataAssignment.isActive()
-          && !NumUtil.isStringInt(choreEntry.getNextExecutionAssignedToUserId())
-          || filterChipLiveDataAssignment.isActive()
-          && NumUtil.isStringInt(choreEntry.getNextExecutionAssignedToUserId())
-          && filterChipLiveDataAssignment.getSelectedId()
-          != Integer.parseInt(choreEntry.getNextExecutionAssignedToUserId())) {
-        continue;
-      }
-      filteredChoreEntries.add(choreEntry);
-    }
 
-    boolean sortAscending = filterChipLiveDataSort.isSortAscending();
-    if (filterChipLiveDataSort.getSortMode().equals(SORT_DUE_DATE)) {
-      SortUtil.sortChoreEntriesByNextExecution(filteredChoreEntries, sortAscending);
-    } else {
-      SortUtil.sortChoreEntriesByName(filteredChoreEntries, sortAscending);
-    }
+        int daysFromNow = DateUtil.getDaysFromNowForMillis(
+            choreEntry.getNextEstimatedExecutionTimeMillis()
+        );
+        if (status == FilterChipLiveDataStatusChores.STATUS_DUE
+            && daysFromNow > 0
+            || status == FilterChipLiveDataStatusChores.STATUS_OVERDUE
+            && daysFromNow >= 0
+            || status == FilterChipLiveDataStatusChores.STATUS_DUE_TODAY
+            && daysFromNow != 0
+            || status == FilterChipLiveDataStatusChores.STATUS_DUE_SOON
+            && !(daysFromNow >= 0 && daysFromNow <= dueSoonDays)) {
+          if (choreEntry.getNextEstimatedExecutionTime() != null
+              && !choreEntry.getNextEstimatedExecutionTime().isEmpty()) {
+            continue;
+          }
+        }
+        if (assignmentActive
+            && !NumUtil.isStringInt(choreEntry.getNextExecutionAssignedToUserId())
+            || assignmentActive
+            && NumUtil.isStringInt(choreEntry.getNextExecutionAssignedToUserId())
+            && assignmentId != Integer.parseInt(choreEntry.getNextExecutionAssignedToUserId())) {
+          continue;
+        }
+        filteredChoreEntries.add(choreEntry);
+      }
 
-    filteredChoreEntriesLive.setValue(filteredChoreEntries);
+      if (sortByDueDate) {
+        SortUtil.sortChoreEntriesByNextExecution(filteredChoreEntries, sortAscending);
+      } else {
+        SortUtil.sortChoreEntriesByName(filteredChoreEntries, sortAscending);
+      }
+      return filteredChoreEntries;
+    }, filteredChoreEntries -> {
+      filteredChoreEntriesLive.setValue(filteredChoreEntries);
+      if (scrollUp) {
+        sendEvent(Event.SCROLL_UP);
+      }
+    });
   }
 
   public void updateFilteredChoreEntriesWithTopScroll() {
-    updateFilteredChoreEntries();
-    sendEvent(Event.SCROLL_UP);
+    updateFilteredChoreEntries(0, true);
   }
 
   public void executeChore(ChoreEntry choreEntry, @Nullable String dateTime, boolean skip) {
@@ -290,6 +329,7 @@ public class ChoresViewModel extends BaseViewModel {
 
   public void resetSearch() {
     searchInput = null;
+    searchResultIds = null;
     setIsSearchVisible(false);
   }
 
@@ -311,7 +351,20 @@ public class ChoresViewModel extends BaseViewModel {
 
   public void updateSearchInput(String input) {
     this.searchInput = input.toLowerCase();
-    updateFilteredChoreEntries();
+    searchResultIds = null;
+    updateFilteredChoreEntries(FilterPipeline.SEARCH_DEBOUNCE_MILLIS, false);
+
+    searchRepository.searchChores(
+        this.searchInput,
+        (searchedInput, ids) -> {
+          if (!Objects.equals(searchedInput, searchInput)) return;
+          searchResultIds = new HashSet<>(ids);
+          updateFilteredChoreEntries();
+        },
+        error -> {
+          if (debug) Log.e(TAG, "updateSearchInput: " + error);
+        }
+    );
   }
 
   public String getSortMode() {
@@ -360,6 +413,8 @@ public class ChoresViewModel extends BaseViewModel {
 
   @Override
   protected void onCleared() {
+    filterPipeline.cancel();
+    searchRepository.cancel();
     dlHelper.destroy();
     super.onCleared();
   }
@@ -188,7 +188,7 @@ public class ConsumeViewModel extends BaseViewModel {
           quantityUnitHashMap,
           unitConversions,
           product,
-          VersionUtil.isGrocyServerMin400(sharedPrefs)
+          VersionUtil.hasResolvedConversions(sharedPrefs)
       );
       formData.getQuantityUnitsFactorsLive().setValue(unitFactors);
       QuantityUnit stock = quantityUnitHashMap.get(product.getQuIdStockInt());
@@ -196,7 +196,7 @@ public class InventoryViewModel extends BaseViewModel {
           quantityUnitHashMap,
           unitConversions,
           updatedProduct,
-          VersionUtil.isGrocyServerMin400(sharedPrefs)
+          VersionUtil.hasResolvedConversions(sharedPrefs)
       );
       formData.getQuantityUnitsFactorsLive().setValue(unitFactors);
       QuantityUnit stock = quantityUnitHashMap.get(updatedProduct.getQuIdStockInt());
@@ -165,6 +165,8 @@ public class LoginRequestViewModel extends BaseViewModel {
               .putString(Constants.PREF.SERVER_URL, serverUrl)
               .putString(Constants.PREF.API_KEY, apiKey)
               .apply();
+          // a previously synced database of this server only needs a delta refresh
+          PrefsUtil.restoreServerSyncState(getApplication(), sharedPrefs);
           if (useHassLoginFlow) {
             sharedPrefs.edit().putString(
                 Constants.PREF.HOME_ASSISTANT_SERVER_URL,
@@ -30,9 +30,9 @@ import androidx.lifecycle.ViewModelProvider;
 import androidx.preference.PreferenceManager;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import me.xdrop.fuzzywuzzy.FuzzySearch;
-import me.xdrop.fuzzywuzzy.model.BoundExtractedResult;
+import java.util.Objects;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
@@ -54,7 +54,9 @@ import xyz.zedler.patrick.grocy.model.Store;
 import xyz.zedler.patrick.grocy.model.TaskCategory;
 import xyz.zedler.patrick.grocy.model.Userfield;
 import xyz.zedler.patrick.grocy.repository.MasterObjectListRepository;
+import xyz.zedler.patrick.grocy.repository.SearchRepository;
 import xyz.zedler.patrick.grocy.util.ArrayUtil;
+import xyz.zedler.patrick.grocy.util.FuzzySearchIndex;
 import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.ObjectUtil;
 import xyz.zedler.patrick.grocy.util.SortUtil;
@@ -70,6 +72,7 @@ public class MasterObjectListViewModel extends BaseViewModel {
   private final DownloadHelper dlHelper;
   private final GrocyApi grocyApi;
   private final MasterObjectListRepository repository;
+  private final SearchRepository searchRepository;
 
   private final MutableLiveData<Boolean> isLoadingLive;
   private final MutableLiveData<InfoFullscreen> infoFullscreenLive;
@@ -78,11 +81,14 @@ public class MasterObjectListViewModel extends BaseViewModel {
   private final FilterChipLiveDataSort filterChipLiveDataSort;
 
   private List<?> objects;
+  private FuzzySearchIndex<Object> searchIndex;
+  private List<?> searchIndexObjects;
   private List<QuantityUnit> quantityUnits;
   private List<Location> locations;
   private HashMap<String, Userfield> userfieldHashMap = new HashMap<>();
 
   private String search;
+  private List<Integer> searchResultIds;
   private final String entity;
 
   public MasterObjectListViewModel(@NonNull Application application, String entity) {
@@ -95,6 +101,7 @@ public class MasterObjectListViewModel extends BaseViewModel {
     dlHelper = new DownloadHelper(getApplication(), TAG, isLoadingLive::setValue, getOfflineLive());
     grocyApi = new GrocyApi(getApplication());
     repository = new MasterObjectListRepository(application);
+    searchRepository = new SearchRepository(application);
 
     infoFullscreenLive = new MutableLiveData<>();
     displayedItemsLive = new MutableLiveData<>();
@@ -116,7 +123,7 @@ public class MasterObjectListViewModel extends BaseViewModel {
   }
 
   public void loadFromDatabase(boolean downloadAfterLoading) {
-    repository.loadFromDatabase(data -> {
+    repository.loadFromDatabase(entity, data -> {
       switch (entity) {
         case ENTITY.PRODUCTS:
           this.objects = data.getProducts();
@@ -175,19 +182,7 @@ public class MasterObjectListViewModel extends BaseViewModel {
     ArrayList<Object> searchedItems;
     if (search != null && !search.isEmpty()) {
 
-      ArrayList<Object> searchResultsFuzzy = new ArrayList<>(objects.size());
-      List results = FuzzySearch.extractSorted(
-          search,
-          objects,
-          item -> {
-            String name = ObjectUtil.getObjectName(item, entity);
-            return name != null ? name.toLowerCase() : "";
-          },
-          70
-      );
-      for (Object result : results) {
-        searchResultsFuzzy.add(((BoundExtractedResult<?>) result).getReferent());
-      }
+      ArrayList<Object> searchResultsFuzzy = getSearchResultsFuzzy();
 
       searchedItems = new ArrayList<>();
       ArrayList<Integer> objectIdsInList = new ArrayList<>();
@@ -233,6 +228,36 @@ public class MasterObjectListViewModel extends BaseViewModel {
     displayedItemsLive.setValue(filteredItems);
   }
 
+  private ArrayList<Object> getSearchResultsFuzzy() {
+    ArrayList<Object> searchResultsFuzzy = new ArrayList<>();
+    HashSet<Integer> objectIdsInResults = new HashSet<>();
+    if (entity.equals(GrocyApi.ENTITY.PRODUCTS) && searchResultIds != null) {
+      // products found by the search index are first, see setSearch
+      HashMap<Integer, Object> objectHashMap = new HashMap<>();
+      for (Object object : objects) {
+        objectHashMap.put(ObjectUtil.getObjectId(object, entity), object);
+      }
+      for (int id : searchResultIds) {
+        Object object = objectHashMap.get(id);
+        if (object != null && objectIdsInResults.add(id)) {
+          searchResultsFuzzy.add(object);
+        }
+      }
+    }
+    if (searchIndex == null || searchIndexObjects != objects) {
+      searchIndex = new FuzzySearchIndex<>(
+          new ArrayList<>(objects), item -> ObjectUtil.getObjectName(item, entity)
+      );
+      searchIndexObjects = objects;
+    }
+    for (Object object : searchIndex.search(search, 70)) {
+      if (objectIdsInResults.add(ObjectUtil.getObjectId(object, entity))) {
+        searchResultsFuzzy.add(object);
+      }
+    }
+    return searchResultsFuzzy;
+  }
+
   private void updateItemsWithTopScroll() {
     displayItems();
     sendEvent(Event.SCROLL_UP);
@@ -280,11 +305,26 @@ public class MasterObjectListViewModel extends BaseViewModel {
 
   public void setSearch(@Nullable String search) {
     this.search = search != null ? search.toLowerCase() : null;
+    searchResultIds = null;
     displayItems();
+    if (this.search == null || !entity.equals(GrocyApi.ENTITY.PRODUCTS)) {
+      return;
+    }
+    searchRepository.searchProducts(
+        this.search,
+        (searchedInput, productIds) -> {
+          if (!Objects.equals(searchedInput, this.search)) return;
+          searchResultIds = productIds;
+          displayItems();
+        },
+        error -> {}
+    );
   }
 
   public void deleteSearch() {
     search = null;
+    searchResultIds = null;
+    searchRepository.cancel();
   }
 
   public FilterChipLiveData.Listener getFilterChipLiveDataProductGroup() {
@@ -319,6 +359,7 @@ public class MasterObjectListViewModel extends BaseViewModel {
 
   @Override
   protected void onCleared() {
+    searchRepository.cancel();
     dlHelper.destroy();
     super.onCleared();
   }
@@ -228,7 +228,7 @@ public class MasterProductCatBarcodesEditViewModel extends BaseViewModel {
           quantityUnitHashMap,
           unitConversions,
           product,
-          VersionUtil.isGrocyServerMin400(sharedPrefs)
+          VersionUtil.hasResolvedConversions(sharedPrefs)
       );
       formData.getQuantityUnitsFactorsLive().setValue(unitFactors);
       formData.setQuantityUnitPurchase(quantityUnitHashMap.get(product.getQuIdPurchaseInt()));
@@ -31,7 +31,9 @@ import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.TemporalAdjusters;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS.STOCK;
@@ -48,8 +50,13 @@ import xyz.zedler.patrick.grocy.model.MealPlanSection;
 import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.Recipe;
 import xyz.zedler.patrick.grocy.model.RecipeFulfillment;
+import xyz.zedler.patrick.grocy.model.RecipeNesting;
+import xyz.zedler.patrick.grocy.model.RecipePosition;
+import xyz.zedler.patrick.grocy.model.RecipePositionResolved;
+import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.StockItem;
 import xyz.zedler.patrick.grocy.model.Userfield;
 import xyz.zedler.patrick.grocy.repository.MealPlanRepository;
@@ -59,6 +66,7 @@ import xyz.zedler.patrick.grocy.util.NumUtil;
 import xyz.zedler.patrick.grocy.util.PluralUtil;
 import xyz.zedler.patrick.grocy.util.PrefsUtil;
 import xyz.zedler.patrick.grocy.util.SortUtil;
+import xyz.zedler.patrick.grocy.util.VersionUtil;
 import xyz.zedler.patrick.grocy.web.RequestHeaders;
 
 public class MealPlanViewModel extends BaseViewModel {
@@ -74,6 +82,9 @@ public class MealPlanViewModel extends BaseViewModel {
   public final static String FIELD_AMOUNT = "field_amount";
   public final static String FIELD_DAY_SUMMARY = "field_day_summary";
 
+  // the selected week with the previous and the next week
+  private final static int WINDOW_WEEKS = 3;
+
   private final SharedPreferences sharedPrefs;
   private final DownloadHelper dlHelper;
   private final GrocyApi grocyApi;
@@ -81,7 +92,6 @@ public class MealPlanViewModel extends BaseViewModel {
   private final MealPlanRepository repository;
   private final PluralUtil pluralUtil;
   private final DateTimeFormatter dateFormatter;
-  private final DateTimeFormatter weekFormatter;
 
   private final MutableLiveData<Boolean> isLoadingLive;
   private final MutableLiveData<InfoFullscreen> infoFullscreenLive;
@@ -94,14 +104,16 @@ public class MealPlanViewModel extends BaseViewModel {
 
   private List<MealPlanEntry> mealPlanEntries;
   private List<MealPlanSection> mealPlanSections;
-  private List<Recipe> shadowRecipes;
   private HashMap<Integer, Recipe> recipeHashMap;
   private HashMap<Integer, Product> productHashMap;
   private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
   private HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
   private HashMap<String, RecipeFulfillment> recipeResolvedFulfillmentHashMap;
+  private HashMap<LocalDate, RecipeFulfillment> weekFulfillmentHashMap;
   private HashMap<Integer, StockItem> stockItemHashMap;
   private HashMap<String, Userfield> userfieldHashMap;
+  private LocalDate windowStart;
+  private HashSet<Integer> windowRecipeIds;
 
   private final int maxDecimalPlacesAmount;
   private final int decimalPlacesPriceDisplay;
@@ -125,7 +137,6 @@ public class MealPlanViewModel extends BaseViewModel {
     this.currency = sharedPrefs.getString(PREF.CURRENCY, "");
     initialScrollDone = false;
     dateFormatter = new DateTimeFormatterBuilder().appendPattern("yyyy-MM-dd").toFormatter();
-    weekFormatter = new DateTimeFormatterBuilder().appendPattern("yyyy-ww").toFormatter();
 
     isLoadingLive = new MutableLiveData<>(false);
     dlHelper = new DownloadHelper(getApplication(), TAG, isLoadingLive::setValue, getOfflineLive());
@@ -159,34 +170,71 @@ public class MealPlanViewModel extends BaseViewModel {
   }
 
   public void loadFromDatabase(boolean downloadAfterLoading) {
-    repository.loadFromDatabase(data -> {
-      quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(data.getQuantityUnits());
-      productHashMap = ArrayUtil.getProductsHashMap(data.getProducts());
-      productLastPurchasedHashMap = ArrayUtil
-          .getProductLastPurchasedHashMap(data.getProductsLastPurchased());
-      shadowRecipes = ArrayUtil.getShadowRecipes(data.getRecipes());
-      recipeHashMap = ArrayUtil.getRecipesHashMap(data.getRecipes());
-      recipeResolvedFulfillmentHashMap = ArrayUtil.getRecipeResolvedFulfillmentForMealplanHashMap(
-          ArrayUtil.getRecipeFulfillmentHashMap(data.getRecipeFulfillments()), data.getRecipes()
-      );
-      weekCostsTextLive.setValue(getWeekCostsText());
-      stockItemHashMap = ArrayUtil.getStockItemHashMap(data.getStockItems());
-      userfieldHashMap = ArrayUtil.getUserfieldHashMap(data.getUserfields());
-      this.mealPlanSections = data.getMealPlanSections();
-      SortUtil.sortMealPlanSections(this.mealPlanSections);
-      this.mealPlanEntries = data.getMealPlanEntries();
-      mealPlanEntriesLive.setValue(ArrayUtil.getMealPlanEntriesForDayHashMap(
-          data.getMealPlanEntries()
-      ));
-      filterChipLiveDataEntriesFields.setUserfields(
-          data.getUserfields(),
-          DISPLAYED_USERFIELD_ENTITIES
-      );
-
-      if (downloadAfterLoading) {
-        downloadData(false);
-      }
-    }, error -> onError(error, TAG));
+    if (windowStart == null) {
+      windowStart = getWindowStart(getSelectedDate());
+    }
+    LocalDate requestedWindowStart = windowStart;
+    repository.loadFromDatabase(
+        requestedWindowStart,
+        requestedWindowStart.plusWeeks(WINDOW_WEEKS).minusDays(1),
+        getFirstDayOfWeek(),
+        data -> {
+          if (!requestedWindowStart.equals(windowStart)) {
+            return; // window has moved while loading
+          }
+          quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(data.getQuantityUnits());
+          productHashMap = ArrayUtil.getProductsHashMap(data.getProducts());
+          productLastPurchasedHashMap = ArrayUtil
+              .getProductLastPurchasedHashMap(data.getProductsLastPurchased());
+          recipeHashMap = ArrayUtil.getRecipesHashMap(data.getRecipes());
+          recipeResolvedFulfillmentHashMap = data.getMealPlanFulfillments()
+              .getResolvedFulfillments();
+          weekFulfillmentHashMap = data.getMealPlanFulfillments().getWeekFulfillments();
+          weekCostsTextLive.setValue(getWeekCostsText());
+          stockItemHashMap = ArrayUtil.getStockItemHashMap(data.getStockItems());
+          userfieldHashMap = ArrayUtil.getUserfieldHashMap(data.getUserfields());
+          this.mealPlanSections = data.getMealPlanSections();
+          SortUtil.sortMealPlanSections(this.mealPlanSections);
+          this.mealPlanEntries = data.getMealPlanEntries();
+          windowRecipeIds = new HashSet<>();
+          for (MealPlanEntry entry : data.getMealPlanEntries()) {
+            if (MealPlanEntry.TYPE_RECIPE.equals(entry.getType())
+                && NumUtil.isStringInt(entry.getRecipeId())) {
+              windowRecipeIds.add(Integer.parseInt(entry.getRecipeId()));
+            }
+          }
+          mealPlanEntriesLive.setValue(ArrayUtil.getMealPlanEntriesForDayHashMap(
+              data.getMealPlanEntries()
+          ));
+          filterChipLiveDataEntriesFields.setUserfields(
+              data.getUserfields(),
+              DISPLAYED_USERFIELD_ENTITIES
+          );
+
+          if (downloadAfterLoading) {
+            downloadData(false);
+          }
+        },
+        error -> onError(error, TAG)
+    );
+  }
+
+  /**
+   * Moves the window of loaded and synced entries to the week of the selected date and its
+   * neighbour weeks, if the selected week is not the center of the window anymore.
+   * Entries of the weeks outside the new window are not held in memory anymore.
+   */
+  public void updateWindow() {
+    LocalDate newWindowStart = getWindowStart(getSelectedDate());
+    if (newWindowStart.equals(windowStart)) {
+      return;
+    }
+    windowStart = newWindowStart;
+    loadFromDatabase(true);
+  }
+
+  private LocalDate getWindowStart(LocalDate date) {
+    return date.with(TemporalAdjusters.previousOrSame(getFirstDayOfWeek())).minusWeeks(1);
   }
 
   public void downloadData(boolean forceUpdate) {
@@ -194,6 +242,9 @@ public class MealPlanViewModel extends BaseViewModel {
       isLoadingLive.setValue(false);
       return;
     }
+    dlHelper.setMealPlanWindow(windowStart, WINDOW_WEEKS);
+    // ingredients of the planned recipes are prefetched for the recipe screen
+    dlHelper.setRecipeIdsForPositionsResolved(windowRecipeIds);
     dlHelper.updateData(
         updated -> {
           if (updated) loadFromDatabase(false);
@@ -206,8 +257,15 @@ public class MealPlanViewModel extends BaseViewModel {
         MealPlanSection.class,
         Recipe.class,
         RecipeFulfillment.class,
+        RecipePosition.class,
+        VersionUtil.isGrocyServerMin400(sharedPrefs) && windowRecipeIds != null
+            ? RecipePositionResolved.class : null,
+        RecipeNesting.class,
         Product.class,
+        ProductLastPurchased.class,
+        QuantityUnitConversionResolved.class,
         StockItem.class,
+        ShoppingListItem.class,
         Userfield.class
     );
   }
@@ -229,13 +287,13 @@ public class MealPlanViewModel extends BaseViewModel {
   }
 
   public String getWeekCostsText() {
-    if (shadowRecipes == null || !filterChipLiveDataHeaderFields.getActiveFields()
+    if (weekFulfillmentHashMap == null || !filterChipLiveDataHeaderFields.getActiveFields()
         .contains(MealPlanViewModel.FIELD_WEEK_COSTS)) {
       return getString(R.string.property_week_costs_insert, getString(R.string.subtitle_unknown));
     };
-    LocalDate selectedDate = getSelectedDate();
-    String weekFormatted = selectedDate.format(weekFormatter);
-    RecipeFulfillment recipeFulfillment = recipeResolvedFulfillmentHashMap.get(weekFormatted);
+    LocalDate weekStart = getSelectedDate()
+        .with(TemporalAdjusters.previousOrSame(getFirstDayOfWeek()));
+    RecipeFulfillment recipeFulfillment = weekFulfillmentHashMap.get(weekStart);
     double costs = recipeFulfillment != null ? recipeFulfillment.getCosts() : 0;
     return getString(R.string.property_week_costs_insert, getString(
         R.string.property_price_with_currency,
@@ -31,6 +31,7 @@ import androidx.preference.PreferenceManager;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS.STOCK;
@@ -397,18 +398,18 @@ public class OverviewStartViewModel extends BaseViewModel {
       int itemsExpiredCount = 0;
       HashMap<Integer, StockItem> stockItemHashMap = ArrayUtil
           .getStockItemHashMap(data.getStockItems());
-      for (VolatileItem volatileItem : data.getVolatileItems()) {
-        StockItem stockItem = stockItemHashMap.get(volatileItem.getProductId());
+      for (Map.Entry<Integer, Integer> dueType : data.getStockDue().getTypes().entrySet()) {
+        StockItem stockItem = stockItemHashMap.get(dueType.getKey());
         if (stockItem == null) {
           continue;
         }
-        if (volatileItem.getVolatileType() == VolatileItem.TYPE_DUE) {
+        if (dueType.getValue() == VolatileItem.TYPE_DUE) {
           stockItem.setItemDue(true);
           itemsDueCount++;
-        } else if (volatileItem.getVolatileType() == VolatileItem.TYPE_OVERDUE) {
+        } else if (dueType.getValue() == VolatileItem.TYPE_OVERDUE) {
           stockItem.setItemOverdue(true);
           itemsOverdueCount++;
-        } else if (volatileItem.getVolatileType() == VolatileItem.TYPE_EXPIRED) {
+        } else if (dueType.getValue() == VolatileItem.TYPE_EXPIRED) {
           stockItem.setItemExpired(true);
           itemsExpiredCount++;
         }
@@ -465,7 +466,7 @@ public class OverviewStartViewModel extends BaseViewModel {
           continue;
         }
         int daysFromNow = DateUtil
-            .getDaysFromNow(choreEntry.getNextEstimatedExecutionTime());
+            .getDaysFromNowForMillis(choreEntry.getNextEstimatedExecutionTimeMillis());
         if (daysFromNow < 0) {
           choresOverdueCount++;
         }
@@ -506,7 +507,6 @@ public class OverviewStartViewModel extends BaseViewModel {
         ShoppingListItem.class,
         ShoppingList.class,
         Product.class,
-        VolatileItem.class,
         Recipe.class,
         ChoreEntry.class,
         Task.class
@@ -65,6 +65,7 @@ import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductBarcode;
 import xyz.zedler.patrick.grocy.model.ProductDetails;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversionIndex;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.SnackbarMessage;
@@ -176,19 +177,19 @@ public class PurchaseViewModel extends BaseViewModel {
 
   public void loadFromDatabase(boolean downloadAfterLoading) {
     repository.loadFromDatabase(data -> {
-      this.products = data.getProducts();
+      this.products = new ArrayList<>(data.getMasterData().getProducts());
       this.pendingProducts = data.getPendingProducts();
       formData.getProductsLive().setValue(
               appendPendingProducts(Product.getActiveProductsOnly(products), pendingProducts)
       );
-      productHashMap = ArrayUtil.getProductsHashMap(products);
+      productHashMap = data.getMasterData().getProductHashMap();
       this.pendingProductBarcodes = data.getPendingProductBarcodes();
       this.barcodes = appendPendingProductBarcodes(data.getBarcodes(), pendingProductBarcodes);
-      this.quantityUnits = data.getQuantityUnits();
-      quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(quantityUnits);
+      this.quantityUnits = new ArrayList<>(data.getMasterData().getQuantityUnits());
+      quantityUnitHashMap = data.getMasterData().getQuantityUnitHashMap();
       this.unitConversions = data.getQuantityUnitConversionsResolved();
-      this.stores = data.getStores();
-      this.locations = data.getLocations();
+      this.stores = new ArrayList<>(data.getMasterData().getStores());
+      this.locations = new ArrayList<>(data.getMasterData().getLocations());
       this.shoppingListItems = data.getShoppingListItems();
       shoppingListItemHashMap = ArrayUtil.getShoppingListItemHashMap(shoppingListItems);
       fillShoppingListItemAmountsHashMap();
@@ -271,7 +272,7 @@ public class PurchaseViewModel extends BaseViewModel {
           quantityUnitHashMap,
           unitConversions,
           updatedProduct,
-          VersionUtil.isGrocyServerMin400(sharedPrefs)
+          VersionUtil.hasResolvedConversions(sharedPrefs)
       );
       formData.getQuantityUnitsFactorsLive().setValue(unitFactors);
       formData.getQuantityUnitStockLive().setValue(
@@ -300,8 +301,9 @@ public class PurchaseViewModel extends BaseViewModel {
         formData.getAmountLive().setValue(NumUtil.trimAmount(barcode.getAmountDouble(), maxDecimalPlacesAmount));
       } else if (!isTareWeightEnabled && shoppingListItem != null) {
         Double amountInUnit = AmountUtil.getShoppingListItemAmount(
-            shoppingListItem, productHashMap, quantityUnitHashMap, unitConversions,
-            VersionUtil.isGrocyServerMin400(sharedPrefs)
+            shoppingListItem, productHashMap, quantityUnitHashMap,
+            new QuantityUnitConversionIndex(unitConversions),
+            VersionUtil.hasResolvedConversions(sharedPrefs)
         );
         formData.getAmountLive().setValue(
             NumUtil.trimAmount(
@@ -838,10 +840,12 @@ public class PurchaseViewModel extends BaseViewModel {
     if (shoppingListItems == null) {
       return;
     }
-    boolean isGrocyServerMin400 = VersionUtil.isGrocyServerMin400(sharedPrefs);
+    boolean hasResolvedConversions = VersionUtil.hasResolvedConversions(sharedPrefs);
+    QuantityUnitConversionIndex unitConversionIndex
+        = new QuantityUnitConversionIndex(unitConversions);
     for (ShoppingListItem item : shoppingListItems) {
       Double amount = AmountUtil.getShoppingListItemAmount(
-          item, productHashMap, quantityUnitHashMap, unitConversions, isGrocyServerMin400
+          item, productHashMap, quantityUnitHashMap, unitConversionIndex, hasResolvedConversions
       );
       if (amount != null) {
         shoppingListItemAmountsHashMap.put(item.getId(), amount);
@@ -160,7 +160,7 @@ public class RecipeEditIngredientEditViewModel extends BaseViewModel {
           quantityUnitHashMap,
           unitConversions,
           product,
-          VersionUtil.isGrocyServerMin400(sharedPrefs)
+          VersionUtil.hasResolvedConversions(sharedPrefs)
       );
       formData.getQuantityUnitsFactorsLive().setValue(unitFactors);
       formData.getQuantityUnitStockLive().setValue(
@@ -27,6 +27,7 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.preference.PreferenceManager;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Timer;
@@ -48,10 +49,12 @@ import xyz.zedler.patrick.grocy.model.FilterChipLiveDataFields;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataFields.Field;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
 import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.Recipe;
 import xyz.zedler.patrick.grocy.model.RecipeFulfillment;
+import xyz.zedler.patrick.grocy.model.RecipeNesting;
 import xyz.zedler.patrick.grocy.model.RecipePosition;
 import xyz.zedler.patrick.grocy.model.RecipePositionResolved;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
@@ -112,6 +115,7 @@ public class RecipeViewModel extends BaseViewModel {
 
     isLoadingLive = new MutableLiveData<>(false);
     dlHelper = new DownloadHelper(getApplication(), TAG, isLoadingLive::setValue, getOfflineLive());
+    dlHelper.setRecipeIdsForPositionsResolved(Collections.singletonList(args.getRecipeId()));
     grocyApi = new GrocyApi(getApplication());
     repository = new RecipesRepository(application);
 
@@ -152,14 +156,12 @@ public class RecipeViewModel extends BaseViewModel {
   }
 
   public void loadFromDatabase(boolean downloadAfterLoading) {
-    repository.loadFromDatabase(data -> {
+    repository.loadFromDatabase(args.getRecipeId(), data -> {
       recipes = data.getRecipes();
-      recipeFulfillment = RecipeFulfillment
-          .getRecipeFulfillmentFromRecipeId(data.getRecipeFulfillments(), args.getRecipeId());
+      recipeFulfillment = data.getRecipeFulfillmentHashMap().get(args.getRecipeId());
       recipePositions = RecipePosition
           .getRecipePositionsFromRecipeId(data.getRecipePositions(), args.getRecipeId());
-      recipePositionsResolved = RecipePositionResolved
-          .getRecipePositionsFromRecipeId(data.getRecipePositionsResolved(), args.getRecipeId());
+      recipePositionsResolved = data.getRecipePositionsResolved();
       RecipePositionResolved.fillRecipePositionsResolvedWithNotCheckStockFulfillment(
           recipePositionsResolved, ArrayUtil.getRecipePositionHashMap(recipePositions)
       );
@@ -200,7 +202,9 @@ public class RecipeViewModel extends BaseViewModel {
         RecipeFulfillment.class,
         RecipePosition.class,
         VersionUtil.isGrocyServerMin400(sharedPrefs) ? RecipePositionResolved.class : null,
+        RecipeNesting.class,
         Product.class,
+        ProductLastPurchased.class,
         QuantityUnit.class,
         QuantityUnitConversionResolved.class,
         StockItem.class,
@@ -26,13 +26,16 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.preference.PreferenceManager;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import xyz.zedler.patrick.grocy.Constants;
 import xyz.zedler.patrick.grocy.Constants.PREF;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.api.GrocyApi.ENTITY;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.helper.FilterPipeline;
 import xyz.zedler.patrick.grocy.model.Event;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveData;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataFields;
@@ -42,15 +45,18 @@ import xyz.zedler.patrick.grocy.model.FilterChipLiveDataSort;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataSort.SortOption;
 import xyz.zedler.patrick.grocy.model.InfoFullscreen;
 import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.Recipe;
 import xyz.zedler.patrick.grocy.model.RecipeFulfillment;
+import xyz.zedler.patrick.grocy.model.RecipeNesting;
 import xyz.zedler.patrick.grocy.model.RecipePosition;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.StockItem;
 import xyz.zedler.patrick.grocy.model.Userfield;
 import xyz.zedler.patrick.grocy.repository.RecipesRepository;
+import xyz.zedler.patrick.grocy.repository.SearchRepository;
 import xyz.zedler.patrick.grocy.util.ArrayUtil;
 import xyz.zedler.patrick.grocy.util.SortUtil;
 
@@ -71,8 +77,10 @@ public class RecipesViewModel extends BaseViewModel {
 
   private final SharedPreferences sharedPrefs;
   private final DownloadHelper dlHelper;
+  private final FilterPipeline filterPipeline;
   private final GrocyApi grocyApi;
   private final RecipesRepository repository;
+  private final SearchRepository searchRepository;
 
   private final MutableLiveData<Boolean> isLoadingLive;
   private final MutableLiveData<InfoFullscreen> infoFullscreenLive;
@@ -82,7 +90,7 @@ public class RecipesViewModel extends BaseViewModel {
   private final FilterChipLiveDataFields filterChipLiveDataFields;
 
   private List<Recipe> recipes;
-  private List<RecipeFulfillment> recipeFulfillments;
+  private HashMap<Integer, RecipeFulfillment> recipeFulfillmentHashMap;
   private List<RecipePosition> recipePositions;
   private List<Product> products;
   private List<QuantityUnit> quantityUnits;
@@ -90,6 +98,7 @@ public class RecipesViewModel extends BaseViewModel {
   private HashMap<String, Userfield> userfieldHashMap;
 
   private String searchInput;
+  private HashSet<Integer> searchResultIds;
 
   public RecipesViewModel(@NonNull Application application) {
     super(application);
@@ -97,8 +106,10 @@ public class RecipesViewModel extends BaseViewModel {
     sharedPrefs = PreferenceManager.getDefaultSharedPreferences(getApplication());
     isLoadingLive = new MutableLiveData<>(false);
     dlHelper = new DownloadHelper(getApplication(), TAG, isLoadingLive::setValue, getOfflineLive());
+    filterPipeline = new FilterPipeline(TAG);
     grocyApi = new GrocyApi(getApplication());
     repository = new RecipesRepository(application);
+    searchRepository = new SearchRepository(application);
 
     infoFullscreenLive = new MutableLiveData<>();
     filteredRecipesLive = new MutableLiveData<>();
@@ -133,7 +144,7 @@ public class RecipesViewModel extends BaseViewModel {
   public void loadFromDatabase(boolean downloadAfterLoading) {
     repository.loadFromDatabase(data -> {
       recipes = ArrayUtil.getRecipesWithoutShadowRecipes(data.getRecipes());
-      recipeFulfillments = data.getRecipeFulfillments();
+      recipeFulfillmentHashMap = data.getRecipeFulfillmentHashMap();
       recipePositions = data.getRecipePositions();
       products = data.getProducts();
       quantityUnits = data.getQuantityUnits();
@@ -160,7 +171,9 @@ public class RecipesViewModel extends BaseViewModel {
         Recipe.class,
         RecipeFulfillment.class,
         RecipePosition.class,
+        RecipeNesting.class,
         Product.class,
+        ProductLastPurchased.class,
         QuantityUnit.class,
         QuantityUnitConversionResolved.class,
         StockItem.class,
@@ -170,93 +183,115 @@ public class RecipesViewModel extends BaseViewModel {
   }
 
   public void updateFilteredRecipes() {
-    ArrayList<Recipe> filteredRecipes = new ArrayList<>();
+    updateFilteredRecipes(0, false);
+  }
 
-    int enoughInStockCount = 0;
-    int notEnoughInStockButInShoppingListCount = 0;
-    int notEnoughInStockCount = 0;
+  private void updateFilteredRecipes(long delayMillis, boolean scrollUp) {
+    if (recipes == null) {
+      return;
+    }
+    // captured here, the filter runs on a background thread
+    List<Recipe> recipes = this.recipes;
+    HashMap<Integer, RecipeFulfillment> recipeFulfillmentHashMap = this.recipeFulfillmentHashMap;
+    HashMap<String, Userfield> userfieldHashMap = this.userfieldHashMap;
+    String searchInput = this.searchInput;
+    HashSet<Integer> searchResultIds = this.searchResultIds;
+    int status = filterChipLiveDataStatus.getStatus();
+    String sortMode = filterChipLiveDataSort.getSortMode();
+    boolean sortAscending = filterChipLiveDataSort.isSortAscending();
 
-    for (Recipe recipe : this.recipes) {
-      RecipeFulfillment recipeFulfillment = RecipeFulfillment.getRecipeFulfillmentFromRecipeId(recipeFulfillments, recipe.getId());
+    filterPipeline.submit(delayMillis, isCancelled -> {
+      FilterResult result = new FilterResult();
 
-      if (recipeFulfillment != null) {
-        if (recipeFulfillment.isNeedFulfilled()) {
-          enoughInStockCount++;
-        } else if (recipeFulfillment.isNeedFulfilledWithShoppingList()) {
-          notEnoughInStockButInShoppingListCount++;
-        } else {
-          notEnoughInStockCount++;
+      for (Recipe recipe : recipes) {
+        if (isCancelled.getAsBoolean()) {
+          return null;
         }
+        RecipeFulfillment recipeFulfillment = recipeFulfillmentHashMap.get(recipe.getId());
+
+        if (recipeFulfillment != null) {
+          if (recipeFulfillment.isNeedFulfilled()) {
+            result.enoughInStockCount++;
+          } else if (recipeFulfillment.isNeedFulfilledWithShoppingList()) {
+            result.notEnoughInStockButInShoppingListCount++;
+          } else {
+            result.notEnoughInStockCount++;
+          }
 
-        if (filterChipLiveDataStatus.getStatus() != FilterChipLiveDataStatusRecipes.STATUS_ALL) {
-          if (filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusRecipes.STATUS_ENOUGH_IN_STOCK
-              && !recipeFulfillment.isNeedFulfilled()
-              || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusRecipes.STATUS_NOT_ENOUGH_BUT_IN_SHOPPING_LIST
-              && (recipeFulfillment.isNeedFulfilled() || !recipeFulfillment.isNeedFulfilledWithShoppingList())
-              || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusRecipes.STATUS_NOT_ENOUGH
-              && (recipeFulfillment.isNeedFulfilled() || recipeFulfillment.isNeedFulfilledWithShoppingList())) {
-            continue;
+          if (status != FilterChipLiveDataStatusRecipes.STATUS_ALL) {
+            if (status == FilterChipLiveDataStatusRecipes.STATUS_ENOUGH_IN_STOCK
+                && !recipeFulfillment.isNeedFulfilled()
+                || status == FilterChipLiveDataStatusRecipes.STATUS_NOT_ENOUGH_BUT_IN_SHOPPING_LIST
+                && (recipeFulfillment.isNeedFulfilled() || !recipeFulfillment.isNeedFulfilledWithShoppingList())
+                || status == FilterChipLiveDataStatusRecipes.STATUS_NOT_ENOUGH
+                && (recipeFulfillment.isNeedFulfilled() || recipeFulfillment.isNeedFulfilledWithShoppingList())) {
+              continue;
+            }
           }
         }
-      }
 
-      boolean searchContainsItem = true;
-      if (searchInput != null && !searchInput.isEmpty()) {
-        searchContainsItem = recipe.getName().toLowerCase().contains(searchInput);
+        boolean searchContainsItem = true;
+        if (searchInput != null && !searchInput.isEmpty()) {
+          searchContainsItem = recipe.getName().toLowerCase().contains(searchInput);
 
-        if (!searchContainsItem && recipeFulfillment != null
-            && recipeFulfillment.getProductNamesCommaSeparated() != null) {
-          searchContainsItem = recipeFulfillment.getProductNamesCommaSeparated()
-              .toLowerCase().contains(searchInput);
+          // the index also matches the start of words in product names of the ingredients
+          if (!searchContainsItem && searchResultIds != null) {
+            searchContainsItem = searchResultIds.contains(recipe.getId());
+          }
+          if (!searchContainsItem && recipeFulfillment != null
+              && recipeFulfillment.getProductNamesCommaSeparated() != null) {
+            searchContainsItem = recipeFulfillment.getProductNamesCommaSeparated()
+                .toLowerCase().contains(searchInput);
+          }
         }
-      }
 
-      if (!searchContainsItem) {
-        continue;
-      }
-
-      filteredRecipes.add(recipe);
-    }
+        if (!searchContainsItem) {
+          continue;
+        }
 
-    String sortMode = filterChipLiveDataSort.getSortMode();
-    boolean sortAscending = filterChipLiveDataSort.isSortAscending();
+        result.recipes.add(recipe);
+      }
 
-    if (sortMode.equals(SORT_ENERGY)) {
-      SortUtil.sortRecipesByCalories(filteredRecipes, recipeFulfillments, sortAscending);
-    } else if (sortMode.equals(SORT_DUE_SCORE)) {
-      SortUtil.sortRecipesByDueScore(filteredRecipes, recipeFulfillments, sortAscending);
-    } else if (sortMode.startsWith(Userfield.NAME_PREFIX)) {
-      String userfieldName = sortMode.substring(Userfield.NAME_PREFIX.length());
-      Userfield userfield = userfieldHashMap.get(userfieldName);
-      if (userfield != null) {
-        SortUtil.sortRecipesByUserfieldValue(
-            filteredRecipes,
-            userfield,
-            sortAscending
-        );
+      if (sortMode.equals(SORT_ENERGY)) {
+        SortUtil.sortRecipesByCalories(result.recipes, recipeFulfillmentHashMap, sortAscending);
+      } else if (sortMode.equals(SORT_DUE_SCORE)) {
+        SortUtil.sortRecipesByDueScore(result.recipes, recipeFulfillmentHashMap, sortAscending);
+      } else if (sortMode.startsWith(Userfield.NAME_PREFIX)) {
+        String userfieldName = sortMode.substring(Userfield.NAME_PREFIX.length());
+        Userfield userfield = userfieldHashMap.get(userfieldName);
+        if (userfield != null) {
+          SortUtil.sortRecipesByUserfieldValue(
+              result.recipes,
+              userfield,
+              sortAscending
+          );
+        } else {
+          SortUtil.sortRecipesByName(result.recipes, sortAscending);
+        }
       } else {
-        SortUtil.sortRecipesByName(filteredRecipes, sortAscending);
+        SortUtil.sortRecipesByName(result.recipes, sortAscending);
       }
-    } else {
-      SortUtil.sortRecipesByName(filteredRecipes, sortAscending);
-    }
-
-    filterChipLiveDataStatus
-            .setEnoughInStockCount(enoughInStockCount)
-            .setNotEnoughButInShoppingListCount(notEnoughInStockButInShoppingListCount)
-            .setNotEnoughCount(notEnoughInStockCount)
-            .emitCounts();
-
-    filteredRecipesLive.setValue(filteredRecipes);
+      return result;
+    }, result -> {
+      filterChipLiveDataStatus
+          .setEnoughInStockCount(result.enoughInStockCount)
+          .setNotEnoughButInShoppingListCount(result.notEnoughInStockButInShoppingListCount)
+          .setNotEnoughCount(result.notEnoughInStockCount)
+          .emitCounts();
+
+      filteredRecipesLive.setValue(result.recipes);
+      if (scrollUp) {
+        sendEvent(Event.SCROLL_UP);
+      }
+    });
   }
 
   public void updateFilteredRecipesWithTopScroll() {
-    updateFilteredRecipes();
-    sendEvent(Event.SCROLL_UP);
+    updateFilteredRecipes(0, true);
   }
 
-  public ArrayList<RecipeFulfillment> getRecipeFulfillments() {
-    return new ArrayList<>(recipeFulfillments);
+  public HashMap<Integer, RecipeFulfillment> getRecipeFulfillmentHashMap() {
+    return recipeFulfillmentHashMap;
   }
 
   public ArrayList<RecipePosition> getRecipePositions() {
@@ -285,6 +320,8 @@ public class RecipesViewModel extends BaseViewModel {
 
   public void resetSearch() {
     searchInput = null;
+    searchResultIds = null;
+    searchRepository.cancel();
     setIsSearchVisible(false);
   }
 
@@ -315,7 +352,18 @@ public class RecipesViewModel extends BaseViewModel {
 
   public void updateSearchInput(String input) {
     this.searchInput = input.toLowerCase();
-    updateFilteredRecipes();
+    searchResultIds = null;
+    updateFilteredRecipes(FilterPipeline.SEARCH_DEBOUNCE_MILLIS, false);
+
+    searchRepository.searchRecipes(
+        this.searchInput,
+        (searchedInput, ids) -> {
+          if (!Objects.equals(searchedInput, searchInput)) return;
+          searchResultIds = new HashSet<>(ids);
+          updateFilteredRecipes();
+        },
+        error -> {}
+    );
   }
 
   public String getSortMode() {
@@ -345,7 +393,17 @@ public class RecipesViewModel extends BaseViewModel {
 
   @Override
   protected void onCleared() {
+    filterPipeline.cancel();
+    searchRepository.cancel();
     dlHelper.destroy();
     super.onCleared();
   }
+
+  private static class FilterResult {
+
+    private final ArrayList<Recipe> recipes = new ArrayList<>();
+    private int enoughInStockCount = 0;
+    private int notEnoughInStockButInShoppingListCount = 0;
+    private int notEnoughInStockCount = 0;
+  }
 }
@@ -45,6 +45,7 @@ import xyz.zedler.patrick.grocy.Constants.SETTINGS.STOCK;
 import xyz.zedler.patrick.grocy.Constants.SETTINGS_DEFAULT;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
+import xyz.zedler.patrick.grocy.database.QueryStats;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.BarcodeFormatsBottomSheet;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.CompatibilityBottomSheet;
 import xyz.zedler.patrick.grocy.fragment.bottomSheetDialog.InputBottomSheet;
@@ -264,6 +265,7 @@ public class SettingsViewModel extends BaseViewModel {
   public void setLoggingEnabled(boolean enabled) {
     sharedPrefs.edit()
         .putBoolean(Constants.SETTINGS.DEBUGGING.ENABLE_DEBUGGING, enabled).apply();
+    QueryStats.getInstance().setEnabled(enabled);
   }
 
   public boolean getBeginnerModeEnabled() {
@@ -1089,7 +1091,10 @@ public class SettingsViewModel extends BaseViewModel {
     repository.clearAllTables();
   }
 
-  public void clearServerRelatedSharedPreferences() {
+  public void clearServerRelatedSharedPreferences(boolean keepSyncState) {
+    if (keepSyncState) {
+      PrefsUtil.saveServerSyncState(getApplication(), sharedPrefs);
+    }
     PrefsUtil.clearServerRelatedSharedPreferences(sharedPrefs);
   }
 
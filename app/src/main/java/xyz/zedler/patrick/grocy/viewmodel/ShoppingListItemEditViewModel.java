@@ -241,7 +241,7 @@ public class ShoppingListItemEditViewModel extends BaseViewModel {
           quantityUnitHashMap,
           unitConversions,
           product,
-          VersionUtil.isGrocyServerMin400(sharedPrefs)
+          VersionUtil.hasResolvedConversions(sharedPrefs)
       );
       formData.getQuantityUnitsFactorsLive().setValue(unitFactors);
       formData.getQuantityUnitStockLive().setValue(
@@ -276,7 +276,7 @@ public class ShoppingListItemEditViewModel extends BaseViewModel {
         quantityUnitHashMap,
         unitConversions,
         product,
-        VersionUtil.isGrocyServerMin400(sharedPrefs)
+        VersionUtil.hasResolvedConversions(sharedPrefs)
     );
     formData.getQuantityUnitsFactorsLive().setValue(unitFactors);
     formData.getQuantityUnitStockLive().setValue(
@@ -41,6 +41,7 @@ import xyz.zedler.patrick.grocy.Constants.SETTINGS_DEFAULT;
 import xyz.zedler.patrick.grocy.R;
 import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.helper.FilterPipeline;
 import xyz.zedler.patrick.grocy.model.Event;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveData;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataFields;
@@ -53,6 +54,7 @@ import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductGroup;
 import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversionIndex;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.ShoppingList;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
@@ -79,6 +81,7 @@ public class ShoppingListViewModel extends BaseViewModel {
 
   private final SharedPreferences sharedPrefs;
   private final DownloadHelper dlHelper;
+  private final FilterPipeline filterPipeline;
   private final GrocyApi grocyApi;
   private final ShoppingListRepository repository;
 
@@ -119,6 +122,7 @@ public class ShoppingListViewModel extends BaseViewModel {
 
     isLoadingLive = new MutableLiveData<>(false);
     dlHelper = new DownloadHelper(getApplication(), TAG, isLoadingLive::setValue, getOfflineLive());
+    filterPipeline = new FilterPipeline(TAG);
     grocyApi = new GrocyApi(getApplication());
     repository = new ShoppingListRepository(application);
 
@@ -162,13 +166,13 @@ public class ShoppingListViewModel extends BaseViewModel {
     repository.loadFromDatabase(data -> {
       this.shoppingListItems = data.getShoppingListItems();
       this.shoppingLists = data.getShoppingLists();
-      productGroupHashMap = ArrayUtil.getProductGroupsHashMap(data.getProductGroups());
-      quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(data.getQuantityUnits());
+      productGroupHashMap = data.getMasterData().getProductGroupHashMap();
+      quantityUnitHashMap = data.getMasterData().getQuantityUnitHashMap();
       unitConversions = data.getUnitConversionsResolved();
-      storeHashMap = ArrayUtil.getStoresHashMap(data.getStores());
+      storeHashMap = data.getMasterData().getStoreHashMap();
       missingProductIds = ArrayUtil.getMissingProductsIds(data.getMissingItems());
-      productHashMap = ArrayUtil.getProductsHashMap(data.getProducts());
-      productNamesHashMap = ArrayUtil.getProductNamesHashMap(data.getProducts());
+      productHashMap = data.getMasterData().getProductHashMap();
+      productNamesHashMap = ArrayUtil.getProductNamesHashMap(data.getMasterData().getProducts());
       productLastPurchasedHashMap = ArrayUtil
           .getProductLastPurchasedHashMap(data.getProductsLastPurchased());
       fillShoppingListItemAmountsHashMap();
@@ -182,84 +186,97 @@ public class ShoppingListViewModel extends BaseViewModel {
   }
 
   public void updateFilteredShoppingListItems() {
+    updateFilteredShoppingListItems(0, false);
+  }
+
+  private void updateFilteredShoppingListItems(long delayMillis, boolean scrollUp) {
     if (this.shoppingListItems == null) {
       return;
     }
+    // captured here, the filter runs on a background thread
+    List<ShoppingListItem> shoppingListItems = this.shoppingListItems;
+    ArrayList<Integer> missingProductIds = this.missingProductIds;
+    HashMap<Integer, Product> productHashMap = this.productHashMap;
+    String searchInput = this.searchInput;
+    int selectedShoppingListId = getSelectedShoppingListId();
+    int status = filterChipLiveDataStatus.getStatus();
 
-    ArrayList<ShoppingListItem> filteredShoppingListItems = new ArrayList<>();
-    int itemsMissingCount = 0;
-    int itemsUndoneCount = 0;
-    int itemsDoneCount = 0;
-
-    for (ShoppingListItem item : this.shoppingListItems) {
-      if (item.getShoppingListIdInt() != getSelectedShoppingListId()) {
-        continue;
-      }
-      if (item.hasProduct() && missingProductIds.contains(item.getProductIdInt())) {
-        itemsMissingCount++;
-      }
-      if (item.isUndone()) {
-        itemsUndoneCount++;
-      } else {
-        itemsDoneCount++;
-      }
+    filterPipeline.submit(delayMillis, isCancelled -> {
+      FilterResult result = new FilterResult();
 
-      boolean searchContainsItem = true;
-      if (searchInput != null && !searchInput.isEmpty()) {
-        String name;
-        if (item.hasProduct()) {
-          Product product = productHashMap.get(item.getProductIdInt());
-          name = product != null ? product.getName() : null;
+      for (ShoppingListItem item : shoppingListItems) {
+        if (isCancelled.getAsBoolean()) {
+          return null;
+        }
+        if (item.getShoppingListIdInt() != selectedShoppingListId) {
+          continue;
+        }
+        if (item.hasProduct() && missingProductIds.contains(item.getProductIdInt())) {
+          result.itemsMissingCount++;
+        }
+        if (item.isUndone()) {
+          result.itemsUndoneCount++;
         } else {
-          name = item.getNote();
+          result.itemsDoneCount++;
         }
-        name = name != null ? name.toLowerCase() : "";
-        searchContainsItem = name.contains(searchInput);
-      }
-      if (!searchContainsItem) {
-        continue;
-      }
 
-      if (filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusShoppingList.STATUS_ALL
-          || filterChipLiveDataStatus.getStatus()
-          == FilterChipLiveDataStatusShoppingList.STATUS_BELOW_MIN
-          && item.hasProduct() && missingProductIds.contains(item.getProductIdInt())
-          || filterChipLiveDataStatus.getStatus()
-          == FilterChipLiveDataStatusShoppingList.STATUS_UNDONE && item.isUndone()
-          || filterChipLiveDataStatus.getStatus()
-          == FilterChipLiveDataStatusShoppingList.STATUS_DONE && !item.isUndone()
-      ) {
-        filteredShoppingListItems.add(item);
+        boolean searchContainsItem = true;
+        if (searchInput != null && !searchInput.isEmpty()) {
+          String name;
+          if (item.hasProduct()) {
+            Product product = productHashMap.get(item.getProductIdInt());
+            name = product != null ? product.getName() : null;
+          } else {
+            name = item.getNote();
+          }
+          name = name != null ? name.toLowerCase() : "";
+          searchContainsItem = name.contains(searchInput);
+        }
+        if (!searchContainsItem) {
+          continue;
+        }
+
+        if (status == FilterChipLiveDataStatusShoppingList.STATUS_ALL
+            || status == FilterChipLiveDataStatusShoppingList.STATUS_BELOW_MIN
+            && item.hasProduct() && missingProductIds.contains(item.getProductIdInt())
+            || status == FilterChipLiveDataStatusShoppingList.STATUS_UNDONE && item.isUndone()
+            || status == FilterChipLiveDataStatusShoppingList.STATUS_DONE && !item.isUndone()
+        ) {
+          result.items.add(item);
+        }
       }
-    }
-    filterChipLiveDataStatus
-        .setBelowStockCount(itemsMissingCount)
-        .setUndoneCount(itemsUndoneCount)
-        .setDoneCount(itemsDoneCount)
-        .emitCounts();
-
-    filteredShoppingListItemsLive.setValue(filteredShoppingListItems);
-    selectedShoppingListIdLive.setValue(selectedShoppingListIdLive.getValue());
-
-    if (filteredShoppingListItems.isEmpty()) {
-      InfoFullscreen info;
-      if (searchInput != null && !searchInput.isEmpty()) {
-        info = new InfoFullscreen(InfoFullscreen.INFO_NO_SEARCH_RESULTS);
-      } else if (filterChipLiveDataStatus.getStatus()
-          != FilterChipLiveDataStatusShoppingList.STATUS_ALL) {
-        info = new InfoFullscreen(InfoFullscreen.INFO_NO_FILTER_RESULTS);
+      return result;
+    }, result -> {
+      filterChipLiveDataStatus
+          .setBelowStockCount(result.itemsMissingCount)
+          .setUndoneCount(result.itemsUndoneCount)
+          .setDoneCount(result.itemsDoneCount)
+          .emitCounts();
+
+      filteredShoppingListItemsLive.setValue(result.items);
+      selectedShoppingListIdLive.setValue(selectedShoppingListIdLive.getValue());
+
+      if (result.items.isEmpty()) {
+        InfoFullscreen info;
+        if (searchInput != null && !searchInput.isEmpty()) {
+          info = new InfoFullscreen(InfoFullscreen.INFO_NO_SEARCH_RESULTS);
+        } else if (status != FilterChipLiveDataStatusShoppingList.STATUS_ALL) {
+          info = new InfoFullscreen(InfoFullscreen.INFO_NO_FILTER_RESULTS);
+        } else {
+          info = new InfoFullscreen(InfoFullscreen.INFO_EMPTY_SHOPPING_LIST);
+        }
+        infoFullscreenLive.setValue(info);
       } else {
-        info = new InfoFullscreen(InfoFullscreen.INFO_EMPTY_SHOPPING_LIST);
+        infoFullscreenLive.setValue(null);
       }
-      infoFullscreenLive.setValue(info);
-    } else {
-      infoFullscreenLive.setValue(null);
-    }
+      if (scrollUp) {
+        sendEvent(Event.SCROLL_UP);
+      }
+    });
   }
 
   public void updateFilteredShoppingListItemsWithTopScroll() {
-    updateFilteredShoppingListItems();
-    sendEvent(Event.SCROLL_UP);
+    updateFilteredShoppingListItems(0, true);
   }
 
   public void resetSearch() {
@@ -273,7 +290,7 @@ public class ShoppingListViewModel extends BaseViewModel {
 
   public void updateSearchInput(String input) {
     this.searchInput = input.toLowerCase();
-    updateFilteredShoppingListItems();
+    updateFilteredShoppingListItems(FilterPipeline.SEARCH_DEBOUNCE_MILLIS, false);
   }
 
   public MutableLiveData<Integer> getSelectedShoppingListIdLive() {
@@ -714,10 +731,12 @@ public class ShoppingListViewModel extends BaseViewModel {
 
   private void fillShoppingListItemAmountsHashMap() {
     shoppingListItemAmountsHashMap = new HashMap<>();
-    boolean isGrocyServerMin400 = VersionUtil.isGrocyServerMin400(sharedPrefs);
+    boolean hasResolvedConversions = VersionUtil.hasResolvedConversions(sharedPrefs);
+    QuantityUnitConversionIndex unitConversionIndex
+        = new QuantityUnitConversionIndex(unitConversions);
     for (ShoppingListItem item : shoppingListItems) {
       Double amount = AmountUtil.getShoppingListItemAmount(
-          item, productHashMap, quantityUnitHashMap, unitConversions, isGrocyServerMin400
+          item, productHashMap, quantityUnitHashMap, unitConversionIndex, hasResolvedConversions
       );
       if (amount != null) {
         shoppingListItemAmountsHashMap.put(item.getId(), amount);
@@ -745,7 +764,16 @@ public class ShoppingListViewModel extends BaseViewModel {
 
   @Override
   protected void onCleared() {
+    filterPipeline.cancel();
     dlHelper.destroy();
     super.onCleared();
   }
+
+  private static class FilterResult {
+
+    private final ArrayList<ShoppingListItem> items = new ArrayList<>();
+    private int itemsMissingCount = 0;
+    private int itemsUndoneCount = 0;
+    private int itemsDoneCount = 0;
+  }
 }
@@ -50,6 +50,7 @@ import xyz.zedler.patrick.grocy.model.Product;
 import xyz.zedler.patrick.grocy.model.ProductGroup;
 import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversionIndex;
 import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.ShoppingList;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
@@ -150,14 +151,14 @@ public class ShoppingModeViewModel extends BaseViewModel {
     repository.loadFromDatabase(data -> {
       this.shoppingListItems = data.getShoppingListItems();
       this.shoppingLists = data.getShoppingLists();
-      productGroupHashMap = ArrayUtil.getProductGroupsHashMap(data.getProductGroups());
-      quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(data.getQuantityUnits());
+      productGroupHashMap = data.getMasterData().getProductGroupHashMap();
+      quantityUnitHashMap = data.getMasterData().getQuantityUnitHashMap();
       unitConversions = data.getUnitConversionsResolved();
-      productHashMap = ArrayUtil.getProductsHashMap(data.getProducts());
-      productNamesHashMap = ArrayUtil.getProductNamesHashMap(data.getProducts());
+      productHashMap = data.getMasterData().getProductHashMap();
+      productNamesHashMap = ArrayUtil.getProductNamesHashMap(data.getMasterData().getProducts());
       productLastPurchasedHashMap = ArrayUtil
           .getProductLastPurchasedHashMap(data.getProductsLastPurchased());
-      storeHashMap = ArrayUtil.getStoresHashMap(data.getStores());
+      storeHashMap = data.getMasterData().getStoreHashMap();
       missingProductIds = ArrayUtil.getMissingProductsIds(data.getMissingItems());
       fillShoppingListItemAmountsHashMap();
       updateFilteredShoppingListItems();
@@ -419,10 +420,12 @@ public class ShoppingModeViewModel extends BaseViewModel {
 
   private void fillShoppingListItemAmountsHashMap() {
     shoppingListItemAmountsHashMap = new HashMap<>();
-    boolean isGrocyServerMin400 = VersionUtil.isGrocyServerMin400(sharedPrefs);
+    boolean hasResolvedConversions = VersionUtil.hasResolvedConversions(sharedPrefs);
+    QuantityUnitConversionIndex unitConversionIndex
+        = new QuantityUnitConversionIndex(unitConversions);
     for (ShoppingListItem item : shoppingListItems) {
       Double amount = AmountUtil.getShoppingListItemAmount(
-          item, productHashMap, quantityUnitHashMap, unitConversions, isGrocyServerMin400
+          item, productHashMap, quantityUnitHashMap, unitConversionIndex, hasResolvedConversions
       );
       if (amount != null) {
         shoppingListItemAmountsHashMap.put(item.getId(), amount);
@@ -113,6 +113,8 @@ public class StockEntriesViewModel extends BaseViewModel {
 
     isLoadingLive = new MutableLiveData<>(false);
     dlHelper = new DownloadHelper(getApplication(), TAG, isLoadingLive::setValue, getOfflineLive());
+    // the entries of all products are only synced if no product is given
+    dlHelper.setProductIdForStockEntries(productId);
     grocyApi = new GrocyApi(getApplication());
     repository = new StockEntriesRepository(application);
     pluralUtil = new PluralUtil(application);
@@ -142,7 +144,7 @@ public class StockEntriesViewModel extends BaseViewModel {
   }
 
   public void loadFromDatabase(boolean downloadAfterLoading) {
-    repository.loadFromDatabase(data -> {
+    repository.loadFromDatabase(productId, data -> {
       quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(data.getQuantityUnits());
       productHashMap = ArrayUtil.getProductsHashMap(data.getProducts());
       productBarcodeHashMap = ArrayUtil.getProductBarcodesHashMap(data.getProductBarcodes());
@@ -30,9 +30,10 @@ import androidx.preference.PreferenceManager;
 import com.google.android.material.snackbar.Snackbar;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import me.xdrop.fuzzywuzzy.FuzzySearch;
-import me.xdrop.fuzzywuzzy.model.BoundExtractedResult;
+import java.util.Map;
+import java.util.Objects;
 import org.json.JSONException;
 import org.json.JSONObject;
 import xyz.zedler.patrick.grocy.Constants;
@@ -44,6 +45,7 @@ import xyz.zedler.patrick.grocy.api.GrocyApi;
 import xyz.zedler.patrick.grocy.api.GrocyApi.ENTITY;
 import xyz.zedler.patrick.grocy.fragment.StockOverviewFragmentArgs;
 import xyz.zedler.patrick.grocy.helper.DownloadHelper;
+import xyz.zedler.patrick.grocy.helper.FilterPipeline;
 import xyz.zedler.patrick.grocy.model.Event;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveData;
 import xyz.zedler.patrick.grocy.model.FilterChipLiveDataFields;
@@ -63,15 +65,18 @@ import xyz.zedler.patrick.grocy.model.ProductBarcode;
 import xyz.zedler.patrick.grocy.model.ProductGroup;
 import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
 import xyz.zedler.patrick.grocy.model.QuantityUnit;
-import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
 import xyz.zedler.patrick.grocy.model.ShoppingListItem;
 import xyz.zedler.patrick.grocy.model.SnackbarMessage;
 import xyz.zedler.patrick.grocy.model.StockItem;
+import xyz.zedler.patrick.grocy.model.StockItemDetails;
 import xyz.zedler.patrick.grocy.model.StockLocation;
 import xyz.zedler.patrick.grocy.model.Userfield;
+import xyz.zedler.patrick.grocy.model.UserfieldValue;
 import xyz.zedler.patrick.grocy.model.VolatileItem;
+import xyz.zedler.patrick.grocy.repository.SearchRepository;
 import xyz.zedler.patrick.grocy.repository.StockOverviewRepository;
 import xyz.zedler.patrick.grocy.util.ArrayUtil;
+import xyz.zedler.patrick.grocy.util.FuzzySearchIndex;
 import xyz.zedler.patrick.grocy.util.GrocycodeUtil;
 import xyz.zedler.patrick.grocy.util.GrocycodeUtil.Grocycode;
 import xyz.zedler.patrick.grocy.util.NumUtil;
@@ -99,8 +104,10 @@ public class StockOverviewViewModel extends BaseViewModel {
 
   private final SharedPreferences sharedPrefs;
   private final DownloadHelper dlHelper;
+  private final FilterPipeline filterPipeline;
   private final GrocyApi grocyApi;
   private final StockOverviewRepository repository;
+  private final SearchRepository searchRepository;
   private final PluralUtil pluralUtil;
 
   private final MutableLiveData<Boolean> isLoadingLive;
@@ -119,19 +126,19 @@ public class StockOverviewViewModel extends BaseViewModel {
   private HashMap<Integer, ProductGroup> productGroupHashMap;
   private HashMap<String, ProductBarcode> productBarcodeHashMap;
   private HashMap<Integer, Product> productHashMap;
-  private HashMap<Integer, String> productAveragePriceHashMap;
-  private HashMap<Integer, ProductLastPurchased> productLastPurchasedHashMap;
-  private List<ShoppingListItem> shoppingListItems;
-  private ArrayList<String> shoppingListItemsProductIds;
+  private HashMap<Integer, StockItemDetails> stockItemDetailsHashMap;
   private HashMap<Integer, QuantityUnit> quantityUnitHashMap;
-  private List<QuantityUnitConversionResolved> quantityUnitConversions;
   private HashMap<Integer, MissingItem> productIdsMissingItems;
   private HashMap<Integer, Location> locationHashMap;
   private HashMap<Integer, HashMap<Integer, StockLocation>> stockLocationsHashMap;
   private HashMap<String, Userfield> userfieldHashMap;
+  private HashMap<String, HashMap<Integer, Integer>> userfieldSortRanksHashMap;
+  private List<String> loadedUserfieldNames;
 
   private String searchInput;
-  private ArrayList<String> searchResultsFuzzy;
+  private HashSet<Integer> searchResultIds;
+  private FuzzySearchIndex<Product> searchIndex;
+  private List<Product> searchIndexProducts;
   private final boolean debug;
   private final int maxDecimalPlacesAmount;
   private boolean alreadyLoadedFromDatabase;
@@ -146,11 +153,15 @@ public class StockOverviewViewModel extends BaseViewModel {
         SETTINGS_DEFAULT.STOCK.DECIMAL_PLACES_AMOUNT
     );
     alreadyLoadedFromDatabase = false;
+    userfieldSortRanksHashMap = new HashMap<>();
+    loadedUserfieldNames = new ArrayList<>();
 
     isLoadingLive = new MutableLiveData<>(false);
     dlHelper = new DownloadHelper(getApplication(), TAG, isLoadingLive::setValue, getOfflineLive());
+    filterPipeline = new FilterPipeline(TAG);
     grocyApi = new GrocyApi(getApplication());
     repository = new StockOverviewRepository(application);
+    searchRepository = new SearchRepository(application);
     pluralUtil = new PluralUtil(application);
 
     infoFullscreenLive = new MutableLiveData<>();
@@ -194,7 +205,7 @@ public class StockOverviewViewModel extends BaseViewModel {
     filterChipLiveDataFields = new FilterChipLiveDataFields(
         getApplication(),
         PREF.STOCK_FIELDS,
-        this::updateFilteredStockItems,
+        () -> loadUserfieldValuesIfNeeded(this::updateFilteredStockItems),
         new Field(FIELD_AMOUNT, getString(R.string.property_amount), true),
         new Field(FIELD_DUE_DATE, getString(R.string.property_due_date_next), true),
         new Field(FIELD_VALUE, getString(R.string.property_value), false),
@@ -208,16 +219,12 @@ public class StockOverviewViewModel extends BaseViewModel {
 
   public void loadFromDatabase(boolean downloadAfterLoading) {
     repository.loadFromDatabase(data -> {
-      quantityUnitHashMap = ArrayUtil.getQuantityUnitsHashMap(data.getQuantityUnits());
-      quantityUnitConversions = data.getQuantityUnitConversions();
-      productGroupHashMap = ArrayUtil.getProductGroupsHashMap(data.getProductGroups());
-      filterChipLiveDataProductGroup.setProductGroups(data.getProductGroups());
+      quantityUnitHashMap = data.getMasterData().getQuantityUnitHashMap();
+      productGroupHashMap = data.getMasterData().getProductGroupHashMap();
+      filterChipLiveDataProductGroup.setProductGroups(data.getMasterData().getProductGroups());
       this.products = data.getProducts();
       productHashMap = ArrayUtil.getProductsHashMap(data.getProducts());
-      productAveragePriceHashMap = ArrayUtil
-          .getProductAveragePriceHashMap(data.getProductsAveragePrice());
-      productLastPurchasedHashMap = ArrayUtil
-          .getProductLastPurchasedHashMap(data.getProductsLastPurchased());
+      stockItemDetailsHashMap = ArrayUtil.getStockItemDetailsHashMap(data.getStockItemDetails());
       productBarcodeHashMap = ArrayUtil.getProductBarcodesHashMap(data.getProductBarcodes());
       this.stockItems = data.getStockItems();
 
@@ -225,18 +232,18 @@ public class StockOverviewViewModel extends BaseViewModel {
       int itemsOverdueCount = 0;
       int itemsExpiredCount = 0;
       HashMap<Integer, StockItem> stockItemHashMap = ArrayUtil.getStockItemHashMap(stockItems);
-      for (VolatileItem volatileItem : data.getVolatileItems()) {
-        StockItem stockItem = stockItemHashMap.get(volatileItem.getProductId());
+      for (Map.Entry<Integer, Integer> dueType : data.getStockDue().getTypes().entrySet()) {
+        StockItem stockItem = stockItemHashMap.get(dueType.getKey());
         if (stockItem == null) continue;
         Product product = productHashMap.get(stockItem.getProductId());
         if (product != null && product.getNoOwnStockBoolean()) continue;
-        if (volatileItem.getVolatileType() == VolatileItem.TYPE_DUE) {
+        if (dueType.getValue() == VolatileItem.TYPE_DUE) {
           stockItem.setItemDue(true);
           itemsDueCount++;
-        } else if (volatileItem.getVolatileType() == VolatileItem.TYPE_OVERDUE) {
+        } else if (dueType.getValue() == VolatileItem.TYPE_OVERDUE) {
           stockItem.setItemOverdue(true);
           itemsOverdueCount++;
-        } else if (volatileItem.getVolatileType() == VolatileItem.TYPE_EXPIRED) {
+        } else if (dueType.getValue() == VolatileItem.TYPE_EXPIRED) {
           stockItem.setItemExpired(true);
           itemsExpiredCount++;
         }
@@ -267,15 +274,8 @@ public class StockOverviewViewModel extends BaseViewModel {
         }
       }
 
-      this.shoppingListItems = data.getShoppingListItems();
-      shoppingListItemsProductIds = new ArrayList<>();
-      for (ShoppingListItem item : shoppingListItems) {
-        if (item.getProductId() != null && !item.getProductId().isEmpty()) {
-          shoppingListItemsProductIds.add(item.getProductId());
-        }
-      }
-      filterChipLiveDataLocation.setLocations(data.getLocations());
-      locationHashMap = ArrayUtil.getLocationsHashMap(data.getLocations());
+      filterChipLiveDataLocation.setLocations(data.getMasterData().getLocations());
+      locationHashMap = data.getMasterData().getLocationHashMap();
 
       stockLocationsHashMap = new HashMap<>();
       for (StockLocation stockLocation : data.getStockCurrentLocations()) {
@@ -292,6 +292,7 @@ public class StockOverviewViewModel extends BaseViewModel {
       filterChipLiveDataGrouping.setUserfields(data.getUserfields(), DISPLAYED_USERFIELD_ENTITIES);
       filterChipLiveDataFields.setUserfields(data.getUserfields(), DISPLAYED_USERFIELD_ENTITIES);
       userfieldHashMap = ArrayUtil.getUserfieldHashMap(data.getUserfields());
+      loadedUserfieldNames = new ArrayList<>();
 
       filterChipLiveDataStatus
           .setNotFreshCount(itemsDueCount+itemsOverdueCount+itemsExpiredCount)
@@ -302,7 +303,7 @@ public class StockOverviewViewModel extends BaseViewModel {
           .setInStockCount(itemsInStockCount)
           .setOpenedCount(itemsOpenedCount)
           .emitCounts();
-      updateFilteredStockItems();
+      loadUserfieldValuesIfNeeded(this::updateFilteredStockItems);
       alreadyLoadedFromDatabase = true;
       if (downloadAfterLoading) {
         downloadData(false);
@@ -323,7 +324,6 @@ public class StockOverviewViewModel extends BaseViewModel {
         StockItem.class,
         Product.class,
         ProductBarcode.class,
-        VolatileItem.class,
         ShoppingListItem.class,
         Location.class,
         ProductAveragePrice.class,
@@ -334,121 +334,188 @@ public class StockOverviewViewModel extends BaseViewModel {
   }
 
   public void updateFilteredStockItems() {
-    ArrayList<StockItem> filteredStockItems = new ArrayList<>();
-
-    Product productSearch = null;
-    ProductBarcode productBarcodeSearch = null;
-    if (searchInput != null && !searchInput.isEmpty()) {
-      Grocycode grocycode = GrocycodeUtil.getGrocycode(searchInput);
-      if (grocycode != null && grocycode.isProduct()) {
-        productSearch = productHashMap.get(grocycode.getObjectId());
+    updateFilteredStockItems(0, false);
+  }
+
+  private void updateFilteredStockItems(long delayMillis, boolean scrollUp) {
+    if (stockItems == null) {
+      return;
+    }
+    // captured here, the filter runs on a background thread
+    List<StockItem> stockItems = this.stockItems;
+    HashMap<Integer, Product> productHashMap = this.productHashMap;
+    HashMap<String, ProductBarcode> productBarcodeHashMap = this.productBarcodeHashMap;
+    HashMap<Integer, HashMap<Integer, StockLocation>> stockLocationsHashMap
+        = this.stockLocationsHashMap;
+    HashMap<Integer, MissingItem> productIdsMissingItems = this.productIdsMissingItems;
+    String searchInput = this.searchInput;
+    HashSet<Integer> searchResultIds = this.searchResultIds;
+    FuzzySearchIndex<Product> searchIndex = searchInput != null && !searchInput.isEmpty()
+        ? getSearchIndex() : null;
+    int status = filterChipLiveDataStatus.getStatus();
+    int productGroupFilterId = filterChipLiveDataProductGroup.getSelectedId();
+    int locationFilterId = filterChipLiveDataLocation.getSelectedId();
+
+    filterPipeline.submit(delayMillis, isCancelled -> {
+      ArrayList<StockItem> filteredStockItems = new ArrayList<>();
+
+      Product productSearch = null;
+      ProductBarcode productBarcodeSearch = null;
+      if (searchInput != null && !searchInput.isEmpty()) {
+        Grocycode grocycode = GrocycodeUtil.getGrocycode(searchInput);
+        if (grocycode != null && grocycode.isProduct()) {
+          productSearch = productHashMap.get(grocycode.getObjectId());
+        }
+        if (productSearch == null) {
+          productBarcodeSearch = productBarcodeHashMap.get(searchInput);
+        }
       }
-      if (productSearch == null) {
-        productBarcodeSearch = productBarcodeHashMap.get(searchInput);
+      // fuzzy matches are kept for typos, the search index only matches word prefixes
+      HashSet<Integer> fuzzyResultIds = new HashSet<>();
+      if (searchIndex != null) {
+        for (Product product : searchIndex.search(searchInput, 70)) {
+          fuzzyResultIds.add(product.getId());
+        }
       }
-    }
 
-    for (StockItem item : this.stockItems) {
-      if (item.getProduct() == null) {
-        // invalidate products and stock items offline cache because products may have changed
-        SharedPreferences.Editor editPrefs = sharedPrefs.edit();
-        editPrefs.putString(PREF.DB_LAST_TIME_PRODUCTS, null);
-        editPrefs.putString(PREF.DB_LAST_TIME_STOCK_ITEMS, null);
-        editPrefs.apply();
-        continue;
-      }
+      for (StockItem item : stockItems) {
+        if (isCancelled.getAsBoolean()) {
+          return null;
+        }
+        if (item.getProduct() == null) {
+          // invalidate products and stock items offline cache because products may have changed
+          SharedPreferences.Editor editPrefs = sharedPrefs.edit();
+          editPrefs.putString(PREF.DB_LAST_TIME_PRODUCTS, null);
+          editPrefs.putString(PREF.DB_LAST_TIME_STOCK_ITEMS, null);
+          editPrefs.apply();
+          continue;
+        }
 
-      if (item.getProduct().getHideOnStockOverviewBoolean()) {
-        continue;
-      }
+        if (item.getProduct().getHideOnStockOverviewBoolean()) {
+          continue;
+        }
 
-      boolean searchContainsItem = true;
-      if (searchInput != null && !searchInput.isEmpty()) {
-        String productName = item.getProduct().getName().toLowerCase();
-        searchContainsItem = productName.contains(searchInput);
-        if (!searchContainsItem) {
-          searchContainsItem = searchResultsFuzzy.contains(productName);
+        boolean searchContainsItem = true;
+        if (searchInput != null && !searchInput.isEmpty()) {
+          String productName = item.getProduct().getName().toLowerCase();
+          searchContainsItem = productName.contains(searchInput);
+          if (!searchContainsItem && searchResultIds != null) {
+            searchContainsItem = searchResultIds.contains(item.getProductId());
+          }
+          if (!searchContainsItem) {
+            searchContainsItem = fuzzyResultIds.contains(item.getProductId());
+          }
+        }
+        if (!searchContainsItem && productSearch == null && productBarcodeSearch == null) {
+          continue;
+        }
+        if (!searchContainsItem && productSearch == null
+            && productBarcodeSearch.getProductIdInt() != item.getProductId()) {
+          continue;
+        }
+        if (productSearch != null && productSearch.getId() != item.getProductId()) {
+          continue;
         }
-      }
-      if (!searchContainsItem && productSearch == null && productBarcodeSearch == null) {
-        continue;
-      }
-      if (!searchContainsItem && productSearch == null
-          && productBarcodeSearch.getProductIdInt() != item.getProductId()) {
-        continue;
-      }
-      if (productSearch != null && productSearch.getId() != item.getProductId()) {
-        continue;
-      }
 
-      int productGroupFilterId = filterChipLiveDataProductGroup.getSelectedId();
-      if (productGroupFilterId != FilterChipLiveDataProductGroup.NO_FILTER
-          && NumUtil.isStringInt(item.getProduct().getProductGroupId())
-          && productGroupFilterId != Integer.parseInt(item.getProduct().getProductGroupId())
-          || productGroupFilterId != FilterChipLiveDataProductGroup.NO_FILTER
-          && !NumUtil.isStringInt(item.getProduct().getProductGroupId())
-      ) {
-        continue;
-      }
-      int locationFilterId = filterChipLiveDataLocation.getSelectedId();
-      if (locationFilterId != FilterChipLiveDataLocation.NO_FILTER) {
-        HashMap<Integer, StockLocation> stockLocationsForProductId
-            = stockLocationsHashMap.get(item.getProductId());
-        if (stockLocationsForProductId == null
-            || !stockLocationsForProductId.containsKey(locationFilterId)
+        if (productGroupFilterId != FilterChipLiveDataProductGroup.NO_FILTER
+            && NumUtil.isStringInt(item.getProduct().getProductGroupId())
+            && productGroupFilterId != Integer.parseInt(item.getProduct().getProductGroupId())
+            || productGroupFilterId != FilterChipLiveDataProductGroup.NO_FILTER
+            && !NumUtil.isStringInt(item.getProduct().getProductGroupId())
         ) {
           continue;
         }
-      }
+        if (locationFilterId != FilterChipLiveDataLocation.NO_FILTER) {
+          HashMap<Integer, StockLocation> stockLocationsForProductId
+              = stockLocationsHashMap.get(item.getProductId());
+          if (stockLocationsForProductId == null
+              || !stockLocationsForProductId.containsKey(locationFilterId)
+          ) {
+            continue;
+          }
+        }
 
-      MissingItem missingItem = productIdsMissingItems.get(item.getProductId());
-      boolean hasOwnStock = !item.getProduct().getNoOwnStockBoolean();
-      if (filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusStock.STATUS_ALL
-          || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusStock.STATUS_NOT_FRESH
-          && (item.isItemDue() || item.isItemOverdue() || item.isItemExpired()) && hasOwnStock
-          || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusStock.STATUS_DUE_SOON
-          && item.isItemDue() && hasOwnStock
-          || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusStock.STATUS_OVERDUE
-          && item.isItemOverdue() && hasOwnStock
-          || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusStock.STATUS_EXPIRED
-          && item.isItemExpired() && hasOwnStock
-          || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusStock.STATUS_BELOW_MIN
-          && missingItem != null
-          || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusStock.STATUS_IN_STOCK
-          && (missingItem == null || missingItem.getIsPartlyInStockBoolean())
-          || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusStock.STATUS_OPENED
-          && item.getAmountOpenedDouble() > 0
-      ) {
-        filteredStockItems.add(item);
+        MissingItem missingItem = productIdsMissingItems.get(item.getProductId());
+        boolean hasOwnStock = !item.getProduct().getNoOwnStockBoolean();
+        if (status == FilterChipLiveDataStatusStock.STATUS_ALL
+            || status == FilterChipLiveDataStatusStock.STATUS_NOT_FRESH
+            && (item.isItemDue() || item.isItemOverdue() || item.isItemExpired()) && hasOwnStock
+            || status == FilterChipLiveDataStatusStock.STATUS_DUE_SOON
+            && item.isItemDue() && hasOwnStock
+            || status == FilterChipLiveDataStatusStock.STATUS_OVERDUE
+            && item.isItemOverdue() && hasOwnStock
+            || status == FilterChipLiveDataStatusStock.STATUS_EXPIRED
+            && item.isItemExpired() && hasOwnStock
+            || status == FilterChipLiveDataStatusStock.STATUS_BELOW_MIN
+            && missingItem != null
+            || status == FilterChipLiveDataStatusStock.STATUS_IN_STOCK
+            && (missingItem == null || missingItem.getIsPartlyInStockBoolean())
+            || status == FilterChipLiveDataStatusStock.STATUS_OPENED
+            && item.getAmountOpenedDouble() > 0
+        ) {
+          filteredStockItems.add(item);
+        }
       }
-    }
 
-    if (filteredStockItems.isEmpty()) {
-      InfoFullscreen info;
-      if (searchInput != null && !searchInput.isEmpty()) {
-        info = new InfoFullscreen(InfoFullscreen.INFO_NO_SEARCH_RESULTS);
-      } else if (filterChipLiveDataStatus.getStatus()
-          != FilterChipLiveDataStatusStock.STATUS_ALL
-          || filterChipLiveDataProductGroup.getSelectedId()
-          != FilterChipLiveDataProductGroup.NO_FILTER
-          || filterChipLiveDataLocation.getSelectedId()
-          != FilterChipLiveDataProductGroup.NO_FILTER
-      ) {
-        info = new InfoFullscreen(InfoFullscreen.INFO_NO_FILTER_RESULTS);
+      return filteredStockItems;
+    }, filteredStockItems -> {
+      if (filteredStockItems.isEmpty()) {
+        InfoFullscreen info;
+        if (searchInput != null && !searchInput.isEmpty()) {
+          info = new InfoFullscreen(InfoFullscreen.INFO_NO_SEARCH_RESULTS);
+        } else if (status != FilterChipLiveDataStatusStock.STATUS_ALL
+            || productGroupFilterId != FilterChipLiveDataProductGroup.NO_FILTER
+            || locationFilterId != FilterChipLiveDataProductGroup.NO_FILTER
+        ) {
+          info = new InfoFullscreen(InfoFullscreen.INFO_NO_FILTER_RESULTS);
+        } else {
+          info = new InfoFullscreen(InfoFullscreen.INFO_EMPTY_STOCK);
+        }
+        infoFullscreenLive.setValue(info);
       } else {
-        info = new InfoFullscreen(InfoFullscreen.INFO_EMPTY_STOCK);
+        infoFullscreenLive.setValue(null);
       }
-      infoFullscreenLive.setValue(info);
-    } else {
-      infoFullscreenLive.setValue(null);
-    }
-
-    filteredStockItemsLive.setValue(filteredStockItems);
+      filteredStockItemsLive.setValue(filteredStockItems);
+      if (scrollUp) {
+        sendEvent(Event.SCROLL_UP);
+      }
+    });
   }
 
   public void updateFilteredStockItemsWithTopScroll() {
-    updateFilteredStockItems();
-    sendEvent(Event.SCROLL_UP);
+    loadUserfieldValuesIfNeeded(() -> updateFilteredStockItems(0, true));
+  }
+
+  private List<String> getActiveUserfieldNames() {
+    List<String> modes = new ArrayList<>(getActiveFields());
+    modes.add(getSortMode());
+    modes.add(getGroupingMode());
+    List<String> userfieldNames = new ArrayList<>();
+    for (String mode : modes) {
+      if (mode == null || !mode.startsWith(Userfield.NAME_PREFIX)) continue;
+      String userfieldName = mode.substring(Userfield.NAME_PREFIX.length());
+      if (!userfieldNames.contains(userfieldName)) {
+        userfieldNames.add(userfieldName);
+      }
+    }
+    return userfieldNames;
+  }
+
+  // userfield values are only loaded if a userfield is displayed, sorted or grouped by
+  private void loadUserfieldValuesIfNeeded(Runnable onLoaded) {
+    List<String> userfieldNames = getActiveUserfieldNames();
+    if (userfieldNames.isEmpty() || loadedUserfieldNames.containsAll(userfieldNames)) {
+      onLoaded.run();
+      return;
+    }
+    repository.loadUserfieldValues(userfieldNames, userfieldValues -> {
+      UserfieldValue.fillObjectsWithUserfields(
+          products, userfieldValues, Product::getId, Product::setUserfields
+      );
+      userfieldSortRanksHashMap = UserfieldValue.getSortRanksHashMap(userfieldValues);
+      loadedUserfieldNames = userfieldNames;
+      onLoaded.run();
+    }, error -> onError(error, TAG));
   }
 
   public void performAction(String action, StockItem stockItem) {
@@ -629,29 +696,41 @@ public class StockOverviewViewModel extends BaseViewModel {
 
   public void resetSearch() {
     searchInput = null;
+    searchResultIds = null;
+    searchRepository.cancel();
     setIsSearchVisible(false);
   }
 
+  // built once per loaded product list, searching it is thread-safe
+  private FuzzySearchIndex<Product> getSearchIndex() {
+    if (searchIndex == null || searchIndexProducts != products) {
+      searchIndex = new FuzzySearchIndex<>(products, Product::getName);
+      searchIndexProducts = products;
+    }
+    return searchIndex;
+  }
+
   public MutableLiveData<ArrayList<StockItem>> getFilteredStockItemsLive() {
     return filteredStockItemsLive;
   }
 
   public void updateSearchInput(String input) {
     this.searchInput = input.toLowerCase();
+    searchResultIds = null;
+    updateFilteredStockItems(FilterPipeline.SEARCH_DEBOUNCE_MILLIS, false);
 
-    // Initialize suggestion list with max. capacity; growing is expensive.
-    searchResultsFuzzy = new ArrayList<>(products.size());
-    List<BoundExtractedResult<Product>> results = FuzzySearch.extractSorted(
+    // index matches are added when the query is finished and the input is still the same
+    searchRepository.searchProducts(
         this.searchInput,
-        products,
-        item -> item.getName().toLowerCase(),
-        70
+        (searchedInput, productIds) -> {
+          if (!Objects.equals(searchedInput, searchInput)) return;
+          searchResultIds = new HashSet<>(productIds);
+          updateFilteredStockItems();
+        },
+        error -> {
+          if (debug) Log.e(TAG, "updateSearchInput: " + error);
+        }
     );
-    for (BoundExtractedResult<Product> result : results) {
-      searchResultsFuzzy.add(result.getString());
-    }
-
-    updateFilteredStockItems();
   }
 
   public ArrayList<Integer> getProductIdsMissingItems() {
@@ -666,16 +745,8 @@ public class StockOverviewViewModel extends BaseViewModel {
     return productHashMap;
   }
 
-  public HashMap<Integer, String> getProductAveragePriceHashMap() {
-    return productAveragePriceHashMap;
-  }
-
-  public HashMap<Integer, ProductLastPurchased> getProductLastPurchasedHashMap() {
-    return productLastPurchasedHashMap;
-  }
-
-  public ArrayList<String> getShoppingListItemsProductIds() {
-    return shoppingListItemsProductIds;
+  public HashMap<Integer, StockItemDetails> getStockItemDetailsHashMap() {
+    return stockItemDetailsHashMap;
   }
 
   public HashMap<Integer, Location> getLocationHashMap() {
@@ -690,10 +761,6 @@ public class StockOverviewViewModel extends BaseViewModel {
     return quantityUnitHashMap;
   }
 
-  public List<QuantityUnitConversionResolved> getQuantityUnitConversions() {
-    return quantityUnitConversions;
-  }
-
   public QuantityUnit getQuantityUnitFromId(int id) {
     return quantityUnitHashMap.get(id);
   }
@@ -702,6 +769,10 @@ public class StockOverviewViewModel extends BaseViewModel {
     return userfieldHashMap;
   }
 
+  public HashMap<String, HashMap<Integer, Integer>> getUserfieldSortRanksHashMap() {
+    return userfieldSortRanksHashMap;
+  }
+
   public FilterChipLiveData.Listener getFilterChipLiveDataStatus() {
     return () -> filterChipLiveDataStatus;
   }
@@ -793,6 +864,8 @@ public class StockOverviewViewModel extends BaseViewModel {
 
   @Override
   protected void onCleared() {
+    filterPipeline.cancel();
+    searchRepository.cancel();
     dlHelper.destroy();
     super.onCleared();
   }
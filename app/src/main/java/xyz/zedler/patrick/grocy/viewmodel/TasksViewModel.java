@@ -27,7 +27,9 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.preference.PreferenceManager;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import org.json.JSONException;
 import org.json.JSONObject;
 import xyz.zedler.patrick.grocy.Constants.PREF;
@@ -45,6 +47,7 @@ import xyz.zedler.patrick.grocy.model.Task;
 import xyz.zedler.patrick.grocy.model.TaskCategory;
 import xyz.zedler.patrick.grocy.model.User;
 import xyz.zedler.patrick.grocy.repository.TasksRepository;
+import xyz.zedler.patrick.grocy.repository.SearchRepository;
 import xyz.zedler.patrick.grocy.util.ArrayUtil;
 import xyz.zedler.patrick.grocy.util.DateUtil;
 import xyz.zedler.patrick.grocy.util.PluralUtil;
@@ -63,6 +66,7 @@ public class TasksViewModel extends BaseViewModel {
   private final DownloadHelper dlHelper;
   private final GrocyApi grocyApi;
   private final TasksRepository repository;
+  private final SearchRepository searchRepository;
   private final PluralUtil pluralUtil;
   private final DateUtil dateUtil;
 
@@ -78,6 +82,7 @@ public class TasksViewModel extends BaseViewModel {
   private HashMap<Integer, User> usersHashMap;
 
   private String searchInput;
+  private HashSet<Integer> searchResultIds;
   private int tasksDueTodayCount;
   private int tasksDueSoonCount;
   private int tasksOverdueCount;
@@ -93,6 +98,7 @@ public class TasksViewModel extends BaseViewModel {
     dlHelper = new DownloadHelper(getApplication(), TAG, isLoadingLive::setValue, getOfflineLive());
     grocyApi = new GrocyApi(getApplication());
     repository = new TasksRepository(application);
+    searchRepository = new SearchRepository(application);
     pluralUtil = new PluralUtil(application);
     dateUtil = new DateUtil(application);
 
@@ -127,7 +133,7 @@ public class TasksViewModel extends BaseViewModel {
       tasksOverdueCount = 0;
       for (Task task : data.getTasks()) {
         if (task.isDone()) continue;
-        int daysFromNow = DateUtil.getDaysFromNow(task.getDueDate());
+        int daysFromNow = DateUtil.getDaysFromNow(task.getDueDateEpochDay());
         if (daysFromNow < 0) {
           tasksOverdueCount++;
         }
@@ -172,6 +178,9 @@ public class TasksViewModel extends BaseViewModel {
       boolean searchContainsItem = true;
       if (searchInput != null && !searchInput.isEmpty()) {
         searchContainsItem = task.getName().toLowerCase().contains(searchInput);
+        if (!searchContainsItem && searchResultIds != null) {
+          searchContainsItem = searchResultIds.contains(task.getId());
+        }
       }
       if (!searchContainsItem) {
         continue;
@@ -179,7 +188,7 @@ public class TasksViewModel extends BaseViewModel {
       if (!filterChipLiveDataStatus.isShowDoneTasks() && task.isDone()) {
         continue;
       }
-      int daysFromNow = DateUtil.getDaysFromNow(task.getDueDate());
+      int daysFromNow = DateUtil.getDaysFromNow(task.getDueDateEpochDay());
       if (filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusTasks.STATUS_OVERDUE
           && daysFromNow >= 0
           || filterChipLiveDataStatus.getStatus() == FilterChipLiveDataStatusTasks.STATUS_DUE_TODAY
@@ -269,6 +278,7 @@ public class TasksViewModel extends BaseViewModel {
 
   public void resetSearch() {
     searchInput = null;
+    searchResultIds = null;
     setIsSearchVisible(false);
   }
 
@@ -286,7 +296,20 @@ public class TasksViewModel extends BaseViewModel {
 
   public void updateSearchInput(String input) {
     this.searchInput = input.toLowerCase();
+    searchResultIds = null;
     updateFilteredTasks();
+
+    searchRepository.searchTasks(
+        this.searchInput,
+        (searchedInput, ids) -> {
+          if (!Objects.equals(searchedInput, searchInput)) return;
+          searchResultIds = new HashSet<>(ids);
+          updateFilteredTasks();
+        },
+        error -> {
+          if (debug) Log.e(TAG, "updateSearchInput: " + error);
+        }
+    );
   }
 
   public String getSortMode() {
@@ -324,6 +347,7 @@ public class TasksViewModel extends BaseViewModel {
 
   @Override
   protected void onCleared() {
+    searchRepository.cancel();
     dlHelper.destroy();
     super.onCleared();
   }
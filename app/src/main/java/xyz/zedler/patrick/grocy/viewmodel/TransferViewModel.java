@@ -203,7 +203,7 @@ public class TransferViewModel extends BaseViewModel {
           quantityUnitHashMap,
           unitConversions,
           product,
-          VersionUtil.isGrocyServerMin400(sharedPrefs)
+          VersionUtil.hasResolvedConversions(sharedPrefs)
       );
       formData.getQuantityUnitsFactorsLive().setValue(unitFactors);
       QuantityUnit stock = quantityUnitHashMap.get(product.getQuIdStockInt());
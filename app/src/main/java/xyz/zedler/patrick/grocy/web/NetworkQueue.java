@@ -143,6 +143,10 @@ public class NetworkQueue {
     queueItems.clear();
   }
 
+  public String getUuid() {
+    return uuidQueue;
+  }
+
   public int getSize() {
     return requestsNotFinishedCount;
   }
@@ -0,0 +1,186 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import org.junit.Test;
+import xyz.zedler.patrick.grocy.model.MissingItem;
+import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.StockItem;
+
+public class MinStockEngineTest {
+
+  private final MinStockEngine engine = new MinStockEngine();
+
+  @Test
+  public void belowMinStock_missingDifference() {
+    List<Product> products = Arrays.asList(product(1, "2"), product(2, "2"), product(3, "2"));
+    HashMap<Integer, MissingItem> missing = update(products,
+        stockItem(1, "1.5", null), stockItem(2, "2", null));
+
+    MissingItem item = missing.get(1);
+    assertNotNull(item);
+    assertEquals("Product 1", item.getName());
+    assertEquals(0.5, item.getAmountMissingDouble(), 0.0001);
+    assertTrue(item.getIsPartlyInStockBoolean());
+
+    assertNull(missing.get(2));
+
+    item = missing.get(3);
+    assertNotNull(item);
+    assertEquals(2, item.getAmountMissingDouble(), 0.0001);
+    assertFalse(item.getIsPartlyInStockBoolean());
+  }
+
+  @Test
+  public void withoutMinStockOrInactive_notChecked() {
+    Product inactive = product(2, "1");
+    inactive.setActive(false);
+    HashMap<Integer, MissingItem> missing = update(
+        Arrays.asList(product(1, "0"), inactive, product(3, null))
+    );
+    assertTrue(missing.isEmpty());
+  }
+
+  @Test
+  public void treatOpenedAsOutOfStock() {
+    Product treatOpened = product(1, "2");
+    treatOpened.setTreatOpenedAsOutOfStock("1");
+    HashMap<Integer, MissingItem> missing = update(
+        Arrays.asList(treatOpened, product(2, "2")),
+        stockItem(1, "3", "2"), stockItem(2, "3", "2")
+    );
+    assertEquals(1, missing.get(1).getAmountMissingDouble(), 0.0001);
+    assertNull(missing.get(2));
+  }
+
+  @Test
+  public void accumulatedSubProducts_checkedAsParent() {
+    Product parent = product(1, "0");
+    parent.setAccumulateSubProductsMinStockAmount(true);
+    Product sub1 = subProduct(2, "1", 1);
+    Product sub2 = subProduct(3, "1", 1);
+    // also checked if inactive, like on the server
+    sub2.setActive(false);
+    Product otherParent = product(4, "0");
+    Product sub3 = subProduct(5, "1", 4);
+
+    HashMap<Integer, MissingItem> missing = update(
+        Arrays.asList(parent, sub1, sub2, otherParent, sub3), stockItem(2, "1", null)
+    );
+    assertEquals(2, missing.size());
+    MissingItem item = missing.get(1);
+    assertEquals("Product 1", item.getName());
+    assertEquals(1, item.getAmountMissingDouble(), 0.0001);
+    assertTrue(item.getIsPartlyInStockBoolean());
+    assertNull(missing.get(2));
+    assertNull(missing.get(3));
+    assertEquals(1, missing.get(5).getAmountMissingDouble(), 0.0001);
+  }
+
+  @Test
+  public void stockChanged_updatesOnlyChangedProducts() {
+    List<Product> products = Arrays.asList(product(1, "2"), product(2, "2"));
+    List<MissingItem> first = engine.update(
+        products, Arrays.asList(stockItem(1, "1", null), stockItem(2, "3", null))
+    );
+    assertEquals(1, first.size());
+
+    HashMap<Integer, MissingItem> missing = update(products,
+        stockItem(1, "2", null), stockItem(2, "1", null));
+    assertNull(missing.get(1));
+    assertEquals(1, missing.get(2).getAmountMissingDouble(), 0.0001);
+    // earlier results are not modified
+    assertEquals(1, first.size());
+    assertEquals(1, first.get(0).getId());
+
+    // stock item removed
+    missing = update(products, stockItem(1, "2", null));
+    assertEquals(2, missing.get(2).getAmountMissingDouble(), 0.0001);
+    assertFalse(missing.get(2).getIsPartlyInStockBoolean());
+  }
+
+  @Test
+  public void productsChanged_checksAllAgain() {
+    update(Arrays.asList(product(1, "2"), product(2, "2")),
+        stockItem(1, "1", null), stockItem(2, "1", null));
+    HashMap<Integer, MissingItem> missing = update(
+        Arrays.asList(product(1, "1"), product(2, "3")),
+        stockItem(1, "1", null), stockItem(2, "1", null)
+    );
+    assertNull(missing.get(1));
+    assertEquals(2, missing.get(2).getAmountMissingDouble(), 0.0001);
+  }
+
+  private HashMap<Integer, MissingItem> update(List<Product> products, StockItem... stockItems) {
+    HashMap<Integer, MissingItem> missing = new HashMap<>();
+    for (MissingItem item : engine.update(
+        new ArrayList<>(products), new ArrayList<>(Arrays.asList(stockItems))
+    )) {
+      missing.put(item.getId(), item);
+    }
+    return missing;
+  }
+
+  @Test
+  public void productsWithMinStockAmount_likeDaoQuery() {
+    Product parent = product(1, "0");
+    Product sub = subProduct(2, "3", 1);
+    Product inStockOnly = product(3, "0");
+    Product withMinStock = product(4, "1");
+    Product subWithoutMinStock = subProduct(5, "0", 3);
+    List<Product> products = MinStockEngine.getProductsWithMinStockAmount(
+        Arrays.asList(parent, sub, inStockOnly, withMinStock, subWithoutMinStock)
+    );
+    assertEquals(Arrays.asList(parent, sub, withMinStock), products);
+  }
+
+  private static Product product(int id, String minStockAmount) {
+    Product product = new Product();
+    product.setId(id);
+    product.setName("Product " + id);
+    product.setActive(true);
+    product.setMinStockAmount(minStockAmount);
+    return product;
+  }
+
+  private static Product subProduct(int id, String minStockAmount, int parentId) {
+    Product product = product(id, minStockAmount);
+    product.setParentProductId(String.valueOf(parentId));
+    return product;
+  }
+
+  private static StockItem stockItem(int productId, String amount, String amountOpened) {
+    StockItem stockItem = new StockItem();
+    stockItem.setProductId(productId);
+    stockItem.setAmount(amount);
+    stockItem.setAmountOpened(amountOpened);
+    return stockItem;
+  }
+}
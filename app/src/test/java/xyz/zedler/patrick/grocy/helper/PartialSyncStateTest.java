@@ -0,0 +1,269 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.SharedPreferences;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PartialSyncStateTest {
+
+  private static final String LAST_TIME = "last_time";
+  private static final String SYNCED_KEYS = "synced_keys";
+  private static final String TIME_1 = "2023-05-01 10:00:00";
+  private static final String TIME_2 = "2023-05-01 11:00:00";
+
+  private FakeSharedPreferences sharedPrefs;
+  private PartialSyncState syncState;
+
+  @Before
+  public void setUp() {
+    sharedPrefs = new FakeSharedPreferences();
+    syncState = new PartialSyncState(sharedPrefs, LAST_TIME, SYNCED_KEYS);
+  }
+
+  @Test
+  public void nothingStored_nothingSynced() {
+    assertFalse(syncState.isFullySynced(TIME_1));
+    assertFalse(syncState.isSynced(TIME_1, "1"));
+    assertTrue(syncState.getSyncedKeys(TIME_1).isEmpty());
+  }
+
+  @Test
+  public void markFullySynced_everyKeySynced() {
+    syncState.markFullySynced(TIME_1);
+    assertTrue(syncState.isFullySynced(TIME_1));
+    assertTrue(syncState.isSynced(TIME_1, "1"));
+    assertTrue(syncState.getSyncedKeys(TIME_1).isEmpty());
+  }
+
+  @Test
+  public void markSynced_partsOnlyAndNotFullySynced() {
+    syncState.markSynced(TIME_1, Collections.singletonList("1"));
+    assertFalse(syncState.isFullySynced(TIME_1));
+    assertTrue(syncState.isSynced(TIME_1, "1"));
+    assertFalse(syncState.isSynced(TIME_1, "2"));
+  }
+
+  @Test
+  public void markSynced_addsToPartsOfSameTime() {
+    syncState.markSynced(TIME_1, Arrays.asList("1", "2"));
+    syncState.markSynced(TIME_1, Arrays.asList("2", "3"));
+    assertEquals(Arrays.asList("1", "2", "3"), new ArrayList<>(syncState.getSyncedKeys(TIME_1)));
+    assertEquals("1,2,3", sharedPrefs.getString(SYNCED_KEYS, null));
+  }
+
+  @Test
+  public void markSynced_emptyPartsNotFullySynced() {
+    syncState.markSynced(TIME_1, Collections.emptyList());
+    assertFalse(syncState.isFullySynced(TIME_1));
+    assertTrue(syncState.getSyncedKeys(TIME_1).isEmpty());
+  }
+
+  @Test
+  public void markSynced_afterFullSync_staysFullySynced() {
+    syncState.markFullySynced(TIME_1);
+    syncState.markSynced(TIME_1, Collections.singletonList("1"));
+    assertTrue(syncState.isFullySynced(TIME_1));
+    assertNull(sharedPrefs.getString(SYNCED_KEYS, null));
+  }
+
+  @Test
+  public void markFullySynced_afterPartialSyncs_clearsParts() {
+    syncState.markSynced(TIME_1, Collections.singletonList("1"));
+    syncState.markFullySynced(TIME_1);
+    assertTrue(syncState.isFullySynced(TIME_1));
+    assertTrue(syncState.isSynced(TIME_1, "2"));
+  }
+
+  @Test
+  public void newTime_invalidatesFullSync() {
+    syncState.markFullySynced(TIME_1);
+    assertFalse(syncState.isFullySynced(TIME_2));
+    assertFalse(syncState.isSynced(TIME_2, "1"));
+  }
+
+  @Test
+  public void newTime_invalidatesParts() {
+    syncState.markSynced(TIME_1, Arrays.asList("1", "2"));
+    assertFalse(syncState.isSynced(TIME_2, "1"));
+    assertTrue(syncState.getSyncedKeys(TIME_2).isEmpty());
+
+    syncState.markSynced(TIME_2, Collections.singletonList("3"));
+    assertEquals(TIME_2, sharedPrefs.getString(LAST_TIME, null));
+    assertEquals("3", sharedPrefs.getString(SYNCED_KEYS, null));
+  }
+
+  @Test
+  public void newTime_afterFullSync_startsParts() {
+    syncState.markFullySynced(TIME_1);
+    syncState.markSynced(TIME_2, Collections.singletonList("1"));
+    assertFalse(syncState.isFullySynced(TIME_2));
+    assertTrue(syncState.isSynced(TIME_2, "1"));
+    assertFalse(syncState.isSynced(TIME_2, "2"));
+  }
+
+  private static class FakeSharedPreferences implements SharedPreferences {
+
+    private final Map<String, Object> values = new HashMap<>();
+
+    @Override
+    public Map<String, ?> getAll() {
+      return new HashMap<>(values);
+    }
+
+    @Override
+    public String getString(String key, String defValue) {
+      return values.containsKey(key) ? (String) values.get(key) : defValue;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Set<String> getStringSet(String key, Set<String> defValues) {
+      return values.containsKey(key) ? (Set<String>) values.get(key) : defValues;
+    }
+
+    @Override
+    public int getInt(String key, int defValue) {
+      return values.containsKey(key) ? (Integer) values.get(key) : defValue;
+    }
+
+    @Override
+    public long getLong(String key, long defValue) {
+      return values.containsKey(key) ? (Long) values.get(key) : defValue;
+    }
+
+    @Override
+    public float getFloat(String key, float defValue) {
+      return values.containsKey(key) ? (Float) values.get(key) : defValue;
+    }
+
+    @Override
+    public boolean getBoolean(String key, boolean defValue) {
+      return values.containsKey(key) ? (Boolean) values.get(key) : defValue;
+    }
+
+    @Override
+    public boolean contains(String key) {
+      return values.containsKey(key);
+    }
+
+    @Override
+    public Editor edit() {
+      return new FakeEditor();
+    }
+
+    @Override
+    public void registerOnSharedPreferenceChangeListener(
+        OnSharedPreferenceChangeListener listener
+    ) {
+    }
+
+    @Override
+    public void unregisterOnSharedPreferenceChangeListener(
+        OnSharedPreferenceChangeListener listener
+    ) {
+    }
+
+    private class FakeEditor implements Editor {
+
+      private final Map<String, Object> changes = new HashMap<>();
+      private final List<String> removals = new ArrayList<>();
+      private boolean clear = false;
+
+      @Override
+      public Editor putString(String key, String value) {
+        changes.put(key, value);
+        return this;
+      }
+
+      @Override
+      public Editor putStringSet(String key, Set<String> values) {
+        changes.put(key, values);
+        return this;
+      }
+
+      @Override
+      public Editor putInt(String key, int value) {
+        changes.put(key, value);
+        return this;
+      }
+
+      @Override
+      public Editor putLong(String key, long value) {
+        changes.put(key, value);
+        return this;
+      }
+
+      @Override
+      public Editor putFloat(String key, float value) {
+        changes.put(key, value);
+        return this;
+      }
+
+      @Override
+      public Editor putBoolean(String key, boolean value) {
+        changes.put(key, value);
+        return this;
+      }
+
+      @Override
+      public Editor remove(String key) {
+        removals.add(key);
+        return this;
+      }
+
+      @Override
+      public Editor clear() {
+        clear = true;
+        return this;
+      }
+
+      @Override
+      public boolean commit() {
+        if (clear) {
+          values.clear();
+        }
+        for (String key : removals) {
+          values.remove(key);
+        }
+        values.putAll(changes);
+        return true;
+      }
+
+      @Override
+      public void apply() {
+        commit();
+      }
+    }
+  }
+}
@@ -0,0 +1,366 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import org.junit.Test;
+import xyz.zedler.patrick.grocy.helper.RecipeFulfillmentEngine.Demand;
+import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.ProductLastPurchased;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
+import xyz.zedler.patrick.grocy.model.Recipe;
+import xyz.zedler.patrick.grocy.model.RecipeFulfillment;
+import xyz.zedler.patrick.grocy.model.RecipeNesting;
+import xyz.zedler.patrick.grocy.model.RecipePosition;
+import xyz.zedler.patrick.grocy.model.ShoppingListItem;
+import xyz.zedler.patrick.grocy.model.StockItem;
+
+public class RecipeFulfillmentEngineTest {
+
+  private final RecipeFulfillmentEngine engine = new RecipeFulfillmentEngine();
+
+  private final List<Recipe> recipes = new ArrayList<>();
+  private final List<RecipePosition> positions = new ArrayList<>();
+  private final List<RecipeNesting> nestings = new ArrayList<>();
+  private final List<Product> products = new ArrayList<>();
+  private final List<QuantityUnitConversionResolved> conversions = new ArrayList<>();
+  private final List<StockItem> stockItems = new ArrayList<>();
+  private final List<ShoppingListItem> shoppingListItems = new ArrayList<>();
+  private final List<ProductLastPurchased> productsLastPurchased = new ArrayList<>();
+  private final List<RecipeFulfillment> downloadedFulfillments = new ArrayList<>();
+
+  @Test
+  public void stockAndShoppingList() {
+    recipe(1, 1, 1);
+    position(1, 1, 2);
+    position(1, 2, 1);
+    products(1, 2);
+    stock(1, "2", "4");
+    shoppingListItem(2, "1");
+    lastPurchased(2, "3");
+
+    RecipeFulfillment fulfillment = update().get(1);
+    assertFalse(fulfillment.isNeedFulfilled());
+    assertTrue(fulfillment.isNeedFulfilledWithShoppingList());
+    assertEquals(1, fulfillment.getMissingProductsCount());
+    // 2 x 2 from the stock value, 1 x 3 from the last purchase
+    assertEquals(7, fulfillment.getCosts(), 0.0001);
+    assertEquals(7, fulfillment.getCostsPerServing(), 0.0001);
+    assertEquals("Product 1,Product 2", fulfillment.getProductNamesCommaSeparated());
+  }
+
+  @Test
+  public void shoppingListAmountsRounded() {
+    recipe(1, 1, 1);
+    position(1, 1, 1);
+    products(1);
+    stock(1, "0.333", null);
+    shoppingListItem(1, "0.667");
+    shoppingListItem(null, "5");
+
+    RecipeFulfillment fulfillment = update().get(1);
+    assertFalse(fulfillment.isNeedFulfilled());
+    assertTrue(fulfillment.isNeedFulfilledWithShoppingList());
+  }
+
+  @Test
+  public void desiredServings() {
+    recipe(1, 2, 4);
+    position(1, 1, 1);
+    products(1);
+    products.get(0).setCalories("100");
+    stock(1, "1", "2");
+
+    RecipeFulfillment fulfillment = update().get(1);
+    assertFalse(fulfillment.isNeedFulfilled());
+    assertEquals(4, fulfillment.getCosts(), 0.0001);
+    assertEquals(1, fulfillment.getCostsPerServing(), 0.0001);
+    assertEquals(50, fulfillment.getCalories(), 0.0001);
+  }
+
+  @Test
+  public void nestedRecipes() {
+    recipe(1, 1, 1);
+    recipe(2, 2, 2);
+    recipe(3, 1, 1);
+    position(1, 1, 1);
+    position(2, 2, 2);
+    position(3, 3, 1);
+    nesting(1, 2, 3);
+    nesting(2, 3, 1);
+    products(1, 2, 3);
+    stock(1, "1", null);
+    stock(2, "3", null);
+    stock(3, "1.5", null);
+
+    // 3 servings of recipe 2 with 2 base servings, which includes 1 serving of recipe 3
+    RecipeFulfillment fulfillment = update().get(1);
+    assertTrue(fulfillment.isNeedFulfilled());
+    assertEquals("Product 1,Product 2,Product 3", fulfillment.getProductNamesCommaSeparated());
+
+    stockItems.get(2).setAmountAggregated("1");
+    fulfillment = update().get(1);
+    assertFalse(fulfillment.isNeedFulfilled());
+    assertEquals(1, fulfillment.getMissingProductsCount());
+  }
+
+  @Test
+  public void notCheckedPositions() {
+    recipe(1, 1, 1);
+    RecipePosition notChecked = position(1, 1, 2);
+    notChecked.setNotCheckStockFulfillment(true);
+    RecipePosition singleUnit = position(1, 2, 5);
+    singleUnit.setOnlyCheckSingleUnitInStock(true);
+    products(1, 2);
+    stock(2, "1", null);
+
+    RecipeFulfillment fulfillment = update().get(1);
+    assertTrue(fulfillment.isNeedFulfilled());
+    assertEquals(0, fulfillment.getMissingProductsCount());
+  }
+
+  @Test
+  public void singleUnit_convertedToStockUnit() {
+    recipe(1, 1, 1);
+    RecipePosition singleUnit = position(1, 1, 3);
+    singleUnit.setQuantityUnitId(2);
+    singleUnit.setOnlyCheckSingleUnitInStock(true);
+    products(1, 2);
+    // 1 pack of product 1 are 4 pieces, the other conversions must not be used
+    conversion(1, 1, 2, 4);
+    conversion(2, 1, 2, 2);
+    conversion(1, 2, 1, 0.5);
+    stock(1, "0.2", null);
+
+    // one piece is 0.25 packs, the amount of the ingredient is not checked
+    RecipeFulfillment fulfillment = update().get(1);
+    assertFalse(fulfillment.isNeedFulfilled());
+    assertEquals(1, fulfillment.getMissingProductsCount());
+
+    stockItems.get(0).setAmountAggregated("0.25");
+    fulfillment = update().get(1);
+    assertTrue(fulfillment.isNeedFulfilled());
+    assertEquals(0, fulfillment.getMissingProductsCount());
+  }
+
+  @Test
+  public void singleUnit_withoutConversion() {
+    recipe(1, 1, 1);
+    RecipePosition singleUnit = position(1, 1, 3);
+    singleUnit.setQuantityUnitId(2);
+    singleUnit.setOnlyCheckSingleUnitInStock(true);
+    products(1);
+    conversion(1, 1, 2, 0);
+    stock(1, "0.5", null);
+
+    // without a usable conversion one stock unit is needed
+    RecipeFulfillment fulfillment = update().get(1);
+    assertFalse(fulfillment.isNeedFulfilled());
+
+    stockItems.get(0).setAmountAggregated("1");
+    fulfillment = update().get(1);
+    assertTrue(fulfillment.isNeedFulfilled());
+  }
+
+  @Test
+  public void downloadedFulfillment_dueScoreAndProductNames() {
+    recipe(1, 1, 1);
+    position(1, 1, 1);
+    products(1);
+    RecipeFulfillment downloaded = new RecipeFulfillment();
+    downloaded.setRecipeId(1);
+    downloaded.setDueScore(5);
+    downloaded.setProductNamesCommaSeparated("Server name");
+    downloadedFulfillments.add(downloaded);
+
+    RecipeFulfillment fulfillment = update().get(1);
+    assertEquals(5, fulfillment.getDueScore());
+    assertEquals("Server name", fulfillment.getProductNamesCommaSeparated());
+    assertFalse(fulfillment.isNeedFulfilled());
+  }
+
+  @Test
+  public void stockChanged_onlyAffectedRecipesComputed() {
+    recipe(1, 1, 1);
+    recipe(2, 1, 1);
+    position(1, 1, 1);
+    position(2, 2, 1);
+    products(1, 2);
+    HashMap<Integer, RecipeFulfillment> first = update();
+    assertFalse(first.get(1).isNeedFulfilled());
+
+    stock(1, "1", null);
+    HashMap<Integer, RecipeFulfillment> second = update();
+    assertTrue(second.get(1).isNeedFulfilled());
+    assertNotSame(first.get(1), second.get(1));
+    assertSame(first.get(2), second.get(2));
+    // earlier results are not modified
+    assertFalse(first.get(1).isNeedFulfilled());
+  }
+
+  @Test
+  public void demand() {
+    recipe(1, 1, 2);
+    position(1, 1, 1);
+    RecipePosition singleUnit = position(1, 2, 3);
+    singleUnit.setOnlyCheckSingleUnitInStock(true);
+    products(1, 2, 3);
+    stock(1, "3", "3");
+    stock(2, "1", null);
+    stock(3, "1", null);
+    update();
+
+    Demand demand = new Demand();
+    demand.addRecipe(1, 1);
+    demand.addRecipe(1, 2);
+    demand.addProduct(3, 1);
+    RecipeFulfillment fulfillment = engine.getFulfillment(demand);
+    assertTrue(fulfillment.isNeedFulfilled());
+    // 3 servings, the recipe is flattened for 2 desired servings
+    assertEquals(3, fulfillment.getCosts(), 0.0001);
+    assertEquals("Product 1,Product 2,Product 3", fulfillment.getProductNamesCommaSeparated());
+
+    demand.addProduct(3, 1);
+    fulfillment = engine.getFulfillment(demand);
+    assertFalse(fulfillment.isNeedFulfilled());
+    assertEquals(1, fulfillment.getMissingProductsCount());
+  }
+
+  @Test
+  public void demandVersion_changesWithItsProducts() {
+    recipe(1, 1, 1);
+    position(1, 1, 1);
+    products(1, 2, 3);
+    update();
+
+    Demand demand = new Demand();
+    demand.addRecipe(1, 1);
+    demand.addProduct(2, 1);
+    long version = engine.getVersion(demand);
+
+    stock(3, "1", null);
+    update();
+    assertEquals(version, engine.getVersion(demand));
+
+    stock(1, "1", null);
+    update();
+    long newVersion = engine.getVersion(demand);
+    assertNotEquals(version, newVersion);
+
+    shoppingListItem(2, "1");
+    update();
+    assertNotEquals(newVersion, engine.getVersion(demand));
+  }
+
+  private HashMap<Integer, RecipeFulfillment> update() {
+    return engine.update(
+        recipes,
+        positions,
+        nestings,
+        products,
+        conversions,
+        new ArrayList<>(stockItems),
+        new ArrayList<>(shoppingListItems),
+        new ArrayList<>(productsLastPurchased),
+        new ArrayList<>(downloadedFulfillments)
+    );
+  }
+
+  private void recipe(int id, double baseServings, double desiredServings) {
+    Recipe recipe = new Recipe();
+    recipe.setId(id);
+    recipe.setName("Recipe " + id);
+    recipe.setBaseServings(baseServings);
+    recipe.setDesiredServings(desiredServings);
+    recipes.add(recipe);
+  }
+
+  private RecipePosition position(int recipeId, int productId, double amount) {
+    RecipePosition position = new RecipePosition();
+    position.setId(positions.size() + 1);
+    position.setRecipeId(recipeId);
+    position.setProductId(productId);
+    position.setAmount(amount);
+    position.setPriceFactor(1);
+    positions.add(position);
+    return position;
+  }
+
+  private void nesting(int recipeId, int includesRecipeId, double servings) {
+    RecipeNesting nesting = new RecipeNesting();
+    nesting.setId(nestings.size() + 1);
+    nesting.setRecipeId(recipeId);
+    nesting.setIncludesRecipeId(includesRecipeId);
+    nesting.setServings(servings);
+    nestings.add(nesting);
+  }
+
+  private void products(int... ids) {
+    for (int id : ids) {
+      Product product = new Product();
+      product.setId(id);
+      product.setName("Product " + id);
+      product.setQuIdStock(1);
+      products.add(product);
+    }
+  }
+
+  private void conversion(int productId, int fromQuId, int toQuId, double factor) {
+    QuantityUnitConversionResolved conversion = new QuantityUnitConversionResolved();
+    conversion.setProductId(String.valueOf(productId));
+    conversion.setFromQuId(fromQuId);
+    conversion.setToQuId(toQuId);
+    conversion.setFactor(factor);
+    conversions.add(conversion);
+  }
+
+  private void stock(int productId, String amount, String value) {
+    StockItem stockItem = new StockItem();
+    stockItem.setProductId(productId);
+    stockItem.setAmount(amount);
+    stockItem.setAmountAggregated(amount);
+    stockItem.setValue(value);
+    stockItems.add(stockItem);
+  }
+
+  private void shoppingListItem(Integer productId, String amount) {
+    ShoppingListItem item = new ShoppingListItem();
+    item.setProductId(productId != null ? String.valueOf(productId) : null);
+    item.setAmount(amount);
+    shoppingListItems.add(item);
+  }
+
+  private void lastPurchased(int productId, String price) {
+    ProductLastPurchased lastPurchased = new ProductLastPurchased();
+    lastPurchased.setProductId(productId);
+    lastPurchased.setPrice(price);
+    productsLastPurchased.add(lastPurchased);
+  }
+}
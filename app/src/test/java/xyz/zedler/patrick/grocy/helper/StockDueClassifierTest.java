@@ -0,0 +1,152 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import org.junit.Test;
+import xyz.zedler.patrick.grocy.helper.StockDueClassifier.Result;
+import xyz.zedler.patrick.grocy.model.StockItem;
+import xyz.zedler.patrick.grocy.model.VolatileItem;
+import xyz.zedler.patrick.grocy.util.DateUtil;
+
+public class StockDueClassifierTest {
+
+  private static final long TODAY = 19000;
+
+  private final StockDueClassifier classifier = new StockDueClassifier();
+
+  @Test
+  public void classify_bestBefore() {
+    Result result = update(TODAY, 5,
+        stockItem(1, TODAY - 1, StockItem.DUE_TYPE_BEST_BEFORE),
+        stockItem(2, TODAY, StockItem.DUE_TYPE_BEST_BEFORE),
+        stockItem(3, TODAY + 5, StockItem.DUE_TYPE_BEST_BEFORE),
+        stockItem(4, TODAY + 6, StockItem.DUE_TYPE_BEST_BEFORE),
+        stockItem(5, DateUtil.NO_DATE, StockItem.DUE_TYPE_BEST_BEFORE)
+    );
+    assertEquals(VolatileItem.TYPE_OVERDUE, (int) result.getTypes().get(1));
+    assertEquals(VolatileItem.TYPE_DUE, (int) result.getTypes().get(2));
+    assertEquals(VolatileItem.TYPE_DUE, (int) result.getTypes().get(3));
+    assertNull(result.getTypes().get(4));
+    assertNull(result.getTypes().get(5));
+    assertCounts(result, 2, 1, 0);
+  }
+
+  @Test
+  public void classify_expiration() {
+    Result result = update(TODAY, 5,
+        stockItem(1, TODAY - 1, StockItem.DUE_TYPE_EXPIRATION),
+        stockItem(2, TODAY, StockItem.DUE_TYPE_EXPIRATION),
+        stockItem(3, TODAY + 5, StockItem.DUE_TYPE_EXPIRATION),
+        stockItem(4, TODAY + 6, StockItem.DUE_TYPE_EXPIRATION)
+    );
+    assertEquals(VolatileItem.TYPE_EXPIRED, (int) result.getTypes().get(1));
+    assertEquals(VolatileItem.TYPE_DUE, (int) result.getTypes().get(2));
+    assertEquals(VolatileItem.TYPE_DUE, (int) result.getTypes().get(3));
+    assertNull(result.getTypes().get(4));
+    assertCounts(result, 2, 0, 1);
+  }
+
+  @Test
+  public void dueDateChanged_classifiedAgain() {
+    update(TODAY, 5,
+        stockItem(1, TODAY - 1, StockItem.DUE_TYPE_BEST_BEFORE),
+        stockItem(2, TODAY + 1, StockItem.DUE_TYPE_BEST_BEFORE)
+    );
+    Result result = update(TODAY, 5,
+        stockItem(1, TODAY + 10, StockItem.DUE_TYPE_BEST_BEFORE),
+        stockItem(2, TODAY - 1, StockItem.DUE_TYPE_EXPIRATION)
+    );
+    assertNull(result.getTypes().get(1));
+    assertEquals(VolatileItem.TYPE_EXPIRED, (int) result.getTypes().get(2));
+    assertCounts(result, 0, 0, 1);
+  }
+
+  @Test
+  public void notInStockAnymore_removed() {
+    update(TODAY, 5,
+        stockItem(1, TODAY - 1, StockItem.DUE_TYPE_BEST_BEFORE),
+        stockItem(2, TODAY + 1, StockItem.DUE_TYPE_BEST_BEFORE)
+    );
+    Result result = update(TODAY, 5, stockItem(2, TODAY + 1, StockItem.DUE_TYPE_BEST_BEFORE));
+    assertNull(result.getTypes().get(1));
+    assertEquals(VolatileItem.TYPE_DUE, (int) result.getTypes().get(2));
+    assertCounts(result, 1, 0, 0);
+
+    result = update(TODAY, 5);
+    assertTrue(result.getTypes().isEmpty());
+    assertCounts(result, 0, 0, 0);
+  }
+
+  @Test
+  public void dayChanged_unchangedItemsClassifiedAgain() {
+    StockItem bestBefore = stockItem(1, TODAY, StockItem.DUE_TYPE_BEST_BEFORE);
+    StockItem expiration = stockItem(2, TODAY, StockItem.DUE_TYPE_EXPIRATION);
+    StockItem fresh = stockItem(3, TODAY + 6, StockItem.DUE_TYPE_BEST_BEFORE);
+    assertCounts(update(TODAY, 5, bestBefore, expiration, fresh), 2, 0, 0);
+
+    Result result = update(TODAY + 1, 5, bestBefore, expiration, fresh);
+    assertEquals(VolatileItem.TYPE_OVERDUE, (int) result.getTypes().get(1));
+    assertEquals(VolatileItem.TYPE_EXPIRED, (int) result.getTypes().get(2));
+    assertEquals(VolatileItem.TYPE_DUE, (int) result.getTypes().get(3));
+    assertCounts(result, 1, 1, 1);
+  }
+
+  @Test
+  public void dueSoonDaysChanged_unchangedItemsClassifiedAgain() {
+    StockItem stockItem = stockItem(1, TODAY + 3, StockItem.DUE_TYPE_BEST_BEFORE);
+    assertCounts(update(TODAY, 5, stockItem), 1, 0, 0);
+    Result result = update(TODAY, 2, stockItem);
+    assertTrue(result.getTypes().isEmpty());
+    assertCounts(result, 0, 0, 0);
+  }
+
+  @Test
+  public void result_notModifiedByLaterUpdates() {
+    Result first = update(TODAY, 5, stockItem(1, TODAY, StockItem.DUE_TYPE_BEST_BEFORE));
+    update(TODAY, 5);
+    assertEquals(VolatileItem.TYPE_DUE, (int) first.getTypes().get(1));
+    assertCounts(first, 1, 0, 0);
+  }
+
+  private Result update(long today, int dueSoonDays, StockItem... stockItems) {
+    return classifier.update(new ArrayList<>(Arrays.asList(stockItems)), dueSoonDays, today);
+  }
+
+  private static void assertCounts(Result result, int due, int overdue, int expired) {
+    assertEquals(due, result.getDueCount());
+    assertEquals(overdue, result.getOverdueCount());
+    assertEquals(expired, result.getExpiredCount());
+    assertEquals(due + overdue + expired, result.getNotFreshCount());
+  }
+
+  private static StockItem stockItem(int productId, long dueDate, int dueType) {
+    StockItem stockItem = new StockItem();
+    stockItem.setProductId(productId);
+    stockItem.setBestBeforeDateEpochDay(dueDate);
+    stockItem.setDueType(String.valueOf(dueType));
+    return stockItem;
+  }
+}
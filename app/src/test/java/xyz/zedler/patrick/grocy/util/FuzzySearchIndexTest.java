@@ -0,0 +1,133 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import me.xdrop.fuzzywuzzy.FuzzySearch;
+import org.junit.Test;
+
+public class FuzzySearchIndexTest {
+
+  private static final List<String> NAMES = Arrays.asList(
+      "Milk", "Oat milk", "Butter", "Buttermilk", "Bread", "Whole grain bread", "Tomatoes",
+      "Cherry tomatoes", "Tomato sauce", "Potatoes", "Sweet potatoes", "Apple juice", "Apples",
+      "Orange juice", "Cheese", "Cream cheese", "Eggs", "Pasta", "Rice", "Chocolate"
+  );
+
+  private final FuzzySearchIndex<String> index = new FuzzySearchIndex<>(NAMES, name -> name);
+
+  @Test
+  public void emptyQuery_noResults() {
+    assertTrue(index.search(null, 0).isEmpty());
+    assertTrue(index.search("", 0).isEmpty());
+  }
+
+  @Test
+  public void bestMatchFirst() {
+    assertEquals("Tomatoes", index.search("tomatoes", 70).get(0));
+    assertEquals("Tomatoes", index.search("TOMATOES", 70).get(0));
+    assertEquals("Apple juice", index.search("aple juice", 70).get(0));
+    assertTrue(index.search("xylophone", 70).isEmpty());
+  }
+
+  @Test
+  public void sameScore_listOrder() {
+    FuzzySearchIndex<String> index = new FuzzySearchIndex<>(
+        Arrays.asList("Milk 2", "Bread", "Milk 1", "Milk 3"), name -> name
+    );
+    assertEquals(Arrays.asList("Milk 2", "Milk 1", "Milk 3"), index.search("milk", 80));
+  }
+
+  @Test
+  public void shortQuery_substringsOnly() {
+    List<String> results = index.search("mi", 0);
+    assertEquals(3, results.size());
+    assertTrue(results.containsAll(Arrays.asList("Milk", "Oat milk", "Buttermilk")));
+    assertTrue(index.search("zz", 0).isEmpty());
+  }
+
+  @Test
+  public void sameResultsAsScoringAllNames() {
+    for (String query : new String[]{
+        "milk", "tomato", "potatos", "juice", "cheese", "bred", "choco", "sweet potato"
+    }) {
+      for (int cutoff : new int[]{70, 90}) {
+        assertEquals(query + " " + cutoff, scoreAllNames(query, cutoff),
+            index.search(query, cutoff));
+      }
+    }
+  }
+
+  @Test
+  public void lowCutoff_namesWithoutSharedTrigramNotScored() {
+    // "Pasta" scores 50 for "potatos" without a shared trigram
+    List<String> all = scoreAllNames("potatos", 50);
+    List<String> results = index.search("potatos", 50);
+    assertTrue(all.contains("Pasta"));
+    all.remove("Pasta");
+    assertEquals(all, results);
+  }
+
+  @Test
+  public void manyNames_bestCandidatesScored() {
+    List<String> names = new ArrayList<>();
+    for (int i = 1; i <= 300; i++) {
+      names.add("Apple juice " + i);
+    }
+    names.add("Tomatoes");
+    FuzzySearchIndex<String> index = new FuzzySearchIndex<>(names, name -> name);
+    assertEquals("Apple juice 271", index.search("apple juice 271", 90).get(0));
+    assertEquals(Collections.singletonList("Tomatoes"), index.search("tomatoes", 90));
+  }
+
+  @Test
+  public void nullName_neverFound() {
+    FuzzySearchIndex<String> index = new FuzzySearchIndex<>(
+        Arrays.asList("Milk", null), Function.identity()
+    );
+    assertEquals(Collections.singletonList("Milk"), index.search("milk", 0));
+  }
+
+  private static List<String> scoreAllNames(String query, int cutoff) {
+    List<String> results = new ArrayList<>();
+    List<Integer> scores = new ArrayList<>();
+    for (String name : NAMES) {
+      int score = FuzzySearch.weightedRatio(query.toLowerCase(), name.toLowerCase());
+      if (score < cutoff) {
+        continue;
+      }
+      // stable, so names with the same score keep the order of the list
+      int position = 0;
+      while (position < scores.size() && scores.get(position) >= score) {
+        position++;
+      }
+      results.add(position, name);
+      scores.add(position, score);
+    }
+    return results;
+  }
+}
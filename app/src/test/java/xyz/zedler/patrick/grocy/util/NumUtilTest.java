@@ -0,0 +1,175 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.text.DecimalFormat;
+import java.util.Locale;
+import org.junit.Test;
+
+public class NumUtilTest {
+
+  private static final int ITERATIONS = 10000;
+
+  @Test
+  public void isStringDouble_acceptsNumbers() {
+    for (String s : new String[]{
+        "0", "1", "-2", "+3", "1.5", "1,5", ".5", ",5", "5.", "-0.25", "1e3", "1E-3", " 1 ",
+        "12345678901234567890.5", "Infinity", "-Infinity", "0x1p3", "1d", "2f"
+    }) {
+      assertTrue(s, NumUtil.isStringDouble(s));
+    }
+  }
+
+  @Test
+  public void isStringDouble_acceptsInvalidNumbersLikeBefore() {
+    // toDouble returns -1 for these, which has never been rejected
+    for (String s : new String[]{
+        "abc", "-", "+", ".", ",", " ", "1.2.3", "1,000,5", "1 000", "1-", "e3", "--1", "nan"
+    }) {
+      assertTrue(s, NumUtil.isStringDouble(s));
+    }
+  }
+
+  @Test
+  public void isStringDouble_rejectsEmptyAndNaN() {
+    for (String s : new String[]{null, "", "NaN", "-NaN", "+NaN", " NaN "}) {
+      assertFalse(String.valueOf(s), NumUtil.isStringDouble(s));
+    }
+  }
+
+  @Test
+  public void toDouble() {
+    assertEquals(1.5, NumUtil.toDouble("1.5"), 0);
+    assertEquals(1.5, NumUtil.toDouble("1,5"), 0);
+    assertEquals(-0.25, NumUtil.toDouble("-0.25"), 0);
+    assertEquals(0.1, NumUtil.toDouble("0.1"), 0);
+    assertEquals(1000, NumUtil.toDouble("1e3"), 0);
+    assertEquals(2, NumUtil.toDouble(" 2 "), 0);
+    assertEquals(12345678901234567890.5, NumUtil.toDouble("12345678901234567890.5"), 0);
+    assertEquals(Double.POSITIVE_INFINITY, NumUtil.toDouble("Infinity"), 0);
+    assertEquals(-1, NumUtil.toDouble("abc"), 0);
+    assertEquals(-1, NumUtil.toDouble("1.2.3"), 0);
+    assertEquals(-1, NumUtil.toDouble(""), 0);
+    assertEquals(-1, NumUtil.toDouble(null), 0);
+    assertTrue(Double.isNaN(NumUtil.toDouble("NaN")));
+  }
+
+  @Test
+  public void toDouble_sameAsParseDouble() {
+    for (String s : new String[]{
+        "0.3", "123.456", "9007199254740993", "0.000001", "999999999999999.9", "1,0000000001",
+        "-7.77", "4.35", "100", "0.1234567890123456789"
+    }) {
+      assertEquals(s, Double.parseDouble(s.replace(",", ".")), NumUtil.toDouble(s), 0);
+    }
+  }
+
+  @Test
+  public void isStringInt() {
+    for (String s : new String[]{"0", "12", "-12", "+12", "2147483647", "-2147483648"}) {
+      assertTrue(s, NumUtil.isStringInt(s));
+    }
+    for (String s : new String[]{
+        null, "", "-", "+", "1.5", "1,5", " 1", "1e3", "2147483648", "-2147483649", "abc"
+    }) {
+      assertFalse(String.valueOf(s), NumUtil.isStringInt(s));
+    }
+  }
+
+  @Test
+  public void getDecimalPlacesCount() {
+    assertEquals(0, NumUtil.getDecimalPlacesCount("2"));
+    assertEquals(0, NumUtil.getDecimalPlacesCount("2.0"));
+    assertEquals(2, NumUtil.getDecimalPlacesCount("2,25"));
+    assertEquals(3, NumUtil.getDecimalPlacesCount("-0.125"));
+    assertEquals(0, NumUtil.getDecimalPlacesCount("abc"));
+    assertEquals(0, NumUtil.getDecimalPlacesCount(null));
+  }
+
+  @Test
+  public void trimAmountAndPrice() {
+    Locale defaultLocale = Locale.getDefault();
+    try {
+      for (Locale locale : new Locale[]{Locale.ENGLISH, Locale.GERMANY}) {
+        Locale.setDefault(locale);
+        assertEquals("2", NumUtil.trimAmount(2, 2));
+        assertEquals("2.5", NumUtil.trimAmount(2.5, 2));
+        assertEquals("0.33", NumUtil.trimAmount(1 / 3d, 2));
+        assertEquals("-0", NumUtil.trimAmount(-0d, 2));
+        assertEquals("2.50", NumUtil.trimPrice(2.5, 2));
+        assertEquals("2", NumUtil.trimPrice(2.5, 0));
+        assertEquals("4", NumUtil.trimPrice(3.5, 0));
+      }
+    } finally {
+      Locale.setDefault(defaultLocale);
+    }
+  }
+
+  @Test
+  public void parseDouble_withoutAllocations() {
+    // strings like "1.2.3" still are parsed by Double.parseDouble, they are rare
+    String[] strings = new String[]{"123.456", "-7,77", "0.1", "12", "abc", "-", ""};
+    long allocated = getAllocatedBytes(() -> {
+      for (String s : strings) {
+        NumUtil.parseDouble(s);
+      }
+    });
+    // neither boxing nor an exception for every invalid number
+    assertTrue(allocated + " bytes", allocated < ITERATIONS);
+  }
+
+  @Test
+  public void trimAmountAndPrice_reuseFormats() {
+    long allocatedNewFormats = getAllocatedBytes(
+        () -> new DecimalFormat("###0.##").format(1 / 3d)
+    );
+    long allocated = getAllocatedBytes(() -> {
+      NumUtil.trimAmount(1 / 3d, 2);
+      NumUtil.trimPrice(2.5, 2);
+    });
+    // formatting allocates some strings, but the formats are not created again
+    assertTrue(allocated + " of " + allocatedNewFormats + " bytes",
+        allocated * 2 < allocatedNewFormats);
+  }
+
+  private static long getAllocatedBytes(Runnable runnable) {
+    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+    com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+    assumeTrue(sunBean.isThreadAllocatedMemorySupported());
+    sunBean.setThreadAllocatedMemoryEnabled(true);
+    long threadId = Thread.currentThread().getId();
+    for (int i = 0; i < ITERATIONS; i++) {
+      runnable.run();  // warm up
+    }
+    long before = sunBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < ITERATIONS; i++) {
+      runnable.run();
+    }
+    return sunBean.getThreadAllocatedBytes(threadId) - before;
+  }
+}
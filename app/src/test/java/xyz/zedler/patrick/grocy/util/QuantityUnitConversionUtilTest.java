@@ -0,0 +1,156 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.Test;
+import xyz.zedler.patrick.grocy.model.Product;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversion;
+import xyz.zedler.patrick.grocy.model.QuantityUnitConversionResolved;
+
+public class QuantityUnitConversionUtilTest {
+
+  private static final int PACK = 1;
+  private static final int BOTTLE = 2;
+  private static final int ML = 3;
+  private static final int PIECE = 4;
+
+  private final List<Product> products = new ArrayList<>();
+  private final List<QuantityUnitConversion> conversions = new ArrayList<>();
+
+  @Test
+  public void resolveConversions_chained() {
+    product(1, PACK, PACK, null);
+    conversion(1, PACK, BOTTLE, 6);
+    conversion(null, BOTTLE, ML, 500);
+
+    List<QuantityUnitConversionResolved> resolved = resolve();
+    assertFactor(resolved, 1, PACK, PACK, 1);
+    assertFactor(resolved, 1, PACK, BOTTLE, 6);
+    assertFactor(resolved, 1, PACK, ML, 3000);
+    assertFactor(resolved, 1, ML, PACK, 1 / 3000d);
+    assertFactor(resolved, 1, ML, BOTTLE, 1 / 500d);
+    // the unit is not reachable from the stock unit
+    conversion(null, PIECE, PIECE, 1);
+    assertNull(find(resolve(), 1, PIECE, PIECE));
+  }
+
+  @Test
+  public void resolveConversions_productOverridesDefault() {
+    product(1, PACK, PACK, null);
+    product(2, PACK, PACK, null);
+    conversion(null, PACK, BOTTLE, 10);
+    conversion(1, PACK, BOTTLE, 12);
+
+    List<QuantityUnitConversionResolved> resolved = resolve();
+    assertFactor(resolved, 1, PACK, BOTTLE, 12);
+    // the inverse of a product conversion also beats the direct default conversion
+    assertFactor(resolved, 1, BOTTLE, PACK, 1 / 12d);
+    assertFactor(resolved, 2, PACK, BOTTLE, 10);
+    assertFactor(resolved, 2, BOTTLE, PACK, 0.1);
+  }
+
+  @Test
+  public void resolveConversions_cycle() {
+    product(1, PACK, PACK, null);
+    conversion(null, PACK, BOTTLE, 2);
+    conversion(null, BOTTLE, ML, 3);
+    conversion(null, ML, PACK, 5);
+
+    List<QuantityUnitConversionResolved> resolved = resolve();
+    // every pair of the 3 units exactly once, including the 1:1 conversions
+    assertEquals(9, resolved.size());
+    HashSet<String> pairs = new HashSet<>();
+    for (QuantityUnitConversionResolved conversion : resolved) {
+      pairs.add(conversion.getFromQuId() + "/" + conversion.getToQuId());
+    }
+    assertEquals(9, pairs.size());
+    // the direct inverse is shorter than the path over the bottle
+    assertFactor(resolved, 1, PACK, ML, 0.2);
+    assertFactor(resolved, 1, PACK, BOTTLE, 2);
+  }
+
+  @Test
+  public void resolveConversions_purchaseToStock() {
+    product(1, PIECE, PACK, "12");
+    conversion(null, PACK, PIECE, 10);
+
+    List<QuantityUnitConversionResolved> resolved = resolve();
+    // the factor of the product beats the default conversion
+    assertFactor(resolved, 1, PACK, PIECE, 12);
+    assertFactor(resolved, 1, PIECE, PACK, 1 / 12d);
+    assertFactor(resolved, 1, PIECE, PIECE, 1);
+  }
+
+  private List<QuantityUnitConversionResolved> resolve() {
+    return QuantityUnitConversionUtil.resolveConversions(products, conversions);
+  }
+
+  private void product(int id, int quIdStock, int quIdPurchase, String factorPurchaseToStock) {
+    Product product = new Product();
+    product.setId(id);
+    product.setQuIdStock(quIdStock);
+    product.setQuIdPurchase(quIdPurchase);
+    product.setQuFactorPurchaseToStock(factorPurchaseToStock);
+    products.add(product);
+  }
+
+  private void conversion(Integer productId, int fromQuId, int toQuId, double factor) {
+    QuantityUnitConversion conversion = new QuantityUnitConversion();
+    conversion.setProductId(productId != null ? String.valueOf(productId) : null);
+    conversion.setFromQuId(fromQuId);
+    conversion.setToQuId(toQuId);
+    conversion.setFactor(factor);
+    conversions.add(conversion);
+  }
+
+  private static QuantityUnitConversionResolved find(
+      List<QuantityUnitConversionResolved> resolved,
+      int productId,
+      int fromQuId,
+      int toQuId
+  ) {
+    for (QuantityUnitConversionResolved conversion : resolved) {
+      if (conversion.getProductId().equals(String.valueOf(productId))
+          && conversion.getFromQuId() == fromQuId && conversion.getToQuId() == toQuId) {
+        return conversion;
+      }
+    }
+    return null;
+  }
+
+  private static void assertFactor(
+      List<QuantityUnitConversionResolved> resolved,
+      int productId,
+      int fromQuId,
+      int toQuId,
+      double factor
+  ) {
+    QuantityUnitConversionResolved conversion = find(resolved, productId, fromQuId, toQuId);
+    assertNotNull(conversion);
+    assertEquals(factor, conversion.getFactor(), 0.000001);
+  }
+}
@@ -0,0 +1,212 @@
+/*
+ * This file is part of Grocy Android.
+ *
+ * Grocy Android is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Grocy Android is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Grocy Android. If not, see http://www.gnu.org/licenses/.
+ *
+ * Copyright (c) 2020-2023 by Patrick Zedler and Dominic Zedler
+ */
+
+package xyz.zedler.patrick.grocy.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.junit.Test;
+import xyz.zedler.patrick.grocy.api.GrocyApi.ENTITY;
+import xyz.zedler.patrick.grocy.model.StockItem;
+import xyz.zedler.patrick.grocy.model.UserfieldValue;
+
+public class SortUtilTest {
+
+  private static final String FIELD = "field";
+
+  @Test
+  public void sortByUserfieldValue_missingValuesLastInBothDirections() {
+    HashMap<Integer, Integer> ranks = getRanks(value(1, "b"), value(2, "a"));
+
+    List<StockItem> stockItems = getStockItems(3, 1, 2);
+    SortUtil.sortStockItemsByUserfieldValue(stockItems, ranks, true);
+    assertEquals(Arrays.asList(2, 1, 3), getProductIds(stockItems));
+
+    SortUtil.sortStockItemsByUserfieldValue(stockItems, ranks, false);
+    assertEquals(Arrays.asList(1, 2, 3), getProductIds(stockItems));
+  }
+
+  @Test
+  public void sortByUserfieldValue_withoutRanks_keepsOrder() {
+    List<StockItem> stockItems = getStockItems(3, 1, 2);
+    SortUtil.sortStockItemsByUserfieldValue(stockItems, null, true);
+    assertEquals(Arrays.asList(3, 1, 2), getProductIds(stockItems));
+  }
+
+  @Test
+  public void sortByUserfieldValue_numbersByValue() {
+    // texts without number follow the numbers
+    HashMap<Integer, Integer> ranks = getRanks(
+        value(4, "abc"), value(1, "-2"), value(2, "9"), value(3, "10")
+    );
+
+    List<StockItem> stockItems = getStockItems(5, 4, 3, 2, 1);
+    SortUtil.sortStockItemsByUserfieldValue(stockItems, ranks, true);
+    assertEquals(Arrays.asList(1, 2, 3, 4, 5), getProductIds(stockItems));
+
+    SortUtil.sortStockItemsByUserfieldValue(stockItems, ranks, false);
+    assertEquals(Arrays.asList(4, 3, 2, 1, 5), getProductIds(stockItems));
+  }
+
+  @Test
+  public void sortByUserfieldValue_checkboxes() {
+    HashMap<Integer, Integer> ranks = getRanks(value(1, "0"), value(3, "0"), value(2, "1"));
+
+    List<StockItem> stockItems = getStockItems(4, 2, 3, 1);
+    SortUtil.sortStockItemsByUserfieldValue(stockItems, ranks, false);
+    // equal values keep their order
+    assertEquals(Arrays.asList(2, 3, 1, 4), getProductIds(stockItems));
+  }
+
+  @Test
+  public void sortByUserfieldValue_datesChronologically() {
+    HashMap<Integer, Integer> ranks = getRanks(value(3, "2023-11-01 00:00:00"),
+        value(2, "2023-01-02 10:00:00"), value(1, "2023-01-02 08:00:00"));
+
+    List<StockItem> stockItems = getStockItems(3, 2, 1);
+    SortUtil.sortStockItemsByUserfieldValue(stockItems, ranks, true);
+    assertEquals(Arrays.asList(1, 2, 3), getProductIds(stockItems));
+  }
+
+  @Test
+  public void sortByUserfieldValue_textsWithCollator() {
+    // the collator puts lower case and accents in between
+    HashMap<Integer, Integer> ranks = getRanks(
+        value(1, "Banana"), value(2, "Zucchini"), value(3, "apple"), value(4, "\u0107evapi")
+    );
+
+    List<StockItem> stockItems = getStockItems(1, 2, 3, 4);
+    SortUtil.sortStockItemsByUserfieldValue(stockItems, ranks, true);
+    assertEquals(Arrays.asList(3, 1, 4, 2), getProductIds(stockItems));
+  }
+
+  @Test
+  public void sortRanks_equalValuesShareRank() {
+    HashMap<Integer, Integer> ranks = getRanks(value(1, "1"), value(2, "1.0"), value(3, "2"));
+    assertEquals(ranks.get(1), ranks.get(2));
+    assertEquals(Integer.valueOf(1), ranks.get(3));
+  }
+
+  @Test
+  public void sortRanks_negativeAndDecimalNumbers() {
+    HashMap<Integer, Integer> ranks = getRanks(value(1, "0.5"), value(2, "-10"), value(3, "-0"),
+        value(4, "0"), value(5, "-1.5"), value(6, "1000"));
+    assertEquals(Integer.valueOf(0), ranks.get(2));
+    assertEquals(Integer.valueOf(1), ranks.get(5));
+    assertEquals(Integer.valueOf(2), ranks.get(3));
+    assertEquals(Integer.valueOf(2), ranks.get(4));
+    assertEquals(Integer.valueOf(3), ranks.get(1));
+    assertEquals(Integer.valueOf(4), ranks.get(6));
+  }
+
+  @Test
+  public void sortByCollationKeys_collatorOrder() {
+    List<String> names = new ArrayList<>(
+        Arrays.asList("Zucchini", "apple", "\u0107evapi", "Banana")
+    );
+    SortUtil.sortByCollationKeys(names, name -> name, true, true, Locale.ENGLISH);
+    assertEquals(Arrays.asList("apple", "Banana", "\u0107evapi", "Zucchini"), names);
+    SortUtil.sortByCollationKeys(names, name -> name, true, false, Locale.ENGLISH);
+    assertEquals(Arrays.asList("Zucchini", "\u0107evapi", "Banana", "apple"), names);
+  }
+
+  @Test
+  public void sortByCollationKeys_lowerCaseEqualNamesKeepOrder() {
+    List<String> names = new ArrayList<>(Arrays.asList("b", "A", "a", "B"));
+    SortUtil.sortByCollationKeys(names, name -> name, true, true, Locale.ENGLISH);
+    assertEquals(Arrays.asList("A", "a", "b", "B"), names);
+    SortUtil.sortByCollationKeys(names, name -> name, false, true, Locale.ENGLISH);
+    assertEquals(Arrays.asList("a", "A", "b", "B"), names);
+  }
+
+  @Test
+  public void sortByCollationKeys_withoutTextFirstInAscendingOrder() {
+    List<String> names = new ArrayList<>(Arrays.asList("b", null, "a"));
+    SortUtil.sortByCollationKeys(names, name -> name, true, true, Locale.ENGLISH);
+    assertEquals(Arrays.asList(null, "a", "b"), names);
+    SortUtil.sortByCollationKeys(names, name -> name, true, false, Locale.ENGLISH);
+    assertEquals(Arrays.asList("b", "a", null), names);
+  }
+
+  @Test
+  public void sortByCollationKeys_localeChanged() {
+    List<String> names = new ArrayList<>(Arrays.asList("\u00e4pple", "zebra", "apple"));
+    SortUtil.sortByCollationKeys(names, name -> name, true, true, Locale.GERMAN);
+    assertEquals(Arrays.asList("apple", "\u00e4pple", "zebra"), names);
+    // in Swedish, \u00e4 is a letter after z
+    SortUtil.sortByCollationKeys(names, name -> name, true, true, new Locale("sv"));
+    assertEquals(Arrays.asList("apple", "zebra", "\u00e4pple"), names);
+  }
+
+  private static UserfieldValue value(int productId, String value) {
+    Map<String, String> userfields = Collections.singletonMap(FIELD, value);
+    return UserfieldValue.getUserfieldValues(
+        ENTITY.PRODUCTS,
+        Collections.singletonList(productId),
+        id -> id,
+        id -> userfields,
+        Collator.getInstance(Locale.ENGLISH)
+    ).get(0);
+  }
+
+  /**
+   * Orders the rows like SQLite orders blobs in the index of the DAO query.
+   */
+  private static HashMap<Integer, Integer> getRanks(UserfieldValue... values) {
+    List<UserfieldValue> sortedValues = new ArrayList<>(Arrays.asList(values));
+    sortedValues.sort((value1, value2) -> compareBlobs(value1.getSortKey(), value2.getSortKey()));
+    return UserfieldValue.getSortRanksHashMap(sortedValues).get(FIELD);
+  }
+
+  private static int compareBlobs(byte[] blob1, byte[] blob2) {
+    for (int i = 0; i < Math.min(blob1.length, blob2.length); i++) {
+      int difference = (blob1[i] & 0xff) - (blob2[i] & 0xff);
+      if (difference != 0) {
+        return difference;
+      }
+    }
+    return blob1.length - blob2.length;
+  }
+
+  private static List<StockItem> getStockItems(int... productIds) {
+    List<StockItem> stockItems = new ArrayList<>();
+    for (int productId : productIds) {
+      StockItem stockItem = new StockItem();
+      stockItem.setProductId(productId);
+      stockItems.add(stockItem);
+    }
+    return stockItems;
+  }
+
+  private static List<Integer> getProductIds(List<StockItem> stockItems) {
+    List<Integer> productIds = new ArrayList<>();
+    for (StockItem stockItem : stockItems) {
+      productIds.add(stockItem.getProductId());
+    }
+    return productIds;
+  }
+}